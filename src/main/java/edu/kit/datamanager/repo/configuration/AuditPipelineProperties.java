@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.configuration;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration of the asynchronous audit pipeline. If enabled, snapshots of
+ * modified entities are taken within the write transaction, queued after the
+ * transaction has been committed and committed to the Javers repository in
+ * batches by a dedicated thread.
+ */
+@ConfigurationProperties(prefix = "repo.audit.pipeline")
+@Component
+@Data
+@Validated
+public class AuditPipelineProperties {
+
+  /**
+   * Whether audit information is committed asynchronously or not. If
+   * disabled, Javers commits are executed within the write transaction.
+   */
+  private boolean async = false;
+
+  /**
+   * The max. number of snapshots waiting for being committed. If the queue
+   * is full, writers are blocked until the worker has made progress.
+   */
+  @Min(1)
+  private int queueCapacity = 10000;
+
+  /**
+   * The max. number of snapshots committed within one transaction.
+   */
+  @Min(1)
+  private int batchSize = 100;
+
+  /**
+   * The max. time to wait for pending snapshots of an entity before its
+   * audit information is read.
+   */
+  @NotNull
+  private Duration flushTimeout = Duration.ofSeconds(10);
+
+  /**
+   * Path of the journal file storing queued snapshots until they are
+   * committed. Snapshots found in the journal at startup are committed
+   * again. If empty, no journal is written and queued snapshots are lost if
+   * the service terminates unexpectedly.
+   */
+  private String journal = "";
+
+  /**
+   * Whether the journal is synced to disk after each snapshot. This
+   * guarantees durability on power loss at the cost of write latency.
+   */
+  private boolean journalSync = false;
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.configuration;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration of the audit compaction, which periodically removes old
+ * snapshots of data resources and content information from the Javers
+ * repository according to a retention policy. Snapshots of FIXED resources
+ * and their content are never removed.
+ */
+@ConfigurationProperties(prefix = "repo.audit.retention")
+@Component
+@Data
+@Validated
+public class AuditRetentionProperties {
+
+  /**
+   * Whether the audit compaction runs periodically or not.
+   */
+  private boolean enabled = false;
+
+  /**
+   * The delay between two compaction runs.
+   */
+  @NotNull
+  private Duration interval = Duration.ofDays(1);
+
+  /**
+   * The number of most recent versions of each entity that are always kept.
+   */
+  @Min(1)
+  private int keepLastVersions = 10;
+
+  /**
+   * The period in which all versions are kept.
+   */
+  @NotNull
+  private Duration retainAllFor = Duration.ofDays(30);
+
+  /**
+   * Versions older than retainAllFor are thinned out to the most recent
+   * version per interval. If zero, all of these versions are removed.
+   */
+  @NotNull
+  private Duration thinningInterval = Duration.ofDays(7);
+
+  /**
+   * The max. number of entities compacted within one transaction.
+   */
+  @Min(1)
+  @Max(500)
+  private int chunkSize = 100;
+
+  /**
+   * The number of data resources with most versions used to measure the
+   * latency of audit queries before and after the compaction. If 0, the
+   * latency is not measured.
+   */
+  @Min(0)
+  private int latencySamples = 20;
+
+  /**
+   * The prefix of the Javers tables, which must match
+   * javers.sqlTableNamePrefix. If javers.sqlSchema is set, the schema must be
+   * included, e.g. 'audit.jv_'.
+   */
+  @NotNull
+  private String tablePrefix = "jv_";
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.configuration;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration of the in-memory caches of the repository. Caches are local
+ * to a single instance, thus, in deployments with multiple instances sharing
+ * one database, changes made by other instances become visible after
+ * expireAfterWrite at the latest. As cached resources are used for
+ * authorization decisions, caching must only be enabled for single instance
+ * deployments.
+ */
+@ConfigurationProperties(prefix = "repo.cache")
+@Component
+@Data
+@Validated
+public class CacheProperties {
+
+  /**
+   * Whether data resources and identifier mappings are cached or not.
+   */
+  private boolean enabled = false;
+
+  /**
+   * The max. number of cached data resources.
+   */
+  @Min(1)
+  private long maximumSize = 10000;
+
+  /**
+   * The max. number of cached mappings from alternate identifiers to
+   * resource ids.
+   */
+  @Min(1)
+  private long identifierMaximumSize = 100000;
+
+  /**
+   * The time after which cached entries expire.
+   */
+  @NotNull
+  private Duration expireAfterWrite = Duration.ofMinutes(1);
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.configuration;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration of chunked uploads. Parts of a chunked upload are stored in a
+ * staging folder until the upload is completed and the assembled content is
+ * registered as content information.
+ */
+@ConfigurationProperties(prefix = "repo.upload")
+@Component
+@Data
+@Validated
+public class ChunkedUploadProperties {
+
+  /**
+   * The folder parts are stored in. Relative paths are resolved against the
+   * base path of the repository, which must be a file URL in that case.
+   */
+  @NotBlank
+  private String stagingFolder = ".staging";
+
+  /**
+   * The time after the last activity an upload session expires. Parts of
+   * expired sessions are removed.
+   */
+  @NotNull
+  private Duration sessionTimeout = Duration.ofHours(24);
+
+  /**
+   * The interval expired sessions are removed in.
+   */
+  @NotNull
+  private Duration cleanupInterval = Duration.ofHours(1);
+
+  /**
+   * The max. number of parts of one upload session.
+   */
+  @Min(1)
+  @Max(100000)
+  private int maxParts = 10000;
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.configuration;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration of the transfer of file content from and to the repository.
+ */
+@ConfigurationProperties(prefix = "repo.transfer")
+@Component
+@Data
+@Validated
+public class ContentTransferProperties {
+
+  /**
+   * Supported modes for providing local file content to clients.
+   */
+  public enum DOWNLOAD_MODE {
+    /**
+     * Delegate reading to the versioning service, which copies the content
+     * through the output stream of the response.
+     */
+    STREAM,
+    /**
+     * Read local files via FileChannel using positioned reads and a large
+     * transfer buffer. If the destination is a file, FileChannel.transferTo is
+     * used.
+     */
+    CHANNEL,
+    /**
+     * Hand over the file to the servlet container (e.g. Tomcat sendfile) for a
+     * zero-copy transfer. If the container does not support this, CHANNEL mode
+     * is used.
+     */
+    SENDFILE
+  }
+
+  /**
+   * The mode used to provide local file content.
+   */
+  private DOWNLOAD_MODE downloadMode = DOWNLOAD_MODE.CHANNEL;
+
+  /**
+   * The size of the buffer in bytes used for copying file content if no
+   * zero-copy transfer is possible.
+   */
+  @Min(8192)
+  private int bufferSize = 1024 * 1024;
+
+  /**
+   * The size of the buffer in bytes used for writing uploaded content.
+   */
+  @Min(8192)
+  private int uploadBufferSize = 1024 * 1024;
+
+  /**
+   * The max. number of bytes at the beginning of an upload used for media type
+   * detection.
+   */
+  @Min(0)
+  private int mediaTypeSampleSize = 64 * 1024;
+
+  /**
+   * The checksum algorithms computed for uploaded content, e.g. SHA1, SHA-256,
+   * MD5, CRC32C. The first algorithm is the primary one, whose result is
+   * stored as hash of the content information.
+   */
+  @NotEmpty
+  private List<String> checksumAlgorithms = new ArrayList<>(List.of("SHA1"));
+
+  /**
+   * Compute all but the primary checksum on separate threads.
+   */
+  private boolean parallelChecksums = true;
+
+  /**
+   * The max. number of chunks queued per checksum algorithm during parallel
+   * checksum computation.
+   */
+  @Min(1)
+  private int checksumQueueSize = 4;
+
+  /**
+   * The number of threads used for compressing collection downloads.
+   */
+  @Min(1)
+  private int archiveThreads = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The size of the blocks in bytes collection entries are split into for
+   * parallel compression.
+   */
+  @Min(64 * 1024)
+  private int archiveBlockSize = 1024 * 1024;
+
+  /**
+   * The deflate compression level (1-9) used for collection downloads or -1
+   * for the default level.
+   */
+  @Min(-1)
+  @Max(9)
+  private int archiveCompressionLevel = -1;
+
+  /**
+   * The zstd compression level (1-22) used for tar.zst collection downloads.
+   */
+  @Min(1)
+  @Max(22)
+  private int archiveZstdCompressionLevel = 3;
+
+  /**
+   * Media types of content which is already compressed and is therefore added
+   * to collection downloads without compression. Wildcards like 'video/*' are
+   * supported.
+   */
+  private List<String> incompressibleMediaTypes = new ArrayList<>(List.of(
+          "image/jpeg", "image/png", "image/gif", "image/webp", "image/jp2",
+          "video/*", "audio/*",
+          "application/zip", "application/gzip", "application/x-gzip", "application/x-bzip2",
+          "application/x-xz", "application/zstd", "application/x-7z-compressed", "application/x-rar-compressed",
+          "application/vnd.rar", "application/x-hdf5", "application/x-hdf"));
+
+  /**
+   * The number of content information entries loaded per query while
+   * streaming collection downloads.
+   */
+  @Min(1)
+  private int collectionPageSize = 1000;
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.configuration;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration of the asynchronous publisher of AMQP messages. Messages are
+ * queued after the surrounding transaction has been committed and are
+ * published in batches by a dedicated thread.
+ */
+@ConfigurationProperties(prefix = "repo.messaging.publisher")
+@Component
+@Data
+@Validated
+public class MessagingPublisherProperties {
+
+  /**
+   * Policies applied if the queue of the publisher is full.
+   */
+  public enum BACKPRESSURE_POLICY {
+    /**
+     * Wait up to blockTimeout for free space in the queue. Afterwards, the
+     * message is preserved in the database for later submission.
+     */
+    BLOCK,
+    /**
+     * Publish the message synchronously in the calling thread.
+     */
+    CALLER_RUNS,
+    /**
+     * Preserve the message in the database for later submission.
+     */
+    PRESERVE
+  }
+
+  /**
+   * Whether messages are published asynchronously or not. If disabled,
+   * messages are published in the calling thread.
+   */
+  private boolean async = true;
+
+  /**
+   * The max. number of messages waiting for publication.
+   */
+  @Min(1)
+  private int queueCapacity = 10000;
+
+  /**
+   * The max. number of messages published at once.
+   */
+  @Min(1)
+  private int batchSize = 100;
+
+  /**
+   * Whether to wait for publisher confirms of the broker after each batch.
+   * This requires spring.rabbitmq.publisher-confirm-type=simple.
+   */
+  private boolean publisherConfirms = true;
+
+  /**
+   * The max. time to wait for publisher confirms of a batch.
+   */
+  @NotNull
+  private Duration confirmTimeout = Duration.ofSeconds(5);
+
+  /**
+   * The policy applied if the queue is full.
+   */
+  @NotNull
+  private BACKPRESSURE_POLICY backpressurePolicy = BACKPRESSURE_POLICY.BLOCK;
+
+  /**
+   * The max. time to wait for free space in the queue using policy BLOCK.
+   */
+  @NotNull
+  private Duration blockTimeout = Duration.ofSeconds(1);
+
+  /**
+   * Whether messages are written to the outbox table in the same transaction
+   * as the related entity change and published by the outbox relay. If
+   * enabled, the queue of the publisher is bypassed. The outbox is disabled
+   * by default, as existing installations have to widen the message column
+   * of the outbox table before enabling it.
+   */
+  private boolean outbox = false;
+
+  /**
+   * The delay between two runs of the outbox relay.
+   */
+  @NotNull
+  private Duration relayInterval = Duration.ofSeconds(1);
+
+  /**
+   * The max. number of messages read from the outbox table and published at
+   * once by the relay.
+   */
+  @Min(1)
+  private int relayBatchSize = 500;
+
+  /**
+   * The delay before publishing is retried after the first failure. The
+   * delay is doubled for each consecutive failure up to maxBackoff.
+   */
+  @NotNull
+  private Duration initialBackoff = Duration.ofSeconds(1);
+
+  /**
+   * The max. delay before publishing is retried.
+   */
+  @NotNull
+  private Duration maxBackoff = Duration.ofMinutes(5);
+}
@@ -15,6 +15,10 @@
  */
 package edu.kit.datamanager.repo.configuration;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -30,6 +34,23 @@ import org.springframework.validation.annotation.Validated;
 @Validated
 @EnableScheduling
 public class MonitoringConfiguration {
+
+  /**
+   * Supported modes for counting unique users.
+   */
+  public enum UNIQUE_USERS_MODE {
+    /**
+     * Store the hash of each IP address with its last visit and count the
+     * stored hashes.
+     */
+    EXACT,
+    /**
+     * Add the hash of each IP address to a HyperLogLog sketch per day and
+     * estimate the number of unique users by merging the sketches of the
+     * last noOfDaysToKeep days. No IP hashes are stored.
+     */
+    SKETCH
+  }
   /**
    * Whether the monitoring is enabled or not. If set to false, no
    * monitoring metrics will be provided.
@@ -45,4 +66,39 @@ public class MonitoringConfiguration {
    * The number of days to keep the hash of the ips.
    */
   private int noOfDaysToKeep = 28; // 4 weeks
+
+  /**
+   * The mode used to count unique users.
+   */
+  @NotNull
+  private UNIQUE_USERS_MODE uniqueUsersMode = UNIQUE_USERS_MODE.EXACT;
+
+  /**
+   * The precision of HyperLogLog sketches in SKETCH mode. Each sketch uses
+   * 2^precision registers and has a standard error of about
+   * 1.04/sqrt(2^precision), e.g. 0.8% for the default of 14.
+   */
+  @Min(4)
+  @Max(16)
+  private int sketchPrecision = 14;
+
+  /**
+   * The interval in which registered IP hashes are written to the database.
+   */
+  @NotNull
+  private Duration ipFlushInterval = Duration.ofSeconds(5);
+
+  /**
+   * The max. number of IP hashes waiting to be written to the database.
+   * Further IP hashes are dropped until the next flush.
+   */
+  @Min(1)
+  private int ipMaxPending = 100000;
+
+  /**
+   * The interval in which aggregated values, e.g. the number of registered
+   * users, are recomputed for metrics and health information.
+   */
+  @NotNull
+  private Duration snapshotInterval = Duration.ofMinutes(1);
 }
@@ -58,6 +58,13 @@ public class RepoBaseConfiguration {
    * @see https://github.com/javers/javers/blob/master/javers-core/src/main/java/org/javers/repository/jql/QueryBuilder.java
    */
   private int maxJaversScope = 20;
+  /**
+   * Time in seconds current audit versions are cached for reading, e.g. for
+   * the Resource-Version header. New versions are always assigned from the
+   * Javers repository. Versions committed by other instances sharing the
+   * same database may be observed only after this time. 0 disables caching.
+   */
+  private long auditVersionCacheSeconds = 30;
   /**
    * Versioning service for data resource.
    */
@@ -304,4 +311,21 @@ public class RepoBaseConfiguration {
     this.maxJaversScope = maxJaversScope;
   }
 
+  /**
+   * Returns the time in seconds current audit versions are cached.
+   * @return the auditVersionCacheSeconds
+   */
+  public long getAuditVersionCacheSeconds() {
+    return auditVersionCacheSeconds;
+  }
+
+  /**
+   * Set the time in seconds current audit versions are cached. 0 disables
+   * caching. The value is applied when audit services are created.
+   * @param auditVersionCacheSeconds the auditVersionCacheSeconds to set
+   */
+  public void setAuditVersionCacheSeconds(long auditVersionCacheSeconds) {
+    this.auditVersionCacheSeconds = auditVersionCacheSeconds;
+  }
+
 }
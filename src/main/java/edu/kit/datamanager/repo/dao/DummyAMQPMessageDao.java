@@ -17,6 +17,8 @@ package edu.kit.datamanager.repo.dao;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import edu.kit.datamanager.repo.domain.AMQPMessage;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -55,6 +57,21 @@ public class DummyAMQPMessageDao implements IAMQPMessageDao {
     public void delete(AMQPMessage entity) {
     }
 
+    @Override
+    public List<AMQPMessage> findDueMessages(Instant now, Pageable pageable) {
+        return List.of();
+    }
+
+    @Override
+    public int deleteAllByIdIn(Collection<Long> ids) {
+        return 0;
+    }
+
+    @Override
+    public int deferAllByIdIn(Collection<Long> ids, Instant nextAttempt) {
+        return 0;
+    }
+
     @Override
     public List<AMQPMessage> findAll() {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
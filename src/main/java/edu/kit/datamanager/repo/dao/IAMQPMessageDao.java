@@ -17,13 +17,46 @@ package edu.kit.datamanager.repo.dao;
 
 import edu.kit.datamanager.repo.domain.AMQPMessage;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
- * JPA Repository for storing AMQP messages temporarily in case they could not
- * be submitted to the broker.
+ * JPA Repository serving as outbox for AMQP messages, which are stored in the
+ * same transaction as the related entity change and published by a relay.
  *
  * @author Jejkal
  */
 public interface IAMQPMessageDao extends JpaRepository<AMQPMessage, Long> {
+
+  /**
+   * Get messages due for publishing ordered by id. Messages are skipped if an
+   * earlier message of the same aggregate is not yet due, such that messages
+   * of one aggregate are published in order.
+   *
+   * @param now The current time.
+   * @param pageable The max. number of messages.
+   *
+   * @return The due messages.
+   */
+  @Query("SELECT m FROM AMQPMessage m WHERE (m.nextAttempt IS NULL OR m.nextAttempt <= :now) AND NOT EXISTS "
+          + "(SELECT p.id FROM AMQPMessage p WHERE p.aggregateId = m.aggregateId AND p.id < m.id AND p.nextAttempt > :now) "
+          + "ORDER BY m.id")
+  List<AMQPMessage> findDueMessages(@Param("now") Instant now, Pageable pageable);
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM AMQPMessage m WHERE m.id IN :ids")
+  int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Transactional
+  @Modifying
+  @Query("UPDATE AMQPMessage m SET m.attempts = COALESCE(m.attempts, 0) + 1, m.nextAttempt = :nextAttempt WHERE m.id IN :ids")
+  int deferAllByIdIn(@Param("ids") Collection<Long> ids, @Param("nextAttempt") Instant nextAttempt);
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.dao;
+
+import edu.kit.datamanager.repo.domain.ContentBlob;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Database holding reference counts of content-addressed blobs.
+ */
+public interface IContentBlobDao extends JpaRepository<ContentBlob, String> {
+
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE ContentBlob b SET b.referenceCount = b.referenceCount + 1 WHERE b.hash = :hash")
+  int incrementReferenceCount(@Param("hash") String hash);
+
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE ContentBlob b SET b.referenceCount = b.referenceCount - 1 WHERE b.hash = :hash AND b.referenceCount > 0")
+  int decrementReferenceCount(@Param("hash") String hash);
+
+  /**
+   * Find a blob and lock its row until the end of the current transaction,
+   * such that no other instance can register a reference meanwhile.
+   *
+   * @param hash The hash of the blob.
+   *
+   * @return The blob or an empty optional.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT b FROM ContentBlob b WHERE b.hash = :hash")
+  Optional<ContentBlob> findByHashForUpdate(@Param("hash") String hash);
+
+  /**
+   * Get the number of bytes physically stored in blobs.
+   *
+   * @return The sum of all blob sizes.
+   */
+  @Query("SELECT COALESCE(SUM(b.size), 0) FROM ContentBlob b")
+  long getStoredSize();
+
+  /**
+   * Get the number of bytes referenced by content information, which would be
+   * stored without deduplication.
+   *
+   * @return The sum of all blob sizes multiplied by their reference counts.
+   */
+  @Query("SELECT COALESCE(SUM(b.size * b.referenceCount), 0) FROM ContentBlob b")
+  long getReferencedSize();
+}
@@ -16,12 +16,17 @@
 package edu.kit.datamanager.repo.dao;
 
 import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.ContentInformationSummary;
 import edu.kit.datamanager.repo.domain.DataResource;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  *
@@ -30,5 +35,36 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 public interface IContentInformationDao extends JpaRepository<ContentInformation, Long>, JpaSpecificationExecutor<ContentInformation>{
 
   public Optional<ContentInformation> findByParentResourceAndRelativePath(DataResource parentResource, String relativePath);
+  public List<ContentInformation> findByParentResourceAndRelativePathIn(DataResource parentResource, Collection<String> relativePaths);
   public Page<ContentInformation> findByParentResource(DataResource parentResource, Pageable pgbl);
+
+  public boolean existsByParentResource(DataResource parentResource);
+
+  /**
+   * Obtain the next page of content information summaries of a resource
+   * using keyset pagination, i.e., all elements with an id larger than the
+   * last id of the previous page ordered by id. In contrast to offset-based
+   * pagination, the costs per page are independent of the page position.
+   *
+   * @param parentResource The parent resource.
+   * @param lastId The last id of the previous page or -1 for the first page.
+   * @param pgbl Pageable holding the page size. The page number must be 0.
+   *
+   * @return The page content.
+   */
+  @Query("SELECT new edu.kit.datamanager.repo.domain.ContentInformationSummary(c.id, c.relativePath, c.contentUri, c.fileVersion, c.versioningService, c.hash, c.size, c.mediaType, c.version) "
+          + "FROM ContentInformation c WHERE c.parentResource = :parentResource AND c.id > :lastId ORDER BY c.id ASC")
+  public List<ContentInformationSummary> findSummariesByParentResourceAfter(@Param("parentResource") DataResource parentResource, @Param("lastId") Long lastId, Pageable pgbl);
+
+  /**
+   * Find the ids of all content information elements out of the provided ids
+   * whose parent resource has the provided state.
+   *
+   * @param state The state of the parent resource.
+   * @param ids The ids to check.
+   *
+   * @return A list of content information ids or an empty list.
+   */
+  @Query("SELECT c.id FROM ContentInformation c WHERE c.parentResource.state = :state AND c.id IN :ids")
+  public List<Long> findIdsByParentResourceStateAndIdIn(@Param("state") DataResource.State state, @Param("ids") Collection<Long> ids);
 }
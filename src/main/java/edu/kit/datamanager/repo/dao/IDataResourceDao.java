@@ -17,13 +17,18 @@ package edu.kit.datamanager.repo.dao;
 
 import edu.kit.datamanager.repo.domain.DataResource;
 import edu.kit.datamanager.repo.domain.DataResource.State;
+import java.util.Collection;
 import java.util.List;
 import edu.kit.datamanager.entities.PERMISSION;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  *
@@ -75,4 +80,30 @@ public interface IDataResourceDao extends JpaRepository<DataResource, String>, J
    */
   public Optional<DataResource> findByIdAndAclsSidInAndAclsPermissionGreaterThanEqual(String id, List<String> sids, PERMISSION permission);
 
+  /**
+   * Find the ids of all data resources out of the provided ids having the
+   * provided state.
+   *
+   * @param state The state.
+   * @param ids The ids to check.
+   *
+   * @return A list of resource ids or an empty list.
+   */
+  @Query("SELECT r.id FROM DataResource r WHERE r.state = :state AND r.id IN :ids")
+  public List<String> findIdsByStateAndIdIn(@Param("state") State state, @Param("ids") Collection<String> ids);
+
+  /**
+   * Find one page of data resources matching the provided specification. The
+   * identifier and the resource type are fetched with the page, collections
+   * are loaded lazily in batches.
+   *
+   * @param spec The specification.
+   * @param pgbl The page request.
+   *
+   * @return One page of data resources or an empty page.
+   */
+  @Override
+  @EntityGraph(DataResource.SEARCH_GRAPH)
+  public Page<DataResource> findAll(Specification<DataResource> spec, Pageable pgbl);
+
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.dao;
+
+import edu.kit.datamanager.repo.domain.UniqueUsersSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Database holding one HyperLogLog sketch of unique users per day.
+ */
+public interface IUniqueUsersSketchDao extends JpaRepository<UniqueUsersSketch, Instant> {
+
+  /**
+   * Get the sketch of the provided day and lock it for update.
+   *
+   * @param visitDay The day.
+   *
+   * @return The sketch or an empty optional.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<UniqueUsersSketch> findByVisitDay(Instant visitDay);
+
+  List<UniqueUsersSketch> findByVisitDayGreaterThanEqual(Instant visitDay);
+
+  @Modifying
+  @Query("DELETE FROM UniqueUsersSketch s WHERE s.visitDay < :lastDate")
+  void deleteAllEntriesOlderThan(@Param("lastDate") Instant lastDate);
+}
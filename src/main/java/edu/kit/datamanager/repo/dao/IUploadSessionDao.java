@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.dao;
+
+import edu.kit.datamanager.repo.domain.UploadSession;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Database holding sessions of chunked uploads.
+ */
+public interface IUploadSessionDao extends JpaRepository<UploadSession, String> {
+
+  /**
+   * Find all sessions expired before the provided time.
+   *
+   * @param now The current time.
+   *
+   * @return The expired sessions.
+   */
+  List<UploadSession> findByExpiresAtBefore(Instant now);
+
+  /**
+   * Set the expiry of a session without loading it. This allows parallel part
+   * uploads to extend the session without conflicting updates.
+   *
+   * @param id The session id.
+   * @param expiresAt The new expiry.
+   *
+   * @return The number of updated sessions.
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE UploadSession s SET s.expiresAt = :expiresAt WHERE s.id = :id")
+  int extendExpiry(@Param("id") String id, @Param("expiresAt") Instant expiresAt);
+
+  /**
+   * Claim the completion of an open session by setting its status to
+   * COMPLETING and extending its expiry. As the update is conditional, only
+   * one caller of all repository instances succeeds.
+   *
+   * @param id The session id.
+   * @param open The status OPEN.
+   * @param completing The status COMPLETING.
+   * @param expiresAt The new expiry.
+   *
+   * @return 1 if the completion was claimed, 0 otherwise.
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE UploadSession s SET s.status = :completing, s.expiresAt = :expiresAt WHERE s.id = :id AND (s.status = :open OR s.status IS NULL)")
+  int claimCompletion(@Param("id") String id, @Param("open") UploadSession.Status open, @Param("completing") UploadSession.Status completing, @Param("expiresAt") Instant expiresAt);
+
+  /**
+   * Set the status of a session if it currently has the expected status.
+   *
+   * @param id The session id.
+   * @param expected The expected current status.
+   * @param status The new status.
+   *
+   * @return The number of updated sessions.
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE UploadSession s SET s.status = :status WHERE s.id = :id AND s.status = :expected")
+  int updateStatus(@Param("id") String id, @Param("expected") UploadSession.Status expected, @Param("status") UploadSession.Status status);
+
+  /**
+   * Delete a session unless it is being completed.
+   *
+   * @param id The session id.
+   * @param open The status OPEN.
+   *
+   * @return The number of deleted sessions.
+   */
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM UploadSession s WHERE s.id = :id AND (s.status = :open OR s.status IS NULL)")
+  int deleteIfOpen(@Param("id") String id, @Param("open") UploadSession.Status open);
+}
@@ -18,21 +18,32 @@ package edu.kit.datamanager.repo.domain;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import edu.kit.datamanager.entities.messaging.IAMQPSubmittable;
 import java.io.Serializable;
+import java.time.Instant;
 import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * Very simple AMQP message entity holding the target exchange and routingKey as
- * well as the already JSON-serialized message.
+ * well as the already JSON-serialized message. Messages are written to the
+ * outbox table in the same transaction as the related entity change and are
+ * published by a relay. Messages of the same aggregate, e.g. the same data
+ * resource, are published in the order of their ids.
  *
  * @author Jejkal
  */
 @Entity
+@Table(indexes = {
+    @Index(name = "nextAttempt", columnList = "nextAttempt"),
+    @Index(name = "aggregateId", columnList = "aggregateId")
+})
 @Data
 public class AMQPMessage implements IAMQPSubmittable, Serializable {
 
@@ -43,15 +54,40 @@ public class AMQPMessage implements IAMQPSubmittable, Serializable {
     private Long id;
     private String exchange;
     private String routingKey;
+    /**
+     * The serialized message. Existing tables are not widened by schema
+     * updates and must be migrated manually, see settings/application.properties.
+     */
+    @Column(length = 10240)
     private String message;
+    /**
+     * Identifier of the entity the message refers to, used for ordering.
+     */
+    private String aggregateId;
+    /**
+     * Number of failed attempts to publish this message. The column is
+     * nullable with default, such that it can be added to existing tables.
+     */
+    @ColumnDefault("0")
+    private Integer attempts = 0;
+    /**
+     * The earliest time this message is published by the relay.
+     */
+    private Instant nextAttempt;
 
     public AMQPMessage() {
     }
 
     public AMQPMessage(String exchange, String routingKey, String message) {
+        this(exchange, routingKey, message, null);
+    }
+
+    public AMQPMessage(String exchange, String routingKey, String message, String aggregateId) {
         this.exchange = exchange;
         this.routingKey = routingKey;
         this.message = message;
+        this.aggregateId = aggregateId;
+        this.nextAttempt = Instant.now();
     }
 
     @Override
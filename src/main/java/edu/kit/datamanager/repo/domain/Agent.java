@@ -28,6 +28,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
 
@@ -55,6 +56,7 @@ public class Agent {
     private String givenName;
     @Schema(description = "Affiliation of the user, e.g. home institution.", example = "Karlsruhe Institute of Techology", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
     @ElementCollection
+    @BatchSize(size = DataResource.BATCH_SIZE)
     @Field(type = FieldType.Text)
     private Set<String> affiliations = new HashSet<>();
 
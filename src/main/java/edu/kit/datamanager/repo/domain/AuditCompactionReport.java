@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.domain;
+
+import java.time.Duration;
+import java.time.Instant;
+import lombok.Data;
+
+/**
+ * Result of one run of the audit compaction.
+ */
+@Data
+public class AuditCompactionReport {
+
+  /**
+   * The time the run has started.
+   */
+  private Instant startedAt;
+  /**
+   * The duration of the run.
+   */
+  private Duration duration;
+  /**
+   * The number of entities having more versions than always kept.
+   */
+  private long inspectedEntities;
+  /**
+   * The number of entities skipped as they belong to FIXED resources.
+   */
+  private long skippedFixedEntities;
+  /**
+   * The number of removed snapshots.
+   */
+  private long deletedSnapshots;
+  /**
+   * The number of removed commits, which had no remaining snapshot.
+   */
+  private long deletedCommits;
+  /**
+   * The number of removed properties of removed commits.
+   */
+  private long deletedCommitProperties;
+  /**
+   * The average latency of querying the current version of sampled resources
+   * before the run or null if not measured.
+   */
+  private Duration latencyBefore;
+  /**
+   * The average latency of querying the current version of sampled resources
+   * after the run or null if not measured.
+   */
+  private Duration latencyAfter;
+
+  /**
+   * Get the total number of removed rows.
+   *
+   * @return The number of removed rows.
+   */
+  public long getReclaimedRows() {
+    return deletedSnapshots + deletedCommits + deletedCommitProperties;
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.kit.datamanager.entities.messaging.IAMQPSubmittable;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Message sent once for a batch of data resources or content elements, e.g.
+ * after a bulk create, instead of one message per element. The routing key
+ * has the form 'dataresource.bulk&lt;action&gt;[.&lt;subCategory&gt;]', e.g.
+ * 'dataresource.bulkcreate' or 'dataresource.bulkcreate.data', such that
+ * consumers of single element messages can distinguish both formats.
+ *
+ * Large batches are split into multiple messages by
+ * {@link #factoryCreateMessages(List, String, String)} and
+ * {@link #factoryCreateDataMessages(String, List, String, String)}, such that
+ * each serialized message fits into the message column of the outbox table.
+ */
+@Data
+public class BulkDataResourceMessage implements IAMQPSubmittable {
+
+  /**
+   * Action of bulk create messages.
+   */
+  public static final String ACTION_CREATE = "create";
+  /**
+   * Sub category of messages related to content elements.
+   */
+  public static final String SUB_CATEGORY_DATA = "data";
+  /**
+   * Max. number of characters used by the serialized entity ids or relative
+   * paths of a single message. The remaining fields are small, such that the
+   * entire message stays below the length of the outbox message column.
+   */
+  public static final int MAX_PAYLOAD_LENGTH = 8192;
+  private static final String ENTITY_NAME = "dataresource";
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private String entityName = ENTITY_NAME;
+  private String action;
+  private String subCategory;
+  private List<String> entityIds = new ArrayList<>();
+  private List<String> relativePaths = new ArrayList<>();
+  private String principal;
+  private String sender;
+  private long currentTimestamp;
+
+  /**
+   * Create a message for a bulk create.
+   *
+   * @param entityIds The ids of all created resources.
+   * @param principal The principal who created the resources.
+   * @param sender The sender of the message.
+   *
+   * @return The message.
+   */
+  public static BulkDataResourceMessage factoryCreateMessage(List<String> entityIds, String principal, String sender) {
+    BulkDataResourceMessage message = new BulkDataResourceMessage();
+    message.setAction(ACTION_CREATE);
+    message.setEntityIds(new ArrayList<>(entityIds));
+    message.setPrincipal(principal);
+    message.setSender(sender);
+    message.setCurrentTimestamp(System.currentTimeMillis());
+    return message;
+  }
+
+  /**
+   * Create messages for a bulk create. The ids are split into as many
+   * messages as needed to keep the size of each message below
+   * {@link #MAX_PAYLOAD_LENGTH}.
+   *
+   * @param entityIds The ids of all created resources.
+   * @param principal The principal who created the resources.
+   * @param sender The sender of the message.
+   *
+   * @return The list of messages in the order of the provided ids.
+   */
+  public static List<BulkDataResourceMessage> factoryCreateMessages(List<String> entityIds, String principal, String sender) {
+    List<BulkDataResourceMessage> messages = new ArrayList<>();
+    for (List<String> chunk : partition(entityIds)) {
+      messages.add(factoryCreateMessage(chunk, principal, sender));
+    }
+    return messages;
+  }
+
+  /**
+   * Create a message for a bulk registration of content elements of one
+   * resource.
+   *
+   * @param resourceId The id of the parent resource.
+   * @param relativePaths The relative paths of all created content elements.
+   * @param principal The principal who created the content elements.
+   * @param sender The sender of the message.
+   *
+   * @return The message.
+   */
+  public static BulkDataResourceMessage factoryCreateDataMessage(String resourceId, List<String> relativePaths, String principal, String sender) {
+    BulkDataResourceMessage message = factoryCreateMessage(List.of(resourceId), principal, sender);
+    message.setSubCategory(SUB_CATEGORY_DATA);
+    message.setRelativePaths(new ArrayList<>(relativePaths));
+    return message;
+  }
+
+  /**
+   * Create messages for a bulk registration of content elements of one
+   * resource. The paths are split into as many messages as needed to keep the
+   * size of each message below {@link #MAX_PAYLOAD_LENGTH}.
+   *
+   * @param resourceId The id of the parent resource.
+   * @param relativePaths The relative paths of all created content elements.
+   * @param principal The principal who created the content elements.
+   * @param sender The sender of the message.
+   *
+   * @return The list of messages in the order of the provided paths.
+   */
+  public static List<BulkDataResourceMessage> factoryCreateDataMessages(String resourceId, List<String> relativePaths, String principal, String sender) {
+    List<BulkDataResourceMessage> messages = new ArrayList<>();
+    for (List<String> chunk : partition(relativePaths)) {
+      messages.add(factoryCreateDataMessage(resourceId, chunk, principal, sender));
+    }
+    return messages;
+  }
+
+  private static List<List<String>> partition(List<String> values) {
+    JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+    List<List<String>> chunks = new ArrayList<>();
+    List<String> chunk = new ArrayList<>();
+    int chunkLength = 0;
+    for (String value : values) {
+      //quoted and escaped value plus separator
+      int length = encoder.quoteAsString(value).length + 3;
+      if (!chunk.isEmpty() && chunkLength + length > MAX_PAYLOAD_LENGTH) {
+        chunks.add(chunk);
+        chunk = new ArrayList<>();
+        chunkLength = 0;
+      }
+      chunk.add(value);
+      chunkLength += length;
+    }
+    if (!chunk.isEmpty()) {
+      chunks.add(chunk);
+    }
+    return chunks;
+  }
+
+  /**
+   * Get the number of resources or content elements affected by this
+   * message.
+   *
+   * @return The number of affected elements.
+   */
+  public int getCount() {
+    return SUB_CATEGORY_DATA.equals(subCategory) ? relativePaths.size() : entityIds.size();
+  }
+
+  @Override
+  @JsonIgnore
+  public String getRoutingKey() {
+    return entityName + ".bulk" + action + ((subCategory != null) ? "." + subCategory : "");
+  }
+
+  @Override
+  public void validate() {
+    if (action == null || entityIds.isEmpty()) {
+      throw new IllegalArgumentException("Bulk message must contain an action and at least one entity id.");
+    }
+  }
+
+  @Override
+  public String toJson() throws JsonProcessingException {
+    return MAPPER.writeValueAsString(this);
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Entity representing a content-addressed blob stored by the deduplicating
+ * versioning service. It contains the hash of the content, the size of the
+ * content and the number of content information entities referencing the
+ * blob.
+ */
+@Entity
+@Data
+public class ContentBlob implements Serializable {
+
+  @Id
+  @NotBlank(message = "The SHA-256 hash of the content, which is also the name of the blob file.")
+  private String hash;
+
+  private long size;
+
+  private long referenceCount;
+}
@@ -18,9 +18,11 @@ package edu.kit.datamanager.repo.domain;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import edu.kit.datamanager.annotations.Searchable;
 import edu.kit.datamanager.annotations.SecureUpdate;
 import edu.kit.datamanager.entities.EtagSupport;
+import edu.kit.datamanager.repo.util.ParentResourceSerializer;
 import edu.kit.datamanager.repo.util.PathUtils;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.io.Serializable;
@@ -32,6 +34,7 @@ import java.util.Objects;
 import java.util.Set;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -41,6 +44,7 @@ import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 
@@ -66,9 +70,11 @@ public class ContentInformation implements EtagSupport, Serializable {
     @SecureUpdate({"FORBIDDEN"})
     @Searchable
     private Long id;
-    @ManyToOne
+    //loaded lazily as listings only require the id of the parent, which is available without initializing the reference
+    @ManyToOne(fetch = FetchType.LAZY)
     @SecureUpdate({"FORBIDDEN"})
     @Schema(description = "The dataResource this element is associated with.")
+    @JsonSerialize(using = ParentResourceSerializer.class)
     private DataResource parentResource;
     @SecureUpdate({"ROLE_ADMINISTRATOR"})//only allow modification by 'real' administrator, not for owner (having ADMINISTRATE permissions)
     @Schema(description = "The relative path of this element under which the file content is accessible. The path is relative the the resource's 'data' url, e.g. http://hostname:port/api/v1/dataresources/resourceId/data/relativePath")
@@ -102,10 +108,12 @@ public class ContentInformation implements EtagSupport, Serializable {
     private long size;
     @SecureUpdate({"ROLE_ADMINISTRATOR", "PERMISSION_WRITE"})
     @ElementCollection
+    @BatchSize(size = DataResource.BATCH_SIZE)
     @Schema(description = "A key-value map containing additional metadata associated with this element.")
     private Map<String, String> metadata = new HashMap<>();
     @SecureUpdate({"ROLE_ADMINISTRATOR", "PERMISSION_WRITE"})
     @ElementCollection
+    @BatchSize(size = DataResource.BATCH_SIZE)
     @Schema(description = "A list of tags (strings) associated with this element. If a resource has a tag assigned, the tag can be used to access this (and all resources with this tag) directly.")
     private Set<String> tags = new HashSet<>();
 
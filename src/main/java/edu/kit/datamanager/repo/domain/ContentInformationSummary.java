@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Read-only projection of a content information holding only the attributes
+ * required to provide its content. In contrast to ContentInformation, neither
+ * the parent resource nor metadata and tags are loaded and the projection is
+ * not managed by the persistence context, which allows to iterate over large
+ * numbers of elements with constant memory or to list the content of a
+ * resource without loading entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentInformationSummary implements Serializable {
+
+  private Long id;
+  private String relativePath;
+  private String contentUri;
+  private String fileVersion;
+  private String versioningService;
+  private String hash;
+  private long size;
+  private String mediaType;
+  private Integer version;
+
+  /**
+   * Create a summary from a loaded content information element.
+   *
+   * @param contentInformation The content information element.
+   *
+   * @return The summary of the element.
+   */
+  public static ContentInformationSummary fromContentInformation(ContentInformation contentInformation) {
+    return new ContentInformationSummary(contentInformation.getId(),
+            contentInformation.getRelativePath(),
+            contentInformation.getContentUri(),
+            contentInformation.getFileVersion(),
+            contentInformation.getVersioningService(),
+            contentInformation.getHash(),
+            contentInformation.getSize(),
+            contentInformation.getMediaType(),
+            contentInformation.getVersion());
+  }
+}
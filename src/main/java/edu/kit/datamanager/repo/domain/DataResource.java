@@ -44,6 +44,8 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
@@ -53,6 +55,7 @@ import lombok.Data;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.elasticsearch.annotations.DateFormat;
@@ -70,8 +73,25 @@ import org.springframework.data.elasticsearch.annotations.FieldType;
 @Table(indexes = {
     @Index(name = "lastUpdate", columnList = "lastUpdate DESC")
 })
+@NamedEntityGraph(name = DataResource.SEARCH_GRAPH, attributeNodes = {
+    @NamedAttributeNode("identifier"),
+    @NamedAttributeNode("resourceType")
+})
 public class DataResource implements EtagSupport, Serializable {
 
+    /**
+     * Entity graph used for pages of search results. Single-valued
+     * associations are fetched by joins, collections are loaded lazily in
+     * batches of {@link #BATCH_SIZE} resources, as fetching multiple
+     * collections by joins would multiply the rows per resource and prevent
+     * pagination in the database.
+     */
+    public static final String SEARCH_GRAPH = "DataResource.search";
+    /**
+     * Number of resources whose collections are loaded by one select.
+     */
+    public static final int BATCH_SIZE = 100;
+
     @Autowired
     @Getter(AccessLevel.NONE)
     @Setter(AccessLevel.NONE)
@@ -107,12 +127,14 @@ public class DataResource implements EtagSupport, Serializable {
 
     //vocab
     @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+    @BatchSize(size = BATCH_SIZE)
     @OneToMany(cascade = jakarta.persistence.CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "resource_id")
     @Field(type = FieldType.Nested, includeInParent = true)
     private Set<Agent> creators = new HashSet<>();
 
     @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+    @BatchSize(size = BATCH_SIZE)
     @OneToMany(cascade = jakarta.persistence.CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "resource_id")
     @Field(type = FieldType.Nested, includeInParent = true)
@@ -137,36 +159,42 @@ public class DataResource implements EtagSupport, Serializable {
 
     //recommended
     @Schema(description = "One or more subjects describing the resource (recommended).", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    @BatchSize(size = BATCH_SIZE)
     @OneToMany(cascade = jakarta.persistence.CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "resource_id")
     @Field(type = FieldType.Nested, includeInParent = true)
     private Set<Subject> subjects = new HashSet<>();
 
     @Schema(description = "One or more contributors that have contributed to the resource (recommended).", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    @BatchSize(size = BATCH_SIZE)
     @OneToMany(cascade = jakarta.persistence.CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "resource_id")
     @Field(type = FieldType.Nested, includeInParent = true)
     private Set<Contributor> contributors = new HashSet<>();
 
     @Schema(description = "One or more dates related to the resource, e.g. creation or publication date (recommended).", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    @BatchSize(size = BATCH_SIZE)
     @OneToMany(cascade = jakarta.persistence.CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "resource_id")
     @Field(type = FieldType.Nested, includeInParent = true)
     private Set<Date> dates = new HashSet<>();
 
     @Schema(description = "One or more related identifiers the can be used to identify related resources, e.g. metadata, parts or derived resources (recommended).", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    @BatchSize(size = BATCH_SIZE)
     @OneToMany(cascade = jakarta.persistence.CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "resource_id")
     @Field(type = FieldType.Nested, includeInParent = true)
     private Set<RelatedIdentifier> relatedIdentifiers = new HashSet<>();
 
     @Schema(description = "One or more description entries providing additional information, e.g. abstract or technical information (recommended).", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    @BatchSize(size = BATCH_SIZE)
     @OneToMany(cascade = jakarta.persistence.CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "resource_id")
     @Field(type = FieldType.Nested, includeInParent = true)
     private Set<Description> descriptions = new HashSet<>();
 
     @Schema(description = "One or more geolocation entries providing information about the location of the resource, e.g. storage or aquisition location (recommended).", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    @BatchSize(size = BATCH_SIZE)
     @OneToMany(cascade = jakarta.persistence.CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "resource_id")
     @Field(type = FieldType.Nested, includeInParent = true)
@@ -179,16 +207,19 @@ public class DataResource implements EtagSupport, Serializable {
     private String language;
 
     @Schema(description = "One or more alternate identifiers the can be used to identify the resources in addition to the primary identifier.", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    @BatchSize(size = BATCH_SIZE)
     @OneToMany(cascade = jakarta.persistence.CascadeType.ALL, orphanRemoval = true)
     @Field(type = FieldType.Nested, includeInParent = true)
     private Set<Identifier> alternateIdentifiers = new HashSet<>();
 
     @Schema(description = "Unstructured size information about the resource or its contents.", example = "15 files, 10 page, 100 bytes", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    @BatchSize(size = BATCH_SIZE)
     @ElementCollection(fetch = FetchType.EAGER)
     @Field(type = FieldType.Text)
     private Set<String> sizes = new HashSet<>();
 
     @Schema(description = "Format information about the resource or its contents. Preferably, mime types or file extensions are used.", example = "text/plain, xml, application/pdf", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    @BatchSize(size = BATCH_SIZE)
     @ElementCollection(fetch = FetchType.EAGER)
     @Field(type = FieldType.Text)
     private Set<String> formats = new HashSet<>();
@@ -201,12 +232,14 @@ public class DataResource implements EtagSupport, Serializable {
 
     //e.g. CC-0
     @Schema(description = "Intellectual property information.", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    @BatchSize(size = BATCH_SIZE)
     @OneToMany(cascade = jakarta.persistence.CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "resource_id")
     @Field(type = FieldType.Nested, includeInParent = true)
     private Set<Scheme> rights = new HashSet<>();
 
     @Schema(description = "Funding information, e.g. funder, award number and title.", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    @BatchSize(size = BATCH_SIZE)
     @OneToMany(cascade = jakarta.persistence.CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "resource_id")
     @Field(type = FieldType.Nested, includeInParent = true)
@@ -235,6 +268,7 @@ public class DataResource implements EtagSupport, Serializable {
     @Field(type = FieldType.Date, format = DateFormat.date_optional_time)
     Instant embargoDate;
 
+    @BatchSize(size = BATCH_SIZE)
     @OneToMany(cascade = jakarta.persistence.CascadeType.ALL, orphanRemoval = true)
     @SecureUpdate({"ROLE_ADMINISTRATOR", "PERMISSION_ADMINISTRATE"})
     @JoinColumn(name = "resource_id")
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read-only projection of a data resource holding only the attributes shown in
+ * list views. In contrast to DataResource, no collections except of the titles
+ * are loaded and the projection is not managed by the persistence context,
+ * which allows to list pages of resources with a constant number of queries.
+ */
+@Data
+@NoArgsConstructor
+public class DataResourceSummary implements Serializable {
+
+  private String id;
+  private String identifier;
+  private Set<Title> titles = new LinkedHashSet<>();
+  private DataResource.State state;
+  private Instant lastUpdate;
+  private ResourceType resourceType;
+
+  /**
+   * Create a summary from a loaded data resource.
+   *
+   * @param resource The data resource.
+   *
+   * @return The summary of the resource.
+   */
+  public static DataResourceSummary fromResource(DataResource resource) {
+    DataResourceSummary summary = new DataResourceSummary();
+    summary.setId(resource.getId());
+    if (resource.getIdentifier() != null) {
+      summary.setIdentifier(resource.getIdentifier().getValue());
+    }
+    resource.getTitles().forEach((title) -> summary.addTitle(title.getValue(), title.getTitleType(), title.getLang()));
+    summary.setState(resource.getState());
+    summary.setLastUpdate(resource.getLastUpdate());
+    if (resource.getResourceType() != null) {
+      summary.setResourceType(ResourceType.createResourceType(resource.getResourceType().getValue(), resource.getResourceType().getTypeGeneral()));
+    }
+    return summary;
+  }
+
+  /**
+   * Add a title to this summary.
+   *
+   * @param value The title value.
+   * @param type The title type or null.
+   * @param lang The title language or null.
+   */
+  public void addTitle(String value, Title.TYPE type, String lang) {
+    Title title = Title.factoryTitle(value, type);
+    title.setLang(lang);
+    titles.add(title);
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Entity representing the HyperLogLog sketch of the hashed IP addresses of
+ * all clients visiting the service on one day.
+ */
+@Entity
+@Data
+public class UniqueUsersSketch implements Serializable {
+
+  @Id
+  @NotNull(message = "The day the sketch belongs to.")
+  private Instant visitDay;
+
+  @NotNull(message = "The serialized HyperLogLog sketch.")
+  @Column(length = 1 << 17)
+  private byte[] sketch;
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Information about a stored part of a chunked upload.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadPart {
+
+  /**
+   * The number of the part starting at 1.
+   */
+  private int partNumber;
+  /**
+   * The size of the part in bytes.
+   */
+  private long size;
+  /**
+   * The checksum of the part in the format 'algorithm:hexValue'. The checksum
+   * is only available directly after uploading the part.
+   */
+  private String checksum;
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.domain;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import edu.kit.datamanager.util.json.CustomInstantDeserializer;
+import edu.kit.datamanager.util.json.CustomInstantSerializer;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.Instant;
+import lombok.Data;
+
+/**
+ * Entity representing a chunked upload of content to a data resource. Parts
+ * of the upload are stored in a staging folder named by the session id. The
+ * session is removed after the upload has been completed, aborted or has
+ * expired. While being completed, the status of the session is COMPLETING,
+ * which is claimed by a conditional update, thus, only one request of all
+ * repository instances completes a session.
+ */
+@Entity
+@Table(indexes = {
+  @Index(name = "expiresAt", columnList = "expiresAt")
+})
+@Data
+public class UploadSession implements Serializable {
+
+  public enum Status {
+    OPEN,
+    COMPLETING
+  }
+
+  @Id
+  private String id;
+  @Column(nullable = false)
+  private String resourceId;
+  @Column(nullable = false, length = 1024)
+  private String relativePath;
+  private String mediaType;
+  private String versioningService;
+  private boolean force;
+  private String uploader;
+  //nullable for sessions created before the status was introduced, which are open
+  @Enumerated(EnumType.STRING)
+  private Status status = Status.OPEN;
+  @JsonDeserialize(using = CustomInstantDeserializer.class)
+  @JsonSerialize(using = CustomInstantSerializer.class)
+  private Instant createdAt;
+  @JsonDeserialize(using = CustomInstantDeserializer.class)
+  @JsonSerialize(using = CustomInstantSerializer.class)
+  private Instant expiresAt;
+}
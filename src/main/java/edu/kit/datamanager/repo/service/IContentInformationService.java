@@ -17,10 +17,12 @@ package edu.kit.datamanager.repo.service;
 
 import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
 import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.ContentInformationSummary;
 import edu.kit.datamanager.repo.domain.DataResource;
 import edu.kit.datamanager.service.IGenericService;
 import edu.kit.datamanager.service.IServiceAuditSupport;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.boot.actuate.health.HealthIndicator;
@@ -65,6 +67,30 @@ public interface IContentInformationService extends IGenericService<ContentInfor
    */
   ContentInformation create(ContentInformation contentInformation, DataResource resource, String path, InputStream fileStream, boolean force);
 
+  /**
+   * Register multiple content information elements referencing remote
+   * content via their contentUri attribute, e.g. for ingest jobs. Each element
+   * is registered at its relativePath according to the rules of
+   * {@link #create(ContentInformation, DataResource, String, InputStream, boolean)}
+   * without file stream. Existing elements at the same paths are updated.
+   * Either all or no elements are registered. Implementing the method is
+   * optional, by default all elements are registered one after another.
+   *
+   * @param resource The parent resource.
+   * @param contentInformation The content information templates, each
+   * providing relativePath and contentUri.
+   *
+   * @return The registered content information elements in the order of the
+   * templates.
+   */
+  default List<ContentInformation> createAll(DataResource resource, List<ContentInformation> contentInformation){
+    List<ContentInformation> result = new ArrayList<>(contentInformation.size());
+    for(ContentInformation element : contentInformation){
+      result.add(create(element, resource, element.getRelativePath(), null, false));
+    }
+    return result;
+  }
+
   /**
    * Read content located at the provided path associated with the provided data
    * resource. Reading content may support requesting a specific version of a
@@ -158,4 +184,35 @@ public interface IContentInformationService extends IGenericService<ContentInfor
           boolean callerIsAdministrator, Pageable pgbl
   );
 
+  /**
+   * Find content information matching the provided template as done by
+   * findAll(template, pgbl), but return lightweight summaries holding path,
+   * size, hash, media type and versions instead of full elements, e.g. for
+   * listing the content of resources with many files. Implementing the method is optional, by default
+   * the full elements are loaded and converted into summaries.
+   *
+   * @param template The template holding parent resource, path and tags.
+   * @param pgbl The pageable object containing pagination information.
+   *
+   * @return A page of content information summaries or an empty page.
+   */
+  default Page<ContentInformationSummary> findSummaries(ContentInformation template, Pageable pgbl){
+    return findAll(template, pgbl).map(ContentInformationSummary::fromContentInformation);
+  }
+
+  /**
+   * Check if the content referenced by the provided content information is
+   * managed by the versioning service that has written it, e.g. because the
+   * file is shared with other content information. In that case, the file at
+   * the content URI must not be removed when deleting the content information.
+   * By default, FALSE is returned.
+   *
+   * @param contentInformation The content information to check.
+   *
+   * @return TRUE if the content file is managed by its versioning service.
+   */
+  default boolean isContentManaged(ContentInformation contentInformation){
+    return false;
+  }
+
 }
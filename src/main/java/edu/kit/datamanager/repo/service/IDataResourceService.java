@@ -16,6 +16,7 @@
 package edu.kit.datamanager.repo.service;
 
 import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.DataResourceSummary;
 import edu.kit.datamanager.entities.PERMISSION;
 import edu.kit.datamanager.exceptions.BadArgumentException;
 import edu.kit.datamanager.exceptions.ResourceAlreadyExistException;
@@ -23,6 +24,7 @@ import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
 import edu.kit.datamanager.service.IGenericService;
 import edu.kit.datamanager.service.IServiceAuditSupport;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.data.domain.Page;
@@ -94,6 +96,38 @@ public interface IDataResourceService extends IGenericService<DataResource>, ISe
    */
   DataResource create(DataResource resource, String callerPrincipal) throws BadArgumentException, ResourceAlreadyExistException;
 
+  /**
+   * Create multiple data resources at once, e.g. for ingest jobs. Each
+   * resource is created according to the rules of
+   * {@link #create(DataResource, String, String, String)}. The identifiers of
+   * all resources are checked for conflicts with each other and with existing
+   * resources before any resource is created. Either all or no resources are
+   * created. Implementing the method is optional, by default all resources are
+   * created one after another.
+   *
+   * @param resources The resource templates to be used to create new
+   * resources.
+   * @param callerPrincipal The principal of the caller, e.g. the user- or
+   * servicename.
+   * @param callerFirstName The firstname of the caller, if available.
+   * @param callerLastName The lastname of the caller, if available.
+   *
+   * @return The new resources with ids assigned in the order of the templates.
+   *
+   * @throws BadArgumentException if the value of an provided internal
+   * identifier is null or if no title and/or resource type are provided for
+   * any resource.
+   * @throws ResourceAlreadyExistException if a resource with the same
+   * identifier already exists or if an identifier is used multiple times.
+   */
+  default List<DataResource> createAll(List<DataResource> resources, String callerPrincipal, String callerFirstName, String callerLastName) throws BadArgumentException, ResourceAlreadyExistException{
+    List<DataResource> result = new ArrayList<>(resources.size());
+    for(DataResource resource : resources){
+      result.add(create(resource, callerPrincipal, callerFirstName, callerLastName));
+    }
+    return result;
+  }
+
 
   /**
    * Get all versions of a single resource. If versioning is not enabled only
@@ -263,4 +297,30 @@ public interface IDataResourceService extends IGenericService<DataResource>, ISe
    * @return A page of data resources matching the example or an empty page.
    */
   Page<DataResource> findByExample(DataResource example, Instant lastUpdateFrom, Instant lastUpdateUntil, List<String> callerIdentities, boolean callerIsAdministrator, Pageable pgbl);
+
+  /**
+   * Find data resources by example as done by {@link #findByExample(edu.kit.datamanager.repo.domain.DataResource, java.time.Instant, java.time.Instant, java.util.List, boolean, org.springframework.data.domain.Pageable)
+   * }, but return lightweight summaries instead of full resources, e.g. for
+   * list views. Implementing the method is optional, by default the full
+   * resources are loaded and converted into summaries.
+   *
+   * @param example The example resource used to build the query for assigned
+   * values.
+   * @param lastUpdateFrom The UTC time of the earliest update of a returned
+   * resource.
+   * @param lastUpdateUntil The UTC time of the latest update of a returned
+   * resource.
+   * @param callerIdentities A list of caller identities, e.g. principal and
+   * active group name.
+   * @param callerIsAdministrator If TRUE, the caller was checked for role
+   * ADMINISTRATOR and will receive resource access w/o ACL check. Otherwise,
+   * the provided identities are used for ACL check.
+   * @param pgbl The pageable object containing pagination information.
+   *
+   * @return A page of resource summaries matching the example or an empty
+   * page.
+   */
+  default Page<DataResourceSummary> findSummariesByExample(DataResource example, Instant lastUpdateFrom, Instant lastUpdateUntil, List<String> callerIdentities, boolean callerIsAdministrator, Pageable pgbl){
+    return findByExample(example, lastUpdateFrom, lastUpdateUntil, callerIdentities, callerIsAdministrator, pgbl).map(DataResourceSummary::fromResource);
+  }
 }
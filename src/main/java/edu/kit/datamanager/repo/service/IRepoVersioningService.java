@@ -52,6 +52,46 @@ public interface IRepoVersioningService{
    */
   VersionInfo info(String resourceId, String path, String versionId, Map<String, String> options);
 
+  /**
+   * Check if the content written by this service is stored as plain file at
+   * the location referenced by the local 'contentUri'. If TRUE, content
+   * providers may read the file directly, e.g. for zero-copy transfers,
+   * instead of calling {@link #read(String, String, String, String, OutputStream, Map)}.
+   *
+   * @return TRUE if the file at the content URI can be read directly, FALSE
+   * otherwise (default).
+   */
+  default boolean supportsDirectFileAccess(){
+    return false;
+  }
+
+  /**
+   * Notify the service, that the content information referencing the content
+   * written by this service has been deleted. Services sharing content between
+   * multiple content information may release the content here. By default,
+   * content is kept.
+   *
+   * @param resourceId identifier of the object
+   * @param path path of the file
+   * @param options contains at least the key 'contentUri' of the deleted content.
+   */
+  default void delete(String resourceId, String path, Map<String, String> options){
+  }
+
+  /**
+   * Check if the files written by this service are managed by the service
+   * itself, e.g. because they are shared between multiple content information.
+   * If TRUE, callers must not remove the file referenced by the 'contentUri'
+   * of a deleted content information, but leave this to
+   * {@link #delete(String, String, Map)}.
+   *
+   * @return TRUE if the service removes its files on its own, FALSE otherwise
+   * (default).
+   */
+  default boolean managesContent(){
+    return false;
+  }
+
   /**
    * Returns the name of this versioning service. The name should be unique.
    * Otherwise, a random implementation with the provided name will be used.
@@ -0,0 +1,670 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.kit.datamanager.repo.configuration.AuditPipelineProperties;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import org.javers.core.Commit;
+import org.javers.core.Javers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Pipeline committing audit information to the Javers repository
+ * asynchronously. Within the write transaction, only a JSON snapshot of the
+ * modified entity is taken. After the transaction has been committed, the
+ * snapshot is queued and committed to Javers in batches by a dedicated
+ * thread, such that the write transaction is not delayed by diffing the
+ * entity graph. Snapshots of changes that are rolled back are discarded.
+ *
+ * Snapshots are committed in the order they were queued, thus, the order of
+ * versions of each entity is preserved. Snapshots are written to an optional
+ * journal before the write transaction is committed, marked as void if the
+ * transaction is rolled back and committed again at startup if the service
+ * terminated before. The journal is rewritten with the snapshots not committed
+ * yet as soon as it contains too many completed records. Audit services should call {@link #flush(Class, String)} before
+ * reading audit information of an entity in order to observe all versions.
+ * The queue depth, the number of committed and failed snapshots as well as
+ * the lag between queueing and committing a snapshot are published as
+ * metrics.
+ */
+@Component
+public class AsyncAuditCommitter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncAuditCommitter.class);
+    /**
+     * Package of entity classes which may be restored from the journal.
+     */
+    private static final String ENTITY_PACKAGE = "edu.kit.datamanager.";
+    private static final String SNAPSHOT_RECORD = "S";
+    private static final String DONE_RECORD = "D";
+    private static final String VOID_RECORD = "V";
+    /**
+     * Number of completed records in the journal, beyond which the journal is
+     * rewritten.
+     */
+    private static final int JOURNAL_COMPACTION_RECORDS = 1000;
+
+    private final AuditPipelineProperties properties;
+    private final Javers javers;
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final BlockingQueue<Entry> queue;
+    private final Map<Class<?>, BiConsumer<String, Commit>> listeners = new ConcurrentHashMap<>();
+    /**
+     * Number of queued snapshots per entity key.
+     */
+    private final Map<String, Integer> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Object monitor = new Object();
+    private final Object journalLock = new Object();
+    /**
+     * Journaled snapshots not committed yet by sequence number.
+     */
+    private final Map<Long, Entry> journaled = new TreeMap<>();
+    private Path journalPath;
+    private FileChannel journal;
+    private long journalRecords;
+    private TransactionTemplate transactionTemplate;
+    private volatile boolean running;
+    private Thread worker;
+    private Timer lagTimer;
+    private Counter committedCounter;
+    private Counter failedCounter;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The pipeline configuration.
+     * @param javers The Javers instance snapshots are committed to.
+     */
+    @Autowired
+    public AsyncAuditCommitter(AuditPipelineProperties properties, Javers javers) {
+        this.properties = properties;
+        this.javers = javers;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    /**
+     * Set the transaction manager used to commit each batch of snapshots
+     * within a single transaction. Without transaction manager, each snapshot
+     * is committed separately.
+     *
+     * @param transactionManager The transaction manager.
+     */
+    @Autowired(required = false)
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Set the meter registry used to publish the queue depth, the commit lag
+     * and the number of committed and failed snapshots.
+     *
+     * @param meterRegistry The meter registry.
+     */
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        String prefixMetrics = MonitoringUtil.getServiceName();
+        Gauge.builder(prefixMetrics + "_audit_queue_depth", pendingCount, AtomicInteger::get).register(meterRegistry);
+        lagTimer = Timer.builder(prefixMetrics + "_audit_lag").register(meterRegistry);
+        committedCounter = Counter.builder(prefixMetrics + "_audit_committed").register(meterRegistry);
+        failedCounter = Counter.builder(prefixMetrics + "_audit_failed").register(meterRegistry);
+    }
+
+    /**
+     * Check whether audit information is committed asynchronously.
+     *
+     * @return TRUE if asynchronous commits are enabled.
+     */
+    public boolean isAsync() {
+        return properties.isAsync();
+    }
+
+    /**
+     * Register a listener notified after a snapshot of the provided entity
+     * class has been committed, e.g. for updating cached versions. The
+     * listener receives the entity id and the commit, which is null if
+     * committing the snapshot failed.
+     *
+     * @param type The entity class.
+     * @param listener The listener.
+     */
+    public void register(Class<?> type, BiConsumer<String, Commit> listener) {
+        listeners.put(type, listener);
+    }
+
+    /**
+     * Get the number of snapshots waiting for being committed.
+     *
+     * @return The number of pending snapshots.
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Submit an entity for being audited. The snapshot of the entity is taken
+     * immediately, i.e., lazy associations must be loadable. If a transaction
+     * is active, the snapshot is journaled before and queued after the
+     * transaction has been committed. It is discarded if the transaction is
+     * rolled back. If the queue is full, this method blocks until space is
+     * available.
+     *
+     * @param <T> The entity type.
+     * @param type The entity class.
+     * @param id The entity id.
+     * @param entity The entity.
+     * @param principal The principal who modified the entity.
+     */
+    public <T> void submit(Class<T> type, String id, T entity, String principal) {
+        byte[] snapshot;
+        try {
+            snapshot = mapper.writeValueAsBytes(entity);
+        } catch (JsonProcessingException ex) {
+            LOGGER.warn("Failed to take snapshot of " + type.getSimpleName() + " " + id + ". Committing audit information synchronously.", ex);
+            Commit commit = javers.commit(principal, entity);
+            notifyListener(type, id, commit);
+            return;
+        }
+        Entry entry = new Entry(type, id, principal, snapshot);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    //journal the snapshot before the change becomes visible, such that it survives a crash after the commit
+                    journal(entry);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(entry);
+                    } else if (status == STATUS_ROLLED_BACK) {
+                        if (entry.sequence != 0) {
+                            writeRecord(entry, VOID_RECORD);
+                        }
+                    } else {
+                        LOGGER.warn("Outcome of transaction unknown. Audit snapshot of {} {} remains in the journal until the next startup.", entry.type.getSimpleName(), entry.id);
+                    }
+                }
+            });
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    /**
+     * Wait until all queued snapshots of an entity have been committed or
+     * until the flush timeout has elapsed.
+     *
+     * @param type The entity class.
+     * @param id The entity id.
+     */
+    public void flush(Class<?> type, String id) {
+        if (id == null) {
+            return;
+        }
+        String key = key(type, id);
+        await(() -> !pending.containsKey(key), type.getSimpleName() + " " + id);
+    }
+
+    /**
+     * Wait until all queued snapshots have been committed or until the flush
+     * timeout has elapsed.
+     */
+    public void flush() {
+        await(() -> pendingCount.get() == 0, "all entities");
+    }
+
+    /**
+     * Open the journal and commit snapshots left by a previous run. Records of
+     * snapshots committed before, as well as a partially written last record,
+     * are skipped.
+     */
+    @PostConstruct
+    public void replayJournal() {
+        if (properties.getJournal() == null || properties.getJournal().isBlank()) {
+            return;
+        }
+        Path path = Paths.get(properties.getJournal());
+        Map<String, Entry> remaining = new LinkedHashMap<>();
+        try {
+            if (Files.exists(path)) {
+                for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                    readRecord(line, remaining);
+                }
+            } else if (path.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+            }
+            synchronized (journalLock) {
+                journalPath = path;
+                journal = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                for (Entry entry : remaining.values()) {
+                    journaled.put(entry.sequence, entry);
+                }
+                //drop completed records of the previous run
+                rewriteJournal();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open audit journal at " + path + ".", ex);
+        }
+        if (!remaining.isEmpty()) {
+            LOGGER.info("Committing {} audit snapshot(s) found in journal {}.", remaining.size(), path);
+            remaining.values().forEach(this::enqueue);
+        }
+    }
+
+    /**
+     * Stop the worker thread after committing all queued snapshots. Snapshots
+     * that cannot be committed remain in the journal and are committed at the
+     * next startup.
+     */
+    @PreDestroy
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = worker;
+            worker = null;
+        }
+        if (current != null) {
+            try {
+                current.join(properties.getFlushTimeout().toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<Entry> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            LOGGER.info("Committing {} queued audit snapshot(s) on shutdown.", remaining.size());
+            commitBatch(remaining);
+        }
+        synchronized (journalLock) {
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException ex) {
+                    LOGGER.warn("Failed to close audit journal.", ex);
+                }
+                journal = null;
+            }
+        }
+    }
+
+    /**
+     * Queue a snapshot, blocking until space is available in the queue.
+     *
+     * @param entry The snapshot.
+     */
+    protected void enqueue(Entry entry) {
+        ensureStarted();
+        entry.enqueuedAt = System.nanoTime();
+        pending.merge(entry.key(), 1, Integer::sum);
+        pendingCount.incrementAndGet();
+        if (entry.sequence == 0) {
+            journal(entry);
+        }
+        try {
+            if (!queue.offer(entry)) {
+                LOGGER.warn("Audit queue is full. Waiting for free space.");
+                queue.put(entry);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while queueing audit snapshot of {} {}. Committing snapshot in calling thread.", entry.type.getSimpleName(), entry.id);
+            commitBatch(List.of(entry));
+        }
+    }
+
+    /**
+     * Commit a batch of snapshots within one transaction. If the transaction
+     * fails, the snapshots are committed one by one in order to only discard
+     * snapshots that cannot be committed at all.
+     *
+     * @param batch The snapshots to commit.
+     */
+    protected void commitBatch(List<Entry> batch) {
+        List<Commit> commits;
+        try {
+            commits = inTransaction(() -> {
+                List<Commit> result = new ArrayList<>(batch.size());
+                for (Entry entry : batch) {
+                    result.add(commit(entry));
+                }
+                return result;
+            });
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to commit batch of " + batch.size() + " audit snapshot(s). Committing snapshots one by one.", ex);
+            commits = new ArrayList<>(batch.size());
+            for (Entry entry : batch) {
+                try {
+                    commits.add(inTransaction(() -> commit(entry)));
+                } catch (RuntimeException single) {
+                    LOGGER.error("Failed to commit audit snapshot of " + entry.type.getSimpleName() + " " + entry.id + ". Snapshot is discarded.", single);
+                    commits.add(null);
+                }
+            }
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Entry entry = batch.get(i);
+            Commit commit = commits.get(i);
+            notifyListener(entry.type, entry.id, commit);
+            if (commit == null) {
+                if (failedCounter != null) {
+                    failedCounter.increment();
+                }
+            } else {
+                if (committedCounter != null) {
+                    committedCounter.increment();
+                }
+                if (lagTimer != null) {
+                    lagTimer.record(System.nanoTime() - entry.enqueuedAt, TimeUnit.NANOSECONDS);
+                }
+            }
+            complete(entry);
+        }
+        compactJournal();
+        synchronized (monitor) {
+            monitor.notifyAll();
+        }
+        LOGGER.trace("Committed batch of {} audit snapshot(s).", batch.size());
+    }
+
+    private Commit commit(Entry entry) {
+        Object entity;
+        try {
+            entity = mapper.readValue(entry.snapshot, entry.type);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read audit snapshot of " + entry.type.getSimpleName() + " " + entry.id + ".", ex);
+        }
+        return javers.commit(entry.principal, entity);
+    }
+
+    private <R> R inTransaction(Supplier<R> action) {
+        if (transactionTemplate == null) {
+            return action.get();
+        }
+        return transactionTemplate.execute((status) -> action.get());
+    }
+
+    private void notifyListener(Class<?> type, String id, Commit commit) {
+        BiConsumer<String, Commit> listener = listeners.get(type);
+        if (listener != null) {
+            try {
+                listener.accept(id, commit);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Audit listener failed for " + type.getSimpleName() + " " + id + ".", ex);
+            }
+        }
+    }
+
+    private void complete(Entry entry) {
+        writeRecord(entry, DONE_RECORD);
+        pending.computeIfPresent(entry.key(), (key, count) -> (count <= 1) ? null : count - 1);
+        pendingCount.decrementAndGet();
+    }
+
+    private void await(Supplier<Boolean> condition, String description) {
+        if (condition.get()) {
+            return;
+        }
+        long deadline = System.nanoTime() + properties.getFlushTimeout().toNanos();
+        synchronized (monitor) {
+            while (!condition.get()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    LOGGER.warn("Timeout while waiting for pending audit snapshots of {}. Reading audit information anyway.", description);
+                    return;
+                }
+                try {
+                    monitor.wait(TimeUnit.NANOSECONDS.toMillis(remaining) + 1);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Assign a sequence number to a snapshot and write it to the journal.
+     */
+    private void journal(Entry entry) {
+        if (entry.sequence == 0) {
+            entry.sequence = sequence.incrementAndGet();
+            writeRecord(entry, SNAPSHOT_RECORD);
+        }
+    }
+
+    /**
+     * Append a record to the journal. Snapshot records contain the sequence
+     * number, the entity class, id and principal and the JSON snapshot, done
+     * and void records only contain the sequence number.
+     */
+    private void writeRecord(Entry entry, String recordType) {
+        synchronized (journalLock) {
+            if (journal == null) {
+                return;
+            }
+            if (SNAPSHOT_RECORD.equals(recordType)) {
+                journaled.put(entry.sequence, entry);
+            } else {
+                journaled.remove(entry.sequence);
+            }
+            journalRecords++;
+            try {
+                journal.write(ByteBuffer.wrap(formatRecord(entry, recordType)));
+                if (properties.isJournalSync() && SNAPSHOT_RECORD.equals(recordType)) {
+                    journal.force(false);
+                }
+            } catch (IOException ex) {
+                LOGGER.error("Failed to write audit journal. Snapshot of " + entry.type.getSimpleName() + " " + entry.id + " is not durable.", ex);
+            }
+        }
+    }
+
+    private static byte[] formatRecord(Entry entry, String recordType) {
+        StringBuilder line = new StringBuilder(recordType).append('\t').append(entry.sequence);
+        if (SNAPSHOT_RECORD.equals(recordType)) {
+            Base64.Encoder encoder = Base64.getEncoder();
+            line.append('\t').append(entry.type.getName()).
+                    append('\t').append(encoder.encodeToString(entry.id.getBytes(StandardCharsets.UTF_8))).
+                    append('\t').append(encoder.encodeToString(String.valueOf(entry.principal).getBytes(StandardCharsets.UTF_8))).
+                    append('\t').append(encoder.encodeToString(entry.snapshot));
+        }
+        line.append('\n');
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void readRecord(String line, Map<String, Entry> remaining) {
+        String[] fields = line.split("\t");
+        try {
+            if ((DONE_RECORD.equals(fields[0]) || VOID_RECORD.equals(fields[0])) && fields.length == 2) {
+                remaining.remove(fields[1]);
+            } else if (SNAPSHOT_RECORD.equals(fields[0]) && fields.length == 6) {
+                if (!fields[2].startsWith(ENTITY_PACKAGE)) {
+                    LOGGER.warn("Skipping journal record of unsupported type {}.", fields[2]);
+                    return;
+                }
+                Base64.Decoder decoder = Base64.getDecoder();
+                Class<?> type = Class.forName(fields[2], false, getClass().getClassLoader());
+                String id = new String(decoder.decode(fields[3]), StandardCharsets.UTF_8);
+                String principal = new String(decoder.decode(fields[4]), StandardCharsets.UTF_8);
+                Entry entry = new Entry(type, id, principal, decoder.decode(fields[5]));
+                //keep the sequence number, such that the existing record is completed by the done record
+                entry.sequence = Long.parseLong(fields[1]);
+                sequence.accumulateAndGet(entry.sequence, Math::max);
+                remaining.put(fields[1], entry);
+            } else {
+                LOGGER.warn("Skipping incomplete journal record.");
+            }
+        } catch (ClassNotFoundException | IllegalArgumentException ex) {
+            LOGGER.warn("Skipping invalid journal record.", ex);
+        }
+    }
+
+    /**
+     * Truncate the journal if no snapshot is journaled anymore. Otherwise,
+     * rewrite the journal with the remaining snapshots as soon as it contains
+     * too many completed records, e.g. under sustained load.
+     */
+    private void compactJournal() {
+        synchronized (journalLock) {
+            if (journal == null) {
+                return;
+            }
+            if (journaled.isEmpty()) {
+                try {
+                    journal.truncate(0);
+                    journalRecords = 0;
+                } catch (IOException ex) {
+                    LOGGER.warn("Failed to truncate audit journal.", ex);
+                }
+            } else if (journalRecords > JOURNAL_COMPACTION_RECORDS + 2L * journaled.size()) {
+                try {
+                    rewriteJournal();
+                } catch (IOException ex) {
+                    LOGGER.warn("Failed to rewrite audit journal.", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace the journal by a new journal only containing the snapshots not
+     * committed yet. The new journal is written to a temporary file first,
+     * which atomically replaces the journal afterwards. Must be called while
+     * holding the journal lock.
+     */
+    private void rewriteJournal() throws IOException {
+        Path tmp = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Entry entry : journaled.values()) {
+                out.write(ByteBuffer.wrap(formatRecord(entry, SNAPSHOT_RECORD)));
+            }
+            out.force(false);
+        }
+        Files.move(tmp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        FileChannel previous = journal;
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        journalRecords = journaled.size();
+        previous.close();
+        LOGGER.trace("Rewrote audit journal with {} remaining snapshot(s).", journalRecords);
+    }
+
+    private synchronized void ensureStarted() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "audit-committer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void run() {
+        LOGGER.trace("Audit committer started.");
+        List<Entry> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                commitBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException ex) {
+                LOGGER.error("Unexpected error while committing audit snapshots.", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+        LOGGER.trace("Audit committer stopped.");
+    }
+
+    private static String key(Class<?> type, String id) {
+        return type.getName() + ":" + id;
+    }
+
+    /**
+     * Snapshot of an entity waiting for being committed.
+     */
+    protected static final class Entry {
+
+        private final Class<?> type;
+        private final String id;
+        private final String principal;
+        private final byte[] snapshot;
+        private long sequence;
+        private long enqueuedAt;
+
+        private Entry(Class<?> type, String id, String principal, byte[] snapshot) {
+            this.type = type;
+            this.id = id;
+            this.principal = principal;
+            this.snapshot = snapshot;
+        }
+
+        private String key() {
+            return AsyncAuditCommitter.key(type, id);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.repo.configuration.AuditRetentionProperties;
+import edu.kit.datamanager.repo.dao.IContentInformationDao;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.domain.AuditCompactionReport;
+import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.util.AuditRetentionPolicy;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.javers.core.Javers;
+import org.javers.repository.jql.QueryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service removing old audit snapshots of data resources and content
+ * information from the Javers repository. For each entity having more
+ * versions than always kept, the snapshots to remove are selected by an
+ * {@link AuditRetentionPolicy}. Entities are processed in chunks, each within
+ * a separate transaction, such that the tables are not locked for the whole
+ * run. Commits without remaining snapshots are removed afterwards. Snapshots
+ * of FIXED resources and of content information belonging to FIXED resources
+ * are never removed.
+ *
+ * Snapshots of nested entities, e.g. titles or creators, are kept, as they
+ * are shared between versions and needed for restoring the remaining
+ * versions. Removed versions are not renumbered, i.e., versions of compacted
+ * entities contain gaps. Listing all versions of a resource only returns and
+ * counts the remaining versions, whereas requesting a removed version results
+ * in HTTP 404 (NOT_FOUND). The number of reclaimed rows and the latency of
+ * querying the current version before and after each run are published as
+ * metrics and returned as {@link AuditCompactionReport}.
+ */
+@Component
+public class AuditCompactionService {
+
+  /**
+   * Logger for messages.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(AuditCompactionService.class);
+  /**
+   * Max. number of parameters of IN clauses.
+   */
+  private static final int MAX_PARAMETERS = 500;
+
+  private final AuditRetentionProperties properties;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final IDataResourceDao dataResourceDao;
+  private final IContentInformationDao contentInformationDao;
+  private final Javers javers;
+  private final AuditRetentionPolicy policy;
+  private Timer compactionTimer;
+  private Timer latencyBeforeTimer;
+  private Timer latencyAfterTimer;
+  private Counter reclaimedCounter;
+
+  /**
+   * Default constructor.
+   *
+   * @param properties The retention configuration.
+   * @param jdbcTemplate The JDBC template accessing the Javers tables.
+   * @param transactionManager The transaction manager used for each chunk.
+   * @param dataResourceDao The data resource repository.
+   * @param contentInformationDao The content information repository.
+   * @param javers The Javers instance used for measuring query latency.
+   */
+  @Autowired
+  public AuditCompactionService(AuditRetentionProperties properties, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+          IDataResourceDao dataResourceDao, IContentInformationDao contentInformationDao, Javers javers) {
+    this.properties = properties;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.dataResourceDao = dataResourceDao;
+    this.contentInformationDao = contentInformationDao;
+    this.javers = javers;
+    this.policy = new AuditRetentionPolicy(properties.getKeepLastVersions(), properties.getRetainAllFor(), properties.getThinningInterval());
+  }
+
+  /**
+   * Set the meter registry used to publish the duration of compaction runs,
+   * the number of reclaimed rows and the query latency before and after each
+   * run.
+   *
+   * @param meterRegistry The meter registry.
+   */
+  @Autowired(required = false)
+  public void setMeterRegistry(MeterRegistry meterRegistry) {
+    String prefixMetrics = MonitoringUtil.getServiceName();
+    compactionTimer = Timer.builder(prefixMetrics + "_audit_compaction").register(meterRegistry);
+    latencyBeforeTimer = Timer.builder(prefixMetrics + "_audit_compaction_query_latency").tag("phase", "before").register(meterRegistry);
+    latencyAfterTimer = Timer.builder(prefixMetrics + "_audit_compaction_query_latency").tag("phase", "after").register(meterRegistry);
+    reclaimedCounter = Counter.builder(prefixMetrics + "_audit_compaction_reclaimed_rows").register(meterRegistry);
+  }
+
+  /**
+   * Run the compaction if enabled.
+   */
+  @Scheduled(fixedDelayString = "${repo.audit.retention.interval:P1D}", initialDelayString = "${repo.audit.retention.interval:P1D}")
+  public void scheduledCompaction() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    try {
+      compact();
+    } catch (RuntimeException ex) {
+      LOGGER.error("Audit compaction failed. Retrying with next run.", ex);
+    }
+  }
+
+  /**
+   * Remove audit snapshots according to the retention policy.
+   *
+   * @return The report of this run.
+   */
+  public synchronized AuditCompactionReport compact() {
+    AuditCompactionReport report = new AuditCompactionReport();
+    report.setStartedAt(Instant.now());
+    long start = System.nanoTime();
+    LOGGER.info("Starting audit compaction keeping the last {} version(s), all versions of {} and one version per {} beyond.",
+            properties.getKeepLastVersions(), properties.getRetainAllFor(), properties.getThinningInterval());
+
+    List<String> samples = findLatencySamples();
+    report.setLatencyBefore(measureLatency(samples, latencyBeforeTimer));
+
+    compactType(DataResource.class, this::findFixedResources, report);
+    compactType(ContentInformation.class, this::findFixedContent, report);
+
+    report.setLatencyAfter(measureLatency(samples, latencyAfterTimer));
+    long nanos = System.nanoTime() - start;
+    report.setDuration(Duration.ofNanos(nanos));
+    if (compactionTimer != null) {
+      compactionTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    if (reclaimedCounter != null) {
+      reclaimedCounter.increment(report.getReclaimedRows());
+    }
+    LOGGER.info("Audit compaction finished in {}. Inspected {} entities, skipped {} entities of FIXED resources, reclaimed {} rows ({} snapshots, {} commits, {} commit properties). Query latency changed from {} to {}.",
+            report.getDuration(), report.getInspectedEntities(), report.getSkippedFixedEntities(), report.getReclaimedRows(), report.getDeletedSnapshots(),
+            report.getDeletedCommits(), report.getDeletedCommitProperties(), report.getLatencyBefore(), report.getLatencyAfter());
+    return report;
+  }
+
+  /**
+   * Compact all entities of one type having more versions than always kept,
+   * using keyset pagination over the global ids. Entities of FIXED resources
+   * are determined per chunk using the provided lookup.
+   */
+  private void compactType(Class<?> type, Function<List<String>, Collection<String>> fixedLookup, AuditCompactionReport report) {
+    String sql = "SELECT g.global_id_pk, g.local_id FROM " + table("global_id") + " g"
+            + " WHERE g.type_name = ? AND g.owner_id_fk IS NULL AND g.global_id_pk > ?"
+            + " AND (SELECT COUNT(*) FROM " + table("snapshot") + " s WHERE s.global_id_fk = g.global_id_pk) > ?"
+            + " ORDER BY g.global_id_pk";
+    long lastKey = 0;
+    while (true) {
+      final long after = lastKey;
+      Map<Long, String> chunk = new LinkedHashMap<>();
+      jdbcTemplate.query((connection) -> {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setString(1, type.getName());
+        statement.setLong(2, after);
+        statement.setInt(3, policy.getKeepLastVersions());
+        statement.setMaxRows(properties.getChunkSize());
+        return statement;
+      }, (rs) -> {
+        chunk.put(rs.getLong(1), toEntityId(rs.getString(2)));
+      });
+      if (chunk.isEmpty()) {
+        break;
+      }
+      lastKey = Collections.max(chunk.keySet());
+      report.setInspectedEntities(report.getInspectedEntities() + chunk.size());
+      Set<String> fixedIds = new HashSet<>();
+      List<String> entityIds = new ArrayList<>(chunk.values());
+      for (int from = 0; from < entityIds.size(); from += MAX_PARAMETERS) {
+        fixedIds.addAll(fixedLookup.apply(entityIds.subList(from, Math.min(from + MAX_PARAMETERS, entityIds.size()))));
+      }
+      chunk.values().removeIf((id) -> {
+        if (fixedIds.contains(id)) {
+          report.setSkippedFixedEntities(report.getSkippedFixedEntities() + 1);
+          return true;
+        }
+        return false;
+      });
+      if (!chunk.isEmpty()) {
+        transactionTemplate.executeWithoutResult((status) -> compactChunk(chunk.keySet(), report));
+      }
+    }
+  }
+
+  /**
+   * Remove the snapshots selected by the policy of the provided global ids
+   * as well as all commits left without snapshots.
+   */
+  private void compactChunk(Collection<Long> globalIds, AuditCompactionReport report) {
+    String sql = "SELECT s.snapshot_pk, s.global_id_fk, s.version, s.commit_fk, c.commit_date FROM " + table("snapshot") + " s"
+            + " JOIN " + table("commit") + " c ON c.commit_pk = s.commit_fk"
+            + " WHERE s.global_id_fk IN (" + placeholders(globalIds.size()) + ")";
+    Map<Long, List<AuditRetentionPolicy.Version>> versions = new HashMap<>();
+    Map<Long, Long> commits = new HashMap<>();
+    RowMapper<Void> mapper = (rs, row) -> {
+      Timestamp commitDate = rs.getTimestamp(5);
+      long snapshot = rs.getLong(1);
+      versions.computeIfAbsent(rs.getLong(2), (key) -> new ArrayList<>()).
+              add(new AuditRetentionPolicy.Version(snapshot, rs.getLong(3), (commitDate != null) ? commitDate.toInstant() : null));
+      commits.put(snapshot, rs.getLong(4));
+      return null;
+    };
+    jdbcTemplate.query(sql, mapper, globalIds.toArray());
+
+    Instant now = Instant.now();
+    List<Object[]> snapshots = new ArrayList<>();
+    Set<Long> affectedCommits = new HashSet<>();
+    for (List<AuditRetentionPolicy.Version> entityVersions : versions.values()) {
+      for (Long snapshot : policy.select(entityVersions, now)) {
+        snapshots.add(new Object[]{snapshot});
+        affectedCommits.add(commits.get(snapshot));
+      }
+    }
+    if (snapshots.isEmpty()) {
+      return;
+    }
+    report.setDeletedSnapshots(report.getDeletedSnapshots() + sum(jdbcTemplate.batchUpdate("DELETE FROM " + table("snapshot") + " WHERE snapshot_pk = ?", snapshots)));
+
+    long orphaned = 0;
+    List<Long> candidates = new ArrayList<>(affectedCommits);
+    //limit the number of parameters per statement, e.g. to 1000 for Oracle
+    for (int from = 0; from < candidates.size(); from += MAX_PARAMETERS) {
+      List<Long> group = candidates.subList(from, Math.min(from + MAX_PARAMETERS, candidates.size()));
+      List<Long> orphanedCommits = jdbcTemplate.queryForList("SELECT c.commit_pk FROM " + table("commit") + " c"
+              + " WHERE c.commit_pk IN (" + placeholders(group.size()) + ")"
+              + " AND NOT EXISTS (SELECT 1 FROM " + table("snapshot") + " s WHERE s.commit_fk = c.commit_pk)", Long.class, group.toArray());
+      if (!orphanedCommits.isEmpty()) {
+        String in = placeholders(orphanedCommits.size());
+        report.setDeletedCommitProperties(report.getDeletedCommitProperties() + jdbcTemplate.update("DELETE FROM " + table("commit_property") + " WHERE commit_fk IN (" + in + ")", orphanedCommits.toArray()));
+        report.setDeletedCommits(report.getDeletedCommits() + jdbcTemplate.update("DELETE FROM " + table("commit") + " WHERE commit_pk IN (" + in + ")", orphanedCommits.toArray()));
+        orphaned += orphanedCommits.size();
+      }
+    }
+    LOGGER.debug("Removed {} snapshot(s) and {} commit(s) of {} entities.", snapshots.size(), orphaned, globalIds.size());
+  }
+
+  /**
+   * Find the ids of FIXED resources out of the provided ids.
+   */
+  private Collection<String> findFixedResources(List<String> ids) {
+    return dataResourceDao.findIdsByStateAndIdIn(DataResource.State.FIXED, ids);
+  }
+
+  /**
+   * Find the ids of content information belonging to FIXED resources out of
+   * the provided ids. Ids which are no valid content information ids are
+   * returned as well, such that their snapshots are kept.
+   */
+  private Collection<String> findFixedContent(List<String> ids) {
+    List<String> result = new ArrayList<>();
+    List<Long> contentIds = new ArrayList<>();
+    for (String id : ids) {
+      try {
+        contentIds.add(Long.valueOf(id));
+      } catch (NumberFormatException ex) {
+        LOGGER.warn("Skipping audit snapshots of content information with unexpected id {}.", id);
+        result.add(id);
+      }
+    }
+    if (!contentIds.isEmpty()) {
+      contentInformationDao.findIdsByParentResourceStateAndIdIn(DataResource.State.FIXED, contentIds).forEach((id) -> result.add(String.valueOf(id)));
+    }
+    return result;
+  }
+
+  /**
+   * Find the ids of data resources with most snapshots for measuring the
+   * query latency.
+   */
+  private List<String> findLatencySamples() {
+    if (properties.getLatencySamples() <= 0) {
+      return List.of();
+    }
+    String sql = "SELECT g.local_id FROM " + table("global_id") + " g JOIN " + table("snapshot") + " s ON s.global_id_fk = g.global_id_pk"
+            + " WHERE g.type_name = ? AND g.owner_id_fk IS NULL GROUP BY g.global_id_pk, g.local_id ORDER BY COUNT(*) DESC";
+    List<String> samples = new ArrayList<>();
+    jdbcTemplate.query((connection) -> {
+      PreparedStatement statement = connection.prepareStatement(sql);
+      statement.setString(1, DataResource.class.getName());
+      statement.setMaxRows(properties.getLatencySamples());
+      return statement;
+    }, (rs) -> {
+      samples.add(toEntityId(rs.getString(1)));
+    });
+    return samples;
+  }
+
+  /**
+   * Measure the average latency of querying the current version of the
+   * provided resources, which is the most frequent audit query.
+   */
+  private Duration measureLatency(List<String> samples, Timer timer) {
+    if (samples.isEmpty()) {
+      return null;
+    }
+    long total = 0;
+    for (String id : samples) {
+      long start = System.nanoTime();
+      javers.findSnapshots(QueryBuilder.byInstanceId(id, DataResource.class).limit(1).build());
+      long nanos = System.nanoTime() - start;
+      total += nanos;
+      if (timer != null) {
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+      }
+    }
+    return Duration.ofNanos(total / samples.size());
+  }
+
+  private String table(String name) {
+    return properties.getTablePrefix() + name;
+  }
+
+  /**
+   * Javers stores local ids in JSON format, i.e., string ids are quoted.
+   */
+  private static String toEntityId(String localId) {
+    if (localId != null && localId.length() >= 2 && localId.startsWith("\"") && localId.endsWith("\"")) {
+      return localId.substring(1, localId.length() - 1);
+    }
+    return localId;
+  }
+
+  private static String placeholders(int count) {
+    return String.join(",", Collections.nCopies(count, "?"));
+  }
+
+  private static long sum(int[] counts) {
+    long result = 0;
+    for (int count : counts) {
+      //drivers may report an unknown number of affected rows
+      result += Math.max(count, 0);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+import org.javers.core.Commit;
+import org.javers.core.metamodel.object.CdoSnapshot;
+import org.javers.core.metamodel.object.InstanceId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache for the current audit version of entities, which avoids querying the
+ * Javers repository for each read. Versions are updated from the snapshots of
+ * each audit commit. If a transaction is active, the entry is invalidated
+ * immediately and only updated after the transaction has been committed, such
+ * that readers never observe versions that are rolled back. Entries expire
+ * after a configurable time in order to pick up commits made by other
+ * instances sharing the same Javers repository, i.e., on multi-instance
+ * deployments versions may be outdated for up to this time. Saved Javers queries are counted by the metric
+ * '&lt;serviceName&gt;_audit_version_cache_hits'.
+ */
+public class AuditVersionCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditVersionCache.class);
+    private static final long MAXIMUM_SIZE = 100000;
+
+    private final Class<?> entityClass;
+    private final Cache<String, Long> versions;
+    private Counter hits;
+
+    /**
+     * Create a new cache.
+     *
+     * @param entityClass The audited entity class.
+     * @param expireAfterWrite Time after which cached versions expire or null
+     * or zero to disable caching.
+     */
+    public AuditVersionCache(Class<?> entityClass, Duration expireAfterWrite) {
+        this.entityClass = entityClass;
+        if (expireAfterWrite == null || expireAfterWrite.isZero() || expireAfterWrite.isNegative()) {
+            versions = null;
+        } else {
+            versions = Caffeine.newBuilder().maximumSize(MAXIMUM_SIZE).expireAfterWrite(expireAfterWrite).build();
+        }
+    }
+
+    /**
+     * Get the current version of an entity, using the loader if the version
+     * is not cached.
+     *
+     * @param id The entity id.
+     * @param loader The loader querying the current version.
+     *
+     * @return The current version.
+     */
+    public long getVersion(String id, ToLongFunction<String> loader) {
+        if (versions == null) {
+            return loader.applyAsLong(id);
+        }
+        Long version = versions.getIfPresent(id);
+        if (version != null) {
+            LOGGER.trace("Obtained version {} of {} {} from cache.", version, entityClass.getSimpleName(), id);
+            getHitCounter().increment();
+            return version;
+        }
+        long loaded = loader.applyAsLong(id);
+        //do not override a version put by a concurrent commit in the meantime
+        versions.asMap().putIfAbsent(id, loaded);
+        return loaded;
+    }
+
+    /**
+     * Update the version of an entity from the snapshots of a commit. If the
+     * commit contains no snapshot of the entity, e.g. as nothing has changed,
+     * the cached version remains valid.
+     *
+     * @param id The entity id.
+     * @param commit The commit.
+     */
+    public void update(String id, Commit commit) {
+        if (versions == null || id == null) {
+            return;
+        }
+        Long version = null;
+        if (commit != null) {
+            for (CdoSnapshot snapshot : commit.getSnapshots()) {
+                if (isSnapshotOf(snapshot, id)) {
+                    version = snapshot.getVersion();
+                    break;
+                }
+            }
+        }
+        if (version == null) {
+            if (commit == null) {
+                versions.invalidate(id);
+            }
+            return;
+        }
+        long committed = version;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(id, committed);
+            return;
+        }
+        //the version becomes visible only after the commit
+        versions.invalidate(id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(id, committed);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    versions.invalidate(id);
+                }
+            }
+        });
+    }
+
+    /**
+     * Invalidate the cached version of an entity.
+     *
+     * @param id The entity id.
+     */
+    public void invalidate(String id) {
+        if (versions != null && id != null) {
+            versions.invalidate(id);
+        }
+    }
+
+    private boolean isSnapshotOf(CdoSnapshot snapshot, String id) {
+        return snapshot.getGlobalId() instanceof InstanceId
+                && Objects.equals(id, String.valueOf(((InstanceId) snapshot.getGlobalId()).getCdoId()))
+                && entityClass.equals(snapshot.getManagedType().getBaseJavaClass());
+    }
+
+    private void put(String id, long version) {
+        //commits of concurrent transactions may complete in any order, keep the newest version
+        versions.asMap().merge(id, version, Math::max);
+    }
+
+    private Counter getHitCounter() {
+        if (hits == null) {
+            //audit services are no beans, thus the global registry is used
+            hits = Counter.builder(MonitoringUtil.getServiceName() + "_audit_version_cache_hits").
+                    description("Number of Javers queries saved by the audit version cache.").
+                    tag("type", entityClass.getSimpleName()).
+                    register(Metrics.globalRegistry);
+        }
+        return hits;
+    }
+}
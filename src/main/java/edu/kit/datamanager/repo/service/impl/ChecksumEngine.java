@@ -0,0 +1,436 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.repo.configuration.ContentTransferProperties;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+import org.apache.commons.codec.binary.Hex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Engine for computing one or more checksums of uploaded content. The first
+ * configured algorithm is the primary algorithm, whose result is stored as hash
+ * of a content information. Additional algorithms are computed on separate
+ * threads fed by a bounded queue of chunks, such that the upload thread only
+ * has to compute the primary checksum and write the content, while all other
+ * digests are computed in parallel. Digester instances are pooled and reused
+ * between uploads.
+ *
+ * Besides all algorithms supported by java.security.MessageDigest (e.g. SHA1,
+ * SHA-256, MD5), the non-cryptographic checksums CRC32, CRC32C and ADLER32 are
+ * supported. Further algorithms can be added via
+ * {@link #registerAlgorithm(java.lang.String, java.util.function.Supplier)}.
+ */
+@Component
+public class ChecksumEngine {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChecksumEngine.class);
+
+  /**
+   * Default algorithm used if nothing else is configured.
+   */
+  public static final String DEFAULT_ALGORITHM = "SHA1";
+
+  /**
+   * Prefix of the keys in the options map holding all computed checksums,
+   * e.g. 'checksum.sha256'.
+   */
+  public static final String CHECKSUM_OPTION_PREFIX = "checksum.";
+
+  private static final ExecutorService WORKERS = Executors.newCachedThreadPool((r) -> {
+    Thread t = new Thread(r, "checksum-worker");
+    t.setDaemon(true);
+    return t;
+  });
+
+  private static final Map<String, Supplier<Digester>> CUSTOM_ALGORITHMS = new ConcurrentHashMap<>();
+
+  private static final ChecksumEngine DEFAULT_ENGINE = new ChecksumEngine(List.of(DEFAULT_ALGORITHM), false, 1);
+
+  private final Map<String, Queue<Digester>> digesterPool = new ConcurrentHashMap<>();
+  private final List<String> algorithms;
+  private final boolean parallel;
+  private final int queueSize;
+
+  /**
+   * A digester computing a single checksum incrementally. Digesters are not
+   * thread-safe.
+   */
+  public interface Digester {
+
+    /**
+     * Update the checksum with the provided bytes.
+     *
+     * @param buffer The buffer.
+     * @param offset The offset in the buffer.
+     * @param length The number of bytes to process.
+     */
+    void update(byte[] buffer, int offset, int length);
+
+    /**
+     * Finish the computation and reset the digester for reuse.
+     *
+     * @return The checksum as hex string.
+     */
+    String finish();
+  }
+
+  @Autowired
+  public ChecksumEngine(ContentTransferProperties properties) {
+    this(properties.getChecksumAlgorithms(), properties.isParallelChecksums(), properties.getChecksumQueueSize());
+  }
+
+  public ChecksumEngine(List<String> algorithms, boolean parallel, int queueSize) {
+    if (algorithms == null || algorithms.isEmpty()) {
+      throw new IllegalArgumentException("At least one checksum algorithm must be provided.");
+    }
+    this.algorithms = List.copyOf(algorithms);
+    this.parallel = parallel;
+    this.queueSize = Math.max(1, queueSize);
+    //fail fast on unsupported algorithms
+    for (String algorithm : this.algorithms) {
+      release(algorithm, acquire(algorithm));
+    }
+    LOGGER.trace("Checksum engine initialized with algorithms {} (parallel: {}, queue size: {}).", this.algorithms, parallel, this.queueSize);
+  }
+
+  /**
+   * Get the engine computing a SHA1 checksum, which is used if no engine is
+   * configured.
+   *
+   * @return The default engine.
+   */
+  public static ChecksumEngine getDefault() {
+    return DEFAULT_ENGINE;
+  }
+
+  /**
+   * Get the label of an algorithm used as prefix of checksum values, e.g.
+   * 'sha256' for 'SHA-256'.
+   *
+   * @param algorithm The algorithm name.
+   *
+   * @return The label.
+   */
+  public static String getLabel(String algorithm) {
+    return algorithm.toLowerCase(Locale.ROOT).replace("-", "").replace("_", "");
+  }
+
+  /**
+   * Register an additional algorithm. Registered algorithms take precedence
+   * over built-in ones with the same name. Algorithms have to be registered
+   * before an engine using them is created.
+   *
+   * @param name The algorithm name.
+   * @param factory Factory for creating new digesters.
+   */
+  public static void registerAlgorithm(String name, Supplier<Digester> factory) {
+    CUSTOM_ALGORITHMS.put(name.toUpperCase(Locale.ROOT), factory);
+  }
+
+  /**
+   * @return The configured algorithms, the first one being the primary one.
+   */
+  public List<String> getAlgorithms() {
+    return algorithms;
+  }
+
+  /**
+   * Open a new session for computing all configured checksums of one content
+   * stream.
+   *
+   * @param bufferSize The size of the buffers chunks are read into.
+   *
+   * @return The session, which has to be closed after use.
+   */
+  public Session openSession(int bufferSize) {
+    return new Session(bufferSize);
+  }
+
+  private Digester acquire(String algorithm) {
+    Digester digester = digesterPool.computeIfAbsent(algorithm.toUpperCase(Locale.ROOT), (k) -> new ConcurrentLinkedQueue<>()).poll();
+    return (digester != null) ? digester : createDigester(algorithm);
+  }
+
+  private void release(String algorithm, Digester digester) {
+    digesterPool.computeIfAbsent(algorithm.toUpperCase(Locale.ROOT), (k) -> new ConcurrentLinkedQueue<>()).offer(digester);
+  }
+
+  private Digester createDigester(String algorithm) {
+    String name = algorithm.toUpperCase(Locale.ROOT);
+    Supplier<Digester> factory = CUSTOM_ALGORITHMS.get(name);
+    if (factory != null) {
+      return factory.get();
+    }
+    switch (name) {
+      case "CRC32":
+        return new ChecksumDigester(new CRC32());
+      case "CRC32C":
+        return new ChecksumDigester(new CRC32C());
+      case "ADLER32":
+        return new ChecksumDigester(new Adler32());
+      default:
+        try {
+          return new MessageDigestDigester(MessageDigest.getInstance(algorithm));
+        } catch (NoSuchAlgorithmException ex) {
+          throw new IllegalArgumentException("Unsupported checksum algorithm " + algorithm + ".", ex);
+        }
+    }
+  }
+
+  /**
+   * A session computing all checksums of one content stream. Callers obtain a
+   * buffer via {@link #nextBuffer()}, fill it and hand it over via
+   * {@link #update(byte[], int)}. Afterwards, the buffer must not be modified
+   * anymore. In parallel mode, buffers are returned to the session as soon as
+   * all secondary digesters have processed them. If all buffers are in use,
+   * {@link #nextBuffer()} blocks, which limits the memory used per upload.
+   */
+  public final class Session implements AutoCloseable {
+
+    private final Digester primary;
+    private final Digester[] secondary;
+    private final byte[] sequentialBuffer;
+    private final BlockingQueue<byte[]> freeBuffers;
+    private final List<BlockingQueue<Chunk>> queues = new ArrayList<>();
+    private final List<Future<?>> futures = new ArrayList<>();
+    private boolean finished = false;
+
+    private Session(int bufferSize) {
+      primary = acquire(algorithms.get(0));
+      secondary = new Digester[algorithms.size() - 1];
+      for (int i = 0; i < secondary.length; i++) {
+        secondary[i] = acquire(algorithms.get(i + 1));
+      }
+      if (parallel && secondary.length > 0) {
+        sequentialBuffer = null;
+        //one buffer more than queue slots allows filling a buffer while the queues are full
+        freeBuffers = new ArrayBlockingQueue<>(queueSize + 1);
+        for (int i = 0; i <= queueSize; i++) {
+          freeBuffers.add(new byte[bufferSize]);
+        }
+        for (Digester digester : secondary) {
+          //capacity for all buffers plus the end marker
+          BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(queueSize + 2);
+          queues.add(queue);
+          futures.add(WORKERS.submit(() -> {
+            digest(digester, queue);
+            return null;
+          }));
+        }
+      } else {
+        sequentialBuffer = new byte[bufferSize];
+        freeBuffers = null;
+      }
+    }
+
+    /**
+     * Get the next buffer to be filled.
+     *
+     * @return The buffer.
+     *
+     * @throws IOException If a worker has failed or the thread has been
+     * interrupted.
+     */
+    public byte[] nextBuffer() throws IOException {
+      if (freeBuffers == null) {
+        return sequentialBuffer;
+      }
+      try {
+        byte[] buffer;
+        while ((buffer = freeBuffers.poll(100, TimeUnit.MILLISECONDS)) == null) {
+          checkWorkers();
+        }
+        return buffer;
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for checksum computation.");
+      }
+    }
+
+    /**
+     * Update all checksums with the provided chunk.
+     *
+     * @param buffer The buffer obtained from {@link #nextBuffer()}.
+     * @param length The number of valid bytes in the buffer.
+     */
+    public void update(byte[] buffer, int length) {
+      if (freeBuffers == null) {
+        primary.update(buffer, 0, length);
+        for (Digester digester : secondary) {
+          digester.update(buffer, 0, length);
+        }
+        return;
+      }
+      Chunk chunk = new Chunk(buffer, length, queues.size());
+      for (BlockingQueue<Chunk> queue : queues) {
+        //never blocks, as there are no more buffers than queue slots
+        queue.add(chunk);
+      }
+      primary.update(buffer, 0, length);
+    }
+
+    /**
+     * Finish the computation of all checksums.
+     *
+     * @return A map of algorithm labels and checksums in the format
+     * 'label:hexValue' in the order of the configured algorithms.
+     *
+     * @throws IOException If a worker has failed or the thread has been
+     * interrupted.
+     */
+    public Map<String, String> finish() throws IOException {
+      Map<String, String> result = new LinkedHashMap<>();
+      result.put(getLabel(algorithms.get(0)), getLabel(algorithms.get(0)) + ":" + primary.finish());
+      for (BlockingQueue<Chunk> queue : queues) {
+        queue.add(Chunk.END);
+      }
+      for (Future<?> future : futures) {
+        awaitWorker(future);
+      }
+      for (int i = 0; i < secondary.length; i++) {
+        String label = getLabel(algorithms.get(i + 1));
+        result.put(label, label + ":" + secondary[i].finish());
+      }
+      finished = true;
+      return result;
+    }
+
+    @Override
+    public void close() {
+      if (finished) {
+        release(algorithms.get(0), primary);
+        for (int i = 0; i < secondary.length; i++) {
+          release(algorithms.get(i + 1), secondary[i]);
+        }
+      } else {
+        //digesters might be in an undefined state, thus they are discarded
+        futures.forEach((f) -> f.cancel(true));
+      }
+    }
+
+    private void digest(Digester digester, BlockingQueue<Chunk> queue) throws InterruptedException {
+      Chunk chunk;
+      while ((chunk = queue.take()) != Chunk.END) {
+        digester.update(chunk.buffer, 0, chunk.length);
+        if (chunk.pending.decrementAndGet() == 0) {
+          freeBuffers.add(chunk.buffer);
+        }
+      }
+    }
+
+    private void checkWorkers() throws IOException {
+      for (Future<?> future : futures) {
+        if (future.isDone()) {
+          awaitWorker(future);
+        }
+      }
+    }
+
+    private void awaitWorker(Future<?> future) throws IOException {
+      try {
+        future.get();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for checksum computation.");
+      } catch (ExecutionException ex) {
+        throw new IOException("Failed to compute checksum.", ex.getCause());
+      }
+    }
+  }
+
+  private static final class Chunk {
+
+    private static final Chunk END = new Chunk(null, 0, 0);
+
+    private final byte[] buffer;
+    private final int length;
+    private final AtomicInteger pending;
+
+    private Chunk(byte[] buffer, int length, int consumers) {
+      this.buffer = buffer;
+      this.length = length;
+      this.pending = new AtomicInteger(consumers);
+    }
+  }
+
+  private static final class MessageDigestDigester implements Digester {
+
+    private final MessageDigest digest;
+
+    private MessageDigestDigester(MessageDigest digest) {
+      this.digest = digest;
+    }
+
+    @Override
+    public void update(byte[] buffer, int offset, int length) {
+      digest.update(buffer, offset, length);
+    }
+
+    @Override
+    public String finish() {
+      return Hex.encodeHexString(digest.digest());
+    }
+  }
+
+  private static final class ChecksumDigester implements Digester {
+
+    private final Checksum checksum;
+
+    private ChecksumDigester(Checksum checksum) {
+      this.checksum = checksum;
+    }
+
+    @Override
+    public void update(byte[] buffer, int offset, int length) {
+      checksum.update(buffer, offset, length);
+    }
+
+    @Override
+    public String finish() {
+      String value = String.format("%08x", checksum.getValue());
+      checksum.reset();
+      return value;
+    }
+  }
+}
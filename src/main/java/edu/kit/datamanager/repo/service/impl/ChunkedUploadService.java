@@ -0,0 +1,546 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.entities.RepoUserRole;
+import edu.kit.datamanager.exceptions.AccessForbiddenException;
+import edu.kit.datamanager.exceptions.BadArgumentException;
+import edu.kit.datamanager.exceptions.CustomInternalServerError;
+import edu.kit.datamanager.exceptions.ResourceNotFoundException;
+import edu.kit.datamanager.exceptions.UpdateForbiddenException;
+import edu.kit.datamanager.repo.configuration.ChunkedUploadProperties;
+import edu.kit.datamanager.repo.configuration.ContentTransferProperties;
+import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
+import edu.kit.datamanager.repo.dao.IUploadSessionDao;
+import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.UploadPart;
+import edu.kit.datamanager.repo.domain.UploadSession;
+import edu.kit.datamanager.repo.util.ContentIngestUtils;
+import edu.kit.datamanager.repo.util.ServiceMetrics;
+import edu.kit.datamanager.util.AuthenticationHelper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Service for chunked uploads of large content. An upload session is
+ * initiated for one relative path of a data resource. Afterwards, numbered
+ * parts can be uploaded in any order and in parallel, e.g. via multiple
+ * connections. Each part is written to the staging folder of the session and
+ * becomes visible atomically, thus, failed parts can simply be uploaded again
+ * and an interrupted upload can be resumed by uploading the missing parts.
+ * Completing the session streams all parts in order to
+ * {@link edu.kit.datamanager.repo.service.IContentInformationService#create(ContentInformation, DataResource, String, InputStream, boolean)},
+ * which computes the checksums of the assembled content and registers the
+ * content information as for any other upload. Sessions without activity
+ * expire and are removed periodically together with their parts.
+ *
+ * Only the uploader who initiated a session or an administrator may upload
+ * parts to, complete or abort it. Completion is claimed by a conditional
+ * update of the session status in the database, thus, a session is completed
+ * at most once even if multiple repository instances share the database.
+ * Claiming extends the expiry of the session, and a session left in status
+ * COMPLETING, e.g. after a crash, is removed when it expires.
+ */
+@Component
+public class ChunkedUploadService {
+
+  /**
+   * Logger for messages.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChunkedUploadService.class);
+  private static final String SERVICE_NAME = "ChunkedUploadService";
+  private static final String PART_PREFIX = "part-";
+
+  private final ChunkedUploadProperties properties;
+  private final IUploadSessionDao dao;
+  private final RepoBaseConfiguration repositoryConfiguration;
+  private ContentTransferProperties transferProperties;
+  private ChecksumEngine checksumEngine;
+
+  /**
+   * Default constructor.
+   *
+   * @param properties The chunked upload configuration.
+   * @param dao The repository holding upload sessions.
+   * @param repositoryConfiguration The repository configuration providing the
+   * base path and the content information service.
+   */
+  @Autowired
+  public ChunkedUploadService(ChunkedUploadProperties properties, IUploadSessionDao dao, RepoBaseConfiguration repositoryConfiguration) {
+    this.properties = properties;
+    this.dao = dao;
+    this.repositoryConfiguration = repositoryConfiguration;
+  }
+
+  /**
+   * Set the transfer properties providing the buffer size used for writing
+   * parts.
+   *
+   * @param transferProperties The transfer properties.
+   */
+  @Autowired(required = false)
+  public void setTransferProperties(ContentTransferProperties transferProperties) {
+    this.transferProperties = transferProperties;
+  }
+
+  /**
+   * Set the checksum engine used for parts and for verifying the assembled
+   * content. If not set, SHA1 checksums are computed.
+   *
+   * @param checksumEngine The checksum engine.
+   */
+  @Autowired(required = false)
+  public void setChecksumEngine(ChecksumEngine checksumEngine) {
+    this.checksumEngine = checksumEngine;
+  }
+
+  /**
+   * Initiate a chunked upload to the provided relative path of a resource.
+   *
+   * @param resource The data resource the content belongs to.
+   * @param relativePath The relative path of the content.
+   * @param contentInformation Optional content information providing the media
+   * type and versioning service of new content.
+   * @param force TRUE if existing content should be overwritten on
+   * completion.
+   *
+   * @return The new upload session.
+   */
+  public UploadSession initiate(DataResource resource, String relativePath, ContentInformation contentInformation, boolean force) {
+    return ServiceMetrics.record(SERVICE_NAME, "initiate", () -> doInitiate(resource, relativePath, contentInformation, force));
+  }
+
+  private UploadSession doInitiate(DataResource resource, String relativePath, ContentInformation contentInformation, boolean force) {
+    if (resource == null || resource.getId() == null) {
+      throw new BadArgumentException("A persisted data resource is required for initiating an upload.");
+    }
+    if (relativePath == null || relativePath.isBlank() || relativePath.endsWith("/")) {
+      throw new BadArgumentException("Relative path '" + relativePath + "' does not refer to a file.");
+    }
+    Instant now = Instant.now();
+    UploadSession session = new UploadSession();
+    session.setId(UUID.randomUUID().toString());
+    session.setResourceId(resource.getId());
+    session.setRelativePath(relativePath);
+    session.setForce(force);
+    session.setUploader(AuthenticationHelper.getPrincipal());
+    session.setCreatedAt(now);
+    session.setExpiresAt(now.plus(properties.getSessionTimeout()));
+    if (contentInformation != null) {
+      session.setMediaType(contentInformation.getMediaType());
+      session.setVersioningService(contentInformation.getVersioningService());
+    }
+    try {
+      Files.createDirectories(getSessionFolder(session.getId()));
+    } catch (IOException ex) {
+      LOGGER.error("Failed to create staging folder for upload session " + session.getId() + ".", ex);
+      throw new CustomInternalServerError("Failed to create staging folder for upload.");
+    }
+    LOGGER.trace("Initiated upload session {} for resource {} and path {}.", session.getId(), resource.getId(), relativePath);
+    return dao.save(session);
+  }
+
+  /**
+   * Get an active upload session.
+   *
+   * @param sessionId The session id.
+   *
+   * @return The session.
+   *
+   * @throws ResourceNotFoundException if the session does not exist or has
+   * expired.
+   */
+  public UploadSession getSession(String sessionId) {
+    Optional<UploadSession> session = dao.findById(sessionId);
+    if (session.isEmpty() || session.get().getExpiresAt().isBefore(Instant.now())) {
+      throw new ResourceNotFoundException("Upload session " + sessionId + " not found.");
+    }
+    return session.get();
+  }
+
+  /**
+   * Get an active upload session initiated by the caller. Administrators may
+   * access all sessions.
+   *
+   * @throws AccessForbiddenException if the session was initiated by another
+   * user.
+   */
+  private UploadSession getOwnSession(String sessionId) {
+    UploadSession session = getSession(sessionId);
+    if (!Objects.equals(session.getUploader(), AuthenticationHelper.getPrincipal()) && !AuthenticationHelper.hasAuthority(RepoUserRole.ADMINISTRATOR.getValue())) {
+      LOGGER.debug("Access to upload session {} of uploader {} denied for {}.", sessionId, session.getUploader(), AuthenticationHelper.getPrincipal());
+      throw new AccessForbiddenException("Upload session " + sessionId + " was initiated by another user.");
+    }
+    return session;
+  }
+
+  /**
+   * Upload one part of a session. Parts may be uploaded in parallel and in
+   * any order. Uploading a part again replaces the previous one.
+   *
+   * @param sessionId The session id.
+   * @param partNumber The number of the part starting at 1.
+   * @param content The content of the part.
+   * @param expectedChecksum Optional checksum of the part in the format
+   * 'algorithm:hexValue' or 'hexValue' for the primary algorithm. If the
+   * checksum does not match, the part is rejected.
+   *
+   * @return The stored part including its checksum.
+   */
+  public UploadPart uploadPart(String sessionId, int partNumber, InputStream content, String expectedChecksum) {
+    return ServiceMetrics.record(SERVICE_NAME, "uploadPart", () -> doUploadPart(sessionId, partNumber, content, expectedChecksum));
+  }
+
+  private UploadPart doUploadPart(String sessionId, int partNumber, InputStream content, String expectedChecksum) {
+    UploadSession session = getOwnSession(sessionId);
+    if (partNumber < 1 || partNumber > properties.getMaxParts()) {
+      throw new BadArgumentException("Part number must be between 1 and " + properties.getMaxParts() + ", but was " + partNumber + ".");
+    }
+    if (session.getStatus() == UploadSession.Status.COMPLETING) {
+      throw new UpdateForbiddenException("Upload session " + sessionId + " is being completed.");
+    }
+    Path folder = getSessionFolder(sessionId);
+    Path temp = folder.resolve(getPartName(partNumber) + "." + UUID.randomUUID() + ".tmp");
+    try {
+      Files.createDirectories(folder);
+      ContentIngestUtils.IngestResult result = ContentIngestUtils.ingest(content, temp, null, false, transferProperties, getChecksumEngine());
+      if (expectedChecksum != null && !matches(result.getChecksums(), expectedChecksum)) {
+        throw new BadArgumentException("Checksum of part " + partNumber + " does not match. Expected " + expectedChecksum + " but got " + result.getChecksum() + ".");
+      }
+      //parts become visible at once, thus, listing and completing never sees partial parts
+      Files.move(temp, folder.resolve(getPartName(partNumber)), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      extendExpiry(session);
+      LOGGER.trace("Stored part {} of upload session {} with {} byte(s).", partNumber, sessionId, result.getSize());
+      return new UploadPart(partNumber, result.getSize(), result.getChecksum());
+    } catch (IOException ex) {
+      LOGGER.error("Failed to store part " + partNumber + " of upload session " + sessionId + ".", ex);
+      throw new CustomInternalServerError("Failed to store part " + partNumber + " of upload.");
+    } finally {
+      deleteQuietly(temp);
+    }
+  }
+
+  /**
+   * Get all stored parts of a session ordered by part number, e.g. for
+   * resuming an interrupted upload. The checksums of listed parts are not
+   * available.
+   *
+   * @param sessionId The session id.
+   *
+   * @return The stored parts.
+   */
+  public List<UploadPart> getParts(String sessionId) {
+    getOwnSession(sessionId);
+    return listParts(sessionId);
+  }
+
+  /**
+   * Complete a session. All parts from 1 to the highest part number must be
+   * present. The parts are streamed in order to the content information
+   * service, which writes the assembled content and registers its content
+   * information. Afterwards, the session and its parts are removed. If
+   * registering the content fails, the session remains and completion can be
+   * retried.
+   *
+   * @param sessionId The session id.
+   * @param resource The data resource the session was initiated for.
+   * @param expectedChecksum Optional checksum of the assembled content in the
+   * format 'algorithm:hexValue' or 'hexValue' for the primary algorithm. If
+   * provided, the parts are verified before any content is written.
+   *
+   * @return The registered content information.
+   */
+  public ContentInformation complete(String sessionId, DataResource resource, String expectedChecksum) {
+    return ServiceMetrics.record(SERVICE_NAME, "complete", () -> doComplete(sessionId, resource, expectedChecksum));
+  }
+
+  private ContentInformation doComplete(String sessionId, DataResource resource, String expectedChecksum) {
+    UploadSession session = getOwnSession(sessionId);
+    if (resource == null || !session.getResourceId().equals(resource.getId())) {
+      throw new BadArgumentException("Upload session " + sessionId + " does not belong to the provided resource.");
+    }
+    if (dao.claimCompletion(sessionId, UploadSession.Status.OPEN, UploadSession.Status.COMPLETING, Instant.now().plus(properties.getSessionTimeout())) != 1) {
+      throw new UpdateForbiddenException("Upload session " + sessionId + " is already being completed.");
+    }
+    boolean completed = false;
+    try {
+      List<UploadPart> parts = listParts(sessionId);
+      if (parts.isEmpty()) {
+        throw new BadArgumentException("Upload session " + sessionId + " contains no parts.");
+      }
+      List<Path> files = new ArrayList<>(parts.size());
+      Path folder = getSessionFolder(sessionId);
+      for (int i = 0; i < parts.size(); i++) {
+        if (parts.get(i).getPartNumber() != i + 1) {
+          throw new BadArgumentException("Part " + (i + 1) + " of upload session " + sessionId + " is missing.");
+        }
+        files.add(folder.resolve(getPartName(i + 1)));
+      }
+      if (expectedChecksum != null) {
+        Map<String, String> checksums = computeChecksums(files);
+        if (!matches(checksums, expectedChecksum)) {
+          throw new BadArgumentException("Checksum of assembled content does not match. Expected " + expectedChecksum + " but got " + checksums.values().iterator().next() + ".");
+        }
+      }
+      ContentInformation template = ContentInformation.createContentInformation(session.getRelativePath());
+      template.setMediaType(session.getMediaType());
+      template.setVersioningService(session.getVersioningService());
+      ContentInformation result;
+      try (InputStream assembled = new SequenceInputStream(openAll(files))) {
+        result = repositoryConfiguration.getContentInformationService().create(template, resource, session.getRelativePath(), assembled, session.isForce());
+      }
+      remove(sessionId);
+      completed = true;
+      LOGGER.trace("Completed upload session {} with {} part(s).", sessionId, files.size());
+      return result;
+    } catch (IOException | UncheckedIOException ex) {
+      LOGGER.error("Failed to assemble parts of upload session " + sessionId + ".", ex);
+      throw new CustomInternalServerError("Failed to assemble parts of upload.");
+    } finally {
+      if (!completed) {
+        //allow retrying the completion
+        dao.updateStatus(sessionId, UploadSession.Status.COMPLETING, UploadSession.Status.OPEN);
+      }
+    }
+  }
+
+  /**
+   * Abort a session and remove all its parts.
+   *
+   * @param sessionId The session id.
+   */
+  public void abort(String sessionId) {
+    getOwnSession(sessionId);
+    if (dao.deleteIfOpen(sessionId, UploadSession.Status.OPEN) != 1) {
+      throw new UpdateForbiddenException("Upload session " + sessionId + " is being completed.");
+    }
+    deleteFolder(getSessionFolder(sessionId));
+    LOGGER.trace("Aborted upload session {}.", sessionId);
+  }
+
+  /**
+   * Remove all expired sessions including their parts as well as staging
+   * folders not belonging to any session, e.g. left after a crash.
+   *
+   * @return The number of removed sessions.
+   */
+  @Scheduled(fixedDelayString = "${repo.upload.cleanupInterval:PT1H}")
+  public int cleanUp() {
+    Instant now = Instant.now();
+    int removed = 0;
+    for (UploadSession session : dao.findByExpiresAtBefore(now)) {
+      //sessions being completed are only expired if completion did not finish within the session timeout
+      remove(session.getId());
+      removed++;
+    }
+    Path stagingFolder;
+    try {
+      stagingFolder = getStagingFolder();
+    } catch (CustomInternalServerError ex) {
+      LOGGER.debug("Skipping clean-up of staging folder: {}", ex.getMessage());
+      return removed;
+    }
+    if (Files.isDirectory(stagingFolder)) {
+      Instant threshold = now.minus(properties.getSessionTimeout());
+      try (DirectoryStream<Path> folders = Files.newDirectoryStream(stagingFolder)) {
+        for (Path folder : folders) {
+          String id = folder.getFileName().toString();
+          if (Files.getLastModifiedTime(folder).toInstant().isBefore(threshold) && !dao.existsById(id)) {
+            LOGGER.debug("Removing orphaned staging folder {}.", folder);
+            deleteFolder(folder);
+          }
+        }
+      } catch (IOException ex) {
+        LOGGER.warn("Failed to clean up staging folder " + stagingFolder + ".", ex);
+      }
+    }
+    if (removed > 0) {
+      LOGGER.info("Removed {} expired upload session(s).", removed);
+    }
+    return removed;
+  }
+
+  /**
+   * Get the folder parts of all sessions are stored in.
+   */
+  private Path getStagingFolder() {
+    Path folder = Paths.get(properties.getStagingFolder());
+    if (folder.isAbsolute()) {
+      return folder;
+    }
+    try {
+      return Paths.get(repositoryConfiguration.getBasepath().toURI()).resolve(folder);
+    } catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException | NullPointerException ex) {
+      throw new CustomInternalServerError("Staging folder " + folder + " cannot be resolved against base path " + repositoryConfiguration.getBasepath() + ".");
+    }
+  }
+
+  private Path getSessionFolder(String sessionId) {
+    return getStagingFolder().resolve(sessionId);
+  }
+
+  private static String getPartName(int partNumber) {
+    return PART_PREFIX + partNumber;
+  }
+
+  private ChecksumEngine getChecksumEngine() {
+    return (checksumEngine != null) ? checksumEngine : ChecksumEngine.getDefault();
+  }
+
+  private List<UploadPart> listParts(String sessionId) {
+    Path folder = getSessionFolder(sessionId);
+    if (!Files.isDirectory(folder)) {
+      return Collections.emptyList();
+    }
+    List<UploadPart> parts = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, PART_PREFIX + "*")) {
+      for (Path file : files) {
+        String number = file.getFileName().toString().substring(PART_PREFIX.length());
+        //skip temporary files of parts currently uploaded
+        if (!number.isEmpty() && number.chars().allMatch(Character::isDigit)) {
+          parts.add(new UploadPart(Integer.parseInt(number), Files.size(file), null));
+        }
+      }
+    } catch (IOException ex) {
+      LOGGER.error("Failed to list parts of upload session " + sessionId + ".", ex);
+      throw new CustomInternalServerError("Failed to list parts of upload.");
+    }
+    parts.sort(Comparator.comparingInt(UploadPart::getPartNumber));
+    return parts;
+  }
+
+  /**
+   * Extend the expiry of a session if less than half of the session timeout
+   * is left. Thus, the session is not updated on each uploaded part.
+   */
+  private void extendExpiry(UploadSession session) {
+    Instant now = Instant.now();
+    if (session.getExpiresAt().isBefore(now.plus(properties.getSessionTimeout().dividedBy(2)))) {
+      dao.extendExpiry(session.getId(), now.plus(properties.getSessionTimeout()));
+    }
+  }
+
+  private Map<String, String> computeChecksums(List<Path> files) throws IOException {
+    int bufferSize = (transferProperties != null) ? transferProperties.getUploadBufferSize() : ContentIngestUtils.DEFAULT_BUFFER_SIZE;
+    try (ChecksumEngine.Session checksums = getChecksumEngine().openSession(bufferSize)) {
+      for (Path file : files) {
+        try (InputStream in = Files.newInputStream(file)) {
+          byte[] buffer = checksums.nextBuffer();
+          int cnt;
+          while ((cnt = in.read(buffer)) > -1) {
+            checksums.update(buffer, cnt);
+            buffer = checksums.nextBuffer();
+          }
+        }
+      }
+      return checksums.finish();
+    }
+  }
+
+  /**
+   * Check whether the expected checksum matches one of the computed
+   * checksums. Checksums without algorithm label are compared with the
+   * checksum of the primary algorithm.
+   */
+  private static boolean matches(Map<String, String> checksums, String expected) {
+    int separator = expected.indexOf(':');
+    if (separator < 0) {
+      String primary = checksums.values().iterator().next();
+      return primary.substring(primary.indexOf(':') + 1).equalsIgnoreCase(expected.trim());
+    }
+    String label = ChecksumEngine.getLabel(expected.substring(0, separator).trim());
+    String actual = checksums.get(label);
+    if (actual == null) {
+      throw new BadArgumentException("Checksum algorithm " + expected.substring(0, separator) + " is not computed. Available algorithms: " + checksums.keySet());
+    }
+    return actual.equalsIgnoreCase(label + ":" + expected.substring(separator + 1).trim());
+  }
+
+  /**
+   * Open the provided files one after another while they are consumed.
+   */
+  private static Enumeration<InputStream> openAll(List<Path> files) {
+    Iterator<Path> iterator = files.iterator();
+    return new Enumeration<InputStream>() {
+      @Override
+      public boolean hasMoreElements() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public InputStream nextElement() {
+        try {
+          return Files.newInputStream(iterator.next());
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      }
+    };
+  }
+
+  private void remove(String sessionId) {
+    if (dao.existsById(sessionId)) {
+      dao.deleteById(sessionId);
+    }
+    deleteFolder(getSessionFolder(sessionId));
+  }
+
+  private static void deleteFolder(Path folder) {
+    if (!Files.exists(folder)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(folder)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(ChunkedUploadService::deleteQuietly);
+    } catch (IOException ex) {
+      LOGGER.warn("Failed to remove staging folder " + folder + ".", ex);
+    }
+  }
+
+  private static void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException ex) {
+      LOGGER.warn("Failed to remove {}.", path, ex);
+    }
+  }
+}
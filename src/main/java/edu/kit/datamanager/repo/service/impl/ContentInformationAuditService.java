@@ -17,13 +17,20 @@ package edu.kit.datamanager.repo.service.impl;
 
 import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
 import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.util.ServiceMetrics;
 import edu.kit.datamanager.service.IAuditService;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.apache.commons.collections4.CollectionUtils;
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
 import org.javers.common.exception.JaversException;
 import org.javers.common.exception.JaversExceptionCode;
 import org.javers.core.Changes;
+import org.javers.core.Commit;
 import org.javers.core.Javers;
 import org.javers.core.metamodel.object.CdoSnapshot;
 import org.javers.repository.jql.JqlQuery;
@@ -41,28 +48,91 @@ public class ContentInformationAuditService implements IAuditService<ContentInfo
 
  
   private static final Logger LOGGER = LoggerFactory.getLogger(ContentInformationAuditService.class);
+  /**
+   * Name of this service used for tagging metrics.
+   */
+  private static final String SERVICE_NAME = "ContentInformationAuditService";
 
   private final Javers javers;
   private final RepoBaseConfiguration applicationProperties;
+  private final AuditVersionCache versionCache;
+  private final AsyncAuditCommitter committer;
 
   public ContentInformationAuditService(Javers javers, RepoBaseConfiguration applicationProperties){
+    this(javers, applicationProperties, null);
+  }
+
+  /**
+   * Create a new audit service committing audit information via the provided
+   * pipeline if asynchronous commits are enabled.
+   *
+   * @param javers The Javers instance.
+   * @param applicationProperties The repository configuration.
+   * @param committer The asynchronous audit pipeline or null to commit audit
+   * information synchronously.
+   */
+  public ContentInformationAuditService(Javers javers, RepoBaseConfiguration applicationProperties, AsyncAuditCommitter committer){
     this.javers = javers;
     this.applicationProperties = applicationProperties;
+    this.versionCache = new AuditVersionCache(ContentInformation.class, Duration.ofSeconds(applicationProperties.getAuditVersionCacheSeconds()));
+    this.committer = committer;
+    if(committer != null){
+      committer.register(ContentInformation.class, versionCache::update);
+    }
     applicationProperties.setContentInformationAuditService(this);
   }
 
   @Override
   public void captureAuditInformation(ContentInformation contentInformation, String principal){
+    ServiceMetrics.run(SERVICE_NAME, "captureAuditInformation", () -> doCaptureAuditInformation(contentInformation, principal));
+  }
+
+  private void doCaptureAuditInformation(ContentInformation contentInformation, String principal){
     LOGGER.trace("Calling captureAuditInformation(ContentInformation#{}, {}).", contentInformation.getId(), principal);
     if(!applicationProperties.isAuditEnabled()){
       LOGGER.trace("Audit is disabled. Skipping registration of content information.");
     } else{
       LOGGER.trace("Capturing audit information for content information {} modified by principal {}.", contentInformation, principal);
-      javers.commit(principal, contentInformation);
+      unproxyParent(contentInformation);
+      if(isAsync() && contentInformation.getId() != null){
+        committer.submit(ContentInformation.class, Long.toString(contentInformation.getId()), contentInformation, principal);
+        LOGGER.trace("Submitted audit information for content information with id {}.", contentInformation.getId());
+        return;
+      }
+      Commit commit = javers.commit(principal, contentInformation);
+      versionCache.update((contentInformation.getId() != null) ? Long.toString(contentInformation.getId()) : null, commit);
       LOGGER.trace("Successfully committed audit information for content information with id {}.", contentInformation.getId());
     }
   }
 
+  /**
+   * Capture audit information for multiple content information elements,
+   * e.g. after a bulk registration. All snapshots are written within the
+   * surrounding transaction or submitted to the asynchronous audit pipeline.
+   *
+   * @param contentInformation The content information elements.
+   * @param principal The principal who modified the elements.
+   */
+  public void captureAuditInformation(Collection<ContentInformation> contentInformation, String principal){
+    ServiceMetrics.run(SERVICE_NAME, "captureAuditInformationBulk", () -> {
+      if(!applicationProperties.isAuditEnabled()){
+        LOGGER.trace("Audit is disabled. Skipping registration of {} content information element(s).", contentInformation.size());
+        return;
+      }
+      LOGGER.trace("Capturing audit information for {} content information element(s) modified by principal {}.", contentInformation.size(), principal);
+      for(ContentInformation element : contentInformation){
+        unproxyParent(element);
+        if(isAsync()){
+          committer.submit(ContentInformation.class, Long.toString(element.getId()), element, principal);
+          continue;
+        }
+        Commit commit = javers.commit(principal, element);
+        versionCache.update(Long.toString(element.getId()), commit);
+      }
+      LOGGER.trace("Successfully committed audit information for {} content information element(s).", contentInformation.size());
+    });
+  }
+
   @Override
   public Optional<String> getAuditInformationAsJson(String contentInformationId, int page, int resultsPerPage){
     LOGGER.trace("Calling getAuditInformationAsJson({}, {}, {}).", contentInformationId, page, resultsPerPage);
@@ -70,6 +140,7 @@ public class ContentInformationAuditService implements IAuditService<ContentInfo
       LOGGER.trace("Audit is disabled. Returning empty result.");
       return Optional.empty();
     } else{
+      flush(contentInformationId);
       JqlQuery query = QueryBuilder.byInstanceId(Long.valueOf(contentInformationId), ContentInformation.class).limit(resultsPerPage).skip(page * resultsPerPage).build();
       Changes result = javers.findChanges(query);
 
@@ -86,6 +157,7 @@ public class ContentInformationAuditService implements IAuditService<ContentInfo
       return Optional.empty();
     } else{
       LOGGER.trace("Querying for content information with instance id {} and version {}.", contentInformationId, version);
+      flush(contentInformationId);
       JqlQuery query = QueryBuilder.byInstanceId(Long.valueOf(contentInformationId), ContentInformation.class).withVersion(version).withShadowScope(ShadowScope.DEEP_PLUS).build();
       LOGGER.trace("Obtaining shadows from Javers repository.");
       List<Shadow<ContentInformation>> shadows = javers.findShadows(query);
@@ -102,26 +174,60 @@ public class ContentInformationAuditService implements IAuditService<ContentInfo
     }
   }
 
+  /**
+   * Get the current version of a content information element. The version may
+   * be served from the version cache and, thus, may miss commits of other
+   * instances. It must only be used for reading, e.g. for the Resource-Version
+   * header. For assigning a new version, use
+   * {@link #loadCurrentVersion(String)}.
+   *
+   * @param contentInformationId The id of the content information.
+   *
+   * @return The current version or 0 if audit is disabled.
+   */
   @Override
   public long getCurrentVersion(String contentInformationId){
     LOGGER.trace("Calling getCurrentVersion({}).", contentInformationId);
     if(!applicationProperties.isAuditEnabled()){
       LOGGER.trace("Audit is disabled. Returning 0.");
       return 0l;
-    } else{
-      JqlQuery query = QueryBuilder.byInstanceId(Long.valueOf(contentInformationId), ContentInformation.class).limit(1).build();
-      LOGGER.trace("Obtaining snapshots from Javers repository.");
-      List<CdoSnapshot> snapshots = javers.findSnapshots(query);
+    }
+    flush(contentInformationId);
+    return versionCache.getVersion(contentInformationId, this::queryCurrentVersion);
+  }
 
-      if(CollectionUtils.isEmpty(snapshots)){
-        LOGGER.warn("No version information found for content information id {}. Returning 0.", contentInformationId);
-        return 0;
-      }
+  /**
+   * Get the current version of a content information element from the Javers
+   * repository bypassing the version cache, e.g. for assigning the next
+   * version on writes.
+   *
+   * @param contentInformationId The id of the content information.
+   *
+   * @return The current version or 0 if audit is disabled.
+   */
+  public long loadCurrentVersion(String contentInformationId){
+    LOGGER.trace("Calling loadCurrentVersion({}).", contentInformationId);
+    if(!applicationProperties.isAuditEnabled()){
+      LOGGER.trace("Audit is disabled. Returning 0.");
+      return 0l;
+    }
+    flush(contentInformationId);
+    return queryCurrentVersion(contentInformationId);
+  }
+
+  private long queryCurrentVersion(String contentInformationId){
+    JqlQuery query = QueryBuilder.byInstanceId(Long.valueOf(contentInformationId), ContentInformation.class).limit(1).build();
+    LOGGER.trace("Obtaining snapshots from Javers repository.");
+    List<CdoSnapshot> snapshots = javers.findSnapshots(query);
 
-      long version = snapshots.get(0).getVersion();
-      LOGGER.trace("Snapshot for content information id {} found. Returning version {}.", contentInformationId, version);
-      return version;
+    if(CollectionUtils.isEmpty(snapshots)){
+      LOGGER.warn("No version information found for content information id {}. Returning 0.", contentInformationId);
+      return 0;
     }
+
+    long version = snapshots.get(0).getVersion();
+    LOGGER.trace("Snapshot for content information id {} found. Returning version {}.", contentInformationId, version);
+    return version;
   }
 
   @Override
@@ -131,8 +237,10 @@ public class ContentInformationAuditService implements IAuditService<ContentInfo
       LOGGER.trace("Audit is disabled. Returning without doing anything.");
     } else{
       LOGGER.trace("Performing shallow delete of content information with id {}.", contentInformationId);
+      flush(contentInformationId);
       try{
         javers.commitShallowDelete(contentInformationId, resource);
+        versionCache.invalidate(contentInformationId);
         LOGGER.trace("Shallow delete executed.");
       } catch(JaversException ex){
         if(JaversExceptionCode.CANT_DELETE_OBJECT_NOT_FOUND.equals(ex.getCode())){
@@ -144,4 +252,29 @@ public class ContentInformationAuditService implements IAuditService<ContentInfo
       }
     }
   }
+
+  /**
+   * Replace a lazily loaded parent resource by the resource itself, as Javers
+   * and the asynchronous audit pipeline read the state of the parent from its
+   * fields. Must be called while the session of the element is open.
+   */
+  private static void unproxyParent(ContentInformation contentInformation){
+    if(contentInformation.getParentResource() instanceof HibernateProxy){
+      contentInformation.setParentResource((DataResource) Hibernate.unproxy(contentInformation.getParentResource()));
+    }
+  }
+
+  private boolean isAsync(){
+    return committer != null && committer.isAsync();
+  }
+
+  /**
+   * Wait for pending audit snapshots of a content information element to be
+   * committed.
+   */
+  private void flush(String contentInformationId){
+    if(isAsync()){
+      committer.flush(ContentInformation.class, contentInformationId);
+    }
+  }
 }
@@ -25,6 +25,7 @@ import edu.kit.datamanager.exceptions.CustomInternalServerError;
 import edu.kit.datamanager.exceptions.FeatureNotImplementedException;
 import edu.kit.datamanager.exceptions.ResourceNotFoundException;
 import edu.kit.datamanager.exceptions.UpdateForbiddenException;
+import edu.kit.datamanager.repo.configuration.ContentTransferProperties;
 import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
 import edu.kit.datamanager.repo.dao.spec.contentinformation.ContentInformationContentUriSpecification;
 import edu.kit.datamanager.repo.dao.spec.contentinformation.ContentInformationMediaTypeSpecification;
@@ -34,10 +35,15 @@ import edu.kit.datamanager.repo.dao.spec.contentinformation.ContentInformationPe
 import edu.kit.datamanager.repo.dao.spec.contentinformation.ContentInformationRelativePathSpecification;
 import edu.kit.datamanager.repo.dao.spec.contentinformation.ContentInformationTagSpecification;
 import edu.kit.datamanager.repo.dao.IContentInformationDao;
+import edu.kit.datamanager.repo.domain.BulkDataResourceMessage;
 import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.ContentInformationSummary;
 import edu.kit.datamanager.repo.domain.DataResource;
 import edu.kit.datamanager.repo.service.IContentInformationService;
 import edu.kit.datamanager.repo.service.IRepoVersioningService;
+import edu.kit.datamanager.repo.util.ContentProviderRegistry;
+import edu.kit.datamanager.repo.util.ServiceMetrics;
+import edu.kit.datamanager.repo.util.VersioningServiceRegistry;
 import edu.kit.datamanager.service.IContentCollectionProvider;
 import edu.kit.datamanager.service.IContentProvider;
 import edu.kit.datamanager.service.IMessagingService;
@@ -53,12 +59,20 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.File;
 import java.util.concurrent.ExecutorService;
@@ -71,9 +85,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -90,9 +105,22 @@ public class ContentInformationService implements IContentInformationService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ContentInformationService.class);
 
+    /**
+     * Name of this service used for tagging metrics.
+     */
+    private static final String SERVICE_NAME = "ContentInformationService";
+    /**
+     * Number of relative paths resolved by one query during bulk
+     * registration.
+     */
+    private static final int BULK_BATCH_SIZE = 500;
+
     @Autowired
     private IContentInformationDao dao;
 
+    @PersistenceContext
+    private EntityManager em;
+
     private RepoBaseConfiguration applicationProperties;
 
     /**
@@ -112,15 +140,59 @@ public class ContentInformationService implements IContentInformationService {
     @Autowired
     private IContentCollectionProvider[] collectionContentProviders;
 
+    @Autowired(required = false)
+    private ContentTransferProperties transferProperties;
+
+    @Autowired(required = false)
+    private MetricsSnapshotService metricsSnapshot;
+
+    /**
+     * Lookup tables built on first use from all versioning services and
+     * providers. They are reset if the service is configured again.
+     */
+    private volatile VersioningServiceRegistry versioningServiceRegistry;
+    private volatile ContentProviderRegistry providerRegistry;
+
     /**
      * Default constructor.
      */
     public ContentInformationService() {
     }
 
+    private int getCollectionPageSize() {
+        return (transferProperties != null) ? transferProperties.getCollectionPageSize() : 1000;
+    }
+
     @Override
     public void configure(RepoBaseConfiguration applicationProperties) {
         this.applicationProperties = applicationProperties;
+        this.versioningServiceRegistry = null;
+    }
+
+    /**
+     * Get all versioning services by name. On first use, all versioning
+     * services are configured with the repository configuration once instead
+     * of on each write.
+     */
+    private VersioningServiceRegistry getVersioningServiceRegistry() {
+        VersioningServiceRegistry registry = versioningServiceRegistry;
+        if (registry == null) {
+            registry = new VersioningServiceRegistry(versioningServices);
+            for (IRepoVersioningService service : registry.getAll()) {
+                service.configure(applicationProperties);
+            }
+            versioningServiceRegistry = registry;
+        }
+        return registry;
+    }
+
+    private ContentProviderRegistry getProviderRegistry() {
+        ContentProviderRegistry registry = providerRegistry;
+        if (registry == null) {
+            registry = new ContentProviderRegistry(contentProviders, collectionContentProviders);
+            providerRegistry = registry;
+        }
+        return registry;
     }
 
     @Override
@@ -129,6 +201,13 @@ public class ContentInformationService implements IContentInformationService {
             String path,
             InputStream file,
             boolean force) {
+        return ServiceMetrics.record(SERVICE_NAME, "create", () -> doCreate(contentInformation, resource, path, file, force));
+    }
+
+    private ContentInformation doCreate(ContentInformation contentInformation, DataResource resource,
+            String path,
+            InputStream file,
+            boolean force) {
         LOGGER.trace("Performing create({}, {}, {}, {}, {}).", contentInformation, "DataResource#" + resource.getId(), "<InputStream>", path, force);
 
         Optional<ContentInformation> existingContentInformation = dao.findByParentResourceAndRelativePath(resource, path);
@@ -161,29 +240,20 @@ public class ContentInformationService implements IContentInformationService {
 
             String versioningService = (contentInformation != null && contentInformation.getVersioningService() != null) ? contentInformation.getVersioningService() : applicationProperties.getVersioningService().getServiceName();
             contentInfo.setVersioningService(versioningService);
-            boolean fileWritten = false;
             LOGGER.trace("Trying to use versioning service named '{}' for writing file content.", versioningService);
-            for (IRepoVersioningService service : versioningServices) {
-                if (versioningService.equals(service.getServiceName())) {
-                    LOGGER.trace("Versioning service found, writing file content.");
-                    service.configure(applicationProperties);
-                    try {
-                        service.write(resource.getId(), AuthenticationHelper.getPrincipal(), path, file, options);
-                    } catch (Throwable t) {
-                        LOGGER.error("Failed to write content using versioning service " + versioningService + ".", t);
-                        throw t;
-                    }
-                    LOGGER.trace("File content successfully written.");
-                    fileWritten = true;
-                } else {
-                    LOGGER.trace("Skipping service '{}'", service.getServiceName());
-                }
-            }
-
-            if (!fileWritten) {
+            IRepoVersioningService service = getVersioningServiceRegistry().get(versioningService);
+            if (service == null) {
                 LOGGER.error("No versioning service found for name '{}'.", versioningService);
                 throw new BadArgumentException("Versioning service '" + versioningService + "' not found.");
             }
+            LOGGER.trace("Versioning service found, writing file content.");
+            try {
+                service.write(resource.getId(), AuthenticationHelper.getPrincipal(), path, file, options);
+            } catch (Throwable t) {
+                LOGGER.error("Failed to write content using versioning service " + versioningService + ".", t);
+                throw t;
+            }
+            LOGGER.trace("File content successfully written.");
 
             LOGGER.trace("Obtaining file-specific information from versioning service response.");
             if (options.containsKey("size")) {
@@ -210,6 +280,7 @@ public class ContentInformationService implements IContentInformationService {
 
             contentInfo.setFileVersion(newFileVersion);
 
+            ServiceMetrics.countBytes("upload", contentInfo.getSize());
             LOGGER.trace("File successfully written using versioning service '{}'.", versioningService);
         } else {
             LOGGER.trace("No user upload detected. Checking content URI in content information.");
@@ -259,7 +330,7 @@ public class ContentInformationService implements IContentInformationService {
             contentInfo.setUploader(principal);
         }
 
-        long newMetadataVersion = (contentInfo.getId() != null) ? applicationProperties.getContentInformationAuditService().getCurrentVersion(Long.toString(contentInfo.getId())) + 1 : 1;
+        long newMetadataVersion = (contentInfo.getId() != null) ? applicationProperties.getContentInformationAuditService().loadCurrentVersion(Long.toString(contentInfo.getId())) + 1 : 1;
         LOGGER.trace("Setting new version number of content information to {}.", newMetadataVersion);
         contentInfo.setVersion((int) newMetadataVersion);
 
@@ -274,78 +345,162 @@ public class ContentInformationService implements IContentInformationService {
         return result;
     }
 
+    @Override
+    @Transactional
+    public List<ContentInformation> createAll(DataResource resource, List<ContentInformation> contentInformation) {
+        return ServiceMetrics.record(SERVICE_NAME, "createAll", () -> doCreateAll(resource, contentInformation));
+    }
+
+    private List<ContentInformation> doCreateAll(DataResource resource, List<ContentInformation> contentInformation) {
+        LOGGER.trace("Performing createAll({}, <{} element(s)>).", "DataResource#" + resource.getId(), contentInformation.size());
+        if (contentInformation.isEmpty()) {
+            return new ArrayList<>();
+        }
+        boolean isAdministrator = AuthenticationHelper.hasAuthority(RepoUserRole.ADMINISTRATOR.getValue());
+        Map<String, ContentInformation> elementsByPath = new LinkedHashMap<>();
+        for (ContentInformation element : contentInformation) {
+            String path = element.getRelativePath();
+            if (path == null) {
+                LOGGER.error("No relative path provided in content information. Throwing BadArgumentException.");
+                throw new BadArgumentException("A relative path must be provided for each content information.");
+            }
+            if (element.getContentUri() == null) {
+                LOGGER.error("No content URI provided in content information for path {}. Throwing BadArgumentException.", path);
+                throw new BadArgumentException("No external content URI was provided for path " + path + ".");
+            }
+            String scheme = URI.create(element.getContentUri()).getScheme();
+            if (scheme == null) {
+                LOGGER.error("Content URI {} has no scheme. Throwing BadArgumentException.", element.getContentUri());
+                throw new BadArgumentException("Content URI " + element.getContentUri() + " must be absolute.");
+            }
+            if ("file".equals(scheme.toLowerCase()) && !isAdministrator) {
+                LOGGER.error("Content URI scheme is 'file' but caller has no ADMINISTRATOR role. Content information creation rejected. Throwing BadArgumentException.");
+                throw new BadArgumentException("You are not permitted to add content information with URI scheme of type 'file'.");
+            }
+            if (elementsByPath.put(path, element) != null) {
+                LOGGER.error("Relative path {} provided multiple times. Throwing BadArgumentException.", path);
+                throw new BadArgumentException("Relative path " + path + " is provided multiple times.");
+            }
+        }
+
+        LOGGER.trace("Resolving existing content information for {} path(s).", elementsByPath.size());
+        Map<String, ContentInformation> existingElements = new HashMap<>();
+        List<String> paths = new ArrayList<>(elementsByPath.keySet());
+        for (int i = 0; i < paths.size(); i += BULK_BATCH_SIZE) {
+            for (ContentInformation existing : dao.findByParentResourceAndRelativePathIn(resource, paths.subList(i, Math.min(i + BULK_BATCH_SIZE, paths.size())))) {
+                existingElements.put(existing.getRelativePath(), existing);
+            }
+        }
+
+        List<ContentInformation> elements = new ArrayList<>(elementsByPath.size());
+        for (ContentInformation element : elementsByPath.values()) {
+            ContentInformation contentInfo = existingElements.get(element.getRelativePath());
+            long newMetadataVersion = 1;
+            if (contentInfo == null) {
+                contentInfo = element;
+                contentInfo.setId(null);
+                contentInfo.setParentResource(resource);
+            } else {
+                newMetadataVersion = getPersistedVersion(contentInfo) + 1;
+                if (element.getMetadata() != null) {
+                    contentInfo.setMetadata(element.getMetadata());
+                }
+                if (element.getTags() != null) {
+                    contentInfo.setTags(element.getTags());
+                }
+                if (element.getUploader() != null) {
+                    contentInfo.setUploader(element.getUploader());
+                }
+            }
+            contentInfo.setContentUri(element.getContentUri());
+            contentInfo.setSize(element.getSize());
+            contentInfo.setHash(element.getHash());
+            contentInfo.setFileVersion("1");
+            contentInfo.setVersion((int) newMetadataVersion);
+            elements.add(contentInfo);
+        }
+
+        LOGGER.trace("Persisting {} content information element(s).", elements.size());
+        List<ContentInformation> result = getDao().saveAll(elements);
+
+        LOGGER.trace("Capturing audit information.");
+        applicationProperties.getContentInformationAuditService().captureAuditInformation(result, AuthenticationHelper.getPrincipal());
+
+        LOGGER.trace("Sending bulk CREATE event for {} content element(s).", result.size());
+        IMessagingService messaging = messagingService.orElse(new LogfileMessagingService());
+        for (BulkDataResourceMessage message : BulkDataResourceMessage.factoryCreateDataMessages(resource.getId(), paths, AuthenticationHelper.getPrincipal(), ControllerUtils.getLocalHostname())) {
+            messaging.send(message);
+        }
+        return result;
+    }
+
+    /**
+     * Get the current metadata version of a persisted element. The version
+     * stored with the element is assigned from the audit version on each write
+     * and is used to avoid one audit query per element in bulk operations. Only
+     * for elements without stored version, the audit service is queried.
+     */
+    private long getPersistedVersion(ContentInformation contentInfo) {
+        if (!applicationProperties.isAuditEnabled()) {
+            return 0;
+        }
+        if (contentInfo.getVersion() != null) {
+            return contentInfo.getVersion();
+        }
+        return applicationProperties.getContentInformationAuditService().loadCurrentVersion(Long.toString(contentInfo.getId()));
+    }
+
     @Override
     public void read(DataResource resource, String path, Long version, String acceptHeader, HttpServletResponse response) {
+        ServiceMetrics.run(SERVICE_NAME, "read", () -> doRead(resource, path, version, acceptHeader, response));
+    }
+
+    private void doRead(DataResource resource, String path, Long version, String acceptHeader, HttpServletResponse response) {
         URI uri;
         if (path.endsWith("/") || path.isEmpty()) {
             //collection download
-            Page<ContentInformation> page = dao.findByParentResource(resource, PageRequest.of(0, Integer.MAX_VALUE));
-            if (page.isEmpty()) {
+            if (!dao.existsByParentResource(resource)) {
                 //nothing to provide
                 String message = "No content found at the provided location.";
                 LOGGER.debug(message);
                 throw new ResourceNotFoundException(message);
             }
 
-            MediaType acceptHeaderType = acceptHeader != null ? MediaType.parseMediaType(acceptHeader) : null;
-            boolean provided = false;
-            Set<MediaType> acceptableMediaTypes = new HashSet<>();
-            for (IContentCollectionProvider provider : collectionContentProviders) {
-                if (acceptHeaderType != null && provider.supportsMediaType(acceptHeaderType)) {
-                    List<ContentElement> elements = new ArrayList<>();
-                    page.getContent().forEach((c) -> {
-                        URI contentUri = URI.create(c.getContentUri());
-                        if (provider.canProvide(contentUri.getScheme())) {
-                            String contextUri = ServletUriComponentsBuilder.fromCurrentRequest().toUriString();
-                            LOGGER.trace("Adding collection mapping '{}':'{}' with checksum '{}' to list. Additionally providing context Uri {} and size {}.", c.getRelativePath(), contentUri, c.getHash(), contextUri, c.getSize());
-                            elements.add(ContentElement.createContentElement(resource.getId(), c.getRelativePath(), c.getContentUri(), c.getFileVersion(), c.getVersioningService(), c.getHash(), contextUri, c.getSize()));
-                        } else {
-                            LOGGER.debug("Skip adding collection mapping '{}':'{}' to map as content provider {} is not capable of providing URI scheme.", c.getRelativePath(), contentUri, provider.getClass());
-                        }
-                    });
-                    LOGGER.trace("Start providing content.");
-                    provider.provide(elements, MediaType.parseMediaType(acceptHeader), response);
-                    LOGGER.trace("Content successfully provided.");
-                    provided = true;
-                } else {
-                    Collection<MediaType> col = new ArrayList<>();
-                    Collections.addAll(col, provider.getSupportedMediaTypes());
-                    acceptableMediaTypes.addAll(col);
-                }
-                break;
-            }
-
-            if (!provided) {
-                //we are done here, content is already submitted
-                LOGGER.info("No content collection provider found for media type {} in Accept header. Throwing HTTP 415 (UNSUPPORTED_MEDIA_TYPE).", acceptHeaderType);
-                throw new UnsupportedMediaTypeStatusException(acceptHeaderType, new ArrayList<>(acceptableMediaTypes));
+            ContentProviderRegistry registry = getProviderRegistry();
+            ContentProviderRegistry.Match match = registry.negotiate(acceptHeader);
+            if (match == null) {
+                LOGGER.info("No content collection provider found for Accept header {}. Throwing HTTP 415 (UNSUPPORTED_MEDIA_TYPE).", acceptHeader);
+                List<MediaType> requested = (acceptHeader != null) ? MediaType.parseMediaTypes(acceptHeader) : Collections.emptyList();
+                throw new UnsupportedMediaTypeStatusException(requested.isEmpty() ? null : requested.get(0), registry.getSupportedMediaTypes());
             }
+            IContentCollectionProvider provider = match.getProvider();
+            //elements are loaded page-wise while the provider iterates over them
+            String contextUri = ServletUriComponentsBuilder.fromCurrentRequest().toUriString();
+            KeysetContentElementList elements = new KeysetContentElementList(dao, resource, provider::canProvide, contextUri, getCollectionPageSize());
+            LOGGER.trace("Start providing content as {}.", match.getMediaType());
+            provider.provide(elements, match.getMediaType(), response);
+            LOGGER.trace("Content successfully provided.");
         } else {
             //try to obtain single content element matching path exactly
             ContentInformation contentInformation = getContentInformation(resource.getId(), path, version);
             uri = (contentInformation.getContentUri() != null) ? URI.create(contentInformation.getContentUri()) : null;
             String contentScheme = (uri != null) ? uri.getScheme() : "file";
             LOGGER.debug("Trying to provide content at URI {} by any configured content provider.", uri);
-            boolean provided = false;
-            for (IContentProvider contentProvider : contentProviders) {
-                if (contentProvider.canProvide(contentScheme)) {
-                    LOGGER.trace("Using content provider {}.", contentProvider.getClass());
-                    String contextUri = ServletUriComponentsBuilder.fromCurrentRequest().toUriString();
-                    contentProvider.provide(ContentElement.createContentElement(resource.getId(),
-                            contentInformation.getRelativePath(), contentInformation.getContentUri(),
-                            contentInformation.getFileVersion(),
-                            contentInformation.getVersioningService(),
-                            contentInformation.getHash(),
-                            contextUri,
-                            contentInformation.getSize()),
-                            contentInformation.getMediaTypeAsObject(),
-                            contentInformation.getFilename(),
-                            response);
-                    provided = true;
-                    break;
-                }
-            }
-            if (!provided) {
+            IContentProvider contentProvider = getProviderRegistry().getContentProvider(contentScheme);
+            if (contentProvider != null) {
+                LOGGER.trace("Using content provider {}.", contentProvider.getClass());
+                String contextUri = ServletUriComponentsBuilder.fromCurrentRequest().toUriString();
+                contentProvider.provide(ContentElement.createContentElement(resource.getId(),
+                        contentInformation.getRelativePath(), contentInformation.getContentUri(),
+                        contentInformation.getFileVersion(),
+                        contentInformation.getVersioningService(),
+                        contentInformation.getHash(),
+                        contextUri,
+                        contentInformation.getSize()),
+                        contentInformation.getMediaTypeAsObject(),
+                        contentInformation.getFilename(),
+                        response);
+            } else {
                 //obtain data uri and check for content to exist
                 String dataUri = contentInformation.getContentUri();
                 if (dataUri != null) {
@@ -370,6 +525,10 @@ public class ContentInformationService implements IContentInformationService {
 
     @Override
     public ContentInformation getContentInformation(String identifier, String relativePath, Long version) {
+        return ServiceMetrics.record(SERVICE_NAME, "getContentInformation", () -> doGetContentInformation(identifier, relativePath, version));
+    }
+
+    private ContentInformation doGetContentInformation(String identifier, String relativePath, Long version) {
         LOGGER.trace("Performing getContentInformation({}, {}).", identifier, relativePath);
 
         LOGGER.trace("Performing findOne({}, {}).", identifier, relativePath);
@@ -401,12 +560,20 @@ public class ContentInformationService implements IContentInformationService {
 
     @Override
     public Optional<String> getAuditInformationAsJson(String resourceIdentifier, Pageable pgbl) {
+        return ServiceMetrics.record(SERVICE_NAME, "getAuditInformation", () -> doGetAuditInformationAsJson(resourceIdentifier, pgbl));
+    }
+
+    private Optional<String> doGetAuditInformationAsJson(String resourceIdentifier, Pageable pgbl) {
         LOGGER.trace("Performing getAuditInformation({}, {}).", resourceIdentifier, pgbl);
         return applicationProperties.getContentInformationAuditService().getAuditInformationAsJson(resourceIdentifier, pgbl.getPageNumber(), pgbl.getPageSize());
     }
 
     @Override
     public ContentInformation findById(String identifier) throws ResourceNotFoundException {
+        return ServiceMetrics.record(SERVICE_NAME, "findById", () -> doFindById(identifier));
+    }
+
+    private ContentInformation doFindById(String identifier) throws ResourceNotFoundException {
         LOGGER.trace("Performing findById({}).", identifier);
         Long id = Long.valueOf(identifier);
         Optional<ContentInformation> contentInformation = getDao().findById(id);
@@ -423,6 +590,13 @@ public class ContentInformationService implements IContentInformationService {
             List<String> callerIdentities,
             boolean callerIsAdmin,
             Pageable pgbl) {
+        return ServiceMetrics.record(SERVICE_NAME, "findByExample", () -> doFindByExample(example, callerIdentities, callerIsAdmin, pgbl));
+    }
+
+    private Page<ContentInformation> doFindByExample(ContentInformation example,
+            List<String> callerIdentities,
+            boolean callerIsAdmin,
+            Pageable pgbl) {
         LOGGER.trace("Performing findByExample({}, {}).", example, pgbl);
         Page<ContentInformation> page;
 
@@ -478,6 +652,10 @@ public class ContentInformationService implements IContentInformationService {
 
     @Override
     public Page<ContentInformation> findAll(ContentInformation c, Instant lastUpdateFrom, Instant lastUpdateUntil, Pageable pgbl) {
+        return ServiceMetrics.record(SERVICE_NAME, "findAll", () -> doFindAll(c, lastUpdateFrom, lastUpdateUntil, pgbl));
+    }
+
+    private Page<ContentInformation> doFindAll(ContentInformation c, Instant lastUpdateFrom, Instant lastUpdateUntil, Pageable pgbl) {
         LOGGER.trace("Performing findAll({}, {}, {}, {}).", c, lastUpdateFrom, lastUpdateUntil, pgbl);
         LOGGER.info("Obtaining content information from an lastUpdate range is not supported. Ignoring lastUpdate arguments.");
         return findAll(c, pgbl);
@@ -504,14 +682,69 @@ public class ContentInformationService implements IContentInformationService {
         return dao.findAll(spec, pgbl);
     }
 
+    @Override
+    public Page<ContentInformationSummary> findSummaries(ContentInformation c, Pageable pgbl) {
+        return ServiceMetrics.record(SERVICE_NAME, "findSummaries", () -> doFindSummaries(c, pgbl));
+    }
+
+    private Page<ContentInformationSummary> doFindSummaries(ContentInformation c, Pageable pgbl) {
+        LOGGER.trace("Performing findSummaries({}, {}).", c, pgbl);
+
+        if (c.getParentResource() == null) {
+            LOGGER.error("Parent resource in template must not be null. Throwing CustomInternalServerError.");
+            throw new CustomInternalServerError("Parent resource is missing from template.");
+        }
+        Set<String> tags = c.getTags();
+        Specification<ContentInformation> spec = Specification.where(ContentInformationMatchSpecification.toSpecification(c.getParentResource().getId(), c.getRelativePath(), false));
+
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<ContentInformationSummary> query = builder.createQuery(ContentInformationSummary.class);
+        Root<ContentInformation> root = query.from(ContentInformation.class);
+        Predicate predicate = spec.toPredicate(root, query, builder);
+        //no collection is joined, thus, rows are distinct anyway and the ordered columns do not have to be selected
+        query.distinct(false);
+        if (tags != null && !tags.isEmpty()) {
+            LOGGER.debug("Content information tags {} provided. Selecting tagged elements by subquery.", tags);
+            Subquery<Long> tagged = query.subquery(Long.class);
+            Root<ContentInformation> taggedRoot = tagged.from(ContentInformation.class);
+            tagged.select(taggedRoot.get("id")).where(taggedRoot.join("tags").in(tags));
+            predicate = builder.and(predicate, root.get("id").in(tagged));
+            spec = spec.and(ContentInformationTagSpecification.toSpecification(tags.toArray(new String[]{})));
+        }
+        query.select(builder.construct(ContentInformationSummary.class,
+                root.get("id"),
+                root.get("relativePath"),
+                root.get("contentUri"),
+                root.get("fileVersion"),
+                root.get("versioningService"),
+                root.get("hash"),
+                root.get("size"),
+                root.get("mediaType"),
+                root.get("version")))
+                .where(predicate)
+                .orderBy(QueryUtils.toOrders(pgbl.getSort(), root, builder));
+
+        TypedQuery<ContentInformationSummary> pageQuery = em.createQuery(query);
+        if (pgbl.isPaged()) {
+            pageQuery.setFirstResult((int) pgbl.getOffset());
+            pageQuery.setMaxResults(pgbl.getPageSize());
+        }
+        Specification<ContentInformation> countSpec = spec;
+        return PageableExecutionUtils.getPage(pageQuery.getResultList(), pgbl, () -> dao.count(countSpec));
+    }
+
     @Override
     @Transactional
     public void patch(ContentInformation resource, JsonPatch patch, Collection<? extends GrantedAuthority> userGrants) {
+        ServiceMetrics.run(SERVICE_NAME, "patch", () -> doPatch(resource, patch, userGrants));
+    }
+
+    private void doPatch(ContentInformation resource, JsonPatch patch, Collection<? extends GrantedAuthority> userGrants) {
         LOGGER.trace("Performing patch({}, {}, {}).", "ContentInformation#" + resource.getId(), patch, userGrants);
         ContentInformation updated = PatchUtil.applyPatch(resource, patch, ContentInformation.class, userGrants);
         LOGGER.trace("Patch successfully applied.");
 
-        long newVersion = applicationProperties.getContentInformationAuditService().getCurrentVersion(Long.toString(updated.getId())) + 1;
+        long newVersion = applicationProperties.getContentInformationAuditService().loadCurrentVersion(Long.toString(updated.getId())) + 1;
         LOGGER.trace("Setting new version number of content information to {}.", newVersion);
         updated.setVersion((int) newVersion);
 
@@ -528,16 +761,42 @@ public class ContentInformationService implements IContentInformationService {
     @Override
     @Transactional
     public void delete(ContentInformation resource) {
+        ServiceMetrics.run(SERVICE_NAME, "delete", () -> doDelete(resource));
+    }
+
+    private void doDelete(ContentInformation resource) {
         LOGGER.trace("Performing delete({}).", "ContentInformation#" + resource.getId());
         getDao().delete(resource);
 
         LOGGER.trace("Deleting audit information.");
         applicationProperties.getContentInformationAuditService().deleteAuditInformation(Long.toString(resource.getId()), resource);
 
+        if (resource.getVersioningService() != null && resource.getContentUri() != null) {
+            LOGGER.trace("Notifying versioning service '{}' about deleted content.", resource.getVersioningService());
+            Map<String, String> options = new HashMap<>();
+            options.put("contentUri", resource.getContentUri());
+            if (resource.getHash() != null) {
+                options.put("checksum", resource.getHash());
+            }
+            IRepoVersioningService service = getVersioningServiceRegistry().get(resource.getVersioningService());
+            if (service != null) {
+                service.delete(resource.getParentResource().getId(), resource.getRelativePath(), options);
+            }
+        }
+
         LOGGER.trace("Sending DELETE event.");
         messagingService.orElse(new LogfileMessagingService()).send(DataResourceMessage.factoryDeleteDataMessage(resource.getParentResource().getId(), resource.getRelativePath(), resource.getContentUri(), resource.getMediaType(), AuthenticationHelper.getPrincipal(), ControllerUtils.getLocalHostname()));
     }
 
+    @Override
+    public boolean isContentManaged(ContentInformation contentInformation) {
+        if (contentInformation.getVersioningService() == null) {
+            return false;
+        }
+        IRepoVersioningService service = getVersioningServiceRegistry().get(contentInformation.getVersioningService());
+        return service != null && service.managesContent();
+    }
+
     protected IContentInformationDao getDao() {
         return dao;
     }
@@ -589,6 +848,16 @@ public class ContentInformationService implements IContentInformationService {
             repositoryPathAvailable = false;
         }*/
         if (repositoryPathAvailable) {
+            if (metricsSnapshot != null) {
+                //use cached count instead of counting all content information on each poll
+                long count = metricsSnapshot.getContentInformation();
+                RuntimeException error = metricsSnapshot.getLastError();
+                if (error != null || metricsSnapshot.isStale()) {
+                    Health.Builder builder = (error != null) ? Health.down(error) : Health.down();
+                    return builder.withDetail("ContentInformation", count).withDetail("Count age (s)", metricsSnapshot.getAge().toSeconds()).withDetail("Count stale?", true).build();
+                }
+                return Health.up().withDetail("ContentInformation", count).withDetail("Count age (s)", metricsSnapshot.getAge().toSeconds()).withDetail("Count stale?", metricsSnapshot.isStale()).build();
+            }
             return Health.up().withDetail("ContentInformation", dao.count()).build();
         } else {
             return Health.down().withDetail("ContentInformation", 0).build();
@@ -17,11 +17,16 @@ package edu.kit.datamanager.repo.service.impl;
 
 import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
 import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.util.ServiceMetrics;
 import edu.kit.datamanager.service.IAuditService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.apache.commons.collections4.CollectionUtils;
 import org.javers.core.Changes;
+import org.javers.core.Commit;
 import org.javers.core.Javers;
 import org.javers.core.metamodel.object.CdoSnapshot;
 import org.javers.repository.jql.JqlQuery;
@@ -37,28 +42,89 @@ import org.slf4j.LoggerFactory;
 public class DataResourceAuditService implements IAuditService<DataResource> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DataResourceAuditService.class);
+    /**
+     * Name of this service used for tagging metrics.
+     */
+    private static final String SERVICE_NAME = "DataResourceAuditService";
 
     private final Javers javers;
     private final RepoBaseConfiguration applicationProperties;
+    private final AuditVersionCache versionCache;
+    private final AsyncAuditCommitter committer;
 
     public DataResourceAuditService(Javers javers, RepoBaseConfiguration applicationProperties) {
+        this(javers, applicationProperties, null);
+    }
+
+    /**
+     * Create a new audit service committing audit information via the
+     * provided pipeline if asynchronous commits are enabled.
+     *
+     * @param javers The Javers instance.
+     * @param applicationProperties The repository configuration.
+     * @param committer The asynchronous audit pipeline or null to commit
+     * audit information synchronously.
+     */
+    public DataResourceAuditService(Javers javers, RepoBaseConfiguration applicationProperties, AsyncAuditCommitter committer) {
         this.javers = javers;
         this.applicationProperties = applicationProperties;
+        this.versionCache = new AuditVersionCache(DataResource.class, Duration.ofSeconds(applicationProperties.getAuditVersionCacheSeconds()));
+        this.committer = committer;
+        if (committer != null) {
+            committer.register(DataResource.class, versionCache::update);
+        }
         applicationProperties.setAuditService(this);
     }
 
     @Override
     public void captureAuditInformation(DataResource resource, String principal) {
+        ServiceMetrics.run(SERVICE_NAME, "captureAuditInformation", () -> doCaptureAuditInformation(resource, principal));
+    }
+
+    private void doCaptureAuditInformation(DataResource resource, String principal) {
         LOGGER.trace("Calling captureAuditInformation(DataResource#{}, {}).", resource.getId(), principal);
         if (!applicationProperties.isAuditEnabled()) {
             LOGGER.trace("Audit is disabled. Skipping registration of resource.");
         } else {
             LOGGER.trace("Capturing audit information for resource {} modified by principal {}.", resource, principal);
-            javers.commit(principal, resource);
+            if (isAsync()) {
+                committer.submit(DataResource.class, resource.getId(), resource, principal);
+                LOGGER.trace("Submitted audit information for resource with id '{}'.", resource.getId());
+                return;
+            }
+            Commit commit = javers.commit(principal, resource);
+            versionCache.update(resource.getId(), commit);
             LOGGER.trace("Successfully committed audit information for resource with id '{}'.", resource.getId());
         }
     }
 
+    /**
+     * Capture audit information for multiple resources, e.g. after a bulk
+     * create. All snapshots are written within the surrounding transaction
+     * or submitted to the asynchronous audit pipeline.
+     *
+     * @param resources The resources.
+     * @param principal The principal who modified the resources.
+     */
+    public void captureAuditInformation(Collection<DataResource> resources, String principal) {
+        ServiceMetrics.run(SERVICE_NAME, "captureAuditInformationBulk", () -> {
+            if (!applicationProperties.isAuditEnabled()) {
+                LOGGER.trace("Audit is disabled. Skipping registration of {} resource(s).", resources.size());
+                return;
+            }
+            LOGGER.trace("Capturing audit information for {} resource(s) modified by principal {}.", resources.size(), principal);
+            for (DataResource resource : resources) {
+                if (isAsync()) {
+                    committer.submit(DataResource.class, resource.getId(), resource, principal);
+                    continue;
+                }
+                Commit commit = javers.commit(principal, resource);
+                versionCache.update(resource.getId(), commit);
+            }
+            LOGGER.trace("Successfully committed audit information for {} resource(s).", resources.size());
+        });
+    }
+
     @Override
     public Optional<String> getAuditInformationAsJson(String resourceId, int page, int resultsPerPage) {
         LOGGER.trace("Calling getAuditInformationAsJson({}, {}, {}).", resourceId, page, resultsPerPage);
@@ -66,6 +132,7 @@ public class DataResourceAuditService implements IAuditService<DataResource> {
         if (!applicationProperties.isAuditEnabled()) {
             LOGGER.trace("Audit is disabled. Returning empty result.");
         } else {
+            flush(resourceId);
             JqlQuery query = QueryBuilder.byInstanceId(resourceId, DataResource.class).limit(resultsPerPage).skip(page * resultsPerPage).build();
             Changes changes = javers.findChanges(query);
 
@@ -83,6 +150,7 @@ public class DataResourceAuditService implements IAuditService<DataResource> {
             if (!applicationProperties.isAuditEnabled()) {
                 LOGGER.trace("Audit is disabled. Returning empty result.");
             } else {
+                flush(resourceId);
                 JqlQuery query = QueryBuilder.
                         byInstanceId(resourceId, DataResource.class).
                         withVersion(version).
@@ -104,23 +172,101 @@ public class DataResourceAuditService implements IAuditService<DataResource> {
         return result;
     }
 
+    /**
+     * Get a page of versions of a resource, newest version first. In contrast
+     * to calling {@link #getResourceByVersion(String, long)} for each version,
+     * the shadows of all versions of the page are obtained by a single Javers
+     * query.
+     *
+     * @param resourceId The resource id.
+     * @param skip The number of most recent versions to skip.
+     * @param limit The max. number of versions to return.
+     *
+     * @return The versions, newest first, or an empty list if audit is
+     * disabled.
+     */
+    public List<DataResource> getResourceVersions(String resourceId, int skip, int limit) {
+        LOGGER.trace("Calling getResourceVersions({}, {}, {}).", resourceId, skip, limit);
+        if (resourceId == null || skip < 0 || limit <= 0) {
+            return List.of();
+        }
+        if (!applicationProperties.isAuditEnabled()) {
+            LOGGER.trace("Audit is disabled. Returning empty result.");
+            return List.of();
+        }
+        return ServiceMetrics.record(SERVICE_NAME, "getResourceVersions", () -> {
+            flush(resourceId);
+            //skip and limit of shadow queries are applied to snapshots of the resource itself
+            JqlQuery query = QueryBuilder.
+                    byInstanceId(resourceId, DataResource.class).
+                    withScopeDeepPlus(applicationProperties.getMaxJaversScope()).
+                    skip(skip).
+                    limit(limit).
+                    build();
+            LOGGER.trace("Obtaining shadows from Javers repository.");
+            List<Shadow<DataResource>> shadows = javers.findShadows(query);
+            List<DataResource> result = new ArrayList<>(shadows.size());
+            for (Shadow<DataResource> shadow : shadows) {
+                result.add(shadow.get());
+            }
+            LOGGER.trace("Obtained {} version(s) of resource id '{}'.", result.size(), resourceId);
+            return result;
+        });
+    }
+
+    /**
+     * Get the number of versions of a resource available in the audit
+     * repository. Without audit compaction, this number equals the current
+     * version. After old versions have been removed by compaction, version
+     * numbers contain gaps and only the remaining versions are counted.
+     *
+     * @param resourceId The resource id.
+     * @param currentVersion The current version of the resource.
+     *
+     * @return The number of available versions or 0 if audit is disabled.
+     */
+    public long countVersions(String resourceId, long currentVersion) {
+        LOGGER.trace("Calling countVersions({}, {}).", resourceId, currentVersion);
+        if (resourceId == null || currentVersion <= 0 || !applicationProperties.isAuditEnabled()) {
+            return 0l;
+        }
+        return ServiceMetrics.record(SERVICE_NAME, "countVersions", () -> {
+            flush(resourceId);
+            //if version 1 is found at the last position, no version was removed
+            JqlQuery oldest = QueryBuilder.byInstanceId(resourceId, DataResource.class).skip((int) (currentVersion - 1)).limit(1).build();
+            List<CdoSnapshot> snapshots = javers.findSnapshots(oldest);
+            if (!snapshots.isEmpty() && snapshots.get(0).getVersion() == 1) {
+                return currentVersion;
+            }
+            JqlQuery all = QueryBuilder.byInstanceId(resourceId, DataResource.class).limit((int) currentVersion).build();
+            long count = javers.findSnapshots(all).size();
+            LOGGER.trace("Resource id '{}' has {} remaining version(s) up to version {}.", resourceId, count, currentVersion);
+            return count;
+        });
+    }
+
     @Override
     public long getCurrentVersion(String resourceId) {
         LOGGER.trace("Calling getCurrentVersion({}).", resourceId);
-        long version = 0l;
         if (!applicationProperties.isAuditEnabled()) {
             LOGGER.trace("Audit is disabled. Returning 0.");
-        } else {
-            JqlQuery query = QueryBuilder.byInstanceId(resourceId, DataResource.class).limit(1).build();
-            LOGGER.trace("Obtaining snapshots from Javers repository.");
-            List<CdoSnapshot> snapshots = javers.findSnapshots(query);
+            return 0l;
+        }
+        flush(resourceId);
+        return versionCache.getVersion(resourceId, this::queryCurrentVersion);
+    }
 
-            if (CollectionUtils.isEmpty(snapshots)) {
-                LOGGER.warn("No version information found for resource id '{}'. Returning 0.", resourceId);
-            } else {
-                version = snapshots.get(0).getVersion();
-                LOGGER.trace("Snapshot for resource id '{}' found. Returning version {}.", resourceId, version);
-            }
+    private long queryCurrentVersion(String resourceId) {
+        long version = 0l;
+        JqlQuery query = QueryBuilder.byInstanceId(resourceId, DataResource.class).limit(1).build();
+        LOGGER.trace("Obtaining snapshots from Javers repository.");
+        List<CdoSnapshot> snapshots = javers.findSnapshots(query);
+
+        if (CollectionUtils.isEmpty(snapshots)) {
+            LOGGER.warn("No version information found for resource id '{}'. Returning 0.", resourceId);
+        } else {
+            version = snapshots.get(0).getVersion();
+            LOGGER.trace("Snapshot for resource id '{}' found. Returning version {}.", resourceId, version);
         }
         return version;
     }
@@ -132,8 +278,23 @@ public class DataResourceAuditService implements IAuditService<DataResource> {
             LOGGER.trace("Audit is disabled. Returning without doing anything.");
         } else {
             LOGGER.trace("Performing shallow delete of resource with id '{}'.", resourceId);
+            flush(resourceId);
             javers.commitShallowDelete(resourceId, resource);
+            versionCache.invalidate(resourceId);
             LOGGER.trace("Shallow delete executed.");
         }
     }
+
+    private boolean isAsync() {
+        return committer != null && committer.isAsync();
+    }
+
+    /**
+     * Wait for pending audit snapshots of a resource to be committed.
+     */
+    private void flush(String resourceId) {
+        if (isAsync()) {
+            committer.flush(DataResource.class, resourceId);
+        }
+    }
 }
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.kit.datamanager.repo.configuration.CacheProperties;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache for data resources and for the mapping of alternate
+ * identifiers to resource ids. Resources are kept as serialized snapshots and
+ * each lookup returns a new, detached instance, thus, callers may modify
+ * returned resources without affecting the cache. Entries are evicted by size
+ * and age and must be invalidated whenever a resource is modified.
+ *
+ * As the ETag of a resource is derived from all its fields, snapshots keep
+ * the last update with full precision and a resource is only cached if its
+ * snapshot restores the same ETag. The cache is local to one instance and must
+ * not be enabled if multiple instances share one database.
+ */
+@Component
+public class DataResourceCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataResourceCache.class);
+
+    private final boolean enabled;
+    private final Cache<String, byte[]> resources;
+    private final Cache<String, String> identifiers;
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules().
+            disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).
+            disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).
+            addMixIn(DataResource.class, LastUpdateMixIn.class);
+
+    /**
+     * Create a cache using default properties.
+     */
+    public DataResourceCache() {
+        this(new CacheProperties());
+    }
+
+    /**
+     * Create a cache using the provided properties.
+     *
+     * @param properties The cache properties.
+     */
+    @Autowired
+    public DataResourceCache(CacheProperties properties) {
+        enabled = properties.isEnabled();
+        resources = Caffeine.newBuilder().maximumSize(properties.getMaximumSize()).expireAfterWrite(properties.getExpireAfterWrite()).recordStats().build();
+        identifiers = Caffeine.newBuilder().maximumSize(properties.getIdentifierMaximumSize()).expireAfterWrite(properties.getExpireAfterWrite()).recordStats().build();
+    }
+
+    /**
+     * Register hit, miss and eviction metrics of both caches.
+     *
+     * @param meterRegistry The registry.
+     */
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        String prefixMetrics = MonitoringUtil.getServiceName();
+        CaffeineCacheMetrics.monitor(meterRegistry, resources, prefixMetrics + "_resource_cache");
+        CaffeineCacheMetrics.monitor(meterRegistry, identifiers, prefixMetrics + "_identifier_cache");
+    }
+
+    /**
+     * Check if caching is enabled.
+     *
+     * @return TRUE if enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get a copy of a cached resource.
+     *
+     * @param id The resource id.
+     *
+     * @return The resource or an empty optional if not cached.
+     */
+    public Optional<DataResource> getResource(String id) {
+        if (!enabled || id == null) {
+            return Optional.empty();
+        }
+        byte[] snapshot = resources.getIfPresent(id);
+        if (snapshot == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(mapper.readValue(snapshot, DataResource.class));
+        } catch (IOException ex) {
+            LOGGER.warn("Failed to read cached snapshot of resource " + id + ". Evicting entry.", ex);
+            resources.invalidate(id);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Add a snapshot of the provided resource. The resource must be fully
+     * accessible, i.e., lazy collections must be loadable. Otherwise, the
+     * resource is not cached.
+     *
+     * @param resource The resource.
+     */
+    public void putResource(DataResource resource) {
+        if (!enabled || resource == null || resource.getId() == null) {
+            return;
+        }
+        try {
+            byte[] snapshot = mapper.writeValueAsBytes(resource);
+            if (!resource.getEtag().equals(mapper.readValue(snapshot, DataResource.class).getEtag())) {
+                LOGGER.debug("Snapshot of resource {} does not restore its ETag. Resource is not cached.", resource.getId());
+                return;
+            }
+            resources.put(resource.getId(), snapshot);
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.debug("Failed to create snapshot of resource {}. Resource is not cached.", resource.getId(), ex);
+        }
+    }
+
+    /**
+     * Get the resource id an identifier is mapped to.
+     *
+     * @param identifier Any identifier.
+     *
+     * @return The resource id or an empty optional if not cached.
+     */
+    public Optional<String> getResourceId(String identifier) {
+        if (!enabled || identifier == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(identifiers.getIfPresent(identifier));
+    }
+
+    /**
+     * Add the mapping of an identifier to a resource id.
+     *
+     * @param identifier Any identifier.
+     * @param resourceId The resource id.
+     */
+    public void putResourceId(String identifier, String resourceId) {
+        if (enabled && identifier != null && resourceId != null) {
+            identifiers.put(identifier, resourceId);
+        }
+    }
+
+    /**
+     * Invalidate a resource and the mappings of the provided identifiers.
+     * Callers should provide all identifiers of the resource before and after
+     * a modification.
+     *
+     * @param resourceId The resource id.
+     * @param resourceIdentifiers Identifiers to invalidate.
+     */
+    public void invalidate(String resourceId, Collection<String> resourceIdentifiers) {
+        if (resourceId != null) {
+            resources.invalidate(resourceId);
+        }
+        if (resourceIdentifiers != null) {
+            identifiers.invalidateAll(resourceIdentifiers);
+        }
+    }
+
+    /**
+     * Invalidate all entries.
+     */
+    public void invalidateAll() {
+        resources.invalidateAll();
+        identifiers.invalidateAll();
+    }
+
+    /**
+     * Replaces the second-based JSON format of the last update of data
+     * resources by ISO-8601 with full precision.
+     */
+    private abstract static class LastUpdateMixIn {
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        @JsonSerialize(using = JsonSerializer.None.class)
+        @JsonDeserialize(using = JsonDeserializer.None.class)
+        Instant lastUpdate;
+    }
+}
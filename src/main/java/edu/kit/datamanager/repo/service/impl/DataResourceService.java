@@ -31,12 +31,17 @@ import edu.kit.datamanager.repo.dao.spec.dataresource.LastUpdateSpecification;
 import edu.kit.datamanager.repo.dao.spec.dataresource.StateSpecification;
 import edu.kit.datamanager.repo.domain.Agent;
 import edu.kit.datamanager.repo.domain.AllIdentifiers;
+import edu.kit.datamanager.repo.domain.BulkDataResourceMessage;
 import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.DataResourceSummary;
 import edu.kit.datamanager.repo.domain.PrimaryIdentifier;
+import edu.kit.datamanager.repo.domain.ResourceType;
+import edu.kit.datamanager.repo.domain.Title;
 import edu.kit.datamanager.repo.domain.UnknownInformationConstants;
 import edu.kit.datamanager.repo.domain.acl.AclEntry;
 import edu.kit.datamanager.repo.service.IDataResourceService;
 import edu.kit.datamanager.repo.util.DataResourceUtils;
+import edu.kit.datamanager.repo.util.ServiceMetrics;
 import edu.kit.datamanager.repo.util.SpecUtils;
 import edu.kit.datamanager.service.IMessagingService;
 import edu.kit.datamanager.service.impl.LogfileMessagingService;
@@ -50,12 +55,26 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -65,8 +84,14 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service implementation for the IDataResourceService interface.
@@ -82,6 +107,17 @@ public class DataResourceService implements IDataResourceService {
     private IAllIdentifiersDao allIdentifiersDao;
 
     private static final Logger logger = LoggerFactory.getLogger(DataResourceService.class);
+
+    /**
+     * Name of this service used for tagging metrics.
+     */
+    private static final String SERVICE_NAME = "DataResourceService";
+    /**
+     * Number of entities written before the persistence context is flushed
+     * and number of identifiers checked for conflicts by one query during
+     * bulk operations.
+     */
+    private static final int BULK_BATCH_SIZE = 500;
     
     private RepoBaseConfiguration applicationProperties;
     
@@ -96,6 +132,15 @@ public class DataResourceService implements IDataResourceService {
     @PersistenceContext
     private EntityManager em;
 
+    @Autowired(required = false)
+    private DataResourceCache resourceCache;
+
+    @Autowired(required = false)
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired(required = false)
+    private MetricsSnapshotService metricsSnapshot;
+
       
    /* @Autowired
     public DataResourceService(IDataResourceDao dao, IAllIdentifiersDao allIdentifiersDao, Optional<IMessagingService> messagingService) {
@@ -125,9 +170,120 @@ public class DataResourceService implements IDataResourceService {
     @Override
     @Transactional
     public DataResource create(DataResource resource, String callerPrincipal, String callerFirstName, String callerLastName) {
+        return ServiceMetrics.record(SERVICE_NAME, "create", () -> doCreate(resource, callerPrincipal, callerFirstName, callerLastName));
+    }
+
+    @Override
+    @Transactional
+    public List<DataResource> createAll(List<DataResource> resources, String callerPrincipal, String callerFirstName, String callerLastName) {
+        return ServiceMetrics.record(SERVICE_NAME, "createAll", () -> doCreateAll(resources, callerPrincipal, callerFirstName, callerLastName));
+    }
+
+    private List<DataResource> doCreateAll(List<DataResource> resources, String callerPrincipal, String callerFirstName, String callerLastName) {
+        logger.trace("Performing createAll(<{} resource(s)>, {}, {}, {}).", resources.size(), callerPrincipal, callerFirstName, callerLastName);
+        printInfo("createAll");
+        if (resources.isEmpty()) {
+            return new ArrayList<>();
+        }
+        //prepare all resources and collect their identifiers for a single conflict check
+        Set<String> allIdentifiers = new LinkedHashSet<>();
+        List<AllIdentifiers> identifierMappings = new ArrayList<>();
+        for (DataResource resource : resources) {
+            prepareCreate(resource, callerPrincipal, callerFirstName, callerLastName, false);
+            Set<String> uniqueIdentifiers = new LinkedHashSet<>(Arrays.asList(removePredifinedIdentifiers(getUniqueIdentifiers(resource))));
+            Set<String> resourceIdentifiers = new LinkedHashSet<>();
+            resourceIdentifiers.add(resource.getId());
+            resourceIdentifiers.addAll(uniqueIdentifiers);
+            for (String identifier : resourceIdentifiers) {
+                if (!allIdentifiers.add(identifier)) {
+                    logger.error("Identifier {} is used by multiple resources of the batch. Throwing ResourceAlreadyExistException.", identifier);
+                    throw new ResourceAlreadyExistException("Identifier " + identifier + " is used by multiple resources of the batch.");
+                }
+            }
+            for (String identifier : uniqueIdentifiers) {
+                AllIdentifiers mapping = new AllIdentifiers();
+                mapping.setIdentifier(identifier);
+                mapping.setResourceId(resource.getId());
+                mapping.setStatus(resource.getState());
+                identifierMappings.add(mapping);
+            }
+        }
+        List<String> identifierList = new ArrayList<>(allIdentifiers);
+        for (int i = 0; i < identifierList.size(); i += BULK_BATCH_SIZE) {
+            List<String> chunk = identifierList.subList(i, Math.min(i + BULK_BATCH_SIZE, identifierList.size()));
+            checkForConflicts(chunk.toArray(new String[chunk.size()]));
+        }
+
+        logger.trace("Persisting {} created resource(s) and {} identifier(s).", resources.size(), identifierMappings.size());
+        //persist instead of save avoids one select per resource as ids are assigned, flushes allow JDBC batch inserts
+        int count = 0;
+        for (DataResource resource : resources) {
+            em.persist(resource);
+            if (++count % BULK_BATCH_SIZE == 0) {
+                em.flush();
+            }
+        }
+        for (AllIdentifiers mapping : identifierMappings) {
+            em.persist(mapping);
+            if (++count % BULK_BATCH_SIZE == 0) {
+                em.flush();
+            }
+        }
+        em.flush();
+        List<String> ids = new ArrayList<>(resources.size());
+        for (DataResource resource : resources) {
+            ids.add(resource.getId());
+            invalidateCache(resource.getId(), getUniqueIdentifiers(resource));
+        }
+
+        logger.trace("Capturing audit information.");
+        if (applicationProperties.getAuditService() instanceof DataResourceAuditService) {
+            ((DataResourceAuditService) applicationProperties.getAuditService()).captureAuditInformation(resources, AuthenticationHelper.getPrincipal());
+        } else {
+            for (DataResource resource : resources) {
+                applicationProperties.getAuditService().captureAuditInformation(resource, AuthenticationHelper.getPrincipal());
+            }
+        }
+
+        logger.trace("Sending bulk CREATE event for {} resource(s).", ids.size());
+        IMessagingService messaging = messagingService.orElse(new LogfileMessagingService());
+        for (BulkDataResourceMessage message : BulkDataResourceMessage.factoryCreateMessages(ids, AuthenticationHelper.getPrincipal(), ControllerUtils.getLocalHostname())) {
+            messaging.send(message);
+        }
+        return resources;
+    }
+
+    private DataResource doCreate(DataResource resource, String callerPrincipal, String callerFirstName, String callerLastName) {
         logger.trace("Performing create({}, {}, {}, {}).", resource, callerPrincipal, callerFirstName, callerLastName);
         printInfo("create");
+        prepareCreate(resource, callerPrincipal, callerFirstName, callerLastName, true);
+
+        logger.trace("Persisting created resource.");
+        resource = getDao().save(resource);
+        saveIdentifiers(resource);
+        invalidateCache(resource.getId(), getUniqueIdentifiers(resource));
+
+        logger.trace("Capturing audit information.");
+        applicationProperties.getAuditService().captureAuditInformation(resource, AuthenticationHelper.getPrincipal());
+
+        logger.trace("Sending CREATE event.");
+        messagingService.orElse(new LogfileMessagingService()).send(DataResourceMessage.factoryCreateMessage(resource.getId(), AuthenticationHelper.getPrincipal(), ControllerUtils.getLocalHostname()));
+        return resource;
+    }
 
+    /**
+     * Assign the id of a new resource and fill all mandatory fields not
+     * provided by the caller.
+     *
+     * @param resource The resource template.
+     * @param callerPrincipal The principal of the caller.
+     * @param callerFirstName The firstname of the caller, if available.
+     * @param callerLastName The lastname of the caller, if available.
+     * @param checkConflicts If TRUE, the identifiers of the resource are
+     * checked for conflicts with existing resources. Otherwise, the caller has
+     * to check for conflicts.
+     */
+    private void prepareCreate(DataResource resource, String callerPrincipal, String callerFirstName, String callerLastName, boolean checkConflicts) {
         //reset id as external assignment of ids is not allowed
         resource.setId(null);
         //check for provided DOI
@@ -163,13 +319,21 @@ public class DataResourceService implements IDataResourceService {
                     }
                     logger.debug("Setting resource identifier to provided internal identifier with value {}.", alt.getValue());
                     resource.setId(alt.getValue());
-                    testForConflictingIdentifiers(resource);
+                    if (checkConflicts) {
+                        testForConflictingIdentifiers(resource);
+                    }
                     hasAlternateInternalIdentifier = true;
                     break;
                 }
             }
 
-            if (!hasAlternateInternalIdentifier) {
+            if (!hasAlternateInternalIdentifier && !checkConflicts) {
+                //random UUIDs are checked together with all other identifiers by the caller
+                String altId = UUID.randomUUID().toString();
+                logger.debug("No primary identifier assigned to resource and no alternate identifier of type INTERNAL was found. Assigning alternate INTERNAL identifier {}.", altId);
+                resource.getAlternateIdentifiers().add(Identifier.factoryInternalIdentifier(altId));
+                resource.setId(altId);
+            } else if (!hasAlternateInternalIdentifier) {
                 boolean success = false;
                 // Test a maximum of 10 times for a new UUID
                 for (int tryToFindIdentifier = 0; !success && (tryToFindIdentifier < 10); tryToFindIdentifier++) {
@@ -192,7 +356,9 @@ public class DataResourceService implements IDataResourceService {
             logger.debug("Primary or other identifier found. Setting resource identifier to primary identifier {}.", resource.getIdentifier().getValue());
             resource.setId(resource.getIdentifier().getValue());
         }
-        checkForConflicts(resource.getId());
+        if (checkConflicts) {
+            checkForConflicts(resource.getId());
+        }
         logger.trace("Checking for mandatory element 'titles'.");
         if (resource.getTitles().isEmpty()) {
             logger.error("No titles found. Throwing BadArgumentException.");
@@ -287,21 +453,14 @@ public class DataResourceService implements IDataResourceService {
 
         logger.trace("Setting resource's lastUpdate to now().");
         resource.setLastUpdate(Instant.now().truncatedTo(ChronoUnit.MILLIS));
-
-        logger.trace("Persisting created resource.");
-        resource = getDao().save(resource);
-        saveIdentifiers(resource);
-
-        logger.trace("Capturing audit information.");
-        applicationProperties.getAuditService().captureAuditInformation(resource, AuthenticationHelper.getPrincipal());
-
-        logger.trace("Sending CREATE event.");
-        messagingService.orElse(new LogfileMessagingService()).send(DataResourceMessage.factoryCreateMessage(resource.getId(), AuthenticationHelper.getPrincipal(), ControllerUtils.getLocalHostname()));
-        return resource;
     }
 
     @Override
     public Page<DataResource> findAllVersions(final String id, Pageable pgbl) {
+        return ServiceMetrics.record(SERVICE_NAME, "findAllVersions", () -> doFindAllVersions(id, pgbl));
+    }
+
+    private Page<DataResource> doFindAllVersions(final String id, Pageable pgbl) {
         logger.trace("Performing findAllVersions({}).", id);
         printInfo("findById");
         DataResource result = findById(id);
@@ -310,8 +469,12 @@ public class DataResourceService implements IDataResourceService {
 
         long lastVersion = applicationProperties.getAuditService().getCurrentVersion(result.getId());
         boolean versioningEnabled = applicationProperties.isAuditEnabled();
+        DataResourceAuditService javersAuditService = (applicationProperties.getAuditService() instanceof DataResourceAuditService)
+                ? (DataResourceAuditService) applicationProperties.getAuditService() : null;
+        //versions removed by audit compaction are not part of the result
+        long totalVersions = (javersAuditService != null) ? javersAuditService.countVersions(result.getId(), lastVersion) : lastVersion;
 
-        long startIndex = lastVersion;
+        long startIndex = totalVersions;
         long noOfElements = startIndex;
 
         if (pgbl != null) {
@@ -321,47 +484,93 @@ public class DataResourceService implements IDataResourceService {
                 noOfElements = startIndex;
             }
         } else {
-            pgbl = PageRequest.of(0, (int) lastVersion);
+            pgbl = PageRequest.of(0, (int) totalVersions);
         }
         List<DataResource> list = new ArrayList<>();
         if (versioningEnabled) {
-            for (long version = startIndex; version > 0; version--) {
-                Optional<DataResource> resource = applicationProperties.getAuditService().getResourceByVersion(result.getId(), version);
-                if (resource.isPresent()) {
-                    list.add(resource.get());
+            if (noOfElements <= 0) {
+                logger.trace("No versions within requested page.");
+            } else if (javersAuditService != null) {
+                //obtain all versions of the page by a single query, skipping the remaining versions of previous pages
+                list.addAll(javersAuditService.getResourceVersions(result.getId(), (int) (totalVersions - startIndex), (int) noOfElements));
+            } else {
+                for (long version = startIndex; version > startIndex - noOfElements; version--) {
+                    Optional<DataResource> resource = applicationProperties.getAuditService().getResourceByVersion(result.getId(), version);
+                    if (resource.isPresent()) {
+                        list.add(resource.get());
+                    }
                 }
             }
         } else {
             list.add(result);
         }
-        Page<DataResource> page = new PageImpl<>(list, pgbl, lastVersion);
+        Page<DataResource> page = new PageImpl<>(list, pgbl, totalVersions);
         return page;
     }
 
     @Override
     public DataResource findById(final String id) {
+        return ServiceMetrics.record(SERVICE_NAME, "findById", () -> doFindById(id));
+    }
+
+    private DataResource doFindById(final String id) {
         logger.trace("Performing findById({}).", id);
         printInfo("findById");
-        long nano1 = System.nanoTime() / 1000000;
-        Optional<DataResource> result = getDao().findById(id);
+        if (isCacheEnabled()) {
+            String resourceId = resourceCache.getResourceId(id).orElse(id);
+            Optional<DataResource> cached = resourceCache.getResource(resourceId);
+            if (cached.isPresent()) {
+                logger.trace("Obtained resource {} from cache.", resourceId);
+                return cached.get();
+            }
+        }
+        Optional<DataResource> result;
+        if (isCacheEnabled() && transactionManager != null) {
+            //lazy collections must be accessible while creating the cache snapshot
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            result = template.execute((status) -> loadResource(id));
+        } else {
+            result = loadResource(id);
+        }
+        if (result == null || !result.isPresent()) {
+            logger.error("No data resource found for identifier {}. Throwing ResourceNotFoundException.", id);
+            throw new ResourceNotFoundException("Data resource with id " + id + " was not found.");
+        }
+        return result.get();
+    }
 
-        long nano2 = System.nanoTime() / 1000000;
-        long nano3 = nano2;
+    /**
+     * Load a resource by its id or by any other identifier and add it to the
+     * cache. No exception is thrown in order to avoid rollbacks of surrounding
+     * transactions.
+     *
+     * @param id The resource id or any other identifier.
+     *
+     * @return The resource or an empty optional.
+     */
+    private Optional<DataResource> loadResource(final String id) {
+        Optional<DataResource> result = getDao().findById(id);
         if (!result.isPresent()) {
-            String resourceId = getResourceIdFromAnyId(id);
+            Optional<AllIdentifiers> helperResource = allIdentifiersDao.findById(id);
+            if (!helperResource.isPresent()) {
+                logger.info("Data resource with identifier {} was not found.", id);
+                return Optional.empty();
+            }
+            String resourceId = helperResource.get().getResourceId();
             logger.trace("Resource ID: {} -> {}", id, resourceId);
-            nano3 = System.nanoTime() / 1000000;
             result = getDao().findById(resourceId);
-            if (!result.isPresent()) {
-                logger.error("No data resource found for identifier {}. Throwing ResourceNotFoundException.", id);
-                throw new ResourceNotFoundException("Data resource with id " + id + " was not found.");
-            } else {
+            if (result.isPresent()) {
                 logger.info("Please use '{}' instead of '{}' for faster access!", resourceId, id);
+                if (isCacheEnabled()) {
+                    resourceCache.putResourceId(id, resourceId);
+                }
             }
         }
-        long nano4 = System.nanoTime() / 1000000;
-        logger.trace("Find by id, {}, {}, {}, {}", nano1, nano2 - nano1, nano3 - nano1, nano4 - nano1);
-        return result.get();
+        if (result.isPresent() && isCacheEnabled()) {
+            resourceCache.putResource(result.get());
+        }
+        return result;
     }
 
     @Override
@@ -373,16 +582,18 @@ public class DataResourceService implements IDataResourceService {
 
     @Override
     public DataResource findByAnyIdentifier(final String resourceIdentifier, Long version) {
+        return ServiceMetrics.record(SERVICE_NAME, "findByAnyIdentifier", () -> doFindByAnyIdentifier(resourceIdentifier, version));
+    }
+
+    private DataResource doFindByAnyIdentifier(final String resourceIdentifier, Long version) {
         logger.trace("Performing findByAnyIdentifier({}, {}).", resourceIdentifier, version);
         // first of all try to get resourceID
-        long nano1 = System.nanoTime() / 1000000;
         DataResource resource = findById(resourceIdentifier);
         //perform read check for most recent version of resource
         //if not access allowed, already stop here
         DataResourceUtils.performPermissionCheck(resource, PERMISSION.READ);
         
         String correctResourceId = resource.getId();
-        long nano2 = System.nanoTime() / 1000000;
         if (Objects.nonNull(version)) {
             logger.trace("Obtained resource for identifier {}. Checking for shadow of version {}.", correctResourceId, version);
             Optional<DataResource> optAuditResult = applicationProperties.getAuditService().getResourceByVersion(resource.getId(), version);
@@ -395,10 +606,6 @@ public class DataResourceService implements IDataResourceService {
 
             }
         }
-        long nano3 = System.nanoTime() / 1000000;
-
-        logger.trace("Find by any identifier, {}, {}, {}", nano1, nano2 - nano1, nano3 - nano1);
-
         return resource;
     }
 
@@ -408,6 +615,15 @@ public class DataResourceService implements IDataResourceService {
             Instant lastUpdateUntil,
             List<String> callerIdentities,
             boolean callerIsAdministrator, Pageable pgbl
+    ) {
+        return ServiceMetrics.record(SERVICE_NAME, "findByExample", () -> doFindByExample(example, lastUpdateFrom, lastUpdateUntil, callerIdentities, callerIsAdministrator, pgbl));
+    }
+
+    private Page<DataResource> doFindByExample(DataResource example,
+            Instant lastUpdateFrom,
+            Instant lastUpdateUntil,
+            List<String> callerIdentities,
+            boolean callerIsAdministrator, Pageable pgbl
     ) {
         logger.trace("Performing findByExample({}, {}, {}, {}, {}, {}).", example, lastUpdateFrom, lastUpdateUntil, callerIdentities, callerIsAdministrator, pgbl);
         Page<DataResource> page;
@@ -436,6 +652,16 @@ public class DataResourceService implements IDataResourceService {
             List<String> sids,
             PERMISSION permission, Pageable pgbl,
             boolean includeRevoked
+    ) {
+        return ServiceMetrics.record(SERVICE_NAME, "findAllFiltered", () -> doFindAllFiltered(example, lastUpdateFrom, lastUpdateUntil, sids, permission, pgbl, includeRevoked));
+    }
+
+    private Page<DataResource> doFindAllFiltered(DataResource example,
+            Instant lastUpdateFrom,
+            Instant lastUpdateUntil,
+            List<String> sids,
+            PERMISSION permission, Pageable pgbl,
+            boolean includeRevoked
     ) {
         logger.trace("Performing findAllFiltered({}, {}, {}, {}, {}).", example, sids, permission, pgbl, includeRevoked);
         Specification<DataResource> spec = SpecUtils.getByExampleSpec(example, em, sids, permission);
@@ -459,6 +685,13 @@ public class DataResourceService implements IDataResourceService {
             Instant lastUpdateFrom,
             Instant lastUpdateUntil,
             Pageable pgbl) {
+        return ServiceMetrics.record(SERVICE_NAME, "findAll", () -> doFindAll(example, lastUpdateFrom, lastUpdateUntil, pgbl));
+    }
+
+    private Page<DataResource> doFindAll(DataResource example,
+            Instant lastUpdateFrom,
+            Instant lastUpdateUntil,
+            Pageable pgbl) {
         logger.trace("Performing findAll({}, {}, {}, {}).", example, lastUpdateFrom, lastUpdateUntil, pgbl);
         Specification<DataResource> spec = SpecUtils.getByExampleSpec(example, em, null, null);
 
@@ -473,6 +706,14 @@ public class DataResourceService implements IDataResourceService {
             Instant lastUpdateUntil,
             Pageable pgbl,
             boolean includeRevoked) {
+        return ServiceMetrics.record(SERVICE_NAME, "findAll", () -> doFindAll(example, lastUpdateFrom, lastUpdateUntil, pgbl, includeRevoked));
+    }
+
+    private Page<DataResource> doFindAll(DataResource example,
+            Instant lastUpdateFrom,
+            Instant lastUpdateUntil,
+            Pageable pgbl,
+            boolean includeRevoked) {
         logger.trace("Performing findAll({}, {}, {}, {}).", example, lastUpdateFrom, lastUpdateUntil, pgbl);
         Specification<DataResource> spec = SpecUtils.getByExampleSpec(example, em, null, null);
 
@@ -497,7 +738,21 @@ public class DataResourceService implements IDataResourceService {
             boolean includeRevoked
     ) {
         logger.trace("Performing doFind({}, {}, {}).", spec, pgbl, includeRevoked);
+        Specification<DataResource> finalSpec = withStates(spec, example, includeRevoked);
+
+        logger.trace("Querying DAO implementation using final spec and pageable information {}.", pgbl);
+        return getDao().findAll(finalSpec, pgbl);
+    }
 
+    /**
+     * Private helper appending the states to query for from the example to
+     * the provided spec.
+     */
+    private Specification<DataResource> withStates(
+            Specification<DataResource> spec,
+            DataResource example,
+            boolean includeRevoked
+    ) {
         List<DataResource.State> states = new ArrayList<>();
         logger.trace("Checking example for state information.");
         if (example != null && example.getState() != null) {
@@ -533,15 +788,104 @@ public class DataResourceService implements IDataResourceService {
             //spec is not null, connect StateSpec by AND
             spec = spec.and(StateSpecification.toSpecification(states));
         }
+        return spec;
+    }
 
-        logger.trace("Querying DAO implementation using final spec and pageable information {}.", pgbl);
-        return getDao().findAll(spec, pgbl);
+    @Override
+    public Page<DataResourceSummary> findSummariesByExample(DataResource example,
+            Instant lastUpdateFrom,
+            Instant lastUpdateUntil,
+            List<String> callerIdentities,
+            boolean callerIsAdministrator, Pageable pgbl
+    ) {
+        return ServiceMetrics.record(SERVICE_NAME, "findSummariesByExample", () -> doFindSummariesByExample(example, lastUpdateFrom, lastUpdateUntil, callerIdentities, callerIsAdministrator, pgbl));
+    }
+
+    private Page<DataResourceSummary> doFindSummariesByExample(DataResource example,
+            Instant lastUpdateFrom,
+            Instant lastUpdateUntil,
+            List<String> callerIdentities,
+            boolean callerIsAdministrator, Pageable pgbl
+    ) {
+        logger.trace("Performing findSummariesByExample({}, {}, {}, {}, {}, {}).", example, lastUpdateFrom, lastUpdateUntil, callerIdentities, callerIsAdministrator, pgbl);
+        Specification<DataResource> spec;
+        if (callerIsAdministrator) {
+            spec = SpecUtils.getByExampleSpec(example, em, null, null);
+        } else {
+            if (example != null && DataResource.State.REVOKED.equals(example.getState())) {
+                logger.debug("Removing 'REVOKED' state from example due to unprivileged request.");
+                example.setState(null);
+            }
+            spec = SpecUtils.getByExampleSpec(example, em, callerIdentities, PERMISSION.READ);
+        }
+        spec = (spec == null) ? LastUpdateSpecification.toSpecification(lastUpdateFrom, lastUpdateUntil) : spec.and(LastUpdateSpecification.toSpecification(lastUpdateFrom, lastUpdateUntil));
+        return findSummaries(withStates(spec, example, callerIsAdministrator), pgbl);
+    }
+
+    /**
+     * Private helper selecting one page of summaries matching the provided
+     * spec. The page is obtained by one query selecting the attributes of the
+     * resource, its identifier and its resource type, the titles of all
+     * resources of the page are obtained by a second query.
+     */
+    private Page<DataResourceSummary> findSummaries(Specification<DataResource> spec, Pageable pgbl) {
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<DataResource> root = query.from(DataResource.class);
+        Join<DataResource, PrimaryIdentifier> identifier = root.join("identifier", JoinType.LEFT);
+        Join<DataResource, ResourceType> resourceType = root.join("resourceType", JoinType.LEFT);
+        List<Selection<?>> selections = new ArrayList<>(Arrays.asList(root.get("id"),
+                identifier.get("value"),
+                root.get("state"),
+                root.get("lastUpdate"),
+                resourceType.get("value"),
+                resourceType.get("typeGeneral")));
+        Predicate predicate = spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        List<Order> orders = QueryUtils.toOrders(pgbl.getSort(), root, builder);
+        //specs may query distinct resources, which requires all ordered expressions to be selected
+        orders.forEach((order) -> selections.add(order.getExpression()));
+        query.multiselect(selections).orderBy(orders);
+
+        TypedQuery<Tuple> pageQuery = em.createQuery(query);
+        if (pgbl.isPaged()) {
+            pageQuery.setFirstResult((int) pgbl.getOffset());
+            pageQuery.setMaxResults(pgbl.getPageSize());
+        }
+        Map<String, DataResourceSummary> summaries = new LinkedHashMap<>();
+        for (Tuple tuple : pageQuery.getResultList()) {
+            DataResourceSummary summary = new DataResourceSummary();
+            summary.setId(tuple.get(0, String.class));
+            summary.setIdentifier(tuple.get(1, String.class));
+            summary.setState(tuple.get(2, DataResource.State.class));
+            summary.setLastUpdate(tuple.get(3, Instant.class));
+            if (tuple.get(4) != null || tuple.get(5) != null) {
+                summary.setResourceType(ResourceType.createResourceType(tuple.get(4, String.class), tuple.get(5, ResourceType.TYPE_GENERAL.class)));
+            }
+            summaries.putIfAbsent(summary.getId(), summary);
+        }
+
+        if (!summaries.isEmpty()) {
+            logger.trace("Loading titles of {} resource(s).", summaries.size());
+            em.createQuery("SELECT r.id, t.value, t.titleType, t.lang FROM DataResource r JOIN r.titles t WHERE r.id IN :ids ORDER BY t.id", Object[].class)
+                    .setParameter("ids", summaries.keySet())
+                    .getResultList()
+                    .forEach((row) -> summaries.get((String) row[0]).addTitle((String) row[1], (Title.TYPE) row[2], (String) row[3]));
+        }
+        return PageableExecutionUtils.getPage(new ArrayList<>(summaries.values()), pgbl, () -> getDao().count(spec));
     }
 
     @Override
     @Transactional
     public void patch(DataResource resource, JsonPatch patch,
             Collection<? extends GrantedAuthority> userGrants) {
+        ServiceMetrics.run(SERVICE_NAME, "patch", () -> doPatch(resource, patch, userGrants));
+    }
+
+    private void doPatch(DataResource resource, JsonPatch patch,
+            Collection<? extends GrantedAuthority> userGrants) {
         logger.trace("Performing patch({}, {}, {}).", "DataResource#" + resource.getId(), patch, userGrants);
 
         List<String> identifierListBefore = getUniqueIdentifiers(resource);
@@ -559,6 +903,8 @@ public class DataResourceService implements IDataResourceService {
         logger.trace("Persisting updated resource.");
         DataResource result = getDao().save(updated);
         saveIdentifiers(result);
+        identifierListBefore.addAll(getUniqueIdentifiers(result));
+        invalidateCache(result.getId(), identifierListBefore);
 
         logger.trace("Capturing audit information.");
         applicationProperties.getAuditService().captureAuditInformation(result, AuthenticationHelper.getPrincipal());
@@ -571,6 +917,11 @@ public class DataResourceService implements IDataResourceService {
     @Transactional
     public DataResource put(DataResource resource, DataResource newResource,
             Collection<? extends GrantedAuthority> userGrants) throws UpdateForbiddenException {
+        return ServiceMetrics.record(SERVICE_NAME, "put", () -> doPut(resource, newResource, userGrants));
+    }
+
+    private DataResource doPut(DataResource resource, DataResource newResource,
+            Collection<? extends GrantedAuthority> userGrants) throws UpdateForbiddenException {
         logger.trace("Performing put({}, {}, {}).", "DataResource#" + resource.getId(), "DataResource#" + newResource.getId(), userGrants);
         List<String> identifierListBefore = getUniqueIdentifiers(resource);
         logger.trace("Resource identifiers before update: {}", identifierListBefore);
@@ -615,6 +966,8 @@ public class DataResourceService implements IDataResourceService {
 
         DataResource result = getDao().save(newResource);
         saveIdentifiers(result);
+        identifierListBefore.addAll(getUniqueIdentifiers(result));
+        invalidateCache(result.getId(), identifierListBefore);
 
         logger.trace("Capturing audit information.");
         applicationProperties.getAuditService().captureAuditInformation(result, AuthenticationHelper.getPrincipal());
@@ -626,6 +979,10 @@ public class DataResourceService implements IDataResourceService {
 
     @Override
     public Optional<String> getAuditInformationAsJson(String resourceIdentifier, Pageable pgbl) {
+        return ServiceMetrics.record(SERVICE_NAME, "getAuditInformation", () -> doGetAuditInformationAsJson(resourceIdentifier, pgbl));
+    }
+
+    private Optional<String> doGetAuditInformationAsJson(String resourceIdentifier, Pageable pgbl) {
         logger.trace("Performing getAuditInformation({}, {}).", resourceIdentifier, pgbl);
         return applicationProperties.getAuditService().getAuditInformationAsJson(resourceIdentifier, pgbl.getPageNumber(), pgbl.getPageSize());
     }
@@ -693,6 +1050,10 @@ public class DataResourceService implements IDataResourceService {
     @Override
     @Transactional(readOnly = false)
     public void delete(DataResource resource) {
+        ServiceMetrics.run(SERVICE_NAME, "delete", () -> doDelete(resource));
+    }
+
+    private void doDelete(DataResource resource) {
         logger.trace("Performing delete({}).", "DataResource#" + resource.getId());
 
         DataResource.State newState = DataResource.State.REVOKED;
@@ -710,11 +1071,41 @@ public class DataResourceService implements IDataResourceService {
         logger.trace("Persisting resource.");
         DataResource result = getDao().save(resource);
         saveIdentifiers(result);
+        invalidateCache(result.getId(), getUniqueIdentifiers(result));
         //capture state change, not a delete operation as the resource is not physically deleted
         logger.trace("Capturing audit information.");
         applicationProperties.getAuditService().captureAuditInformation(result, AuthenticationHelper.getPrincipal());
     }
 
+    private boolean isCacheEnabled() {
+        return resourceCache != null && resourceCache.isEnabled();
+    }
+
+    /**
+     * Invalidate cached entries of a modified resource. Entries are
+     * invalidated immediately and again after the surrounding transaction
+     * has completed, as concurrent readers may cache the previous state
+     * until the modification is committed.
+     *
+     * @param resourceId The resource id.
+     * @param identifiers All identifiers of the resource before and after the
+     * modification.
+     */
+    private void invalidateCache(String resourceId, List<String> identifiers) {
+        if (resourceCache == null) {
+            return;
+        }
+        resourceCache.invalidate(resourceId, identifiers);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    resourceCache.invalidate(resourceId, identifiers);
+                }
+            });
+        }
+    }
+
     protected IDataResourceDao getDao() {
         return dao;
     }
@@ -722,6 +1113,16 @@ public class DataResourceService implements IDataResourceService {
     @Override
     public Health health() {
         logger.trace("Obtaining health information.");
+        if (metricsSnapshot != null) {
+            //use cached count instead of counting all resources on each poll
+            long count = metricsSnapshot.getDataResources();
+            RuntimeException error = metricsSnapshot.getLastError();
+            if (error != null || metricsSnapshot.isStale()) {
+                Health.Builder builder = (error != null) ? Health.down(error) : Health.down();
+                return builder.withDetail("DataResources", count).withDetail("Count age (s)", metricsSnapshot.getAge().toSeconds()).withDetail("Count stale?", true).build();
+            }
+            return Health.up().withDetail("DataResources", count).withDetail("Audit enabled?", applicationProperties.isAuditEnabled()).withDetail("Count age (s)", metricsSnapshot.getAge().toSeconds()).withDetail("Count stale?", metricsSnapshot.isStale()).build();
+        }
         return Health.up().withDetail("DataResources", getDao().count()).withDetail("Audit enabled?", applicationProperties.isAuditEnabled()).build();
     }
 
@@ -797,14 +1198,4 @@ public class DataResourceService implements IDataResourceService {
             allIdentifiersDao.save(result);
         }
     }
-
-    private String getResourceIdFromAnyId(String resourceIdentifier) {
-        Optional<AllIdentifiers> helperResource = allIdentifiersDao.findById(resourceIdentifier);
-        if (!helperResource.isPresent()) {
-            String message = "Data resource with identifier " + resourceIdentifier + " was not found.";
-            logger.info(message);
-            throw new ResourceNotFoundException(message);
-        }
-        return helperResource.get().getResourceId();
-    }
 }
@@ -0,0 +1,405 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.entities.VersionInfo;
+import edu.kit.datamanager.exceptions.CustomInternalServerError;
+import edu.kit.datamanager.exceptions.ResourceAlreadyExistException;
+import edu.kit.datamanager.exceptions.ResourceNotFoundException;
+import edu.kit.datamanager.repo.configuration.ContentTransferProperties;
+import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
+import edu.kit.datamanager.repo.dao.IContentBlobDao;
+import edu.kit.datamanager.repo.domain.ContentBlob;
+import edu.kit.datamanager.repo.service.IRepoVersioningService;
+import edu.kit.datamanager.repo.util.ContentIngestUtils;
+import edu.kit.datamanager.repo.util.ContentTransferUtils;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import edu.kit.datamanager.repo.util.ServiceMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Versioning service storing content in a content-addressed blob store below
+ * 'basepath/blobs'. Blobs are named by the SHA-256 hash of their content, such
+ * that identical content uploaded multiple times, e.g. into different
+ * resources, is only stored once. All content information referencing a blob
+ * are counted. As soon as the last referencing content information is deleted,
+ * the blob is removed.
+ *
+ * Reference counts are registered immediately while holding a lock on the blob
+ * and are released again if the surrounding transaction is rolled back.
+ * Releasing a blob on delete happens only after the surrounding transaction
+ * was committed. If content of a content information is overwritten, the
+ * previous blob is released, too. As for the 'none' versioning service, the
+ * content of older versions of the content information is therefore not
+ * available anymore afterwards.
+ *
+ * Blob files are only deleted while the row of the blob is locked in the
+ * database, such that multiple instances sharing the same storage and
+ * database do not remove blobs registered concurrently by another instance.
+ */
+@Component
+public class DeduplicatingDataVersioningService implements IRepoVersioningService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeduplicatingDataVersioningService.class);
+    /**
+     * Name of this service used for tagging metrics.
+     */
+    private static final String SERVICE_NAME = "DeduplicatingDataVersioningService";
+
+    /**
+     * Algorithm used for addressing blobs.
+     */
+    public static final String BLOB_HASH_ALGORITHM = "SHA-256";
+
+    private static final String BLOB_FOLDER = "blobs";
+    private static final String TMP_FOLDER = "tmp";
+    private static final int LOCK_STRIPES = 64;
+
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+    private RepoBaseConfiguration applicationProperties;
+
+    @Autowired(required = false)
+    private ContentTransferProperties transferProperties;
+    @Autowired(required = false)
+    private ChecksumEngine checksumEngine;
+    @Autowired(required = false)
+    private IContentBlobDao blobDao;
+    @Autowired(required = false)
+    private PlatformTransactionManager transactionManager;
+
+    private ChecksumEngine blobChecksumEngine;
+    private Counter deduplicatedUploads;
+
+    public DeduplicatingDataVersioningService() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Register a metric for the number of deduplicated uploads. The
+     * deduplication ratio is provided by {@link MetricsSnapshotService}.
+     *
+     * @param meterRegistry The registry.
+     */
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        String prefixMetrics = MonitoringUtil.getServiceName();
+        deduplicatedUploads = Counter.builder(prefixMetrics + "_dedup_hits").register(meterRegistry);
+    }
+
+    @Override
+    public void configure(RepoBaseConfiguration applicationProperties) {
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Override
+    public void write(String resourceId, String callerId, String path, InputStream stream, Map<String, String> map) {
+        ServiceMetrics.run(SERVICE_NAME, "write", () -> doWrite(resourceId, callerId, path, stream, map));
+    }
+
+    private void doWrite(String resourceId, String callerId, String path, InputStream stream, Map<String, String> map) {
+        String previousContentUri = map.get("contentUri");
+        if (previousContentUri != null && !Boolean.parseBoolean(map.get("force"))) {
+            LOGGER.error("Existing content information found for resource {} at path {} and 'force' flag not set. Throwing ResourceAlreadyExistException.", "DataResource#" + resourceId, path);
+            throw new ResourceAlreadyExistException("There is already content registered at " + path + ". Provide force=true in order to replace the existing resource.");
+        }
+        Path blobRoot = getBlobRoot();
+        Path tmpFile = blobRoot.resolve(TMP_FOLDER).resolve(UUID.randomUUID().toString());
+        LOGGER.trace("Preparing temporary destination {} for storing user data.", tmpFile);
+        try {
+            Files.createDirectories(tmpFile.getParent());
+            Path filename = Paths.get(path).getFileName();
+            ContentIngestUtils.IngestResult result = ContentIngestUtils.ingest(stream, tmpFile, (filename != null) ? filename.toString() : null, !map.containsKey("mediaType"), transferProperties, getBlobChecksumEngine());
+
+            String blobHash = result.getChecksums().get(ChecksumEngine.getLabel(BLOB_HASH_ALGORITHM));
+            blobHash = blobHash.substring(blobHash.indexOf(':') + 1);
+            Path blob = getBlobPath(blobRoot, blobHash);
+            storeBlob(blobHash, blob, tmpFile, result.getSize());
+            if (previousContentUri != null) {
+                releasePrevious(blobRoot, previousContentUri);
+            }
+
+            LOGGER.trace("Performing upload post-processing.");
+            map.put("checksum", result.getChecksum());
+            LOGGER.debug("Assigned hash {} to content information.", map.get("checksum"));
+            for (Map.Entry<String, String> checksum : result.getChecksums().entrySet()) {
+                map.put(ChecksumEngine.CHECKSUM_OPTION_PREFIX + checksum.getKey(), checksum.getValue());
+            }
+            map.put("size", Long.toString(result.getSize()));
+            LOGGER.debug("Assigned size {} to content information.", map.get("size"));
+            map.put("contentUri", blob.toUri().toString());
+            LOGGER.debug("Assigned content URI {} to content information.", map.get("contentUri"));
+
+            if (result.getMediaType() != null) {
+                map.put("mediaType", result.getMediaType());
+                LOGGER.trace("Assigned media type {} to content information.", map.get("mediaType"));
+            }
+        } catch (IOException ex) {
+            LOGGER.error("Failed to finish upload. Throwing CustomInternalServerError.", ex);
+            throw new CustomInternalServerError("Unable to read from stream. Upload canceled.");
+        } finally {
+            try {
+                Files.deleteIfExists(tmpFile);
+            } catch (IOException ex) {
+                LOGGER.warn("Failed to remove temporary file " + tmpFile + ".", ex);
+            }
+        }
+    }
+
+    @Override
+    public void read(String resourceId, String callerId, String path, String versionId, OutputStream destination, Map<String, String> options) {
+        ServiceMetrics.run(SERVICE_NAME, "read", () -> doRead(resourceId, callerId, path, versionId, destination, options));
+    }
+
+    private void doRead(String resourceId, String callerId, String path, String versionId, OutputStream destination, Map<String, String> options) {
+        String contentUriString = options.get("contentUri");
+        LOGGER.trace("Checking URI {}.", contentUriString);
+        if (!Files.exists(Paths.get(URI.create(contentUriString)))) {
+            LOGGER.error("Content at URI {} seems not to exist.", contentUriString);
+            throw new ResourceNotFoundException("The provided resource was not found on the server.");
+        }
+
+        try {
+            LOGGER.trace("Copying blob content to target stream.");
+            ContentTransferUtils.transfer(Paths.get(URI.create(contentUriString)), destination, ContentTransferUtils.getBufferSize(transferProperties));
+        } catch (IOException ex) {
+            LOGGER.error("Failed to read content stream.", ex);
+            throw new CustomInternalServerError("Failed to read content stream.");
+        }
+    }
+
+    @Override
+    public VersionInfo info(String resourceId, String path, String versionId, Map<String, String> options) {
+        return new VersionInfo(resourceId, versionId, null, null, null, null, null, new HashSet<>(Arrays.asList(path)));
+    }
+
+    @Override
+    public void delete(String resourceId, String path, Map<String, String> options) {
+        Path blob = Paths.get(URI.create(options.get("contentUri")));
+        if (blobDao == null) {
+            LOGGER.warn("No blob reference database available. Keeping blob {}.", blob);
+            return;
+        }
+        //the content information may still be restored by a rollback, so the blob is released after commit
+        afterCommit(() -> release(blob.getFileName().toString(), blob));
+    }
+
+    private void releasePrevious(Path blobRoot, String previousContentUri) {
+        URI previousUri = URI.create(previousContentUri);
+        if (blobDao == null || !"file".equals(previousUri.getScheme())) {
+            return;
+        }
+        Path previousBlob = Paths.get(previousUri);
+        if (previousBlob.startsWith(blobRoot)) {
+            LOGGER.trace("Content overwritten. Releasing previous blob {} after commit.", previousBlob);
+            afterCommit(() -> release(previousBlob.getFileName().toString(), previousBlob));
+        }
+    }
+
+    private void release(String blobHash, Path blob) {
+        Lock lock = getLock(blobHash);
+        lock.lock();
+        try {
+            //the file is deleted while the blob row is locked, concurrent registrations wait for the commit and recreate blob row and file
+            inNewTransaction(() -> {
+                blobDao.decrementReferenceCount(blobHash);
+                Optional<ContentBlob> contentBlob = blobDao.findByHashForUpdate(blobHash);
+                if (contentBlob.isPresent() && contentBlob.get().getReferenceCount() <= 0) {
+                    LOGGER.trace("Last reference to blob {} removed. Deleting blob.", blob);
+                    blobDao.delete(contentBlob.get());
+                    try {
+                        Files.deleteIfExists(blob);
+                    } catch (IOException ex) {
+                        LOGGER.warn("Failed to delete unreferenced blob " + blob + ".", ex);
+                    }
+                }
+                return null;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean supportsDirectFileAccess() {
+        return true;
+    }
+
+    @Override
+    public boolean managesContent() {
+        return true;
+    }
+
+    @Override
+    public String getServiceName() {
+        return "dedup";
+    }
+
+    private void storeBlob(String blobHash, Path blob, Path tmpFile, long size) throws IOException {
+        Lock lock = getLock(blobHash);
+        lock.lock();
+        try {
+            if (blobDao == null) {
+                LOGGER.warn("No blob reference database available. Blob {} will not be reference counted.", blob);
+                if (!Files.exists(blob)) {
+                    moveToBlob(tmpFile, blob);
+                }
+                return;
+            }
+            //blob registration is committed while holding the lock, otherwise concurrent uploads of the same content may both create the blob entry
+            Supplier<Boolean> register = () -> {
+                if (blobDao.incrementReferenceCount(blobHash) > 0) {
+                    //keep the counted references, even if the blob file has to be restored
+                    return Files.exists(blob);
+                }
+                ContentBlob contentBlob = new ContentBlob();
+                contentBlob.setHash(blobHash);
+                contentBlob.setSize(size);
+                contentBlob.setReferenceCount(1);
+                blobDao.save(contentBlob);
+                return false;
+            };
+            boolean existing;
+            try {
+                existing = inNewTransaction(register);
+            } catch (DataIntegrityViolationException ex) {
+                LOGGER.debug("Blob {} was registered concurrently by another instance. Retrying registration.", blob);
+                existing = inNewTransaction(register);
+            }
+            if (existing) {
+                LOGGER.debug("Blob {} already exists. Discarding uploaded copy.", blob);
+                if (deduplicatedUploads != null) {
+                    deduplicatedUploads.increment();
+                }
+            } else {
+                moveToBlob(tmpFile, blob);
+            }
+            //the registration above is committed already, undo it if the upload is rolled back
+            afterRollback(() -> release(blobHash, blob));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void moveToBlob(Path tmpFile, Path blob) throws IOException {
+        LOGGER.trace("Storing new blob at {}.", blob);
+        Files.createDirectories(blob.getParent());
+        Files.move(tmpFile, blob, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private <T> T inNewTransaction(Supplier<T> action) {
+        if (transactionManager == null) {
+            return action.get();
+        }
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template.execute((status) -> action.get());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private Lock getLock(String blobHash) {
+        return locks[Math.floorMod(blobHash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private Path getBlobRoot() {
+        try {
+            return Paths.get(applicationProperties.getBasepath().toURI()).resolve(BLOB_FOLDER);
+        } catch (URISyntaxException ex) {
+            String message = "Failed to transform configured basepath to URI.";
+            LOGGER.error(message, ex);
+            throw new CustomInternalServerError(message);
+        }
+    }
+
+    private static Path getBlobPath(Path blobRoot, String blobHash) {
+        return blobRoot.resolve(blobHash.substring(0, 2)).resolve(blobHash.substring(2, 4)).resolve(blobHash);
+    }
+
+    private synchronized ChecksumEngine getBlobChecksumEngine() {
+        if (blobChecksumEngine == null) {
+            ChecksumEngine configured = (checksumEngine != null) ? checksumEngine : ChecksumEngine.getDefault();
+            if (configured.getAlgorithms().stream().anyMatch((a) -> ChecksumEngine.getLabel(a).equals(ChecksumEngine.getLabel(BLOB_HASH_ALGORITHM)))) {
+                blobChecksumEngine = configured;
+            } else {
+                //keep configured algorithms, add hash for addressing blobs
+                List<String> algorithms = new ArrayList<>(configured.getAlgorithms());
+                algorithms.add(BLOB_HASH_ALGORITHM);
+                boolean parallel = (transferProperties == null) || transferProperties.isParallelChecksums();
+                int queueSize = (transferProperties != null) ? transferProperties.getChecksumQueueSize() : 4;
+                blobChecksumEngine = new ChecksumEngine(algorithms, parallel, queueSize);
+            }
+        }
+        return blobChecksumEngine;
+    }
+}
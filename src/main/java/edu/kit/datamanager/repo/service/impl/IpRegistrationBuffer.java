@@ -0,0 +1,249 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.repo.configuration.MonitoringConfiguration;
+import edu.kit.datamanager.repo.dao.IIpMonitoringDao;
+import edu.kit.datamanager.repo.domain.IpMonitoring;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Buffer collecting hashed IP addresses of clients in memory, which are
+ * written to the database periodically in batches instead of once per
+ * request. The pending hashes are held in lock-striped maps from hash to day
+ * of the visit, such that concurrent requests rarely contend. Hashes already
+ * written for the current day are remembered and not written again.
+ */
+@Component
+public class IpRegistrationBuffer {
+
+  /**
+   * Logger for messages.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(IpRegistrationBuffer.class);
+  /**
+   * Number of stripes of pending hashes.
+   */
+  private static final int STRIPES = 16;
+
+  private final MonitoringConfiguration monitoringConfiguration;
+  private final IIpMonitoringDao ipMonitoringDao;
+  private UniqueUsersSketchService uniqueUsersSketchService;
+  private final int maxPending;
+  private final List<Map<String, Instant>> pending = new ArrayList<>(STRIPES);
+  private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+  private final AtomicInteger pendingCount = new AtomicInteger();
+  /**
+   * Hashes written to the database for the day in flushedDay.
+   */
+  private volatile Set<String> flushed = ConcurrentHashMap.newKeySet();
+  private volatile Instant flushedDay;
+  private Timer flushTimer;
+  private Counter droppedCounter;
+
+  /**
+   * Default constructor.
+   *
+   * @param monitoringConfiguration The monitoring configuration.
+   * @param ipMonitoringDao The repository the hashes are written to.
+   */
+  @Autowired
+  public IpRegistrationBuffer(MonitoringConfiguration monitoringConfiguration, IIpMonitoringDao ipMonitoringDao) {
+    this.monitoringConfiguration = monitoringConfiguration;
+    this.ipMonitoringDao = ipMonitoringDao;
+    this.maxPending = monitoringConfiguration.getIpMaxPending();
+    for (int i = 0; i < STRIPES; i++) {
+      pending.add(new HashMap<>());
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * Set the meter registry used to publish the queue depth, the flush
+   * duration and the number of dropped hashes.
+   *
+   * @param meterRegistry The meter registry.
+   */
+  @Autowired(required = false)
+  public void setMeterRegistry(MeterRegistry meterRegistry) {
+    String prefixMetrics = MonitoringUtil.getServiceName();
+    Gauge.builder(prefixMetrics + "_ip_registration_queue_depth", pendingCount, AtomicInteger::get).register(meterRegistry);
+    flushTimer = Timer.builder(prefixMetrics + "_ip_registration_flush").register(meterRegistry);
+    droppedCounter = Counter.builder(prefixMetrics + "_ip_registration_dropped").register(meterRegistry);
+  }
+
+  /**
+   * Set the service receiving IP hashes if unique users are counted in
+   * SKETCH mode.
+   *
+   * @param uniqueUsersSketchService The sketch service.
+   */
+  @Autowired(required = false)
+  public void setUniqueUsersSketchService(UniqueUsersSketchService uniqueUsersSketchService) {
+    this.uniqueUsersSketchService = uniqueUsersSketchService;
+  }
+
+  /**
+   * Register a visit of the client with the provided IP hash for the current
+   * day. The hash is written to the database with the next flush.
+   *
+   * @param ipHash The hash of the IP address of the client.
+   */
+  public void register(String ipHash) {
+    if (ipHash == null) {
+      return;
+    }
+    Instant day = Instant.now().truncatedTo(ChronoUnit.DAYS);
+    if (day.equals(flushedDay) && flushed.contains(ipHash)) {
+      return;
+    }
+    int stripe = (ipHash.hashCode() & Integer.MAX_VALUE) % STRIPES;
+    ReentrantLock lock = locks[stripe];
+    lock.lock();
+    try {
+      Map<String, Instant> entries = pending.get(stripe);
+      if (entries.containsKey(ipHash)) {
+        entries.put(ipHash, day);
+      } else if (pendingCount.get() < maxPending) {
+        entries.put(ipHash, day);
+        pendingCount.incrementAndGet();
+      } else if (droppedCounter != null) {
+        droppedCounter.increment();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Get the number of hashes waiting to be written to the database.
+   *
+   * @return The number of pending hashes.
+   */
+  public int getPendingCount() {
+    return pendingCount.get();
+  }
+
+  /**
+   * Write all pending hashes to the database within a single transaction. In
+   * SKETCH mode, the hashes are added to the sketches of unique users instead.
+   * If writing fails, the hashes are kept for the next flush.
+   */
+  @Scheduled(fixedDelayString = "${repo.monitoring.ipFlushInterval:PT5S}")
+  @PreDestroy
+  public synchronized void flush() {
+    Map<String, Instant> batch = new HashMap<>();
+    for (int i = 0; i < STRIPES; i++) {
+      locks[i].lock();
+      try {
+        Map<String, Instant> entries = pending.get(i);
+        if (!entries.isEmpty()) {
+          batch.putAll(entries);
+          pending.set(i, new HashMap<>());
+          pendingCount.addAndGet(-entries.size());
+        }
+      } finally {
+        locks[i].unlock();
+      }
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    long start = System.nanoTime();
+    try {
+      if (monitoringConfiguration.getUniqueUsersMode() == MonitoringConfiguration.UNIQUE_USERS_MODE.SKETCH && uniqueUsersSketchService != null) {
+        uniqueUsersSketchService.addAll(batch);
+      } else {
+        List<IpMonitoring> entities = new ArrayList<>(batch.size());
+        batch.forEach((ipHash, day) -> {
+          IpMonitoring ipMonitoring = new IpMonitoring();
+          ipMonitoring.setIpHash(ipHash);
+          ipMonitoring.setLastVisit(day);
+          entities.add(ipMonitoring);
+        });
+        //saveAll is transactional, thus, all hashes are written in one transaction
+        ipMonitoringDao.saveAll(entities);
+      }
+    } catch (Exception ex) {
+      LOGGER.error("Failed to write " + batch.size() + " IP hash(es). Retrying with next flush.", ex);
+      batch.forEach(this::requeue);
+      return;
+    } finally {
+      if (flushTimer != null) {
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+    LOGGER.trace("Wrote {} IP hash(es) to database.", batch.size());
+    remember(batch);
+  }
+
+  /**
+   * Put a hash back to the pending hashes unless it has been registered
+   * again in the meantime.
+   */
+  private void requeue(String ipHash, Instant day) {
+    int stripe = (ipHash.hashCode() & Integer.MAX_VALUE) % STRIPES;
+    locks[stripe].lock();
+    try {
+      if (pending.get(stripe).putIfAbsent(ipHash, day) == null) {
+        pendingCount.incrementAndGet();
+      }
+    } finally {
+      locks[stripe].unlock();
+    }
+  }
+
+  /**
+   * Remember the hashes written for the current day. The set of remembered
+   * hashes is reset at the beginning of each day and if it grows beyond the
+   * max. number of pending hashes.
+   */
+  private void remember(Map<String, Instant> batch) {
+    Instant day = Instant.now().truncatedTo(ChronoUnit.DAYS);
+    Set<String> current = flushed;
+    if (!day.equals(flushedDay) || current.size() + batch.size() > maxPending) {
+      current = ConcurrentHashMap.newKeySet();
+    }
+    for (Map.Entry<String, Instant> entry : batch.entrySet()) {
+      if (day.equals(entry.getValue())) {
+        current.add(entry.getKey());
+      }
+    }
+    flushed = current;
+    flushedDay = day;
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.entities.ContentElement;
+import edu.kit.datamanager.repo.dao.IContentInformationDao;
+import edu.kit.datamanager.repo.domain.ContentInformationSummary;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.util.MediaTypedCollection;
+import java.net.URI;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Read-only list of the content elements of a data resource, which loads its
+ * elements lazily page by page using keyset pagination while being iterated.
+ * Only a single page is held in memory at a time, thus, collection providers
+ * consuming the list via its iterator need constant memory independent of the
+ * number of elements. Each iteration issues new queries, while size() and
+ * get(int) are implemented by iterating and should be avoided for large
+ * collections. The media types of all elements are available via
+ * typedIterator().
+ */
+public class KeysetContentElementList extends AbstractList<ContentElement> implements MediaTypedCollection{
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(KeysetContentElementList.class);
+
+  private final IContentInformationDao dao;
+  private final DataResource resource;
+  private final Predicate<String> schemeFilter;
+  private final String contextUri;
+  private final int pageSize;
+  private int size = -1;
+
+  /**
+   * Default constructor.
+   *
+   * @param dao The dao used to load pages.
+   * @param resource The parent resource.
+   * @param schemeFilter Predicate deciding by content URI scheme whether an
+   * element is part of the list.
+   * @param contextUri The context URI of all elements.
+   * @param pageSize The number of elements loaded per query.
+   */
+  public KeysetContentElementList(IContentInformationDao dao, DataResource resource, Predicate<String> schemeFilter, String contextUri, int pageSize){
+    if(pageSize < 1){
+      throw new IllegalArgumentException("Page size must be positive.");
+    }
+    this.dao = dao;
+    this.resource = resource;
+    this.schemeFilter = schemeFilter;
+    this.contextUri = contextUri;
+    this.pageSize = pageSize;
+  }
+
+  @Override
+  public Iterator<ContentElement> iterator(){
+    Iterator<TypedElement> typed = typedIterator();
+    return new Iterator<ContentElement>(){
+      @Override
+      public boolean hasNext(){
+        return typed.hasNext();
+      }
+
+      @Override
+      public ContentElement next(){
+        return typed.next().getElement();
+      }
+    };
+  }
+
+  @Override
+  public Iterator<TypedElement> typedIterator(){
+    return new KeysetIterator();
+  }
+
+  @Override
+  public ContentElement get(int index){
+    if(index < 0){
+      throw new IndexOutOfBoundsException("Index: " + index);
+    }
+    int i = 0;
+    for(ContentElement element : this){
+      if(i++ == index){
+        return element;
+      }
+    }
+    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + i);
+  }
+
+  @Override
+  public int size(){
+    if(size < 0){
+      int count = 0;
+      Iterator<ContentElement> it = iterator();
+      while(it.hasNext()){
+        it.next();
+        count++;
+      }
+      size = count;
+    }
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty(){
+    return !iterator().hasNext();
+  }
+
+  private final class KeysetIterator implements Iterator<TypedElement>{
+
+    private Iterator<ContentInformationSummary> page = Collections.emptyIterator();
+    private long lastId = -1;
+    private boolean exhausted = false;
+    private TypedElement next;
+
+    @Override
+    public boolean hasNext(){
+      while(next == null){
+        if(!page.hasNext()){
+          if(exhausted){
+            return false;
+          }
+          List<ContentInformationSummary> content = dao.findSummariesByParentResourceAfter(resource, lastId, PageRequest.of(0, pageSize));
+          LOGGER.trace("Loaded page of {} content element(s) after id {}.", content.size(), lastId);
+          exhausted = content.size() < pageSize;
+          page = content.iterator();
+          if(!page.hasNext()){
+            return false;
+          }
+        }
+        ContentInformationSummary c = page.next();
+        lastId = c.getId();
+        String scheme = (c.getContentUri() != null) ? URI.create(c.getContentUri()).getScheme() : null;
+        if(schemeFilter != null && !schemeFilter.test(scheme)){
+          LOGGER.debug("Skip adding collection mapping '{}':'{}' as content provider is not capable of providing URI scheme.", c.getRelativePath(), c.getContentUri());
+          continue;
+        }
+        LOGGER.trace("Adding collection mapping '{}':'{}' with checksum '{}' to list. Additionally providing context Uri {} and size {}.", c.getRelativePath(), c.getContentUri(), c.getHash(), contextUri, c.getSize());
+        ContentElement element = ContentElement.createContentElement(resource.getId(), c.getRelativePath(), c.getContentUri(), c.getFileVersion(), c.getVersioningService(), c.getHash(), contextUri, c.getSize());
+        next = new TypedElement(element, c.getMediaType());
+      }
+      return true;
+    }
+
+    @Override
+    public TypedElement next(){
+      if(!hasNext()){
+        throw new NoSuchElementException();
+      }
+      TypedElement result = next;
+      next = null;
+      return result;
+    }
+  }
+}
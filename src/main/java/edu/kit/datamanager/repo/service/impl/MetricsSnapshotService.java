@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.repo.configuration.MonitoringConfiguration;
+import edu.kit.datamanager.repo.dao.IContentBlobDao;
+import edu.kit.datamanager.repo.dao.IContentInformationDao;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Service holding a snapshot of aggregated values, e.g. the number of
+ * registered users or data resources, which are expensive to compute on
+ * large databases. The snapshot is refreshed periodically and serves
+ * metrics gauges and health indicators without querying the database on
+ * each poll. If a refresh fails, the previous values are kept and the
+ * error is provided until the next successful refresh, such that health
+ * indicators can report the failure.
+ */
+@Component
+public class MetricsSnapshotService {
+  /**
+   * Logger for messages.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(MetricsSnapshotService.class);
+
+  private final MonitoringConfiguration monitoringConfiguration;
+  private final IDataResourceDao dataResourceDao;
+  private final IContentInformationDao contentInformationDao;
+  private IContentBlobDao contentBlobDao;
+
+  private volatile long registeredUsers;
+  private volatile long uniqueUsers;
+  private volatile long dataResources;
+  private volatile long contentInformation;
+  private volatile long storedBlobSize;
+  private volatile long referencedBlobSize;
+  private volatile Instant lastRefresh;
+  private volatile RuntimeException lastError;
+  private volatile boolean refreshed;
+
+  /**
+   * Default constructor.
+   *
+   * @param monitoringConfiguration The monitoring configuration.
+   * @param dataResourceDao The repository of data resources.
+   * @param contentInformationDao The repository of content information.
+   */
+  @Autowired
+  public MetricsSnapshotService(MonitoringConfiguration monitoringConfiguration,
+                                IDataResourceDao dataResourceDao,
+                                IContentInformationDao contentInformationDao) {
+    this.monitoringConfiguration = monitoringConfiguration;
+    this.dataResourceDao = dataResourceDao;
+    this.contentInformationDao = contentInformationDao;
+  }
+
+  /**
+   * Set the repository of deduplicated blobs used to compute the
+   * deduplication ratio.
+   *
+   * @param contentBlobDao The repository of content blobs.
+   */
+  @Autowired(required = false)
+  public void setContentBlobDao(IContentBlobDao contentBlobDao) {
+    this.contentBlobDao = contentBlobDao;
+  }
+
+  /**
+   * Set the meter registry used to publish the number of data resources and
+   * content information, the deduplication ratio as well as the age of the
+   * snapshot.
+   *
+   * @param meterRegistry The meter registry.
+   */
+  @Autowired(required = false)
+  public void setMeterRegistry(MeterRegistry meterRegistry) {
+    String prefixMetrics = MonitoringUtil.getServiceName();
+    Gauge.builder(prefixMetrics + "_data_resources", this, MetricsSnapshotService::getDataResources).register(meterRegistry);
+    Gauge.builder(prefixMetrics + "_content_information", this, MetricsSnapshotService::getContentInformation).register(meterRegistry);
+    Gauge.builder(prefixMetrics + "_dedup_ratio", this, MetricsSnapshotService::getDeduplicationRatio).register(meterRegistry);
+    Gauge.builder(prefixMetrics + "_metrics_snapshot_age", this, (s) -> s.getAge().toMillis() / 1000.0).baseUnit("seconds").register(meterRegistry);
+  }
+
+  /**
+   * Recompute all values of the snapshot.
+   */
+  @Scheduled(fixedDelayString = "${repo.monitoring.snapshotInterval:PT1M}")
+  public synchronized void refresh() {
+    long start = System.nanoTime();
+    refreshed = true;
+    try {
+      registeredUsers = MonitoringUtil.getNoOfRegisteredUsers();
+      uniqueUsers = MonitoringUtil.getNoOfUniqueUsers();
+      dataResources = dataResourceDao.count();
+      contentInformation = contentInformationDao.count();
+      if (contentBlobDao != null) {
+        storedBlobSize = contentBlobDao.getStoredSize();
+        referencedBlobSize = contentBlobDao.getReferencedSize();
+      }
+      lastRefresh = Instant.now();
+      lastError = null;
+      LOGGER.trace("Refreshed metrics snapshot in {} ms.", (System.nanoTime() - start) / 1000000);
+    } catch (RuntimeException ex) {
+      lastError = ex;
+      LOGGER.error("Failed to refresh metrics snapshot. Keeping values of " + lastRefresh + ".", ex);
+    }
+  }
+
+  /**
+   * Get the number of registered users.
+   *
+   * @return The number of distinct sids in all access control lists.
+   */
+  public long getRegisteredUsers() {
+    ensureLoaded();
+    return registeredUsers;
+  }
+
+  /**
+   * Get the number of unique users of the last noOfDaysToKeep days.
+   *
+   * @return The number of unique users.
+   */
+  public long getUniqueUsers() {
+    ensureLoaded();
+    return uniqueUsers;
+  }
+
+  /**
+   * Get the number of data resources.
+   *
+   * @return The number of data resources.
+   */
+  public long getDataResources() {
+    ensureLoaded();
+    return dataResources;
+  }
+
+  /**
+   * Get the number of content information entities.
+   *
+   * @return The number of content information entities.
+   */
+  public long getContentInformation() {
+    ensureLoaded();
+    return contentInformation;
+  }
+
+  /**
+   * Get the ratio between the number of bytes referenced by content
+   * information and the number of bytes physically stored by the
+   * deduplicating versioning service.
+   *
+   * @return The deduplication ratio, which is 1.0 if nothing is stored.
+   */
+  public double getDeduplicationRatio() {
+    ensureLoaded();
+    long stored = storedBlobSize;
+    return (stored == 0) ? 1.0 : (double) referencedBlobSize / stored;
+  }
+
+  /**
+   * Get the time elapsed since the last successful refresh.
+   *
+   * @return The age of the snapshot.
+   */
+  public Duration getAge() {
+    Instant refreshed = lastRefresh;
+    return (refreshed == null) ? Duration.ZERO : Duration.between(refreshed, Instant.now());
+  }
+
+  /**
+   * Check whether the last successful refresh is older than twice the
+   * refresh interval, e.g. because the database is not available.
+   *
+   * @return TRUE if the snapshot is stale.
+   */
+  public boolean isStale() {
+    return lastRefresh == null || getAge().compareTo(monitoringConfiguration.getSnapshotInterval().multipliedBy(2)) > 0;
+  }
+
+  /**
+   * Get the error of the last refresh.
+   *
+   * @return The error or null if the last refresh succeeded.
+   */
+  public RuntimeException getLastError() {
+    ensureLoaded();
+    return lastError;
+  }
+
+  private void ensureLoaded() {
+    if (!refreshed) {
+      refresh();
+    }
+  }
+}
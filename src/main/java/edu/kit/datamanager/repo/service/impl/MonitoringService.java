@@ -47,26 +47,36 @@ public class MonitoringService implements HandlerInterceptor, WebMvcConfigurer {
    * Counter for the number of requests served.
    */
   private final Counter counter;
+  /**
+   * Buffer for IP hashes written to the database in batches.
+   */
+  private final IpRegistrationBuffer ipRegistrationBuffer;
 
   /**
    * Constructor for MonitoringService.
    * Initializes the MonitoringUtil with the provided configuration and DAO.
+   * Client IPs are registered via the provided buffer.
    */
   @Autowired
   public MonitoringService(MeterRegistry meterRegistry,
                            MonitoringConfiguration monitoringConfiguration,
                            IIpMonitoringDao ipMonitoringDao,
-                           IAclEntryDao aclEntryDao) {
+                           IAclEntryDao aclEntryDao,
+                           IpRegistrationBuffer ipRegistrationBuffer,
+                           UniqueUsersSketchService uniqueUsersSketchService,
+                           MetricsSnapshotService metricsSnapshotService) {
     LOGGER.info("MonitoringUtil initialized with configuration: {}", monitoringConfiguration);
     MonitoringUtil.setMonitoringConfiguration(monitoringConfiguration);
     MonitoringUtil.setIpMonitoringDao(ipMonitoringDao);
     MonitoringUtil.setAclEntryDao(aclEntryDao);
+    MonitoringUtil.setUniqueUsersSketchService(uniqueUsersSketchService);
+    this.ipRegistrationBuffer = ipRegistrationBuffer;
 
     LOGGER.trace("Initializing MonitoringService with service name: {}", MonitoringUtil.getServiceName());
-    // Register a gauge for the number of unique users
+    // Register gauges for the number of unique and registered users served from the periodically refreshed snapshot
     String prefixMetrics = MonitoringUtil.getServiceName();
-    Gauge.builder( prefixMetrics + "_unique_users", MonitoringUtil::getNoOfUniqueUsers).register(meterRegistry);
-    Gauge.builder( prefixMetrics + "_registered_users", MonitoringUtil::getNoOfRegisteredUsers).register(meterRegistry);
+    Gauge.builder( prefixMetrics + "_unique_users", metricsSnapshotService::getUniqueUsers).register(meterRegistry);
+    Gauge.builder( prefixMetrics + "_registered_users", metricsSnapshotService::getRegisteredUsers).register(meterRegistry);
     counter = Counter.builder(prefixMetrics + "_requests_served").register(meterRegistry);
   }
 
@@ -89,7 +99,8 @@ public class MonitoringService implements HandlerInterceptor, WebMvcConfigurer {
       String ip = clientIp == null ? remoteIp : clientIp;
       LOGGER.debug("Using {} for monitoring", ip);
 
-      MonitoringUtil.registerIp(ip);
+      // Hashes are written asynchronously in batches by IpRegistrationBuffer
+      ipRegistrationBuffer.register(MonitoringUtil.hashIp(ip));
 
       counter.increment();
     }
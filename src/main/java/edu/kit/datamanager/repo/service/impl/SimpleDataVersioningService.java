@@ -18,31 +18,26 @@ package edu.kit.datamanager.repo.service.impl;
 import edu.kit.datamanager.entities.VersionInfo;
 import edu.kit.datamanager.exceptions.CustomInternalServerError;
 import edu.kit.datamanager.exceptions.ResourceNotFoundException;
+import edu.kit.datamanager.repo.configuration.ContentTransferProperties;
 import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
 import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.util.ContentIngestUtils;
+import edu.kit.datamanager.repo.util.ContentTransferUtils;
 import edu.kit.datamanager.repo.util.PathUtils;
-import java.io.BufferedInputStream;
+import edu.kit.datamanager.repo.util.ServiceMetrics;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Map;
-import org.apache.commons.codec.binary.Hex;
-import org.apache.tika.detect.Detector;
-import org.apache.tika.metadata.Metadata;
-import org.apache.tika.parser.AutoDetectParser;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import edu.kit.datamanager.repo.service.IRepoVersioningService;
-import org.apache.tika.metadata.TikaCoreProperties;
-import org.apache.tika.mime.MediaType;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -53,9 +48,18 @@ import org.slf4j.LoggerFactory;
 public class SimpleDataVersioningService implements IRepoVersioningService{
 
   private static final Logger logger = LoggerFactory.getLogger(SimpleDataVersioningService.class);
+  /**
+   * Name of this service used for tagging metrics.
+   */
+  private static final String SERVICE_NAME = "SimpleDataVersioningService";
 
   private RepoBaseConfiguration applicationProperties;
 
+  @Autowired(required = false)
+  private ContentTransferProperties transferProperties;
+  @Autowired(required = false)
+  private ChecksumEngine checksumEngine;
+
   @Override
   public void configure(RepoBaseConfiguration applicationProperties){
     this.applicationProperties = applicationProperties;
@@ -63,68 +67,50 @@ public class SimpleDataVersioningService implements IRepoVersioningService{
 
   @Override
   public void write(String resourceId, String callerId, String path, InputStream stream, Map<String, String> map){
+    ServiceMetrics.run(SERVICE_NAME, "write", () -> doWrite(resourceId, callerId, path, stream, map));
+  }
+
+  private void doWrite(String resourceId, String callerId, String path, InputStream stream, Map<String, String> map){
     URI dataUri = PathUtils.getDataUri(DataResource.factoryNewDataResource(resourceId), path, applicationProperties);
     Path destination = Paths.get(dataUri);
     logger.trace("Preparing destination {} for storing user data.", destination);
     //store data
-    OutputStream out = null;
     try{
-      //read/write file, create checksum and calculate file size
       Files.createDirectories(destination.getParent());
-
-      MessageDigest md = MessageDigest.getInstance("SHA1");
-      logger.trace("Start reading user data from stream.");
-      int cnt;
-      long bytes = 0;
-      byte[] buffer = new byte[1024];
-      out = Files.newOutputStream(destination);
-      while((cnt = stream.read(buffer)) > -1){
-        out.write(buffer, 0, cnt);
-        md.update(buffer, 0, cnt);
-        bytes += cnt;
-      }
+      //write file, create checksum, calculate file size and detect media type in one pass
+      String filename = destination.getFileName().toString();
+      //add filename to support tika...first, we have to remove the appended timestamp from filenname.ext_timestamp to make this work
+      int timestampIndex = filename.lastIndexOf("_");
+      String resourceName = (timestampIndex > 0) ? filename.substring(0, timestampIndex) : filename;
+      ContentIngestUtils.IngestResult result = ContentIngestUtils.ingest(stream, destination, resourceName, !map.containsKey("mediaType"), transferProperties, checksumEngine);
 
       logger.trace("Performing upload post-processing.");
-      map.put("checksum", "sha1:" + Hex.encodeHexString(md.digest()));
+      map.put("checksum", result.getChecksum());
       logger.debug("Assigned hash {} to content information.", map.get("checksum"));
-      map.put("size", Long.toString(bytes));
+      for(Map.Entry<String, String> checksum : result.getChecksums().entrySet()){
+        map.put(ChecksumEngine.CHECKSUM_OPTION_PREFIX + checksum.getKey(), checksum.getValue());
+      }
+      map.put("size", Long.toString(result.getSize()));
       logger.debug("Assigned size {} to content information.", map.get("size"));
       map.put("contentUri", dataUri.toString());
       logger.debug("Assigned content URI {} to content information.", map.get("contentUri"));
 
-      if(!map.containsKey("mediaType")){
-        logger.trace("Trying to determine content type.");
-        try(InputStream is = Files.newInputStream(destination); BufferedInputStream bis = new BufferedInputStream(is);){
-          AutoDetectParser parser = new AutoDetectParser();
-          Detector detector = parser.getDetector();
-          Metadata md1 = new Metadata();
-          String filename = destination.getFileName().toString();
-          //add filename to support tika...first, we have to remove the appended timestamp from filenname.ext_timestamp to make this work
-          md1.add(TikaCoreProperties.RESOURCE_NAME_KEY, filename.substring(0, filename.lastIndexOf("_")));
-          MediaType mediaType = detector.detect(bis, md1);
-          map.put("mediaType", mediaType.toString());
-          logger.trace("Assigned media type {} to content information.", map.get("mediaType"));
-        }
+      if(result.getMediaType() != null){
+        map.put("mediaType", result.getMediaType());
+        logger.trace("Assigned media type {} to content information.", map.get("mediaType"));
       }
     } catch(IOException ex){
       logger.error("Failed to finish upload. Throwing CustomInternalServerError.", ex);
       throw new CustomInternalServerError("Unable to read from stream. Upload canceled.");
-    } catch(NoSuchAlgorithmException ex){
-      logger.error("Failed to initialize SHA1 message digest. Throwing CustomInternalServerError.", ex);
-      throw new CustomInternalServerError("Internal digest initialization error. Unable to perform upload.");
-    } finally{
-      if(out != null){
-        try{
-          out.flush();
-          out.close();
-        } catch(IOException ignored){
-        }
-      }
     }
   }
 
   @Override
   public void read(String resourceId, String callerId, String path, String versionId, OutputStream destination, Map<String, String> options){
+    ServiceMetrics.run(SERVICE_NAME, "read", () -> doRead(resourceId, callerId, path, versionId, destination, options));
+  }
+
+  private void doRead(String resourceId, String callerId, String path, String versionId, OutputStream destination, Map<String, String> options){
     String contentUriString = options.get("contentUri");
     logger.trace("Checking URI {}.", contentUriString);
     if(!Files.exists(Paths.get(URI.create(contentUriString)))){
@@ -136,7 +122,7 @@ public class SimpleDataVersioningService implements IRepoVersioningService{
 
     try{
       logger.trace("Copying file content to target stream.");
-      Files.copy(Paths.get(URI.create(contentUriString)), destination);
+      ContentTransferUtils.transfer(Paths.get(URI.create(contentUriString)), destination, ContentTransferUtils.getBufferSize(transferProperties));
     } catch(IOException ex){
       logger.error("Failed to read content stream.", ex);
       throw new CustomInternalServerError("Failed to read content stream.");
@@ -148,6 +134,11 @@ public class SimpleDataVersioningService implements IRepoVersioningService{
     return new VersionInfo(resourceId, versionId, null, null, null, null, null, new HashSet<>(Arrays.asList(path)));
   }
 
+  @Override
+  public boolean supportsDirectFileAccess(){
+    return true;
+  }
+
   @Override
   public String getServiceName(){
     return "simple";
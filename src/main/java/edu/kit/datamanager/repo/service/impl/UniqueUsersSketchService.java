@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.repo.configuration.MonitoringConfiguration;
+import edu.kit.datamanager.repo.dao.IUniqueUsersSketchDao;
+import edu.kit.datamanager.repo.domain.UniqueUsersSketch;
+import edu.kit.datamanager.repo.util.HyperLogLog;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service counting unique users by HyperLogLog sketches of hashed IP
+ * addresses. There is one sketch per day, which is persisted as a single row
+ * and merged with the sketches of other instances on each update. The number
+ * of unique users is estimated by merging the sketches of the last
+ * noOfDaysToKeep days. The estimate is computed after each update, such that
+ * reading it does not require any database access.
+ */
+@Component
+public class UniqueUsersSketchService {
+  /**
+   * Logger for messages.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(UniqueUsersSketchService.class);
+
+  private final MonitoringConfiguration monitoringConfiguration;
+  private final IUniqueUsersSketchDao sketchDao;
+  private TransactionTemplate transactionTemplate;
+  /**
+   * Sketches of the current window by day, guarded by this.
+   */
+  private final Map<Instant, HyperLogLog> sketches = new HashMap<>();
+  /**
+   * The day the sketches of previous days were loaded at, guarded by this.
+   */
+  private Instant loadedDay;
+  private volatile long estimate;
+
+  /**
+   * Default constructor.
+   *
+   * @param monitoringConfiguration The monitoring configuration.
+   * @param sketchDao The repository holding the sketches.
+   */
+  @Autowired
+  public UniqueUsersSketchService(MonitoringConfiguration monitoringConfiguration, IUniqueUsersSketchDao sketchDao) {
+    this.monitoringConfiguration = monitoringConfiguration;
+    this.sketchDao = sketchDao;
+  }
+
+  /**
+   * Set the transaction manager used to update sketches. If not set, updates
+   * rely on the transaction handling of the repository.
+   *
+   * @param transactionManager The transaction manager.
+   */
+  @Autowired(required = false)
+  public void setTransactionManager(PlatformTransactionManager transactionManager) {
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Add IP hashes to the sketches of the days they were registered at and
+   * persist the updated sketches.
+   *
+   * @param visits The IP hashes mapped to the day of the visit.
+   */
+  public synchronized void addAll(Map<String, Instant> visits) {
+    int precision = monitoringConfiguration.getSketchPrecision();
+    Map<Instant, HyperLogLog> additions = new HashMap<>();
+    visits.forEach((ipHash, day) -> additions.computeIfAbsent(day, (d) -> new HyperLogLog(precision)).add(ipHash));
+    for (Map.Entry<Instant, HyperLogLog> entry : additions.entrySet()) {
+      HyperLogLog merged;
+      if (transactionTemplate != null) {
+        merged = transactionTemplate.execute((status) -> persist(entry.getKey(), entry.getValue()));
+      } else {
+        merged = persist(entry.getKey(), entry.getValue());
+      }
+      sketches.put(entry.getKey(), merged);
+    }
+    refresh();
+  }
+
+  /**
+   * Get the estimated number of unique users of the last noOfDaysToKeep
+   * days.
+   *
+   * @return The estimated number of unique users.
+   */
+  public long getEstimate() {
+    if (!today().equals(loadedDay)) {
+      refresh();
+    }
+    return estimate;
+  }
+
+  /**
+   * Delete all sketches older than the configured number of days.
+   */
+  public synchronized void cleanUp() {
+    Instant windowStart = getWindowStart();
+    sketchDao.deleteAllEntriesOlderThan(windowStart);
+    sketches.keySet().removeIf((day) -> day.isBefore(windowStart));
+    refresh();
+  }
+
+  /**
+   * Merge the provided sketch with the persisted sketch of the provided day.
+   * The persisted sketch is locked until the end of the transaction, such
+   * that concurrent updates by other instances are not lost.
+   */
+  private HyperLogLog persist(Instant day, HyperLogLog addition) {
+    UniqueUsersSketch entity = sketchDao.findByVisitDay(day).orElse(null);
+    HyperLogLog merged = addition;
+    if (entity == null) {
+      entity = new UniqueUsersSketch();
+      entity.setVisitDay(day);
+    } else {
+      merged = decode(entity);
+      if (merged == null || merged.getPrecision() != addition.getPrecision()) {
+        merged = addition;
+      } else {
+        merged.merge(addition);
+      }
+    }
+    entity.setSketch(merged.toByteArray());
+    sketchDao.save(entity);
+    return merged;
+  }
+
+  /**
+   * Recompute the estimate. Once a day, the sketches of the current window
+   * are reloaded from the database.
+   */
+  private synchronized void refresh() {
+    Instant today = today();
+    Instant windowStart = getWindowStart();
+    if (!today.equals(loadedDay)) {
+      LOGGER.trace("Loading unique users sketches since {}.", windowStart);
+      sketches.clear();
+      for (UniqueUsersSketch entity : sketchDao.findByVisitDayGreaterThanEqual(windowStart)) {
+        HyperLogLog sketch = decode(entity);
+        if (sketch != null) {
+          sketches.put(entity.getVisitDay(), sketch);
+        }
+      }
+      loadedDay = today;
+    }
+    HyperLogLog union = new HyperLogLog(monitoringConfiguration.getSketchPrecision());
+    sketches.forEach((day, sketch) -> {
+      if (!day.isBefore(windowStart) && sketch.getPrecision() == union.getPrecision()) {
+        union.merge(sketch);
+      }
+    });
+    estimate = union.estimate();
+  }
+
+  private HyperLogLog decode(UniqueUsersSketch entity) {
+    try {
+      return HyperLogLog.fromByteArray(entity.getSketch());
+    } catch (IllegalArgumentException ex) {
+      LOGGER.error("Ignoring invalid unique users sketch of " + entity.getVisitDay() + ".", ex);
+      return null;
+    }
+  }
+
+  private Instant getWindowStart() {
+    //the current day counts as one of the days to keep
+    return today().minus(monitoringConfiguration.getNoOfDaysToKeep() - 1L, ChronoUnit.DAYS);
+  }
+
+  private static Instant today() {
+    return Instant.now().truncatedTo(ChronoUnit.DAYS);
+  }
+}
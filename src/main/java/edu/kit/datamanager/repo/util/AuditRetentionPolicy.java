@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Retention policy for audit snapshots of one entity. The most recent
+ * versions are always kept. Older versions are kept if they were committed
+ * within a configurable period. Beyond this period, versions are thinned out
+ * such that only the most recent version per thinning interval is kept, or
+ * removed completely if no thinning interval is set. Removing a version only
+ * deletes its snapshot, nothing is merged into other versions. As each
+ * remaining snapshot holds the complete state of the entity, the remaining
+ * versions stay restorable, but the changes between them can no longer be
+ * attributed to the removed commits.
+ */
+public class AuditRetentionPolicy {
+
+  private final int keepLastVersions;
+  private final Duration retainAllFor;
+  private final Duration thinningInterval;
+
+  /**
+   * Create a new policy.
+   *
+   * @param keepLastVersions The number of most recent versions that are
+   * always kept. Must be at least 1.
+   * @param retainAllFor The period in which all versions are kept.
+   * @param thinningInterval The interval in which one version is kept beyond
+   * the retention period, or zero to remove all of these versions.
+   */
+  public AuditRetentionPolicy(int keepLastVersions, Duration retainAllFor, Duration thinningInterval) {
+    if (keepLastVersions < 1) {
+      throw new IllegalArgumentException("At least the most recent version must be kept, but keepLastVersions was " + keepLastVersions + ".");
+    }
+    this.keepLastVersions = keepLastVersions;
+    this.retainAllFor = (retainAllFor != null) ? retainAllFor : Duration.ZERO;
+    this.thinningInterval = (thinningInterval != null) ? thinningInterval : Duration.ZERO;
+  }
+
+  /**
+   * Get the number of most recent versions that are always kept.
+   *
+   * @return The number of kept versions.
+   */
+  public int getKeepLastVersions() {
+    return keepLastVersions;
+  }
+
+  /**
+   * Select the versions of one entity to remove.
+   *
+   * @param versions All versions of the entity in any order.
+   * @param now The time the retention period is computed from.
+   *
+   * @return The keys of the versions to remove.
+   */
+  public List<Long> select(List<Version> versions, Instant now) {
+    List<Long> result = new ArrayList<>();
+    if (versions.size() <= keepLastVersions) {
+      return result;
+    }
+    List<Version> sorted = new ArrayList<>(versions);
+    sorted.sort(Comparator.comparingLong(Version::getVersion).reversed());
+    Instant retainedSince = now.minus(retainAllFor);
+    long intervalMillis = thinningInterval.toMillis();
+    long lastBucket = Long.MIN_VALUE;
+    for (int i = keepLastVersions; i < sorted.size(); i++) {
+      Version version = sorted.get(i);
+      if (version.getCommitDate() == null || version.getCommitDate().isAfter(retainedSince)) {
+        continue;
+      }
+      if (intervalMillis > 0) {
+        long bucket = Math.floorDiv(version.getCommitDate().toEpochMilli(), intervalMillis);
+        if (bucket != lastBucket) {
+          //most recent version of this interval
+          lastBucket = bucket;
+          continue;
+        }
+      }
+      result.add(version.getKey());
+    }
+    return result;
+  }
+
+  /**
+   * One audited version of an entity.
+   */
+  public static class Version {
+
+    private final long key;
+    private final long version;
+    private final Instant commitDate;
+
+    /**
+     * Create a new version.
+     *
+     * @param key The key of the version, e.g. the primary key of the snapshot.
+     * @param version The version number.
+     * @param commitDate The date the version was committed.
+     */
+    public Version(long key, long version, Instant commitDate) {
+      this.key = key;
+      this.version = version;
+      this.commitDate = commitDate;
+    }
+
+    public long getKey() {
+      return key;
+    }
+
+    public long getVersion() {
+      return version;
+    }
+
+    public Instant getCommitDate() {
+      return commitDate;
+    }
+  }
+}
@@ -22,6 +22,7 @@ import edu.kit.datamanager.exceptions.CustomInternalServerError;
 import edu.kit.datamanager.exceptions.ServiceUnavailableException;
 import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
 import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.ContentInformationSummary;
 import edu.kit.datamanager.repo.domain.DataResource;
 import edu.kit.datamanager.util.ControllerUtils;
 import java.io.IOException;
@@ -170,6 +171,36 @@ public class ContentDataUtils {
         return contentInformationList;
     }
 
+    /**
+     * Read summaries of all existing resources below the provided path. In
+     * contrast to readFiles(), only relative path, size, hash, media type and
+     * versions of each element are obtained by a single query without loading
+     * entities, which is recommended for resources with many files.
+     *
+     * @param applicationProperties The repository configuration.
+     * @param resource The parent resource.
+     * @param path The path of the collection to list.
+     * @param tag An optional tag the listed elements must have.
+     * @param pgbl The page request.
+     * @return A list of content information summaries.
+     */
+    public static List<ContentInformationSummary> readFileSummaries(RepoBaseConfiguration applicationProperties,
+            DataResource resource,
+            String path,
+            String tag,
+            Pageable pgbl) {
+        DataResourceUtils.performPermissionCheck(resource, PERMISSION.READ);
+        if (path.startsWith("/")) {
+            LOGGER.debug("Removing leading slash from path {}.", path);
+            path = path.substring(1);
+        }
+        path += "%";
+        PageRequest pageRequest = ControllerUtils.checkPaginationInformation(pgbl, pgbl.getSort().equals(Sort.unsorted()) ? Sort.by(Sort.Order.asc("depth"), Sort.Order.asc("relativePath")) : pgbl.getSort());
+
+        LOGGER.trace("Obtaining content information summaries for parent resource {}, path {} and tag {}. Page information are: {}", resource.getId(), path, tag, pageRequest);
+        return applicationProperties.getContentInformationService().findSummaries(ContentInformation.createContentInformation(resource.getId(), path, tag), pageRequest).getContent();
+    }
+
     /**
      * Delete an existing resource.
      *
@@ -207,7 +238,10 @@ public class ContentDataUtils {
             Path localContentToRemove = null;
             URI contentUri = URI.create(contentInfo.getContentUri());
             LOGGER.trace("Checking if content URI {} is pointing to a local file.", contentInfo);
-            if ("file".equals(contentUri.getScheme())) {
+            if (applicationProperties.getContentInformationService().isContentManaged(contentInfo)) {
+                //file may be shared with other content, the versioning service releases it on delete
+                LOGGER.trace("Content at {} is managed by versioning service '{}'. Local content deletion will be skipped.", contentInfo.getContentUri(), contentInfo.getVersioningService());
+            } else if ("file".equals(contentUri.getScheme())) {
                 //mark file for removal
                 localContentToRemove = Paths.get(URI.create(contentInfo.getContentUri()));
             } else {
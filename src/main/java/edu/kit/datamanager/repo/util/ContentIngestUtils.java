@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import edu.kit.datamanager.repo.configuration.ContentTransferProperties;
+import edu.kit.datamanager.repo.service.impl.ChecksumEngine;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Map;
+import org.apache.tika.detect.Detector;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.mime.MediaType;
+import org.apache.tika.parser.AutoDetectParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility class for ingesting uploaded content in a single pass. While the
+ * content is written to its destination, size and checksums are computed. The
+ * media type is detected from a head sample of the same stream, which is
+ * pushed back before writing, such that the file has not to be read again
+ * after the upload has finished.
+ */
+public class ContentIngestUtils {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ContentIngestUtils.class);
+
+  /**
+   * Default buffer size used if no transfer properties are available.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+  /**
+   * Default number of bytes used for media type detection, which is the
+   * amount of bytes Tika's magic detection looks at by default.
+   */
+  public static final int DEFAULT_SAMPLE_SIZE = 64 * 1024;
+
+  /**
+   * Shared detector instance. Creating a detector loads the entire Tika
+   * configuration, which is expensive, whereas detectors are thread-safe.
+   */
+  private static Detector detector;
+
+  private ContentIngestUtils() {
+  }
+
+  /**
+   * Result of an ingest operation.
+   */
+  public static class IngestResult {
+
+    private final long size;
+    private final Map<String, String> checksums;
+    private final String mediaType;
+
+    public IngestResult(long size, Map<String, String> checksums, String mediaType) {
+      this.size = size;
+      this.checksums = Collections.unmodifiableMap(checksums);
+      this.mediaType = mediaType;
+    }
+
+    /**
+     * @return The number of bytes written.
+     */
+    public long getSize() {
+      return size;
+    }
+
+    /**
+     * @return The checksum of the primary algorithm in the format
+     * 'algorithm:hexValue'.
+     */
+    public String getChecksum() {
+      return checksums.values().iterator().next();
+    }
+
+    /**
+     * @return All checksums in the format 'algorithm:hexValue' mapped by
+     * algorithm label, starting with the primary checksum.
+     */
+    public Map<String, String> getChecksums() {
+      return checksums;
+    }
+
+    /**
+     * @return The detected media type or null if detection was not requested.
+     */
+    public String getMediaType() {
+      return mediaType;
+    }
+  }
+
+  /**
+   * Ingest the provided stream into the destination file using the buffer and
+   * sample size from the provided properties.
+   *
+   * @param source The uploaded data.
+   * @param destination The file to write to. An existing file will be
+   * overwritten.
+   * @param resourceName The name of the resource used as hint for media type
+   * detection, e.g. the filename.
+   * @param detectMediaType TRUE if the media type should be detected.
+   * @param properties The transfer properties, which might be null.
+   * @param engine The checksum engine, which might be null. In that case, only
+   * a SHA1 checksum is computed.
+   *
+   * @return The ingest result.
+   *
+   * @throws IOException If reading or writing fails.
+   */
+  public static IngestResult ingest(InputStream source, Path destination, String resourceName, boolean detectMediaType, ContentTransferProperties properties, ChecksumEngine engine) throws IOException {
+    int bufferSize = (properties != null) ? properties.getUploadBufferSize() : DEFAULT_BUFFER_SIZE;
+    int sampleSize = (properties != null) ? properties.getMediaTypeSampleSize() : DEFAULT_SAMPLE_SIZE;
+    return ingest(source, destination, resourceName, detectMediaType, bufferSize, sampleSize, engine);
+  }
+
+  /**
+   * Ingest the provided stream into the destination file.
+   *
+   * @param source The uploaded data.
+   * @param destination The file to write to. An existing file will be
+   * overwritten.
+   * @param resourceName The name of the resource used as hint for media type
+   * detection, e.g. the filename.
+   * @param detectMediaType TRUE if the media type should be detected.
+   * @param bufferSize The size of the transfer buffer.
+   * @param sampleSize The max. number of bytes used for media type detection.
+   *
+   * @return The ingest result.
+   *
+   * @throws IOException If reading or writing fails.
+   */
+  public static IngestResult ingest(InputStream source, Path destination, String resourceName, boolean detectMediaType, int bufferSize, int sampleSize) throws IOException {
+    return ingest(source, destination, resourceName, detectMediaType, bufferSize, sampleSize, null);
+  }
+
+  /**
+   * Ingest the provided stream into the destination file computing all
+   * checksums configured for the provided engine.
+   *
+   * @param source The uploaded data.
+   * @param destination The file to write to. An existing file will be
+   * overwritten.
+   * @param resourceName The name of the resource used as hint for media type
+   * detection, e.g. the filename.
+   * @param detectMediaType TRUE if the media type should be detected.
+   * @param bufferSize The size of the transfer buffer.
+   * @param sampleSize The max. number of bytes used for media type detection.
+   * @param engine The checksum engine, which might be null. In that case, only
+   * a SHA1 checksum is computed.
+   *
+   * @return The ingest result.
+   *
+   * @throws IOException If reading or writing fails.
+   */
+  public static IngestResult ingest(InputStream source, Path destination, String resourceName, boolean detectMediaType, int bufferSize, int sampleSize, ChecksumEngine engine) throws IOException {
+    ChecksumEngine checksumEngine = (engine != null) ? engine : ChecksumEngine.getDefault();
+    PushbackInputStream stream = new PushbackInputStream(source, Math.max(1, sampleSize));
+    String mediaType = null;
+    if (detectMediaType) {
+      byte[] sample = readSample(stream, sampleSize);
+      mediaType = detectMediaType(sample, resourceName);
+      stream.unread(sample);
+    }
+
+    LOGGER.trace("Start reading user data from stream using buffer of size {}.", bufferSize);
+    long bytes = 0;
+    try (ChecksumEngine.Session checksums = checksumEngine.openSession(bufferSize);
+            FileChannel out = FileChannel.open(destination, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      byte[] buffer = checksums.nextBuffer();
+      int cnt;
+      while ((cnt = stream.read(buffer)) > -1) {
+        ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, cnt);
+        while (chunk.hasRemaining()) {
+          out.write(chunk);
+        }
+        checksums.update(buffer, cnt);
+        bytes += cnt;
+        buffer = checksums.nextBuffer();
+      }
+      return new IngestResult(bytes, checksums.finish(), mediaType);
+    }
+  }
+
+  /**
+   * Detect the media type from the provided sample and resource name.
+   *
+   * @param sample The first bytes of the content.
+   * @param resourceName The name of the resource, which might be null.
+   *
+   * @return The detected media type.
+   *
+   * @throws IOException If the detection fails.
+   */
+  public static String detectMediaType(byte[] sample, String resourceName) throws IOException {
+    LOGGER.trace("Trying to determine content type from sample of {} bytes.", sample.length);
+    Metadata metadata = new Metadata();
+    if (resourceName != null) {
+      metadata.add(TikaCoreProperties.RESOURCE_NAME_KEY, resourceName);
+    }
+    MediaType mediaType = getDetector().detect(new ByteArrayInputStream(sample), metadata);
+    return mediaType.toString();
+  }
+
+  private static byte[] readSample(InputStream stream, int sampleSize) throws IOException {
+    byte[] sample = new byte[sampleSize];
+    int read = 0;
+    int cnt;
+    while (read < sampleSize && (cnt = stream.read(sample, read, sampleSize - read)) > -1) {
+      read += cnt;
+    }
+    if (read == sampleSize) {
+      return sample;
+    }
+    byte[] result = new byte[read];
+    System.arraycopy(sample, 0, result, 0, read);
+    return result;
+  }
+
+  private static synchronized Detector getDetector() {
+    if (detector == null) {
+      detector = new AutoDetectParser().getDetector();
+    }
+    return detector;
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import edu.kit.datamanager.service.IContentCollectionProvider;
+import edu.kit.datamanager.service.IContentProvider;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.http.MediaType;
+
+/**
+ * Lookup tables for dispatching content requests to content providers by URI
+ * scheme and to collection providers by media type. The tables are built once
+ * from all available providers and replace scanning all providers for each
+ * request.
+ *
+ * Collection providers are selected by content negotiation according to RFC
+ * 9110: each supported media type gets the quality value of the most specific
+ * media range of the Accept header including it. The supported media type
+ * with the highest quality is selected, media types with quality 0 are not
+ * acceptable. On equal quality, the media type matched more specifically
+ * wins, followed by the order of registration. A missing Accept header
+ * accepts any media type.
+ */
+public final class ContentProviderRegistry {
+
+  /**
+   * Schemes resolved when creating the registry. Other schemes are resolved
+   * on first use.
+   */
+  private static final List<String> KNOWN_SCHEMES = List.of("file", "http", "https", "ftp", "s3");
+  /**
+   * Max. number of memorized schemes and Accept headers.
+   */
+  private static final int MAX_CACHED = 256;
+
+  private final IContentProvider[] contentProviders;
+  private final Map<String, Optional<IContentProvider>> providersByScheme = new ConcurrentHashMap<>();
+  private final Map<String, IContentCollectionProvider> collectionProvidersByMediaType;
+  private final List<MediaType> supportedMediaTypes;
+  private final Map<String, Optional<Match>> negotiated = new ConcurrentHashMap<>();
+
+  /**
+   * Result of content negotiation.
+   */
+  public static final class Match {
+
+    private final IContentCollectionProvider provider;
+    private final MediaType mediaType;
+
+    Match(IContentCollectionProvider provider, MediaType mediaType) {
+      this.provider = provider;
+      this.mediaType = mediaType;
+    }
+
+    /**
+     * @return The selected collection provider.
+     */
+    public IContentCollectionProvider getProvider() {
+      return provider;
+    }
+
+    /**
+     * @return The selected media type as returned by the provider.
+     */
+    public MediaType getMediaType() {
+      return mediaType;
+    }
+  }
+
+  /**
+   * Create a registry for the provided providers. If multiple providers
+   * support the same scheme or media type, the first one is used.
+   *
+   * @param contentProviders All content providers, which might be null.
+   * @param collectionProviders All collection providers, which might be null.
+   */
+  public ContentProviderRegistry(IContentProvider[] contentProviders, IContentCollectionProvider[] collectionProviders) {
+    this.contentProviders = (contentProviders != null) ? contentProviders.clone() : new IContentProvider[0];
+    for (String scheme : KNOWN_SCHEMES) {
+      providersByScheme.put(scheme, Optional.ofNullable(findContentProvider(scheme)));
+    }
+    Map<String, IContentCollectionProvider> byMediaType = new LinkedHashMap<>();
+    List<MediaType> mediaTypes = new ArrayList<>();
+    if (collectionProviders != null) {
+      for (IContentCollectionProvider provider : collectionProviders) {
+        for (MediaType mediaType : provider.getSupportedMediaTypes()) {
+          if (byMediaType.putIfAbsent(getKey(mediaType), provider) == null) {
+            mediaTypes.add(mediaType);
+          }
+        }
+      }
+    }
+    this.collectionProvidersByMediaType = Collections.unmodifiableMap(byMediaType);
+    this.supportedMediaTypes = Collections.unmodifiableList(mediaTypes);
+  }
+
+  /**
+   * Get the content provider for the provided URI scheme.
+   *
+   * @param scheme The scheme, e.g. 'file'.
+   *
+   * @return The provider or null if no provider supports the scheme.
+   */
+  public IContentProvider getContentProvider(String scheme) {
+    if (scheme == null) {
+      return null;
+    }
+    String key = scheme.toLowerCase(Locale.ROOT);
+    Optional<IContentProvider> provider = providersByScheme.get(key);
+    if (provider == null) {
+      provider = Optional.ofNullable(findContentProvider(key));
+      if (providersByScheme.size() < MAX_CACHED) {
+        providersByScheme.put(key, provider);
+      }
+    }
+    return provider.orElse(null);
+  }
+
+  /**
+   * Get the collection provider for exactly the provided media type ignoring
+   * parameters.
+   *
+   * @param mediaType The media type.
+   *
+   * @return The provider or null if no provider supports the media type.
+   */
+  public IContentCollectionProvider getCollectionProvider(MediaType mediaType) {
+    return (mediaType != null) ? collectionProvidersByMediaType.get(getKey(mediaType)) : null;
+  }
+
+  /**
+   * @return All media types supported by any collection provider in the order
+   * of registration.
+   */
+  public List<MediaType> getSupportedMediaTypes() {
+    return supportedMediaTypes;
+  }
+
+  /**
+   * Select the collection provider and media type best matching the provided
+   * Accept header.
+   *
+   * @param acceptHeader The value of the Accept header, which might be null.
+   *
+   * @return The match or null if no supported media type is acceptable.
+   *
+   * @throws org.springframework.http.InvalidMediaTypeException if the header
+   * cannot be parsed.
+   */
+  public Match negotiate(String acceptHeader) {
+    String key = (acceptHeader != null) ? acceptHeader.trim() : "";
+    Optional<Match> match = negotiated.get(key);
+    if (match == null) {
+      List<MediaType> accepted = key.isEmpty() ? List.of(MediaType.ALL) : MediaType.parseMediaTypes(key);
+      match = Optional.ofNullable(selectMatch(accepted));
+      if (negotiated.size() < MAX_CACHED) {
+        negotiated.put(key, match);
+      }
+    }
+    return match.orElse(null);
+  }
+
+  private Match selectMatch(List<MediaType> accepted) {
+    MediaType best = null;
+    double bestQuality = 0;
+    int bestSpecificity = -1;
+    for (MediaType supported : supportedMediaTypes) {
+      double quality = 0;
+      int specificity = -1;
+      for (MediaType range : accepted) {
+        if (range.includes(supported)) {
+          int rangeSpecificity = getSpecificity(range);
+          if (rangeSpecificity > specificity) {
+            specificity = rangeSpecificity;
+            quality = range.getQualityValue();
+          }
+        }
+      }
+      if (quality > bestQuality || (quality > 0 && quality == bestQuality && specificity > bestSpecificity)) {
+        best = supported;
+        bestQuality = quality;
+        bestSpecificity = specificity;
+      }
+    }
+    return (best != null) ? new Match(collectionProvidersByMediaType.get(getKey(best)), best) : null;
+  }
+
+  private static int getSpecificity(MediaType range) {
+    if (range.isWildcardType()) {
+      return 0;
+    }
+    return range.isWildcardSubtype() ? 1 : 2;
+  }
+
+  private IContentProvider findContentProvider(String scheme) {
+    for (IContentProvider provider : contentProviders) {
+      if (provider.canProvide(scheme)) {
+        return provider;
+      }
+    }
+    return null;
+  }
+
+  private static String getKey(MediaType mediaType) {
+    return (mediaType.getType() + "/" + mediaType.getSubtype()).toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility class for evaluating HTTP Range and conditional request headers
+ * (RFC 9110) for single file downloads.
+ */
+public class ContentRangeUtils {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ContentRangeUtils.class);
+
+  /**
+   * Max. number of ranges accepted in a single request. Requests with more
+   * ranges are served as full content in order to avoid abuse.
+   */
+  public static final int MAX_RANGES = 32;
+
+  private static final String BYTES_UNIT = "bytes=";
+
+  private ContentRangeUtils() {
+  }
+
+  /**
+   * A satisfiable byte range with inclusive start and end positions.
+   */
+  public static class ByteRange {
+
+    private final long start;
+    private final long end;
+
+    public ByteRange(long start, long end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    public long getStart() {
+      return start;
+    }
+
+    public long getEnd() {
+      return end;
+    }
+
+    public long getLength() {
+      return end - start + 1;
+    }
+
+    /**
+     * Get the value of the Content-Range header for this range.
+     *
+     * @param size The complete length of the content.
+     *
+     * @return The header value, e.g. 'bytes 0-99/1000'.
+     */
+    public String toContentRange(long size) {
+      return "bytes " + start + "-" + end + "/" + size;
+    }
+
+    @Override
+    public String toString() {
+      return start + "-" + end;
+    }
+  }
+
+  /**
+   * Build a strong entity tag for file content based on the checksum of the
+   * content. Without checksum, no entity tag can be built.
+   *
+   * @param checksum The checksum of the content, e.g. 'sha1:1234abcd'.
+   *
+   * @return The quoted entity tag or null if checksum is null or empty.
+   */
+  public static String getContentEtag(String checksum) {
+    if (checksum == null || checksum.isBlank()) {
+      return null;
+    }
+    return "\"" + checksum.replace("\"", "") + "\"";
+  }
+
+  /**
+   * Check if the provided If-None-Match header value matches the entity tag,
+   * which means, that the client has an up-to-date copy. The comparison is
+   * weak according to RFC 9110.
+   *
+   * @param ifNoneMatch The value of the If-None-Match header.
+   * @param etag The current entity tag.
+   *
+   * @return TRUE if the header matches the entity tag, FALSE otherwise.
+   */
+  public static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || etag == null) {
+      return false;
+    }
+    if ("*".equals(ifNoneMatch.trim())) {
+      return true;
+    }
+    String opaqueTag = stripWeakPrefix(etag);
+    for (String tag : ifNoneMatch.split(",")) {
+      if (opaqueTag.equals(stripWeakPrefix(tag.trim()))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Check if a Range header should be evaluated with respect to the provided
+   * If-Range header. If-Range requires a strong comparison with the current
+   * entity tag. HTTP dates are not supported as validator, as no reliable
+   * modification date is available, and result in the full content to be
+   * sent.
+   *
+   * @param ifRange The value of the If-Range header, which might be null.
+   * @param etag The current entity tag.
+   *
+   * @return TRUE if the Range header should be evaluated, FALSE otherwise.
+   */
+  public static boolean isRangeApplicable(String ifRange, String etag) {
+    if (ifRange == null) {
+      return true;
+    }
+    String value = ifRange.trim();
+    return etag != null && !value.startsWith("W/") && value.equals(etag);
+  }
+
+  /**
+   * Parse the provided Range header value. Overlapping or adjacent ranges are
+   * merged and the result is sorted by start position.
+   *
+   * @param rangeHeader The value of the Range header.
+   * @param size The complete length of the content.
+   *
+   * @return A list of satisfiable ranges, which is empty if no range is
+   * satisfiable, or null if the header is invalid or contains too many ranges
+   * and should be ignored.
+   */
+  public static List<ByteRange> parseRanges(String rangeHeader, long size) {
+    if (rangeHeader == null || !rangeHeader.trim().startsWith(BYTES_UNIT)) {
+      return null;
+    }
+    String[] specs = rangeHeader.trim().substring(BYTES_UNIT.length()).split(",");
+    if (specs.length > MAX_RANGES) {
+      LOGGER.debug("Range header contains {} ranges. Max. {} ranges are supported. Ignoring header.", specs.length, MAX_RANGES);
+      return null;
+    }
+    List<ByteRange> ranges = new ArrayList<>();
+    for (String spec : specs) {
+      String range = spec.trim();
+      int dash = range.indexOf('-');
+      if (dash < 0) {
+        return null;
+      }
+      try {
+        String first = range.substring(0, dash).trim();
+        String last = range.substring(dash + 1).trim();
+        if (first.isEmpty()) {
+          //suffix range, e.g. -500 for the last 500 bytes
+          if (last.isEmpty()) {
+            return null;
+          }
+          long suffixLength = Long.parseLong(last);
+          if (suffixLength < 0) {
+            return null;
+          }
+          if (suffixLength > 0 && size > 0) {
+            ranges.add(new ByteRange(Math.max(0, size - suffixLength), size - 1));
+          }
+        } else {
+          long start = Long.parseLong(first);
+          long end = last.isEmpty() ? size - 1 : Long.parseLong(last);
+          if (start < 0 || end < start) {
+            return null;
+          }
+          if (start < size) {
+            ranges.add(new ByteRange(start, Math.min(end, size - 1)));
+          }
+        }
+      } catch (NumberFormatException ex) {
+        LOGGER.debug("Invalid range specification {}. Ignoring Range header.", range);
+        return null;
+      }
+    }
+    return mergeRanges(ranges);
+  }
+
+  private static List<ByteRange> mergeRanges(List<ByteRange> ranges) {
+    if (ranges.size() < 2) {
+      return ranges;
+    }
+    List<ByteRange> sorted = new ArrayList<>(ranges);
+    Collections.sort(sorted, Comparator.comparingLong(ByteRange::getStart));
+    List<ByteRange> result = new ArrayList<>();
+    ByteRange current = sorted.get(0);
+    for (int i = 1; i < sorted.size(); i++) {
+      ByteRange next = sorted.get(i);
+      if (next.getStart() <= current.getEnd() + 1) {
+        current = new ByteRange(current.getStart(), Math.max(current.getEnd(), next.getEnd()));
+      } else {
+        result.add(current);
+        current = next;
+      }
+    }
+    result.add(current);
+    return result;
+  }
+
+  private static String stripWeakPrefix(String etag) {
+    return etag.startsWith("W/") ? etag.substring(2) : etag;
+  }
+}
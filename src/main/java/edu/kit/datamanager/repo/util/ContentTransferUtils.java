@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import edu.kit.datamanager.repo.configuration.ContentTransferProperties;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility class for transferring file content from the local file system to
+ * arbitrary output streams.
+ */
+public class ContentTransferUtils {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ContentTransferUtils.class);
+
+  /**
+   * Default buffer size used if no transfer properties are available.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+  private ContentTransferUtils() {
+  }
+
+  /**
+   * Get the buffer size from the provided properties or the default buffer
+   * size if properties are not available.
+   *
+   * @param properties The transfer properties, which might be null.
+   *
+   * @return The buffer size.
+   */
+  public static int getBufferSize(ContentTransferProperties properties) {
+    return (properties != null) ? properties.getBufferSize() : DEFAULT_BUFFER_SIZE;
+  }
+
+  /**
+   * Transfer the entire content of the provided file to the destination.
+   *
+   * @param source The file to read from.
+   * @param destination The stream to write to.
+   * @param bufferSize The buffer size used if no zero-copy transfer is
+   * possible.
+   *
+   * @return The number of bytes transferred.
+   *
+   * @throws IOException If reading or writing fails.
+   */
+  public static long transfer(Path source, OutputStream destination, int bufferSize) throws IOException {
+    return transfer(source, 0, Long.MAX_VALUE, destination, bufferSize);
+  }
+
+  /**
+   * Transfer 'count' bytes starting at 'position' of the provided file to the
+   * destination. If the destination is a FileOutputStream, the transfer is
+   * done via FileChannel.transferTo, which allows the operating system to copy
+   * the data without passing it through the JVM heap. Otherwise, positioned
+   * reads into a single buffer of size 'bufferSize' are used, which avoids the
+   * small default buffers of Files.copy.
+   *
+   * @param source The file to read from.
+   * @param position The position of the first byte to transfer.
+   * @param count The max. number of bytes to transfer. Long.MAX_VALUE
+   * transfers everything until the end of the file.
+   * @param destination The stream to write to.
+   * @param bufferSize The buffer size used if no zero-copy transfer is
+   * possible.
+   *
+   * @return The number of bytes transferred.
+   *
+   * @throws IOException If reading or writing fails.
+   */
+  public static long transfer(Path source, long position, long count, OutputStream destination, int bufferSize) throws IOException {
+    try(FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+      long end = Math.min(channel.size(), (count == Long.MAX_VALUE) ? Long.MAX_VALUE : position + count);
+      long transferred = 0;
+      if(destination instanceof FileOutputStream) {
+        LOGGER.trace("Transferring bytes {}-{} of {} via FileChannel.transferTo.", position, end, source);
+        FileChannel target = ((FileOutputStream) destination).getChannel();
+        while(position + transferred < end) {
+          long cnt = channel.transferTo(position + transferred, end - position - transferred, target);
+          if(cnt <= 0) {
+            break;
+          }
+          transferred += cnt;
+        }
+        return transferred;
+      }
+
+      LOGGER.trace("Transferring bytes {}-{} of {} using buffer of size {}.", position, end, source, bufferSize);
+      ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(1, Math.min(bufferSize, end - position)));
+      while(position + transferred < end) {
+        buffer.clear();
+        buffer.limit((int) Math.min(buffer.capacity(), end - position - transferred));
+        int cnt = channel.read(buffer, position + transferred);
+        if(cnt < 0) {
+          break;
+        }
+        destination.write(buffer.array(), 0, cnt);
+        transferred += cnt;
+      }
+      return transferred;
+    }
+  }
+}
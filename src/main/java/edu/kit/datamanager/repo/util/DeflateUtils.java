@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Utility class for compressing independent blocks of a deflate stream, which
+ * allows to compress large content in parallel. Each block is compressed
+ * using the last 32 KiB of the preceding block as dictionary and is
+ * terminated by a sync flush, such that the concatenation of all blocks in
+ * their original order forms a single valid raw deflate stream.
+ */
+public class DeflateUtils{
+
+  /**
+   * Max. distance of back references in deflate streams.
+   */
+  public static final int DICTIONARY_SIZE = 32 * 1024;
+
+  private DeflateUtils(){
+  }
+
+  /**
+   * Compress a single block.
+   *
+   * @param data The uncompressed data.
+   * @param length The number of valid bytes in data.
+   * @param dictionary The last bytes preceding this block or null for the
+   * first block.
+   * @param level The compression level.
+   * @param last TRUE if this is the last block of the stream.
+   *
+   * @return The raw deflate data of this block.
+   */
+  public static byte[] deflateBlock(byte[] data, int length, byte[] dictionary, int level, boolean last){
+    Deflater deflater = new Deflater(level, true);
+    try{
+      if(dictionary != null && dictionary.length > 0){
+        deflater.setDictionary(dictionary);
+      }
+      deflater.setInput(data, 0, length);
+      if(last){
+        deflater.finish();
+      }
+      //incompressible data grows by a few bytes per stored block
+      byte[] output = new byte[length + (length >> 8) + 64];
+      int written = 0;
+      while(true){
+        if(written == output.length){
+          output = Arrays.copyOf(output, output.length * 2);
+        }
+        int count;
+        if(last){
+          count = deflater.deflate(output, written, output.length - written);
+          written += count;
+          if(deflater.finished()){
+            break;
+          }
+        } else{
+          count = deflater.deflate(output, written, output.length - written, Deflater.SYNC_FLUSH);
+          written += count;
+          //output buffer not filled completely means the flush is complete
+          if(written < output.length){
+            break;
+          }
+        }
+      }
+      return (written == output.length) ? output : Arrays.copyOf(output, written);
+    } finally{
+      deflater.end();
+    }
+  }
+}
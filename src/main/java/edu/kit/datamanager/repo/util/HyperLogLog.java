@@ -0,0 +1,232 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * HyperLogLog sketch for estimating the number of distinct elements using a
+ * fixed amount of memory. A sketch with precision p uses 2^p registers and
+ * has a standard error of about 1.04/sqrt(2^p), e.g. 0.8% for p=14. Sketches
+ * of the same precision can be merged without loss, which allows to count
+ * distinct elements over multiple days by merging one sketch per day.
+ *
+ * Instances are not thread-safe.
+ */
+public class HyperLogLog{
+
+  /**
+   * Min. supported precision.
+   */
+  public static final int MIN_PRECISION = 4;
+  /**
+   * Max. supported precision.
+   */
+  public static final int MAX_PRECISION = 16;
+
+  private final int precision;
+  private final byte[] registers;
+
+  /**
+   * Create an empty sketch.
+   *
+   * @param precision The number of bits used for addressing registers.
+   */
+  public HyperLogLog(int precision){
+    if(precision < MIN_PRECISION || precision > MAX_PRECISION){
+      throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + ", but was " + precision + ".");
+    }
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  /**
+   * Get the precision of this sketch.
+   *
+   * @return The precision.
+   */
+  public int getPrecision(){
+    return precision;
+  }
+
+  /**
+   * Add an element by its 64 bit hash. Hashes must be uniformly distributed.
+   *
+   * @param hash The hash of the element.
+   */
+  public void add(long hash){
+    int index = (int) (hash >>> (64 - precision));
+    //guard bit limits the rank to 64 - precision + 1
+    long remaining = (hash << precision) | (1L << (precision - 1));
+    byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+    if(rank > registers[index]){
+      registers[index] = rank;
+    }
+  }
+
+  /**
+   * Add an element by its hex encoded cryptographic hash, e.g. the SHA-256
+   * hash of an IP address. The first 64 bit of the hash are used. If the
+   * value is no hex encoded hash, it is hashed first.
+   *
+   * @param hexHash The hex encoded hash of the element.
+   */
+  public void add(String hexHash){
+    long hash;
+    if(hexHash.length() >= 16){
+      try{
+        hash = Long.parseUnsignedLong(hexHash, 0, 16, 16);
+      } catch(NumberFormatException ex){
+        hash = mix(hexHash);
+      }
+    } else{
+      hash = mix(hexHash);
+    }
+    add(hash);
+  }
+
+  /**
+   * Merge another sketch into this sketch. Afterwards, this sketch estimates
+   * the number of distinct elements added to any of both sketches.
+   *
+   * @param other The sketch to merge.
+   */
+  public void merge(HyperLogLog other){
+    if(other.precision != precision){
+      throw new IllegalArgumentException("Cannot merge sketches of precision " + other.precision + " and " + precision + ".");
+    }
+    for(int i = 0; i < registers.length; i++){
+      if(other.registers[i] > registers[i]){
+        registers[i] = other.registers[i];
+      }
+    }
+  }
+
+  /**
+   * Estimate the number of distinct elements added to this sketch.
+   *
+   * @return The estimated cardinality.
+   */
+  public long estimate(){
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for(byte register : registers){
+      sum += Double.longBitsToDouble((1023L - register) << 52);
+      if(register == 0){
+        zeros++;
+      }
+    }
+    double estimate = alpha(m) * m * m / sum;
+    if(estimate <= 2.5 * m && zeros > 0){
+      //linear counting for small cardinalities
+      estimate = m * Math.log((double) m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  /**
+   * Serialize this sketch. The result contains the precision followed by the
+   * deflated registers, which is small for sketches with few elements.
+   *
+   * @return The serialized sketch.
+   */
+  public byte[] toByteArray(){
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try{
+      deflater.setInput(registers);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+      out.write(precision);
+      byte[] buffer = new byte[4096];
+      while(!deflater.finished()){
+        int count = deflater.deflate(buffer);
+        out.write(buffer, 0, count);
+      }
+      return out.toByteArray();
+    } finally{
+      deflater.end();
+    }
+  }
+
+  /**
+   * Deserialize a sketch created by {@link #toByteArray()}.
+   *
+   * @param data The serialized sketch.
+   *
+   * @return The sketch.
+   *
+   * @throws IllegalArgumentException if data is no valid sketch.
+   */
+  public static HyperLogLog fromByteArray(byte[] data){
+    if(data == null || data.length < 1){
+      throw new IllegalArgumentException("Serialized sketch must not be empty.");
+    }
+    HyperLogLog result = new HyperLogLog(data[0]);
+    Inflater inflater = new Inflater();
+    try{
+      inflater.setInput(data, 1, data.length - 1);
+      int read = 0;
+      while(read < result.registers.length && !inflater.finished()){
+        int count = inflater.inflate(result.registers, read, result.registers.length - read);
+        if(count == 0 && (inflater.needsInput() || inflater.needsDictionary())){
+          break;
+        }
+        read += count;
+      }
+      if(read != result.registers.length){
+        throw new IllegalArgumentException("Serialized sketch is truncated.");
+      }
+    } catch(DataFormatException ex){
+      throw new IllegalArgumentException("Serialized sketch is corrupted.", ex);
+    } finally{
+      inflater.end();
+    }
+    return result;
+  }
+
+  private static double alpha(int m){
+    switch(m){
+      case 16:
+        return 0.673;
+      case 32:
+        return 0.697;
+      case 64:
+        return 0.709;
+      default:
+        return 0.7213 / (1 + 1.079 / m);
+    }
+  }
+
+  /**
+   * 64 bit hash of a string using the finalizer of MurmurHash3.
+   */
+  private static long mix(String value){
+    long hash = 1125899906842597L;
+    for(int i = 0; i < value.length(); i++){
+      hash = 31 * hash + value.charAt(i);
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9f53fe1a85bL;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import edu.kit.datamanager.entities.ContentElement;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Collection of content elements also providing the media type of each
+ * element. As content elements do not carry media types, collection providers
+ * may check whether the collection passed to them implements this interface
+ * and iterate over it via typedIterator() for obtaining each element together
+ * with its media type.
+ */
+public interface MediaTypedCollection {
+
+  /**
+   * Get an iterator over all elements of the collection together with their
+   * media types, in the same order as the elements of the collection itself.
+   *
+   * @return The iterator.
+   */
+  Iterator<TypedElement> typedIterator();
+
+  /**
+   * Get an iterator over the provided collection together with the media types
+   * of its elements. If the collection is no MediaTypedCollection, all media
+   * types are null.
+   *
+   * @param collection The collection.
+   *
+   * @return The iterator.
+   */
+  static Iterator<TypedElement> typedIterator(List<ContentElement> collection) {
+    if (collection instanceof MediaTypedCollection) {
+      return ((MediaTypedCollection) collection).typedIterator();
+    }
+    Iterator<ContentElement> elements = collection.iterator();
+    return new Iterator<TypedElement>() {
+      @Override
+      public boolean hasNext() {
+        return elements.hasNext();
+      }
+
+      @Override
+      public TypedElement next() {
+        return new TypedElement(elements.next(), null);
+      }
+    };
+  }
+
+  /**
+   * A content element and its media type.
+   */
+  final class TypedElement {
+
+    private final ContentElement element;
+    private final String mediaType;
+
+    /**
+     * Default constructor.
+     *
+     * @param element The content element.
+     * @param mediaType The media type, which might be null if unknown.
+     */
+    public TypedElement(ContentElement element, String mediaType) {
+      this.element = element;
+      this.mediaType = mediaType;
+    }
+
+    public ContentElement getElement() {
+      return element;
+    }
+
+    public String getMediaType() {
+      return mediaType;
+    }
+  }
+}
@@ -19,6 +19,7 @@ import edu.kit.datamanager.repo.configuration.MonitoringConfiguration;
 import edu.kit.datamanager.repo.dao.IIpMonitoringDao;
 import edu.kit.datamanager.repo.dao.IAclEntryDao;
 import edu.kit.datamanager.repo.domain.IpMonitoring;
+import edu.kit.datamanager.repo.service.impl.UniqueUsersSketchService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,6 +28,8 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
 
 /**
  * Utility class for providing monitoring functionality.
@@ -48,6 +51,14 @@ public class MonitoringUtil {
    * Instance holding the repository for the ACL entries.
    */
   private static IAclEntryDao aclEntryDao;
+  /**
+   * Instance holding the service for counting unique users in SKETCH mode.
+   */
+  private static UniqueUsersSketchService uniqueUsersSketchService;
+  /**
+   * Message digest for hashing IP addresses, one per thread.
+   */
+  private static final ThreadLocal<MessageDigest> DIGEST = new ThreadLocal<>();
   /**
    * Sets the monitoring configuration.
    *
@@ -75,6 +86,15 @@ public class MonitoringUtil {
     MonitoringUtil.aclEntryDao = aclEntryDao;
   }
 
+  /**
+   * Sets the service for counting unique users in SKETCH mode.
+   *
+   * @param uniqueUsersSketchService the uniqueUsersSketchService to set
+   */
+  public static void setUniqueUsersSketchService(UniqueUsersSketchService uniqueUsersSketchService) {
+    MonitoringUtil.uniqueUsersSketchService = uniqueUsersSketchService;
+  }
+
   /**
    * Get the name of the service.
    *
@@ -92,10 +112,13 @@ public class MonitoringUtil {
 
   /**
    * Returns the number of unique users of the last number of days configured.
+   * In SKETCH mode, the returned number is an estimate.
    */
   public static long getNoOfUniqueUsers() {
     long noOfUniqueUsers = 0;
-    if (isMonitoringEnabled() && ipMonitoringDao != null) {
+    if (isSketchMode()) {
+      noOfUniqueUsers = uniqueUsersSketchService.getEstimate();
+    } else if (isMonitoringEnabled() && ipMonitoringDao != null) {
       noOfUniqueUsers = ipMonitoringDao.count();
     }
     return noOfUniqueUsers;
@@ -125,19 +148,14 @@ public class MonitoringUtil {
         return;
       }
 
-      String ipHash = ip;
-      try {
-        MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
-        byte[] hashBytes = messageDigest.digest(ip.getBytes(StandardCharsets.UTF_8));
-
-        StringBuilder hex = new StringBuilder(hashBytes.length * 2);
-        for (byte b : hashBytes) {
-          hex.append(String.format("%02x", b));
+      String ipHash = hashIp(ip);
+      if (isSketchMode()) {
+        try {
+          uniqueUsersSketchService.addAll(Map.of(ipHash, Instant.now().truncatedTo(ChronoUnit.DAYS)));
+        } catch (Exception ex) {
+          LOG.error("Error registering IP address '" + ip + "' in unique users sketch.", ex);
         }
-
-        ipHash = hex.toString();
-      } catch (NoSuchAlgorithmException nsae) {
-        LOG.error("Error hashing IP address: ", nsae);
+        return;
       }
       // Store the IP hash or, if hashing fails, the ip in the database
       if (ipMonitoringDao != null) {
@@ -153,6 +171,33 @@ public class MonitoringUtil {
     }
   }
 
+  /**
+   * Hash the given IP address using SHA-256. The message digest is kept per
+   * thread, such that hashing does not require any lookup of the provider.
+   * If SHA-256 is not supported, the IP address itself is returned.
+   *
+   * @param ip The IP address to hash.
+   *
+   * @return The hex encoded hash of the IP address or null if ip is null or
+   * empty.
+   */
+  public static String hashIp(String ip) {
+    if (ip == null || ip.trim().isEmpty()) {
+      return null;
+    }
+    MessageDigest messageDigest = DIGEST.get();
+    if (messageDigest == null) {
+      try {
+        messageDigest = MessageDigest.getInstance("SHA-256");
+        DIGEST.set(messageDigest);
+      } catch (NoSuchAlgorithmException nsae) {
+        LOG.error("Error hashing IP address: ", nsae);
+        return ip;
+      }
+    }
+    return HexFormat.of().formatHex(messageDigest.digest(ip.getBytes(StandardCharsets.UTF_8)));
+  }
+
   /**
    * Cleans up the metrics by deleting records older than the specified number of days.
    */
@@ -162,6 +207,20 @@ public class MonitoringUtil {
       Instant latestDate = Instant.now().minus(monitoringConfiguration.getNoOfDaysToKeep(), ChronoUnit.DAYS);
       ipMonitoringDao.deleteAllEntriesOlderThan(latestDate);
     }
+    if (isSketchMode()) {
+      uniqueUsersSketchService.cleanUp();
+    }
+  }
+
+  /**
+   * Checks if unique users are counted by sketches.
+   *
+   * @return true if monitoring is enabled in SKETCH mode, false otherwise
+   */
+  private static boolean isSketchMode() {
+    return isMonitoringEnabled()
+            && monitoringConfiguration.getUniqueUsersMode() == MonitoringConfiguration.UNIQUE_USERS_MODE.SKETCH
+            && uniqueUsersSketchService != null;
   }
 
   /**
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * GZIP output stream compressing blocks of data in parallel similar to pigz.
+ * Written data is collected in blocks, which are compressed by an executor
+ * using the last 32 KiB of the preceding block as dictionary, see
+ * {@link DeflateUtils}. Compressed blocks are written in order and form a
+ * single gzip member readable by any gzip implementation. At most
+ * maxBlocksInFlight blocks are pending at a time, which bounds the memory
+ * usage.
+ */
+public class ParallelGzipOutputStream extends OutputStream{
+
+  private static final byte[] GZIP_HEADER = new byte[]{0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+  private final OutputStream out;
+  private final ExecutorService executor;
+  private final int blockSize;
+  private final int level;
+  private final int maxBlocksInFlight;
+  private final Deque<Future<CompressedBlock>> window = new ArrayDeque<>();
+  private byte[] block;
+  private int blockLength = 0;
+  private byte[] dictionary = null;
+  private long crc = 0;
+  private long totalLength = 0;
+  private boolean headerWritten = false;
+  private boolean closed = false;
+
+  /**
+   * Create a new stream.
+   *
+   * @param out The destination, which is closed when this stream is closed.
+   * @param executor The executor used for compressing blocks.
+   * @param threads The number of threads of the executor.
+   * @param blockSize The size of uncompressed blocks.
+   * @param level The deflate compression level.
+   */
+  public ParallelGzipOutputStream(OutputStream out, ExecutorService executor, int threads, int blockSize, int level){
+    if(blockSize < DeflateUtils.DICTIONARY_SIZE){
+      throw new IllegalArgumentException("Block size must be at least " + DeflateUtils.DICTIONARY_SIZE + " bytes.");
+    }
+    this.out = out;
+    this.executor = executor;
+    this.blockSize = blockSize;
+    this.level = level;
+    this.maxBlocksInFlight = Math.max(2, threads * 2);
+    this.block = new byte[blockSize];
+  }
+
+  @Override
+  public void write(int b) throws IOException{
+    write(new byte[]{(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException{
+    ensureOpen();
+    while(len > 0){
+      int count = Math.min(len, blockSize - blockLength);
+      System.arraycopy(b, off, block, blockLength, count);
+      blockLength += count;
+      off += count;
+      len -= count;
+      if(blockLength == blockSize){
+        submitBlock(false);
+      }
+    }
+  }
+
+  /**
+   * Write all completely compressed blocks to the underlying stream and flush
+   * it. Data of the current, incomplete block is not flushed in order to keep
+   * the block size constant.
+   *
+   * @throws IOException If writing fails.
+   */
+  @Override
+  public void flush() throws IOException{
+    ensureOpen();
+    while(!window.isEmpty() && window.peek().isDone()){
+      writeBlock(window.poll());
+    }
+    out.flush();
+  }
+
+  /**
+   * Compress all remaining data and write the gzip trailer without closing
+   * the underlying stream.
+   *
+   * @throws IOException If writing fails.
+   */
+  public void finish() throws IOException{
+    ensureOpen();
+    submitBlock(true);
+    while(!window.isEmpty()){
+      writeBlock(window.poll());
+    }
+    byte[] trailer = new byte[8];
+    putInt(trailer, 0, crc);
+    putInt(trailer, 4, totalLength);
+    out.write(trailer);
+    out.flush();
+    closed = true;
+  }
+
+  @Override
+  public void close() throws IOException{
+    try{
+      if(!closed){
+        finish();
+      }
+    } finally{
+      window.forEach((f) -> f.cancel(true));
+      window.clear();
+      out.close();
+    }
+  }
+
+  private void submitBlock(boolean last) throws IOException{
+    if(!headerWritten){
+      out.write(GZIP_HEADER);
+      headerWritten = true;
+    }
+    byte[] data = block;
+    int length = blockLength;
+    byte[] dict = dictionary;
+    if(!last){
+      //keep the tail of this block as dictionary of the next one
+      dictionary = Arrays.copyOfRange(data, length - DeflateUtils.DICTIONARY_SIZE, length);
+      block = new byte[blockSize];
+      blockLength = 0;
+    }
+    window.add(executor.submit(() -> {
+      CompressedBlock result = new CompressedBlock();
+      CRC32 checksum = new CRC32();
+      checksum.update(data, 0, length);
+      result.crc = checksum.getValue();
+      result.length = length;
+      result.data = DeflateUtils.deflateBlock(data, length, dict, level, last);
+      return result;
+    }));
+    while(window.size() >= maxBlocksInFlight){
+      writeBlock(window.poll());
+    }
+  }
+
+  private void writeBlock(Future<CompressedBlock> future) throws IOException{
+    try{
+      CompressedBlock result = future.get();
+      out.write(result.data);
+      crc = ZipArchiveWriter.combineCrc32(crc, result.crc, result.length);
+      totalLength += result.length;
+    } catch(InterruptedException ex){
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while compressing data.");
+    } catch(ExecutionException ex){
+      throw new IOException("Failed to compress data.", ex.getCause());
+    }
+  }
+
+  private void ensureOpen() throws IOException{
+    if(closed){
+      throw new IOException("Stream closed.");
+    }
+  }
+
+  private static void putInt(byte[] buffer, int offset, long value){
+    buffer[offset] = (byte) value;
+    buffer[offset + 1] = (byte) (value >> 8);
+    buffer[offset + 2] = (byte) (value >> 16);
+    buffer[offset + 3] = (byte) (value >> 24);
+  }
+
+  private static class CompressedBlock{
+
+    private byte[] data;
+    private int length;
+    private long crc;
+  }
+}
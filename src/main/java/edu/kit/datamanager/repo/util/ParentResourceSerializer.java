@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import edu.kit.datamanager.repo.domain.DataResource;
+import java.io.IOException;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+
+/**
+ * Serializer for lazily loaded references to the parent resource of a content
+ * information element. A reference which has not been loaded is serialized as
+ * resource holding only the id, as done for filtered content information, such
+ * that serializing a content listing neither loads the parent resources nor
+ * fails outside of a session. Loaded references are serialized as usual.
+ */
+public class ParentResourceSerializer extends JsonSerializer<DataResource>{
+
+  @Override
+  public void serialize(DataResource value, JsonGenerator gen, SerializerProvider serializers) throws IOException{
+    DataResource resource = value;
+    if(value instanceof HibernateProxy){
+      LazyInitializer initializer = ((HibernateProxy) value).getHibernateLazyInitializer();
+      if(initializer.isUninitialized()){
+        resource = new DataResource();
+        resource.setId((String) initializer.getIdentifier());
+      } else{
+        resource = (DataResource) initializer.getImplementation();
+      }
+    }
+    serializers.defaultSerializeValue(resource, gen);
+  }
+}
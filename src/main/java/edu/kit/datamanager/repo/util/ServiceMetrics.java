@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Utility class for recording the latency and outcome of service operations
+ * and the number of transferred bytes. All meters are registered in the
+ * global registry, which contains the registries configured by Spring Boot.
+ * Operations are recorded by a timer named [serviceName]_service_operation
+ * with tags service, operation, outcome (success or error) and exception.
+ */
+public class ServiceMetrics {
+
+  /**
+   * Outcome of operations finished without exception.
+   */
+  public static final String SUCCESS = "success";
+  /**
+   * Outcome of operations finished with an exception.
+   */
+  public static final String ERROR = "error";
+
+  private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+  private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+
+  private ServiceMetrics() {
+  }
+
+  /**
+   * Run an operation returning a result and record its duration.
+   *
+   * @param <T> The result type.
+   * @param service The name of the service, e.g. the simple class name.
+   * @param operation The name of the operation.
+   * @param call The operation.
+   *
+   * @return The result of the operation.
+   */
+  public static <T> T record(String service, String operation, Supplier<T> call) {
+    long start = System.nanoTime();
+    try {
+      T result = call.get();
+      recordDuration(service, operation, null, System.nanoTime() - start);
+      return result;
+    } catch (RuntimeException | Error ex) {
+      recordDuration(service, operation, ex, System.nanoTime() - start);
+      throw ex;
+    }
+  }
+
+  /**
+   * Run an operation without result and record its duration.
+   *
+   * @param service The name of the service, e.g. the simple class name.
+   * @param operation The name of the operation.
+   * @param call The operation.
+   */
+  public static void run(String service, String operation, Runnable call) {
+    record(service, operation, () -> {
+      call.run();
+      return null;
+    });
+  }
+
+  /**
+   * Record the duration of an operation measured by the caller.
+   *
+   * @param service The name of the service, e.g. the simple class name.
+   * @param operation The name of the operation.
+   * @param failure The exception the operation failed with or null.
+   * @param durationNanos The duration in nanoseconds.
+   */
+  public static void recordDuration(String service, String operation, Throwable failure, long durationNanos) {
+    String outcome = (failure == null) ? SUCCESS : ERROR;
+    String exception = (failure == null) ? "none" : failure.getClass().getSimpleName();
+    String key = service + '#' + operation + '#' + outcome + '#' + exception;
+    Timer timer = TIMERS.computeIfAbsent(key, (k) -> Timer.builder(MonitoringUtil.getServiceName() + "_service_operation")
+            .tag("service", service)
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .tag("exception", exception)
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry));
+    timer.record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Count transferred bytes.
+   *
+   * @param direction The direction of the transfer, e.g. upload or download.
+   * @param bytes The number of bytes.
+   */
+  public static void countBytes(String direction, long bytes) {
+    if (bytes <= 0) {
+      return;
+    }
+    Counter counter = COUNTERS.computeIfAbsent(direction, (d) -> Counter.builder(MonitoringUtil.getServiceName() + "_transferred_bytes")
+            .baseUnit("bytes")
+            .tag("direction", d)
+            .register(Metrics.globalRegistry));
+    counter.increment(bytes);
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming writer for POSIX (pax) tar archives. Each entry consists of a
+ * 512 byte header followed by the entry data padded to a multiple of 512
+ * bytes, thus, archives can be written and extracted sequentially without
+ * any central directory. Names exceeding the ustar limits and entries larger
+ * than 8 GiB are described by an additional pax extended header.
+ */
+public class TarArchiveWriter{
+
+  /**
+   * Size of tar blocks.
+   */
+  public static final int BLOCK_SIZE = 512;
+
+  private static final int NAME_LENGTH = 100;
+  private static final int PREFIX_LENGTH = 155;
+  private static final long MAX_OCTAL_SIZE = 077777777777L;
+  private static final byte TYPE_FILE = '0';
+  private static final byte TYPE_PAX = 'x';
+
+  private final OutputStream out;
+  private final long modificationTime;
+  private final byte[] header = new byte[BLOCK_SIZE];
+  private long written = 0;
+  private long remaining = -1;
+  private long entrySize;
+  private boolean finished = false;
+
+  /**
+   * Create a new writer.
+   *
+   * @param out The destination, which is not closed by this writer.
+   */
+  public TarArchiveWriter(OutputStream out){
+    this.out = out;
+    this.modificationTime = System.currentTimeMillis() / 1000;
+  }
+
+  /**
+   * Start a new regular file entry. Exactly size bytes must be written
+   * before the entry is closed.
+   *
+   * @param name The entry name.
+   * @param size The entry size in bytes.
+   *
+   * @throws IOException If writing fails or another entry is still open.
+   */
+  public void putEntry(String name, long size) throws IOException{
+    if(remaining >= 0){
+      throw new IOException("Previous entry not closed.");
+    }
+    if(finished){
+      throw new IOException("Archive already finished.");
+    }
+    byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    byte[] prefixBytes = new byte[0];
+    if(nameBytes.length > NAME_LENGTH){
+      int split = findPrefixSplit(nameBytes);
+      if(split > 0){
+        prefixBytes = Arrays.copyOfRange(nameBytes, 0, split);
+        nameBytes = Arrays.copyOfRange(nameBytes, split + 1, nameBytes.length);
+      }
+    }
+    boolean longName = nameBytes.length > NAME_LENGTH;
+    boolean largeSize = size > MAX_OCTAL_SIZE;
+    if(longName || largeSize){
+      StringBuilder records = new StringBuilder();
+      if(longName){
+        records.append(paxRecord("path", name));
+        nameBytes = Arrays.copyOf(nameBytes, NAME_LENGTH);
+        prefixBytes = new byte[0];
+      }
+      if(largeSize){
+        records.append(paxRecord("size", Long.toString(size)));
+      }
+      byte[] paxData = records.toString().getBytes(StandardCharsets.UTF_8);
+      writeHeader("PaxHeader".getBytes(StandardCharsets.US_ASCII), new byte[0], paxData.length, TYPE_PAX);
+      writeRaw(paxData, 0, paxData.length);
+      pad(paxData.length);
+    }
+    writeHeader(nameBytes, prefixBytes, largeSize ? 0 : size, TYPE_FILE);
+    entrySize = size;
+    remaining = size;
+  }
+
+  /**
+   * Write entry data.
+   *
+   * @param data The data.
+   * @param offset The offset in data.
+   * @param length The number of bytes to write.
+   *
+   * @throws IOException If writing fails or more data than announced is
+   * written.
+   */
+  public void write(byte[] data, int offset, int length) throws IOException{
+    if(remaining < 0){
+      throw new IOException("No entry open.");
+    }
+    if(length > remaining){
+      throw new IOException("Entry data exceeds announced size of " + entrySize + " bytes.");
+    }
+    writeRaw(data, offset, length);
+    remaining -= length;
+  }
+
+  /**
+   * Get an output stream writing to the data of the current entry. Closing
+   * the stream has no effect.
+   *
+   * @return The entry stream.
+   */
+  public OutputStream getEntryStream(){
+    return new OutputStream(){
+      @Override
+      public void write(int b) throws IOException{
+        TarArchiveWriter.this.write(new byte[]{(byte) b}, 0, 1);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException{
+        TarArchiveWriter.this.write(b, off, len);
+      }
+    };
+  }
+
+  /**
+   * Close the current entry and add padding.
+   *
+   * @throws IOException If writing fails or less data than announced was
+   * written.
+   */
+  public void closeEntry() throws IOException{
+    if(remaining < 0){
+      throw new IOException("No entry open.");
+    }
+    if(remaining > 0){
+      throw new IOException("Entry data is " + remaining + " byte(s) shorter than announced size of " + entrySize + " bytes.");
+    }
+    pad(entrySize);
+    remaining = -1;
+  }
+
+  /**
+   * Finish the archive by writing the end-of-archive marker. The underlying
+   * stream is flushed but not closed.
+   *
+   * @throws IOException If writing fails or an entry is still open.
+   */
+  public void finish() throws IOException{
+    if(remaining >= 0){
+      throw new IOException("Entry not closed.");
+    }
+    if(!finished){
+      byte[] end = new byte[2 * BLOCK_SIZE];
+      writeRaw(end, 0, end.length);
+      finished = true;
+    }
+    out.flush();
+  }
+
+  /**
+   * Get the number of bytes written so far.
+   *
+   * @return The number of bytes written.
+   */
+  public long getBytesWritten(){
+    return written;
+  }
+
+  private void writeHeader(byte[] name, byte[] prefix, long size, byte type) throws IOException{
+    Arrays.fill(header, (byte) 0);
+    System.arraycopy(name, 0, header, 0, Math.min(name.length, NAME_LENGTH));
+    putOctal(0644, 100, 8);
+    putOctal(0, 108, 8);
+    putOctal(0, 116, 8);
+    putOctal(size, 124, 12);
+    putOctal(modificationTime, 136, 12);
+    header[156] = type;
+    System.arraycopy("ustar\0".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 6);
+    header[263] = '0';
+    header[264] = '0';
+    System.arraycopy(prefix, 0, header, 345, Math.min(prefix.length, PREFIX_LENGTH));
+    //checksum is computed with the checksum field filled with spaces
+    Arrays.fill(header, 148, 156, (byte) ' ');
+    long checksum = 0;
+    for(byte b : header){
+      checksum += b & 0xFF;
+    }
+    putOctal(checksum, 148, 7);
+    header[155] = ' ';
+    writeRaw(header, 0, BLOCK_SIZE);
+  }
+
+  /**
+   * Write value as zero-padded octal number with trailing NUL into a field
+   * of the provided length.
+   */
+  private void putOctal(long value, int offset, int length){
+    String octal = Long.toOctalString(value);
+    int digits = length - 1;
+    int start = offset + digits - octal.length();
+    Arrays.fill(header, offset, start, (byte) '0');
+    for(int i = 0; i < octal.length(); i++){
+      header[start + i] = (byte) octal.charAt(i);
+    }
+    header[offset + digits] = 0;
+  }
+
+  private void pad(long length) throws IOException{
+    int padding = (int) ((BLOCK_SIZE - (length % BLOCK_SIZE)) % BLOCK_SIZE);
+    if(padding > 0){
+      writeRaw(new byte[padding], 0, padding);
+    }
+  }
+
+  private void writeRaw(byte[] data, int offset, int length) throws IOException{
+    out.write(data, offset, length);
+    written += length;
+  }
+
+  /**
+   * Find the position of a slash splitting name into a prefix of at most 155
+   * and a name of at most 100 bytes or -1 if there is none.
+   */
+  private static int findPrefixSplit(byte[] name){
+    for(int i = Math.min(name.length - 1, PREFIX_LENGTH); i > 0; i--){
+      if(name[i] == '/' && name.length - i - 1 <= NAME_LENGTH){
+        return (name.length - i - 1 > 0) ? i : -1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Create a pax record '<length> <key>=<value>\n', where length includes
+   * the length field itself.
+   */
+  private static String paxRecord(String key, String value){
+    int length = key.getBytes(StandardCharsets.UTF_8).length + value.getBytes(StandardCharsets.UTF_8).length + 3;
+    int digits = Integer.toString(length).length();
+    int total = length + digits;
+    if(Integer.toString(total).length() > digits){
+      total++;
+    }
+    return total + " " + key + "=" + value + "\n";
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import edu.kit.datamanager.repo.service.IRepoVersioningService;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable lookup table of versioning services by service name. The table is
+ * built once from all available versioning services and replaces scanning
+ * all services for each content element. If multiple services have the same
+ * name, the first one is used.
+ */
+public final class VersioningServiceRegistry {
+
+  private final Map<String, IRepoVersioningService> services;
+
+  /**
+   * Create a registry for the provided versioning services.
+   *
+   * @param versioningServices All versioning services, which might be null.
+   */
+  public VersioningServiceRegistry(IRepoVersioningService[] versioningServices) {
+    Map<String, IRepoVersioningService> byName = new LinkedHashMap<>();
+    if (versioningServices != null) {
+      for (IRepoVersioningService service : versioningServices) {
+        byName.putIfAbsent(service.getServiceName(), service);
+      }
+    }
+    this.services = Collections.unmodifiableMap(byName);
+  }
+
+  /**
+   * Get the versioning service with the provided name.
+   *
+   * @param name The service name.
+   *
+   * @return The service or null if no service with this name exists.
+   */
+  public IRepoVersioningService get(String name) {
+    return (name != null) ? services.get(name) : null;
+  }
+
+  /**
+   * @return All registered versioning services.
+   */
+  public Collection<IRepoVersioningService> getAll() {
+    return services.values();
+  }
+
+  /**
+   * @return TRUE if no versioning service is registered.
+   */
+  public boolean isEmpty() {
+    return services.isEmpty();
+  }
+}
@@ -0,0 +1,425 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming writer for ZIP archives accepting already compressed entry data.
+ * In contrast to java.util.zip.ZipOutputStream, entry data can be compressed
+ * elsewhere, e.g. in parallel, and is written as is. STORED entries require
+ * size and CRC32 to be known in advance, DEFLATED entries are followed by a
+ * data descriptor. ZIP64 extensions are used for entries and archives
+ * exceeding the limits of the classic ZIP format.
+ */
+public class ZipArchiveWriter{
+
+  /**
+   * Compression method STORED.
+   */
+  public static final int STORED = 0;
+  /**
+   * Compression method DEFLATED.
+   */
+  public static final int DEFLATED = 8;
+
+  private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+  private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+  /**
+   * Entries with an expected size above this threshold get a ZIP64 extra
+   * field, leaving room for deflate overhead on incompressible data.
+   */
+  private static final long ZIP64_THRESHOLD = 0xFFFF0000L;
+  private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+  private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+  private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+  private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+  private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+  private static final int END_SIGNATURE = 0x06054b50;
+  private static final int FLAG_DATA_DESCRIPTOR = 1 << 3;
+  private static final int FLAG_UTF8 = 1 << 11;
+  private static final int VERSION_DEFAULT = 20;
+  private static final int VERSION_ZIP64 = 45;
+
+  private final OutputStream out;
+  private final List<Entry> entries = new ArrayList<>();
+  private final int dosTime;
+  private final int dosDate;
+  private long written = 0;
+  private Entry current;
+  private final byte[] scratch = new byte[8];
+
+  private static class Entry{
+
+    private byte[] name;
+    private int method;
+    private int flags;
+    private boolean zip64;
+    private long crc;
+    private long compressedSize;
+    private long size;
+    private long offset;
+  }
+
+  public ZipArchiveWriter(OutputStream out){
+    this.out = out;
+    LocalDateTime now = LocalDateTime.now();
+    dosTime = (now.getHour() << 11) | (now.getMinute() << 5) | (now.getSecond() >> 1);
+    dosDate = (Math.max(0, now.getYear() - 1980) << 9) | (now.getMonthValue() << 5) | now.getDayOfMonth();
+  }
+
+  /**
+   * Start a new STORED entry. Exactly 'size' bytes have to be written
+   * afterwards.
+   *
+   * @param name The entry name.
+   * @param size The size of the entry.
+   * @param crc The CRC32 of the entry content.
+   *
+   * @throws IOException If writing fails.
+   */
+  public void putStoredEntry(String name, long size, long crc) throws IOException{
+    Entry entry = newEntry(name, STORED, 0, size >= ZIP64_MAGIC);
+    entry.crc = crc;
+    entry.size = size;
+    entry.compressedSize = size;
+    writeLocalHeader(entry);
+  }
+
+  /**
+   * Start a new DEFLATED entry, whose raw deflate data is written afterwards.
+   * CRC and sizes are provided when closing the entry.
+   *
+   * @param name The entry name.
+   * @param expectedSize The expected uncompressed size used to decide whether
+   * ZIP64 is required or -1 if unknown.
+   *
+   * @throws IOException If writing fails.
+   */
+  public void putDeflatedEntry(String name, long expectedSize) throws IOException{
+    Entry entry = newEntry(name, DEFLATED, FLAG_DATA_DESCRIPTOR, expectedSize >= ZIP64_THRESHOLD);
+    writeLocalHeader(entry);
+  }
+
+  /**
+   * Write entry data, which is either the plain content of a STORED entry or
+   * raw deflate data of a DEFLATED entry.
+   *
+   * @param buffer The buffer.
+   * @param offset The offset in the buffer.
+   * @param length The number of bytes to write.
+   *
+   * @throws IOException If writing fails.
+   */
+  public void write(byte[] buffer, int offset, int length) throws IOException{
+    if(current == null){
+      throw new IOException("No open entry.");
+    }
+    out.write(buffer, offset, length);
+    written += length;
+    current.compressedSize += (current.method == DEFLATED) ? length : 0;
+  }
+
+  /**
+   * Get a stream writing entry data to the current entry. Closing the stream
+   * does not close the entry.
+   *
+   * @return The stream.
+   */
+  public OutputStream getEntryStream(){
+    return new OutputStream(){
+      @Override
+      public void write(int b) throws IOException{
+        write(new byte[]{(byte) b}, 0, 1);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException{
+        ZipArchiveWriter.this.write(b, off, len);
+      }
+    };
+  }
+
+  /**
+   * Close the current entry.
+   *
+   * @param crc The CRC32 of the uncompressed content.
+   * @param size The uncompressed size.
+   *
+   * @throws IOException If writing fails or the size of a STORED entry does
+   * not match.
+   */
+  public void closeEntry(long crc, long size) throws IOException{
+    Entry entry = current;
+    current = null;
+    if(entry.method == STORED){
+      long dataWritten = written - entry.offset - localHeaderLength(entry);
+      if(dataWritten != entry.size || crc != entry.crc){
+        throw new IOException("Content of entry " + new String(entry.name, StandardCharsets.UTF_8) + " changed while writing.");
+      }
+      return;
+    }
+    entry.crc = crc;
+    entry.size = size;
+    //ZIP64 descriptors are used for large entries even without ZIP64 local header for compatibility with java.util.zip
+    entry.zip64 |= size >= ZIP64_MAGIC || entry.compressedSize >= ZIP64_MAGIC;
+    writeInt(DATA_DESCRIPTOR_SIGNATURE);
+    writeInt(crc);
+    if(entry.zip64){
+      writeLong(entry.compressedSize);
+      writeLong(size);
+    } else{
+      writeInt(entry.compressedSize);
+      writeInt(size);
+    }
+  }
+
+  /**
+   * Write the central directory. The underlying stream is not closed.
+   *
+   * @throws IOException If writing fails.
+   */
+  public void finish() throws IOException{
+    if(current != null){
+      throw new IOException("Entry not closed.");
+    }
+    long centralDirectoryOffset = written;
+    for(Entry entry : entries){
+      writeCentralHeader(entry);
+    }
+    long centralDirectorySize = written - centralDirectoryOffset;
+    boolean zip64 = entries.size() >= ZIP64_MAGIC_COUNT || centralDirectoryOffset >= ZIP64_MAGIC || centralDirectorySize >= ZIP64_MAGIC;
+    if(zip64){
+      long zip64EndOffset = written;
+      writeInt(ZIP64_END_SIGNATURE);
+      writeLong(44);
+      writeShort(VERSION_ZIP64);
+      writeShort(VERSION_ZIP64);
+      writeInt(0);
+      writeInt(0);
+      writeLong(entries.size());
+      writeLong(entries.size());
+      writeLong(centralDirectorySize);
+      writeLong(centralDirectoryOffset);
+      writeInt(ZIP64_LOCATOR_SIGNATURE);
+      writeInt(0);
+      writeLong(zip64EndOffset);
+      writeInt(1);
+    }
+    writeInt(END_SIGNATURE);
+    writeShort(0);
+    writeShort(0);
+    writeShort(Math.min(entries.size(), ZIP64_MAGIC_COUNT));
+    writeShort(Math.min(entries.size(), ZIP64_MAGIC_COUNT));
+    writeInt(Math.min(centralDirectorySize, ZIP64_MAGIC));
+    writeInt(Math.min(centralDirectoryOffset, ZIP64_MAGIC));
+    writeShort(0);
+    out.flush();
+  }
+
+  /**
+   * Get the number of bytes written so far.
+   *
+   * @return The number of bytes.
+   */
+  public long getBytesWritten(){
+    return written;
+  }
+
+  /**
+   * Combine two CRC32 checksums of consecutive data blocks as done by zlib's
+   * crc32_combine.
+   *
+   * @param crc1 The CRC32 of the first block.
+   * @param crc2 The CRC32 of the second block.
+   * @param length2 The length of the second block.
+   *
+   * @return The CRC32 of both blocks.
+   */
+  public static long combineCrc32(long crc1, long crc2, long length2){
+    if(length2 <= 0){
+      return crc1;
+    }
+    long[] even = new long[32];
+    long[] odd = new long[32];
+    //operator for one zero bit
+    odd[0] = 0xedb88320L;
+    long row = 1;
+    for(int n = 1; n < 32; n++){
+      odd[n] = row;
+      row <<= 1;
+    }
+    //operators for two and four zero bits
+    gf2MatrixSquare(even, odd);
+    gf2MatrixSquare(odd, even);
+    long crc = crc1;
+    long length = length2;
+    do{
+      gf2MatrixSquare(even, odd);
+      if((length & 1) != 0){
+        crc = gf2MatrixTimes(even, crc);
+      }
+      length >>= 1;
+      if(length == 0){
+        break;
+      }
+      gf2MatrixSquare(odd, even);
+      if((length & 1) != 0){
+        crc = gf2MatrixTimes(odd, crc);
+      }
+      length >>= 1;
+    } while(length != 0);
+    return crc ^ crc2;
+  }
+
+  private static long gf2MatrixTimes(long[] matrix, long vector){
+    long sum = 0;
+    int i = 0;
+    long vec = vector;
+    while(vec != 0){
+      if((vec & 1) != 0){
+        sum ^= matrix[i];
+      }
+      vec >>>= 1;
+      i++;
+    }
+    return sum;
+  }
+
+  private static void gf2MatrixSquare(long[] square, long[] matrix){
+    for(int n = 0; n < 32; n++){
+      square[n] = gf2MatrixTimes(matrix, matrix[n]);
+    }
+  }
+
+  private Entry newEntry(String name, int method, int flags, boolean zip64) throws IOException{
+    if(current != null){
+      throw new IOException("Previous entry not closed.");
+    }
+    Entry entry = new Entry();
+    entry.name = name.getBytes(StandardCharsets.UTF_8);
+    entry.method = method;
+    entry.flags = flags | FLAG_UTF8;
+    entry.zip64 = zip64;
+    entry.offset = written;
+    entries.add(entry);
+    current = entry;
+    return entry;
+  }
+
+  private int localHeaderLength(Entry entry){
+    return 30 + entry.name.length + (entry.zip64 ? 20 : 0);
+  }
+
+  private void writeLocalHeader(Entry entry) throws IOException{
+    boolean descriptor = (entry.flags & FLAG_DATA_DESCRIPTOR) != 0;
+    writeInt(LOCAL_HEADER_SIGNATURE);
+    writeShort(entry.zip64 ? VERSION_ZIP64 : VERSION_DEFAULT);
+    writeShort(entry.flags);
+    writeShort(entry.method);
+    writeShort(dosTime);
+    writeShort(dosDate);
+    writeInt(descriptor ? 0 : entry.crc);
+    if(entry.zip64){
+      writeInt(ZIP64_MAGIC);
+      writeInt(ZIP64_MAGIC);
+    } else{
+      writeInt(descriptor ? 0 : entry.compressedSize);
+      writeInt(descriptor ? 0 : entry.size);
+    }
+    writeShort(entry.name.length);
+    writeShort(entry.zip64 ? 20 : 0);
+    writeBytes(entry.name);
+    if(entry.zip64){
+      writeShort(0x0001);
+      writeShort(16);
+      writeLong(descriptor ? 0 : entry.size);
+      writeLong(descriptor ? 0 : entry.compressedSize);
+    }
+  }
+
+  private void writeCentralHeader(Entry entry) throws IOException{
+    boolean sizeOverflow = entry.size >= ZIP64_MAGIC;
+    boolean compressedSizeOverflow = entry.compressedSize >= ZIP64_MAGIC;
+    boolean offsetOverflow = entry.offset >= ZIP64_MAGIC;
+    int extraLength = (sizeOverflow ? 8 : 0) + (compressedSizeOverflow ? 8 : 0) + (offsetOverflow ? 8 : 0);
+    boolean zip64 = extraLength > 0;
+    writeInt(CENTRAL_HEADER_SIGNATURE);
+    writeShort(VERSION_ZIP64);
+    writeShort((zip64 || entry.zip64) ? VERSION_ZIP64 : VERSION_DEFAULT);
+    writeShort(entry.flags);
+    writeShort(entry.method);
+    writeShort(dosTime);
+    writeShort(dosDate);
+    writeInt(entry.crc);
+    writeInt(compressedSizeOverflow ? ZIP64_MAGIC : entry.compressedSize);
+    writeInt(sizeOverflow ? ZIP64_MAGIC : entry.size);
+    writeShort(entry.name.length);
+    writeShort(zip64 ? extraLength + 4 : 0);
+    writeShort(0);
+    writeShort(0);
+    writeShort(0);
+    writeInt(0);
+    writeInt(offsetOverflow ? ZIP64_MAGIC : entry.offset);
+    writeBytes(entry.name);
+    if(zip64){
+      writeShort(0x0001);
+      writeShort(extraLength);
+      if(sizeOverflow){
+        writeLong(entry.size);
+      }
+      if(compressedSizeOverflow){
+        writeLong(entry.compressedSize);
+      }
+      if(offsetOverflow){
+        writeLong(entry.offset);
+      }
+    }
+  }
+
+  private void writeShort(int value) throws IOException{
+    scratch[0] = (byte) value;
+    scratch[1] = (byte) (value >>> 8);
+    out.write(scratch, 0, 2);
+    written += 2;
+  }
+
+  private void writeInt(long value) throws IOException{
+    for(int i = 0; i < 4; i++){
+      scratch[i] = (byte) (value >>> (8 * i));
+    }
+    out.write(scratch, 0, 4);
+    written += 4;
+  }
+
+  private void writeLong(long value) throws IOException{
+    for(int i = 0; i < 8; i++){
+      scratch[i] = (byte) (value >>> (8 * i));
+    }
+    out.write(scratch, 0, 8);
+    written += 8;
+  }
+
+  private void writeBytes(byte[] bytes) throws IOException{
+    out.write(bytes);
+    written += bytes.length;
+  }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.service.impl;
+
+import edu.kit.datamanager.configuration.RabbitMQConfiguration;
+import edu.kit.datamanager.repo.configuration.MessagingPublisherProperties;
+import edu.kit.datamanager.repo.dao.DummyAMQPMessageDao;
+import edu.kit.datamanager.repo.dao.IAMQPMessageDao;
+import edu.kit.datamanager.repo.domain.AMQPMessage;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import edu.kit.datamanager.repo.util.ServiceMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Publisher sending AMQP messages asynchronously. Messages submitted within a
+ * transaction are queued after the transaction has been committed, such that
+ * no events are sent for changes that are rolled back. Queued messages are
+ * published in batches by a dedicated thread, optionally waiting for
+ * publisher confirms of the broker. Messages that cannot be published are
+ * preserved in the database for later submission.
+ */
+@Component
+public class AsyncMessagePublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncMessagePublisher.class);
+    /**
+     * Name of this service used for tagging metrics.
+     */
+    private static final String SERVICE_NAME = "AsyncMessagePublisher";
+
+    private final MessagingPublisherProperties properties;
+    private final Optional<RabbitMQConfiguration> configuration;
+    private final Optional<IAMQPMessageDao> messageDao;
+    private final BlockingQueue<AMQPMessage> queue;
+    private volatile boolean publisherConfirms;
+    private volatile boolean running;
+    private Thread worker;
+    private Counter publishedCounter;
+    private Counter preservedCounter;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The publisher configuration.
+     * @param configuration The RabbitMQ configuration if available.
+     * @param messageDao The repository for preserving unsent messages if
+     * available.
+     */
+    @Autowired
+    public AsyncMessagePublisher(MessagingPublisherProperties properties,
+            Optional<RabbitMQConfiguration> configuration,
+            Optional<IAMQPMessageDao> messageDao) {
+        this.properties = properties;
+        this.configuration = configuration;
+        this.messageDao = messageDao;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.publisherConfirms = properties.isPublisherConfirms();
+    }
+
+    /**
+     * Set the meter registry used to publish the queue depth and the number
+     * of published and preserved messages.
+     *
+     * @param meterRegistry The meter registry.
+     */
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        String prefixMetrics = MonitoringUtil.getServiceName();
+        Gauge.builder(prefixMetrics + "_messaging_queue_depth", queue, BlockingQueue::size).register(meterRegistry);
+        publishedCounter = Counter.builder(prefixMetrics + "_messaging_published").register(meterRegistry);
+        preservedCounter = Counter.builder(prefixMetrics + "_messaging_preserved").register(meterRegistry);
+    }
+
+    /**
+     * Check whether messages are published asynchronously.
+     *
+     * @return TRUE if asynchronous publishing is enabled.
+     */
+    public boolean isAsync() {
+        return properties.isAsync();
+    }
+
+    /**
+     * Check whether messaging is enabled.
+     *
+     * @return TRUE if messages are sent to the broker.
+     */
+    public boolean isMessagingEnabled() {
+        return configuration.isPresent() && configuration.get().isMessagingEnabled();
+    }
+
+    /**
+     * Submit a message for publication. If a transaction is active, the
+     * message is queued after the transaction has been committed and
+     * discarded if the transaction is rolled back.
+     *
+     * @param message The message.
+     */
+    public void submit(AMQPMessage message) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(message);
+                }
+            });
+        } else {
+            enqueue(message);
+        }
+    }
+
+    /**
+     * Get the number of messages waiting for publication.
+     *
+     * @return The number of queued messages.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Queue a message applying the configured backpressure policy if the
+     * queue is full.
+     *
+     * @param message The message.
+     */
+    protected void enqueue(AMQPMessage message) {
+        ensureStarted();
+        if (queue.offer(message)) {
+            return;
+        }
+        LOGGER.warn("Message queue is full. Applying backpressure policy {}.", properties.getBackpressurePolicy());
+        switch (properties.getBackpressurePolicy()) {
+            case BLOCK:
+                try {
+                    if (queue.offer(message, properties.getBlockTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                preserve(List.of(message));
+                break;
+            case CALLER_RUNS:
+                publish(List.of(message));
+                break;
+            default:
+                preserve(List.of(message));
+        }
+    }
+
+    /**
+     * Publish a batch of messages. If publishing fails, all messages of the
+     * batch are preserved in the database and published later by the outbox
+     * relay.
+     *
+     * @param batch The messages to publish.
+     *
+     * @return TRUE if the batch was published.
+     */
+    protected boolean publish(List<AMQPMessage> batch) {
+        try {
+            sendBatch(batch);
+            return true;
+        } catch (AmqpException ex) {
+            LOGGER.error("Failed to publish " + batch.size() + " message(s). Preserving messages for later submission.", ex);
+            preserve(batch);
+            return false;
+        }
+    }
+
+    /**
+     * Send a batch of messages in order using a single channel. If publisher
+     * confirms are enabled, this method returns after the broker has confirmed
+     * all messages of the batch.
+     *
+     * @param batch The messages to send.
+     *
+     * @throws AmqpException if sending or confirming the batch failed.
+     */
+    public void sendBatch(List<AMQPMessage> batch) throws AmqpException {
+        if (!isMessagingEnabled()) {
+            LOGGER.trace("Messaging is disabled. Discarding {} message(s).", batch.size());
+            return;
+        }
+        RabbitTemplate template = configuration.get().rabbitMQTemplate();
+        if (publisherConfirms && !template.getConnectionFactory().isSimplePublisherConfirms()) {
+            LOGGER.warn("Publisher confirms are not enabled for the connection factory. Set 'spring.rabbitmq.publisher-confirm-type=simple' to enable them. Continuing without publisher confirms.");
+            publisherConfirms = false;
+        }
+        long start = System.nanoTime();
+        try {
+            template.invoke((operations) -> {
+                for (AMQPMessage message : batch) {
+                    operations.convertAndSend(message.getExchange(), message.getRoutingKey(), message.getMessage());
+                }
+                if (publisherConfirms) {
+                    operations.waitForConfirmsOrDie(properties.getConfirmTimeout().toMillis());
+                }
+                return null;
+            });
+        } catch (AmqpException ex) {
+            ServiceMetrics.recordDuration(SERVICE_NAME, "publish", ex, System.nanoTime() - start);
+            throw ex;
+        }
+        ServiceMetrics.recordDuration(SERVICE_NAME, "publish", null, System.nanoTime() - start);
+        if (publishedCounter != null) {
+            publishedCounter.increment(batch.size());
+        }
+        LOGGER.trace("Published {} message(s).", batch.size());
+    }
+
+    /**
+     * Persist messages in the database for later submission.
+     *
+     * @param messages The messages to preserve.
+     */
+    protected void preserve(List<AMQPMessage> messages) {
+        IAMQPMessageDao dao = messageDao.orElse(new DummyAMQPMessageDao());
+        for (AMQPMessage message : messages) {
+            try {
+                AMQPMessage persisted = dao.save(message);
+                LOGGER.trace("AMQP message successfully persisted with id {} for later submission.", persisted.getId());
+            } catch (RuntimeException ex) {
+                LOGGER.error("Failed to preserve AMQP message for route " + message.getRoutingKey() + ". Message is lost.", ex);
+            }
+        }
+        if (preservedCounter != null) {
+            preservedCounter.increment(messages.size());
+        }
+    }
+
+    /**
+     * Stop the publisher thread after publishing all queued messages. Messages
+     * that cannot be published within the confirm timeout are preserved.
+     */
+    @PreDestroy
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = worker;
+            worker = null;
+        }
+        if (current != null) {
+            try {
+                current.join(properties.getConfirmTimeout().toMillis() * 2);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<AMQPMessage> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            LOGGER.info("Preserving {} queued message(s) on shutdown.", remaining.size());
+            preserve(remaining);
+        }
+    }
+
+    private synchronized void ensureStarted() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "amqp-publisher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void run() {
+        LOGGER.trace("AMQP publisher started.");
+        List<AMQPMessage> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                AMQPMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                publish(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException ex) {
+                LOGGER.error("Unexpected error while publishing messages.", ex);
+                preserve(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+        LOGGER.trace("AMQP publisher stopped.");
+    }
+}
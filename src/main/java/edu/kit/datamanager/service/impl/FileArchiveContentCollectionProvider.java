@@ -17,14 +17,17 @@ package edu.kit.datamanager.service.impl;
 
 import edu.kit.datamanager.entities.ContentElement;
 import edu.kit.datamanager.exceptions.CustomInternalServerError;
+import edu.kit.datamanager.repo.configuration.ContentTransferProperties;
 import edu.kit.datamanager.repo.service.IRepoVersioningService;
+import edu.kit.datamanager.repo.util.ContentTransferUtils;
+import edu.kit.datamanager.repo.util.VersioningServiceRegistry;
 import edu.kit.datamanager.service.IContentCollectionProvider;
+import java.io.OutputStream;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.NotEmpty;
 import org.slf4j.Logger;
@@ -35,6 +38,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.UnsupportedMediaTypeStatusException;
 
 /**
+ * Collection provider packaging file content as ZIP archive. Entries are
+ * compressed in parallel and incompressible content is stored without
+ * compression, see {@link ZipCollectionEngine}.
  *
  * @author jejkal
  */
@@ -44,9 +50,16 @@ public class FileArchiveContentCollectionProvider implements IContentCollectionP
   private final static Logger LOGGER = LoggerFactory.getLogger(FileArchiveContentCollectionProvider.class);
 
   public final static MediaType ZIP_MEDIA_TYPE = MediaType.parseMediaType("application/zip");
+  private static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
   @Autowired(required = false)
   private IRepoVersioningService[] versioningServices;
 
+  @Autowired(required = false)
+  private ContentTransferProperties transferProperties;
+
+  private ZipCollectionEngine engine;
+
   @Override
   public void provide(@NotEmpty List<ContentElement> collection, MediaType mediaType, HttpServletResponse response){
     if(!ZIP_MEDIA_TYPE.toString().equals(mediaType.toString())){
@@ -64,43 +77,13 @@ public class FileArchiveContentCollectionProvider implements IContentCollectionP
     //response.setHeader("Content-Disposition", "attachment;filename=download.zip");
     LOGGER.trace("Setting response status {}.", HttpServletResponse.SC_OK);
     LOGGER.trace("Starting packaging operation.");
-    try(ZipOutputStream zippedOut = new ZipOutputStream(response.getOutputStream())){
-      for(ContentElement element : collection){
-
-        //  LOGGER.trace("Opening new file system resource for element URI {}.", element.getContentUri());
-        //  FileSystemResource resource = new FileSystemResource(Paths.get(element.getContentUri()));
-        LOGGER.trace("Adding new zip entry for element {}.", element.getRelativePath());
-        ZipEntry e = new ZipEntry(element.getRelativePath());
-        // Configure the zip entry, the properties of the file
-        LOGGER.trace("Setting entry size to {}.", element.getContentLength());
-        e.setSize(element.getContentLength());
-        LOGGER.trace("Setting element time to current timestamp.");
-        e.setTime(System.currentTimeMillis());
-        LOGGER.trace("Writing element to zip stream.");
-        zippedOut.putNextEntry(e);
-
-        for(IRepoVersioningService versioningService : versioningServices){
-          if(element.getVersioningService().equals(versioningService.getServiceName())){
-
-            Map<String, String> options = new HashMap<>();
-            options.put("contentUri", element.getContentUri());
-            options.put("checksum", element.getChecksum());
-            options.put("size", Long.toString(element.getContentLength()));
-
-            versioningService.read(element.getResourceId(), null, element.getRelativePath(), element.getFileVersion(), zippedOut, options);
-            break;
-          }
-        }
-
-        //  LOGGER.trace("Starting streaming resource content.");
-        LOGGER.trace("Closing entry.");
-        zippedOut.closeEntry();
-      }
+    try{
+      OutputStream out = response.getOutputStream();
+      getEngine().write(collection, out);
       //Keep an eye on this...it seems weird to set the status at the very end, but it's the only way to be able to set an error state in case of an exception
       //as setting the status is only possible once.
       response.setStatus(HttpServletResponse.SC_OK);
-      LOGGER.trace("Finishing zip operation.");
-      zippedOut.finish();
+      out.flush();
       LOGGER.trace("Zip operation successfully finished.");
     } catch(Exception e){
       // Exception handling goes here
@@ -110,6 +93,22 @@ public class FileArchiveContentCollectionProvider implements IContentCollectionP
     }
   }
 
+  private synchronized ZipCollectionEngine getEngine(){
+    if(engine == null){
+      int threads = (transferProperties != null) ? transferProperties.getArchiveThreads() : Runtime.getRuntime().availableProcessors();
+      int blockSize = (transferProperties != null) ? transferProperties.getArchiveBlockSize() : DEFAULT_BLOCK_SIZE;
+      int level = (transferProperties != null) ? transferProperties.getArchiveCompressionLevel() : Deflater.DEFAULT_COMPRESSION;
+      List<String> incompressible = (transferProperties != null) ? transferProperties.getIncompressibleMediaTypes() : new ContentTransferProperties().getIncompressibleMediaTypes();
+      ExecutorService executor = Executors.newFixedThreadPool(threads, (r) -> {
+        Thread t = new Thread(r, "zip-worker");
+        t.setDaemon(true);
+        return t;
+      });
+      engine = new ZipCollectionEngine(new VersioningServiceRegistry(versioningServices), executor, threads, blockSize, level, incompressible, ContentTransferUtils.getBufferSize(transferProperties));
+    }
+    return engine;
+  }
+
   @Override
   public boolean canProvide(String schema){
     LOGGER.trace("Calling canProvide({}).", schema);
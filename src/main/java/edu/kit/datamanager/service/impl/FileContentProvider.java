@@ -17,11 +17,31 @@ package edu.kit.datamanager.service.impl;
 
 import edu.kit.datamanager.entities.ContentElement;
 import edu.kit.datamanager.exceptions.CustomInternalServerError;
+import edu.kit.datamanager.exceptions.ResourceNotFoundException;
+import edu.kit.datamanager.repo.configuration.ContentTransferProperties;
 import edu.kit.datamanager.repo.service.IRepoVersioningService;
+import edu.kit.datamanager.repo.util.ContentRangeUtils;
+import edu.kit.datamanager.repo.util.ContentTransferUtils;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import edu.kit.datamanager.repo.util.ServiceMetrics;
+import edu.kit.datamanager.repo.util.VersioningServiceRegistry;
 import edu.kit.datamanager.service.IContentProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +50,9 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
  *
@@ -40,9 +63,26 @@ public class FileContentProvider implements IContentProvider{
 
   private Logger logger = LoggerFactory.getLogger(FileContentProvider.class);
 
+  /**
+   * Request attributes used by Tomcat to delegate the transfer of a file to
+   * the connector (sendfile).
+   */
+  static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+  static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+  static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+  static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
   @Autowired(required = false)
   private IRepoVersioningService[] versioningServices;
 
+  private volatile VersioningServiceRegistry versioningServiceRegistry;
+
+  @Autowired(required = false)
+  private ContentTransferProperties transferProperties;
+
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry;
+
   @Override
   public void provide(ContentElement contentElement, MediaType mediaType, String filename, HttpServletResponse response){
 
@@ -57,26 +97,57 @@ public class FileContentProvider implements IContentProvider{
       String versioningServiceId = (contentElement.getVersioningService() != null) ? contentElement.getVersioningService() : "none";
 
       logger.trace("Checking for proper versioning service named {}.", versioningServiceId);
-      for(IRepoVersioningService versioningService : versioningServices){
-        if(versioningService.getServiceName().equals(versioningServiceId)){
-          logger.trace("Versioning service found. Building response.");
+      IRepoVersioningService versioningService = getVersioningServices().get(versioningServiceId);
+      if(versioningService == null){
+        logger.warn("No versioning service found for name {}. Unable to provide content.", versioningServiceId);
+        return;
+      }
+      logger.trace("Versioning service found. Building response.");
+      HttpServletRequest request = getCurrentRequest();
+      String etag = ContentRangeUtils.getContentEtag(contentElement.getChecksum());
+      if(etag != null){
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if(request != null && ContentRangeUtils.matchesIfNoneMatch(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)){
+          logger.trace("Entity tag {} matches If-None-Match header. Returning HTTP 304 (NOT_MODIFIED).", etag);
+          response.setStatus(HttpStatus.NOT_MODIFIED.value());
+          return;
+        }
+      }
+      if(mediaType != null){
+        response.setHeader("Content-Type", mediaType.toString());
+      }
+      Path localFile = getLocalFile(versioningService, contentElement);
+      if(localFile != null){
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        long size = Files.size(localFile);
+        String rangeHeader = (request != null) ? request.getHeader(HttpHeaders.RANGE) : null;
+        List<ContentRangeUtils.ByteRange> ranges = null;
+        if(rangeHeader != null && ContentRangeUtils.isRangeApplicable(request.getHeader(HttpHeaders.IF_RANGE), etag)){
+          ranges = ContentRangeUtils.parseRanges(rangeHeader, size);
+        }
+        if(ranges != null){
+          providePartialContent(localFile, size, ranges, mediaType, request, response);
+          return;
+        }
+        if(getDownloadMode() != ContentTransferProperties.DOWNLOAD_MODE.STREAM){
           response.setStatus(HttpStatus.OK.value());
-          if(mediaType != null){
-            response.setHeader("Content-Type", mediaType.toString());
-          }
-          if(contentElement.getContentLength() > 0){
-            response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(contentElement.getContentLength()));
-          }
-          Map<String, String> options = new HashMap<>();
-          options.put("contentUri", contentElement.getContentUri());
-          options.put("checksum", contentElement.getChecksum());
-          options.put("size", Long.toString(contentElement.getContentLength()));
-          options.put("mediaType", (mediaType != null) ? mediaType.toString() : "<unknown>");
-          logger.trace("Forwarding request to versioning service.");
-          versioningService.read(contentElement.getResourceId(), null, contentElement.getRelativePath(), contentElement.getFileVersion(), response.getOutputStream(), options);
-          break;
+          provideLocalFile(localFile, size, request, response);
+          return;
         }
       }
+      response.setStatus(HttpStatus.OK.value());
+      if(contentElement.getContentLength() > 0){
+        response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(contentElement.getContentLength()));
+      }
+      Map<String, String> options = new HashMap<>();
+      options.put("contentUri", contentElement.getContentUri());
+      options.put("checksum", contentElement.getChecksum());
+      options.put("size", Long.toString(contentElement.getContentLength()));
+      options.put("mediaType", (mediaType != null) ? mediaType.toString() : "<unknown>");
+      logger.trace("Forwarding request to versioning service.");
+      long start = System.nanoTime();
+      versioningService.read(contentElement.getResourceId(), null, contentElement.getRelativePath(), contentElement.getFileVersion(), response.getOutputStream(), options);
+      recordTransfer(ContentTransferProperties.DOWNLOAD_MODE.STREAM, contentElement.getContentLength(), System.nanoTime() - start);
     } catch(IOException ex){
       logger.error("Failed to send content to response.", ex);
       throw new CustomInternalServerError("Failed to read content from repository.");
@@ -86,6 +157,180 @@ public class FileContentProvider implements IContentProvider{
     }
   }
 
+  /**
+   * Get all versioning services by name. The lookup table is built on first
+   * use.
+   */
+  private VersioningServiceRegistry getVersioningServices(){
+    VersioningServiceRegistry registry = versioningServiceRegistry;
+    if(registry == null){
+      registry = new VersioningServiceRegistry(versioningServices);
+      versioningServiceRegistry = registry;
+    }
+    return registry;
+  }
+
+  /**
+   * Get the local file of the provided content element if the versioning
+   * service allows to read it directly.
+   *
+   * @param versioningService The versioning service the element belongs to.
+   * @param contentElement The content element.
+   *
+   * @return The local file or null if the content has to be read via the
+   * versioning service.
+   */
+  private Path getLocalFile(IRepoVersioningService versioningService, ContentElement contentElement){
+    if(!versioningService.supportsDirectFileAccess() || contentElement.getContentUri() == null){
+      return null;
+    }
+    URI contentUri = URI.create(contentElement.getContentUri());
+    if(!"file".equals(contentUri.getScheme())){
+      return null;
+    }
+    Path localFile = Paths.get(contentUri);
+    if(!Files.isRegularFile(localFile)){
+      logger.error("Content at URI {} seems not to exist.", contentUri);
+      throw new ResourceNotFoundException("The provided resource was not found on the server.");
+    }
+    return localFile;
+  }
+
+  /**
+   * Provide the content of a local file either via sendfile, if supported by
+   * the servlet container and enabled, or via FileChannel.
+   *
+   * @param localFile The file to provide.
+   * @param size The size of the file.
+   * @param request The current request, which might be null.
+   * @param response The response to write to.
+   */
+  private void provideLocalFile(Path localFile, long size, HttpServletRequest request, HttpServletResponse response) throws IOException{
+    response.setContentLengthLong(size);
+    long start = System.nanoTime();
+    if(trySendfile(localFile, 0, size, request)){
+      recordTransfer(ContentTransferProperties.DOWNLOAD_MODE.SENDFILE, size);
+      return;
+    }
+    logger.trace("Transferring {} via FileChannel.", localFile);
+    long transferred = ContentTransferUtils.transfer(localFile, response.getOutputStream(), ContentTransferUtils.getBufferSize(transferProperties));
+    recordTransfer(ContentTransferProperties.DOWNLOAD_MODE.CHANNEL, transferred, System.nanoTime() - start);
+  }
+
+  /**
+   * Provide one or more ranges of a local file using positioned reads. A
+   * single range is returned as HTTP 206 (PARTIAL_CONTENT) with Content-Range
+   * header, multiple ranges are returned as multipart/byteranges. If no range
+   * is satisfiable, HTTP 416 (REQUESTED_RANGE_NOT_SATISFIABLE) is returned.
+   *
+   * @param localFile The file to provide.
+   * @param size The size of the file.
+   * @param ranges The requested ranges.
+   * @param mediaType The media type of the file.
+   * @param request The current request.
+   * @param response The response to write to.
+   */
+  private void providePartialContent(Path localFile, long size, List<ContentRangeUtils.ByteRange> ranges, MediaType mediaType, HttpServletRequest request, HttpServletResponse response) throws IOException{
+    if(ranges.isEmpty()){
+      logger.debug("No satisfiable range requested for {} with size {}. Returning HTTP 416 (REQUESTED_RANGE_NOT_SATISFIABLE).", localFile, size);
+      response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+      response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+      response.setContentLengthLong(0);
+      return;
+    }
+    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+    int bufferSize = ContentTransferUtils.getBufferSize(transferProperties);
+    long start = System.nanoTime();
+    if(ranges.size() == 1){
+      ContentRangeUtils.ByteRange range = ranges.get(0);
+      logger.trace("Providing range {} of {}.", range, localFile);
+      response.setHeader(HttpHeaders.CONTENT_RANGE, range.toContentRange(size));
+      response.setContentLengthLong(range.getLength());
+      if(trySendfile(localFile, range.getStart(), range.getEnd() + 1, request)){
+        recordTransfer(ContentTransferProperties.DOWNLOAD_MODE.SENDFILE, range.getLength());
+      } else{
+        long transferred = ContentTransferUtils.transfer(localFile, range.getStart(), range.getLength(), response.getOutputStream(), bufferSize);
+        recordTransfer(ContentTransferProperties.DOWNLOAD_MODE.CHANNEL, transferred, System.nanoTime() - start);
+      }
+      return;
+    }
+
+    logger.trace("Providing ranges {} of {} as multipart/byteranges.", ranges, localFile);
+    String boundary = UUID.randomUUID().toString().replace("-", "");
+    String partType = (mediaType != null) ? mediaType.toString() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    response.setHeader("Content-Type", "multipart/byteranges; boundary=" + boundary);
+    OutputStream out = response.getOutputStream();
+    long transferred = 0;
+    for(ContentRangeUtils.ByteRange range : ranges){
+      String partHeader = "\r\n--" + boundary + "\r\n"
+              + HttpHeaders.CONTENT_TYPE + ": " + partType + "\r\n"
+              + HttpHeaders.CONTENT_RANGE + ": " + range.toContentRange(size) + "\r\n\r\n";
+      out.write(partHeader.getBytes(StandardCharsets.US_ASCII));
+      transferred += ContentTransferUtils.transfer(localFile, range.getStart(), range.getLength(), out, bufferSize);
+    }
+    out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+    recordTransfer(ContentTransferProperties.DOWNLOAD_MODE.CHANNEL, transferred, System.nanoTime() - start);
+  }
+
+  /**
+   * Delegate the transfer of the bytes 'start' (inclusive) to 'end'
+   * (exclusive) of the provided file to the servlet container, if the
+   * download mode is SENDFILE and the container supports sendfile.
+   *
+   * @return TRUE if the transfer was delegated, FALSE otherwise.
+   */
+  private boolean trySendfile(Path localFile, long start, long end, HttpServletRequest request) throws IOException{
+    if(getDownloadMode() != ContentTransferProperties.DOWNLOAD_MODE.SENDFILE){
+      return false;
+    }
+    if(request == null || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))){
+      logger.trace("Sendfile not supported by servlet container. Falling back to download mode {}.", ContentTransferProperties.DOWNLOAD_MODE.CHANNEL);
+      return false;
+    }
+    logger.trace("Delegating transfer of {} to servlet container via sendfile.", localFile);
+    request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, localFile.toFile().getCanonicalPath());
+    request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+    request.setAttribute(SENDFILE_END_ATTRIBUTE, end);
+    return true;
+  }
+
+  private ContentTransferProperties.DOWNLOAD_MODE getDownloadMode(){
+    return (transferProperties != null) ? transferProperties.getDownloadMode() : ContentTransferProperties.DOWNLOAD_MODE.STREAM;
+  }
+
+  private HttpServletRequest getCurrentRequest(){
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if(attributes instanceof ServletRequestAttributes){
+      return ((ServletRequestAttributes) attributes).getRequest();
+    }
+    return null;
+  }
+
+  /**
+   * Record the number of bytes transferred. Used for sendfile, where the
+   * container transfers the bytes after the response has been handed over,
+   * thus, no meaningful duration can be measured here.
+   */
+  private void recordTransfer(ContentTransferProperties.DOWNLOAD_MODE mode, long bytes){
+    ServiceMetrics.countBytes("download", bytes);
+    if(meterRegistry != null){
+      Counter.builder(MonitoringUtil.getServiceName() + "_download_bytes").tag("mode", mode.toString()).register(meterRegistry).increment(Math.max(0, bytes));
+    }
+  }
+
+  /**
+   * Record the number of bytes transferred and the transfer duration, which
+   * allows to derive the download throughput per download mode.
+   */
+  private void recordTransfer(ContentTransferProperties.DOWNLOAD_MODE mode, long bytes, long durationNanos){
+    recordTransfer(mode, bytes);
+    if(meterRegistry == null){
+      return;
+    }
+    String prefixMetrics = MonitoringUtil.getServiceName();
+    Timer.builder(prefixMetrics + "_download_duration").tag("mode", mode.toString()).register(meterRegistry).record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
   @Override
   public boolean canProvide(String schema){
     return "file".equals(schema);
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.service.impl;
+
+import edu.kit.datamanager.repo.configuration.MessagingPublisherProperties;
+import edu.kit.datamanager.repo.dao.IAMQPMessageDao;
+import edu.kit.datamanager.repo.domain.AMQPMessage;
+import edu.kit.datamanager.repo.util.ServiceMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Relay publishing the messages of the outbox table. Due messages are read in
+ * batches ordered by id, published using a single channel and removed by a
+ * bulk delete afterwards. Messages of one aggregate are published in the
+ * order they were written, as later messages are not read as long as an
+ * earlier message of the same aggregate is deferred. If publishing fails,
+ * the messages of the batch are deferred using an exponential backoff.
+ *
+ * Messages are delivered at least once, e.g. a batch is published again if
+ * deleting it from the outbox table fails.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+    /**
+     * Name of this service used for tagging metrics.
+     */
+    private static final String SERVICE_NAME = "OutboxRelay";
+
+    private final MessagingPublisherProperties properties;
+    private final IAMQPMessageDao messageDao;
+    private final AsyncMessagePublisher publisher;
+    private int consecutiveFailures = 0;
+    private Instant pausedUntil = Instant.MIN;
+
+    /**
+     * Default constructor.
+     *
+     * @param properties The publisher configuration.
+     * @param messageDao The outbox repository.
+     * @param publisher The publisher used for sending batches.
+     */
+    @Autowired
+    public OutboxRelay(MessagingPublisherProperties properties, IAMQPMessageDao messageDao, AsyncMessagePublisher publisher) {
+        this.properties = properties;
+        this.messageDao = messageDao;
+        this.publisher = publisher;
+    }
+
+    /**
+     * Check whether messages are written to the outbox table.
+     *
+     * @return TRUE if the outbox is enabled.
+     */
+    public boolean isEnabled() {
+        return properties.isOutbox();
+    }
+
+    /**
+     * Write a message to the outbox table. If a transaction is active, the
+     * message is written within this transaction, i.e., it is only published
+     * if the transaction is committed.
+     *
+     * @param message The message.
+     *
+     * @return The persisted message.
+     */
+    public AMQPMessage store(AMQPMessage message) {
+        return messageDao.save(message);
+    }
+
+    /**
+     * Publish all due messages of the outbox table. Publishing stops at the
+     * first failed batch and is paused until the backoff has elapsed. The
+     * relay also publishes messages preserved by the publisher if the outbox
+     * is disabled.
+     *
+     * @return The number of published messages.
+     */
+    @Scheduled(fixedDelayString = "${repo.messaging.publisher.relayInterval:PT1S}")
+    public synchronized int relay() {
+        if (!publisher.isMessagingEnabled() || Instant.now().isBefore(pausedUntil)) {
+            return 0;
+        }
+        int published = 0;
+        long start = System.nanoTime();
+        try {
+            while (true) {
+                Instant now = Instant.now();
+                List<AMQPMessage> batch = messageDao.findDueMessages(now, PageRequest.of(0, properties.getRelayBatchSize()));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = batch.stream().map(AMQPMessage::getId).collect(Collectors.toList());
+                try {
+                    publisher.sendBatch(batch);
+                } catch (AmqpException ex) {
+                    consecutiveFailures++;
+                    Duration backoff = getBackoff(consecutiveFailures);
+                    pausedUntil = now.plus(backoff);
+                    messageDao.deferAllByIdIn(ids, pausedUntil);
+                    LOGGER.error("Failed to publish " + batch.size() + " message(s) from outbox. Retrying in " + backoff + ".", ex);
+                    ServiceMetrics.recordDuration(SERVICE_NAME, "relay", ex, System.nanoTime() - start);
+                    return published;
+                }
+                consecutiveFailures = 0;
+                messageDao.deleteAllByIdIn(ids);
+                published += batch.size();
+                if (batch.size() < properties.getRelayBatchSize()) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.error("Failed to relay messages from outbox.", ex);
+            ServiceMetrics.recordDuration(SERVICE_NAME, "relay", ex, System.nanoTime() - start);
+            return published;
+        }
+        if (published > 0) {
+            LOGGER.trace("Relayed {} message(s) from outbox.", published);
+            ServiceMetrics.recordDuration(SERVICE_NAME, "relay", null, System.nanoTime() - start);
+        }
+        return published;
+    }
+
+    /**
+     * Get the backoff after the provided number of consecutive failures.
+     *
+     * @param failures The number of consecutive failures.
+     *
+     * @return The backoff.
+     */
+    protected Duration getBackoff(int failures) {
+        Duration max = properties.getMaxBackoff();
+        //avoid overflow for long outages
+        int exponent = Math.min(failures - 1, 30);
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << exponent);
+        return backoff.compareTo(max) > 0 ? max : backoff;
+    }
+}
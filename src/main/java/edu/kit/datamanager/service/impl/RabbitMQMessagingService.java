@@ -17,10 +17,12 @@ package edu.kit.datamanager.service.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import edu.kit.datamanager.configuration.RabbitMQConfiguration;
+import edu.kit.datamanager.entities.messaging.BasicMessage;
 import edu.kit.datamanager.entities.messaging.IAMQPSubmittable;
 import edu.kit.datamanager.repo.dao.IAMQPMessageDao;
 import edu.kit.datamanager.repo.dao.DummyAMQPMessageDao;
 import edu.kit.datamanager.repo.domain.AMQPMessage;
+import edu.kit.datamanager.repo.util.ServiceMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import edu.kit.datamanager.service.IMessagingService;
 import java.util.Optional;
@@ -29,8 +31,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.amqp.AmqpConnectException;
 import org.springframework.amqp.AmqpException;
 import org.springframework.boot.actuate.health.Health;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 /**
@@ -44,37 +44,66 @@ public class RabbitMQMessagingService implements IMessagingService {
     private Optional<RabbitMQConfiguration> configuration;
     @Autowired
     private Optional<IAMQPMessageDao> messageDao;
+    @Autowired(required = false)
+    private AsyncMessagePublisher publisher;
+    @Autowired(required = false)
+    private OutboxRelay outboxRelay;
     private static final Logger logger = LoggerFactory.getLogger(RabbitMQMessagingService.class);
+    /**
+     * Name of this service used for tagging metrics.
+     */
+    private static final String SERVICE_NAME = "RabbitMQMessagingService";
 
     @Override
     public void send(IAMQPSubmittable msg) {
         logger.trace("Processing new AMQPSubmittable via RabbitMQMessagingService.");
         if (configuration.isPresent() && configuration.get().isMessagingEnabled()) {
             logger.trace("Messaging enabled, serializing and submitting message.");
+            if ((outboxRelay != null && outboxRelay.isEnabled()) || (publisher != null && publisher.isAsync())) {
+                try {
+                    //serialize in the calling thread as the message may be modified afterwards
+                    String aggregateId = (msg instanceof BasicMessage) ? ((BasicMessage) msg).getEntityId() : null;
+                    AMQPMessage envelope = new AMQPMessage(configuration.get().rabbitMQExchange().getName(), msg.getRoutingKey(), msg.toJson(), aggregateId);
+                    if (outboxRelay != null && outboxRelay.isEnabled()) {
+                        logger.trace("Writing message {} to outbox.", envelope.getMessage());
+                        outboxRelay.store(envelope);
+                    } else {
+                        logger.trace("Submitting message {} for asynchronous publishing.", envelope.getMessage());
+                        publisher.submit(envelope);
+                    }
+                } catch (JsonProcessingException ex) {
+                    logger.error("Failed to send message " + msg + ". Unable to serialize message to JSON.", ex);
+                }
+                return;
+            }
             boolean messagePreservationRequired = true;
             String msgString = null;
             String msgRoute = null;
             String exchangeName = null;
+            long start = System.nanoTime();
             try {
                 msgString = msg.toJson();
                 msgRoute = msg.getRoutingKey();
                 exchangeName = configuration.get().rabbitMQExchange().getName();
                 logger.trace("Sending message {} via exchange {} and route {}.", msgString, exchangeName, msgRoute);
                 configuration.get().rabbitMQTemplate().convertAndSend(configuration.get().rabbitMQExchange().getName(), msgRoute, msgString);
+                ServiceMetrics.recordDuration(SERVICE_NAME, "send", null, System.nanoTime() - start);
                 logger.trace("Message sent.");
                 messagePreservationRequired = false;
-                checkAndSendPreservedMessages();
             } catch (JsonProcessingException ex) {
                 logger.error("Failed to send message " + msg + ". Unable to serialize message to JSON.", ex);
+                ServiceMetrics.recordDuration(SERVICE_NAME, "send", ex, System.nanoTime() - start);
                 messagePreservationRequired = false;
             } catch (AmqpConnectException amqpce) {
                 logger.error("Failed to send message. Connection to message queue failed.", amqpce);
+                ServiceMetrics.recordDuration(SERVICE_NAME, "send", amqpce, System.nanoTime() - start);
             } catch (AmqpException e) {
                 logger.error("Failed to send message. Unexpected exception occured.", e);
+                ServiceMetrics.recordDuration(SERVICE_NAME, "send", e, System.nanoTime() - start);
             } finally {
                 if (messagePreservationRequired) {
                     AMQPMessage messageToPersist = new AMQPMessage(exchangeName, msgRoute, msgString);
-                    logger.trace("Persisting unsent AMQP message to database.");
+                    logger.trace("Persisting unsent AMQP message to outbox for submission by relay.");
                     messageToPersist = messageDao.orElse(new DummyAMQPMessageDao()).save(messageToPersist);
                     logger.trace("AMQP message successfully persisted with id {} for later submission.", messageToPersist.getId());
                 }
@@ -84,31 +113,6 @@ public class RabbitMQMessagingService implements IMessagingService {
         }
     }
 
-    /**
-     * Resubmission of messages stored in the database in case the message queue
-     * is down.
-     */
-    private void checkAndSendPreservedMessages() {
-        logger.trace("Checking for unsubmitted messages.");
-        Page<AMQPMessage> messages = messageDao.orElse(new DummyAMQPMessageDao()).findAll(PageRequest.of(0, 100));
-
-        int count = messages.getContent().size();
-        logger.trace("Found {} unsubmitted messages in database.", count);
-        messages.getContent().stream().map(msg -> {
-            logger.trace("Removing message #{} from database.", msg.getId());
-            return msg;
-        }).map(msg -> {
-            messageDao.orElse(new DummyAMQPMessageDao()).delete(msg);
-            return msg;
-        }).map(msg -> {
-            logger.trace("Resending message.");
-            return msg;
-        }).forEachOrdered(msg -> {
-            send(msg);
-        });
-        logger.trace("{} unsubmitted messages remaining.", (messages.getTotalElements() - count));
-    }
-
     @Override
     public Health health() {
         logger.trace("Obtaining health information.");
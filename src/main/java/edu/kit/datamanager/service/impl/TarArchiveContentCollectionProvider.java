@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.service.impl;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import edu.kit.datamanager.entities.ContentElement;
+import edu.kit.datamanager.exceptions.CustomInternalServerError;
+import edu.kit.datamanager.repo.configuration.ContentTransferProperties;
+import edu.kit.datamanager.repo.service.IRepoVersioningService;
+import edu.kit.datamanager.repo.util.ContentTransferUtils;
+import edu.kit.datamanager.repo.util.ParallelGzipOutputStream;
+import edu.kit.datamanager.repo.util.VersioningServiceRegistry;
+import edu.kit.datamanager.service.IContentCollectionProvider;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.NotEmpty;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.UnsupportedMediaTypeStatusException;
+
+/**
+ * Collection provider packaging file content as tar stream, which requires no
+ * central directory and can be piped directly into 'tar x'. Depending on the
+ * requested media type the stream is written uncompressed
+ * (application/x-tar), gzip-compressed in parallel blocks (application/gzip)
+ * or zstd-compressed using multiple zstd workers (application/zstd).
+ */
+@Component
+public class TarArchiveContentCollectionProvider implements IContentCollectionProvider{
+
+  private final static Logger LOGGER = LoggerFactory.getLogger(TarArchiveContentCollectionProvider.class);
+
+  public final static MediaType TAR_MEDIA_TYPE = MediaType.parseMediaType("application/x-tar");
+  public final static MediaType TAR_GZIP_MEDIA_TYPE = MediaType.parseMediaType("application/gzip");
+  public final static MediaType TAR_ZSTD_MEDIA_TYPE = MediaType.parseMediaType("application/zstd");
+  private static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+  private static final int DEFAULT_ZSTD_LEVEL = 3;
+
+  @Autowired(required = false)
+  private IRepoVersioningService[] versioningServices;
+
+  @Autowired(required = false)
+  private ContentTransferProperties transferProperties;
+
+  private ExecutorService executor;
+
+  private volatile VersioningServiceRegistry versioningServiceRegistry;
+
+  @Override
+  public void provide(@NotEmpty List<ContentElement> collection, MediaType mediaType, HttpServletResponse response){
+    if(!supportsMediaType(mediaType)){
+      LOGGER.error("Unsupported media type {} received. Throwing HTTP 415 (UNSUPPORTED_MEDIA_TYPE).", mediaType);
+      throw new UnsupportedMediaTypeStatusException(mediaType, Arrays.asList(getSupportedMediaTypes()));
+    }
+
+    if(versioningServices == null){
+      //should never happen
+      throw new CustomInternalServerError("No versioning service found. Unable to provide any content.");
+    }
+
+    LOGGER.trace("Setting content type {}.", mediaType);
+    response.setContentType(mediaType.toString());
+    LOGGER.trace("Starting packaging operation.");
+    try{
+      OutputStream out = response.getOutputStream();
+      TarCollectionEngine engine = new TarCollectionEngine(getVersioningServices(), ContentTransferUtils.getBufferSize(transferProperties));
+      if(TAR_GZIP_MEDIA_TYPE.toString().equals(mediaType.toString())){
+        ParallelGzipOutputStream gzipOut = new ParallelGzipOutputStream(CloseShieldOutputStream.wrap(out), getExecutor(), getThreads(), getBlockSize(), getCompressionLevel());
+        try(gzipOut){
+          engine.write(collection, gzipOut);
+        }
+      } else if(TAR_ZSTD_MEDIA_TYPE.toString().equals(mediaType.toString())){
+        try(ZstdOutputStream zstdOut = new ZstdOutputStream(CloseShieldOutputStream.wrap(out), getZstdCompressionLevel())){
+          zstdOut.setWorkers(getThreads());
+          engine.write(collection, zstdOut);
+        }
+      } else{
+        engine.write(collection, out);
+      }
+      //status can only be set once, thus it is set at the very end in order to be able to report errors
+      response.setStatus(HttpServletResponse.SC_OK);
+      out.flush();
+      LOGGER.trace("Tar operation successfully finished.");
+    } catch(Exception e){
+      LOGGER.error("Failed to package requested collection.", e);
+      response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  private int getThreads(){
+    return (transferProperties != null) ? transferProperties.getArchiveThreads() : Runtime.getRuntime().availableProcessors();
+  }
+
+  private int getBlockSize(){
+    return (transferProperties != null) ? transferProperties.getArchiveBlockSize() : DEFAULT_BLOCK_SIZE;
+  }
+
+  private int getCompressionLevel(){
+    return (transferProperties != null) ? transferProperties.getArchiveCompressionLevel() : Deflater.DEFAULT_COMPRESSION;
+  }
+
+  private int getZstdCompressionLevel(){
+    return (transferProperties != null) ? transferProperties.getArchiveZstdCompressionLevel() : DEFAULT_ZSTD_LEVEL;
+  }
+
+  private VersioningServiceRegistry getVersioningServices(){
+    VersioningServiceRegistry registry = versioningServiceRegistry;
+    if(registry == null){
+      registry = new VersioningServiceRegistry(versioningServices);
+      versioningServiceRegistry = registry;
+    }
+    return registry;
+  }
+
+  private synchronized ExecutorService getExecutor(){
+    if(executor == null){
+      executor = Executors.newFixedThreadPool(getThreads(), (r) -> {
+        Thread t = new Thread(r, "gzip-worker");
+        t.setDaemon(true);
+        return t;
+      });
+    }
+    return executor;
+  }
+
+  @Override
+  public boolean canProvide(String schema){
+    LOGGER.trace("Calling canProvide({}).", schema);
+    return "file".equals(schema);
+  }
+
+  @Override
+  public boolean supportsMediaType(MediaType mediaType){
+    LOGGER.trace("Calling supportsMediaType({}).", mediaType);
+    if(mediaType == null){
+      return false;
+    }
+    for(MediaType supported : getSupportedMediaTypes()){
+      if(supported.toString().equals(mediaType.toString())){
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public MediaType[] getSupportedMediaTypes(){
+    LOGGER.trace("Calling getSupportedMediaTypes().");
+    return new MediaType[]{TAR_MEDIA_TYPE, TAR_GZIP_MEDIA_TYPE, TAR_ZSTD_MEDIA_TYPE};
+  }
+}
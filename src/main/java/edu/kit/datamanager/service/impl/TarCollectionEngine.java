@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.service.impl;
+
+import edu.kit.datamanager.entities.ContentElement;
+import edu.kit.datamanager.repo.service.IRepoVersioningService;
+import edu.kit.datamanager.repo.util.ContentTransferUtils;
+import edu.kit.datamanager.repo.util.TarArchiveWriter;
+import edu.kit.datamanager.repo.util.VersioningServiceRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Engine writing a collection of content elements as tar archive. Entries are
+ * written one after another while iterating over the collection, thus, the
+ * archive can be consumed, e.g. by 'tar x', while it is produced. Local files
+ * are transferred directly, all other content is read via its versioning
+ * service using the content length of the element as entry size. Content
+ * without known length is spooled to a temporary file first. Elements which
+ * cannot be served, e.g. as no versioning service is available or as their
+ * local file is missing, are skipped before writing their entry header, such
+ * that the archive remains valid. Compression is applied by wrapping the
+ * output stream.
+ */
+public class TarCollectionEngine{
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TarCollectionEngine.class);
+
+  private final VersioningServiceRegistry versioningServices;
+  private final int bufferSize;
+
+  /**
+   * Create a new engine.
+   *
+   * @param versioningServices All versioning services by name.
+   * @param bufferSize The buffer size for copying content.
+   */
+  public TarCollectionEngine(VersioningServiceRegistry versioningServices, int bufferSize){
+    this.versioningServices = versioningServices;
+    this.bufferSize = bufferSize;
+  }
+
+  /**
+   * Write the provided collection as tar archive.
+   *
+   * @param collection The content elements.
+   * @param out The destination, which is not closed.
+   *
+   * @throws IOException If reading or writing fails.
+   */
+  public void write(List<ContentElement> collection, OutputStream out) throws IOException{
+    TarArchiveWriter tar = new TarArchiveWriter(out);
+    for(ContentElement element : collection){
+      IRepoVersioningService versioningService = getVersioningService(element.getVersioningService());
+      if(versioningService == null){
+        LOGGER.warn("No versioning service found for element {}. Skipping element.", element.getRelativePath());
+        continue;
+      }
+      Path localFile = getLocalFile(element, versioningService);
+      if(localFile == null && isLocalFileUri(element, versioningService)){
+        LOGGER.warn("Content of element {} not found at {}. Skipping element.", element.getRelativePath(), element.getContentUri());
+        continue;
+      }
+      LOGGER.trace("Adding new tar entry for element {} (local: {}).", element.getRelativePath(), localFile != null);
+      if(localFile != null){
+        long size = Files.size(localFile);
+        tar.putEntry(element.getRelativePath(), size);
+        ContentTransferUtils.transfer(localFile, 0, size, tar.getEntryStream(), bufferSize);
+        tar.closeEntry();
+        continue;
+      }
+      Long length = element.getContentLength();
+      if(length != null && length >= 0){
+        tar.putEntry(element.getRelativePath(), length);
+        read(versioningService, element, tar.getEntryStream());
+        tar.closeEntry();
+      } else{
+        writeSpooled(tar, versioningService, element);
+      }
+    }
+    tar.finish();
+  }
+
+  private void writeSpooled(TarArchiveWriter tar, IRepoVersioningService versioningService, ContentElement element) throws IOException{
+    Path spool = Files.createTempFile("tar-spool", null);
+    try{
+      try(OutputStream spoolOut = Files.newOutputStream(spool)){
+        read(versioningService, element, spoolOut);
+      }
+      long size = Files.size(spool);
+      tar.putEntry(element.getRelativePath(), size);
+      ContentTransferUtils.transfer(spool, 0, size, tar.getEntryStream(), bufferSize);
+      tar.closeEntry();
+    } finally{
+      Files.deleteIfExists(spool);
+    }
+  }
+
+  private void read(IRepoVersioningService versioningService, ContentElement element, OutputStream destination){
+    Map<String, String> options = new HashMap<>();
+    options.put("contentUri", element.getContentUri());
+    options.put("checksum", element.getChecksum());
+    options.put("size", Long.toString(element.getContentLength()));
+    versioningService.read(element.getResourceId(), null, element.getRelativePath(), element.getFileVersion(), destination, options);
+  }
+
+  private Path getLocalFile(ContentElement element, IRepoVersioningService versioningService){
+    if(!isLocalFileUri(element, versioningService)){
+      return null;
+    }
+    Path file = Paths.get(URI.create(element.getContentUri()));
+    return Files.isRegularFile(file) ? file : null;
+  }
+
+  /**
+   * Check if the content of an element is a local file accessed directly, in
+   * which case the versioning service cannot serve it if the file is missing.
+   */
+  private boolean isLocalFileUri(ContentElement element, IRepoVersioningService versioningService){
+    return versioningService.supportsDirectFileAccess() && element.getContentUri() != null
+            && "file".equals(URI.create(element.getContentUri()).getScheme());
+  }
+
+  private IRepoVersioningService getVersioningService(String name){
+    return (versioningServices != null) ? versioningServices.get(name) : null;
+  }
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.service.impl;
+
+import edu.kit.datamanager.entities.ContentElement;
+import edu.kit.datamanager.repo.service.IRepoVersioningService;
+import edu.kit.datamanager.repo.util.ContentIngestUtils;
+import edu.kit.datamanager.repo.util.ContentTransferUtils;
+import edu.kit.datamanager.repo.util.DeflateUtils;
+import edu.kit.datamanager.repo.util.MediaTypedCollection;
+import edu.kit.datamanager.repo.util.MediaTypedCollection.TypedElement;
+import edu.kit.datamanager.repo.util.VersioningServiceRegistry;
+import edu.kit.datamanager.repo.util.ZipArchiveWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+
+/**
+ * Engine writing a collection of content elements as ZIP archive. Local files
+ * are split into blocks, which are read and compressed in parallel by a worker
+ * pool and written in their original order. The number of blocks in flight is
+ * limited, which bounds the memory used per download. Content of
+ * incompressible media types is added as STORED entry. Content which cannot be
+ * accessed directly is read via its versioning service and compressed by the
+ * calling thread.
+ */
+public class ZipCollectionEngine{
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ZipCollectionEngine.class);
+
+  private final VersioningServiceRegistry versioningServices;
+  private final ExecutorService executor;
+  private final int blockSize;
+  private final int compressionLevel;
+  private final int maxBlocksInFlight;
+  private final int bufferSize;
+  private final List<MediaType> incompressibleMediaTypes = new ArrayList<>();
+
+  /**
+   * Create a new engine.
+   *
+   * @param versioningServices All versioning services by name.
+   * @param executor The worker pool used for reading and compressing blocks.
+   * @param threads The number of threads of the worker pool.
+   * @param blockSize The size of blocks.
+   * @param compressionLevel The deflate compression level.
+   * @param incompressibleMediaTypes Media types which are not compressed.
+   * @param bufferSize The buffer size for copying STORED content.
+   */
+  public ZipCollectionEngine(VersioningServiceRegistry versioningServices, ExecutorService executor, int threads, int blockSize, int compressionLevel, List<String> incompressibleMediaTypes, int bufferSize){
+    this.versioningServices = versioningServices;
+    this.executor = executor;
+    this.blockSize = blockSize;
+    this.compressionLevel = compressionLevel;
+    //keep all workers busy while the calling thread writes the head block
+    this.maxBlocksInFlight = Math.max(2, threads * 2);
+    this.bufferSize = bufferSize;
+    if(incompressibleMediaTypes != null){
+      incompressibleMediaTypes.forEach((type) -> this.incompressibleMediaTypes.add(MediaType.parseMediaType(type)));
+    }
+  }
+
+  /**
+   * Write the provided collection as ZIP archive.
+   *
+   * @param collection The content elements. If the collection is a
+   * MediaTypedCollection, the media types of its elements are used for
+   * deciding whether to compress them.
+   * @param out The destination, which is not closed.
+   *
+   * @throws IOException If reading or writing fails.
+   */
+  public void write(List<ContentElement> collection, OutputStream out) throws IOException{
+    ZipArchiveWriter zip = new ZipArchiveWriter(out);
+    BlockScheduler scheduler = new BlockScheduler(MediaTypedCollection.typedIterator(collection));
+    try{
+      EntryPlan plan;
+      while((plan = scheduler.nextPlan()) != null){
+        LOGGER.trace("Adding new zip entry for element {} (local: {}, stored: {}).", plan.element.getRelativePath(), plan.localFile != null, plan.stored);
+        if(plan.localFile == null){
+          writeStreamed(zip, plan);
+        } else if(plan.stored){
+          writeStored(zip, plan, scheduler);
+        } else{
+          writeDeflated(zip, plan, scheduler);
+        }
+      }
+      zip.finish();
+    } finally{
+      scheduler.cancel();
+    }
+  }
+
+  /**
+   * Check if the provided media type denotes already compressed content.
+   *
+   * @param mediaType The media type, which might be null.
+   *
+   * @return TRUE if the content should not be compressed.
+   */
+  public boolean isIncompressible(String mediaType){
+    if(mediaType == null){
+      return false;
+    }
+    try{
+      MediaType type = MediaType.parseMediaType(mediaType);
+      return incompressibleMediaTypes.stream().anyMatch((t) -> t.includes(type));
+    } catch(RuntimeException ex){
+      LOGGER.trace("Failed to parse media type {}. Treating content as compressible.", mediaType);
+      return false;
+    }
+  }
+
+  private EntryPlan plan(ContentElement element, String mediaType) throws IOException{
+    EntryPlan plan = new EntryPlan();
+    plan.element = element;
+    plan.versioningService = getVersioningService(element.getVersioningService());
+    if(mediaType == null){
+      mediaType = ContentIngestUtils.detectMediaType(new byte[0], Paths.get(element.getRelativePath()).getFileName().toString());
+    }
+    plan.stored = isIncompressible(mediaType);
+    URI contentUri = URI.create(element.getContentUri());
+    if(plan.versioningService != null && plan.versioningService.supportsDirectFileAccess() && "file".equals(contentUri.getScheme())){
+      Path file = Paths.get(contentUri);
+      if(Files.isRegularFile(file)){
+        plan.localFile = file;
+        plan.size = Files.size(file);
+        plan.blocks = (plan.size == 0) ? 1 : (int) ((plan.size + blockSize - 1) / blockSize);
+      }
+    }
+    return plan;
+  }
+
+  private void writeDeflated(ZipArchiveWriter zip, EntryPlan plan, BlockScheduler scheduler) throws IOException{
+    zip.putDeflatedEntry(plan.element.getRelativePath(), plan.size);
+    long crc = 0;
+    long size = 0;
+    for(int i = 0; i < plan.blocks; i++){
+      Block block = scheduler.next();
+      zip.write(block.data, 0, block.data.length);
+      crc = ZipArchiveWriter.combineCrc32(crc, block.crc, block.length);
+      size += block.length;
+    }
+    zip.closeEntry(crc, size);
+  }
+
+  private void writeStored(ZipArchiveWriter zip, EntryPlan plan, BlockScheduler scheduler) throws IOException{
+    if(plan.blocks == 1){
+      //small entry, block holds the content
+      Block block = scheduler.next();
+      zip.putStoredEntry(plan.element.getRelativePath(), block.length, block.crc);
+      zip.write(block.data, 0, block.length);
+      zip.closeEntry(block.crc, block.length);
+      return;
+    }
+    //large entry, blocks only provide checksums, content is copied afterwards
+    long crc = 0;
+    for(int i = 0; i < plan.blocks; i++){
+      Block block = scheduler.next();
+      crc = ZipArchiveWriter.combineCrc32(crc, block.crc, block.length);
+    }
+    zip.putStoredEntry(plan.element.getRelativePath(), plan.size, crc);
+    long transferred = ContentTransferUtils.transfer(plan.localFile, 0, plan.size, zip.getEntryStream(), bufferSize);
+    zip.closeEntry(crc, transferred);
+  }
+
+  private void writeStreamed(ZipArchiveWriter zip, EntryPlan plan) throws IOException{
+    zip.putDeflatedEntry(plan.element.getRelativePath(), plan.element.getContentLength());
+    Deflater deflater = new Deflater(plan.stored ? Deflater.NO_COMPRESSION : compressionLevel, true);
+    try{
+      CRC32 crc = new CRC32();
+      ByteCounter counter = new ByteCounter();
+      DeflaterOutputStream deflaterOut = new DeflaterOutputStream(zip.getEntryStream(), deflater, bufferSize);
+      CheckedOutputStream checkedOut = new CheckedOutputStream(deflaterOut, crc){
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException{
+          super.write(b, off, len);
+          counter.count += len;
+        }
+
+        @Override
+        public void write(int b) throws IOException{
+          super.write(b);
+          counter.count++;
+        }
+      };
+      if(plan.versioningService != null){
+        Map<String, String> options = new HashMap<>();
+        options.put("contentUri", plan.element.getContentUri());
+        options.put("checksum", plan.element.getChecksum());
+        options.put("size", Long.toString(plan.element.getContentLength()));
+        plan.versioningService.read(plan.element.getResourceId(), null, plan.element.getRelativePath(), plan.element.getFileVersion(), checkedOut, options);
+      }
+      deflaterOut.finish();
+      zip.closeEntry(crc.getValue(), counter.count);
+    } finally{
+      deflater.end();
+    }
+  }
+
+  private IRepoVersioningService getVersioningService(String name){
+    return (versioningServices != null) ? versioningServices.get(name) : null;
+  }
+
+  private Block readBlock(EntryPlan plan, long offset, boolean last) throws IOException{
+    int length = (int) Math.min(blockSize, plan.size - offset);
+    Block block = new Block();
+    try(FileChannel channel = FileChannel.open(plan.localFile, StandardOpenOption.READ)){
+      byte[] data = new byte[length];
+      readFully(channel, data, offset);
+      CRC32 crc = new CRC32();
+      crc.update(data, 0, length);
+      block.crc = crc.getValue();
+      block.length = length;
+      if(plan.stored){
+        //keep data only for single block entries, large entries are copied later
+        block.data = (plan.blocks == 1) ? data : null;
+      } else{
+        byte[] dictionary = null;
+        if(offset > 0){
+          dictionary = new byte[(int) Math.min(DeflateUtils.DICTIONARY_SIZE, offset)];
+          readFully(channel, dictionary, offset - dictionary.length);
+        }
+        block.data = DeflateUtils.deflateBlock(data, length, dictionary, compressionLevel, last);
+      }
+    }
+    return block;
+  }
+
+  private static void readFully(FileChannel channel, byte[] data, long position) throws IOException{
+    ByteBuffer buffer = ByteBuffer.wrap(data);
+    while(buffer.hasRemaining()){
+      if(channel.read(buffer, position + buffer.position()) < 0){
+        throw new EOFException("File shrunk while creating archive.");
+      }
+    }
+  }
+
+  private static class EntryPlan{
+
+    private ContentElement element;
+    private IRepoVersioningService versioningService;
+    private Path localFile;
+    private long size;
+    private int blocks;
+    private boolean stored;
+  }
+
+  private static class Block{
+
+    private byte[] data;
+    private int length;
+    private long crc;
+  }
+
+  private static class ByteCounter{
+
+    private long count = 0;
+  }
+
+  /**
+   * Plans entries while iterating over the collection and submits block tasks
+   * of all local entries in archive order, keeping at most maxBlocksInFlight
+   * blocks submitted but not yet consumed. Elements are only obtained from the
+   * collection iterator as far as needed for filling the window, thus lazily
+   * loaded collections are consumed incrementally.
+   */
+  private class BlockScheduler{
+
+    private final Iterator<TypedElement> elements;
+    private final Deque<Future<Block>> window = new ArrayDeque<>();
+    //planned entries not yet handed over for writing
+    private final Deque<EntryPlan> planned = new ArrayDeque<>();
+    //planned local entries whose blocks are not yet submitted
+    private final Deque<EntryPlan> unscheduled = new ArrayDeque<>();
+    private EntryPlan scheduling;
+    private int blockIndex = 0;
+
+    BlockScheduler(Iterator<TypedElement> elements){
+      this.elements = elements;
+    }
+
+    EntryPlan nextPlan() throws IOException{
+      fill();
+      if(planned.isEmpty() && elements.hasNext()){
+        //window is full of blocks of the entry written before
+        planned.add(plan(elements.next()));
+      }
+      return planned.poll();
+    }
+
+    Block next() throws IOException{
+      fill();
+      Future<Block> future = window.poll();
+      if(future == null){
+        throw new IOException("No block scheduled.");
+      }
+      try{
+        Block block = future.get();
+        fill();
+        return block;
+      } catch(InterruptedException ex){
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while creating archive.");
+      } catch(ExecutionException ex){
+        if(ex.getCause() instanceof IOException){
+          throw (IOException) ex.getCause();
+        }
+        throw new IOException("Failed to compress archive entry.", ex.getCause());
+      }
+    }
+
+    void cancel(){
+      window.forEach((f) -> f.cancel(true));
+      window.clear();
+    }
+
+    private EntryPlan plan(TypedElement element) throws IOException{
+      EntryPlan plan = ZipCollectionEngine.this.plan(element.getElement(), element.getMediaType());
+      if(plan.localFile != null){
+        unscheduled.add(plan);
+      }
+      return plan;
+    }
+
+    private void fill() throws IOException{
+      while(window.size() < maxBlocksInFlight){
+        if(scheduling == null || blockIndex >= scheduling.blocks){
+          scheduling = unscheduled.poll();
+          blockIndex = 0;
+          if(scheduling == null){
+            //bound lookahead for collections without local entries
+            if(planned.size() >= maxBlocksInFlight || !elements.hasNext()){
+              return;
+            }
+            planned.add(plan(elements.next()));
+          }
+          continue;
+        }
+        EntryPlan plan = scheduling;
+        long offset = (long) blockIndex * blockSize;
+        boolean last = blockIndex == plan.blocks - 1;
+        window.add(executor.submit(() -> readBlock(plan, offset, last)));
+        blockIndex++;
+      }
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.perf;
+
+import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
+import edu.kit.datamanager.repo.configuration.StorageServiceProperties;
+import edu.kit.datamanager.repo.dao.IAllIdentifiersDao;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.ResourceType;
+import edu.kit.datamanager.repo.domain.Title;
+import edu.kit.datamanager.repo.service.IDataResourceService;
+import edu.kit.datamanager.repo.service.impl.DataResourceAuditService;
+import edu.kit.datamanager.repo.service.impl.DateBasedStorageService;
+import edu.kit.datamanager.repo.service.impl.NoneDataVersioningService;
+import edu.kit.datamanager.util.AuthenticationHelper;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import org.javers.core.Javers;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+/**
+ * Throughput benchmark comparing the creation of data resources one at a time
+ * with the bulk create operation. The benchmark is skipped unless the system
+ * property 'repo.benchmark' is set to true. The number of resources can be set
+ * via 'repo.benchmark.resources'.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestExecutionListeners(listeners = {DependencyInjectionTestExecutionListener.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.datasource.url=jdbc:h2:mem:db_bulk_create_benchmark;DB_CLOSE_DELAY=-1;MODE=LEGACY;NON_KEYWORDS=VALUE"})
+@TestPropertySource(properties = {"spring.jpa.properties.hibernate.jdbc.batch_size=50", "spring.jpa.properties.hibernate.order_inserts=true"})
+public class BulkCreateBenchmark {
+
+  @Autowired
+  private IDataResourceService service;
+  @Autowired
+  private IDataResourceDao dao;
+  @Autowired
+  private IAllIdentifiersDao allIdentifiersDao;
+  @Autowired
+  private StorageServiceProperties storageServiceProperties;
+  @Autowired
+  private Javers javers;
+
+  @Test
+  public void benchmarkCreate() throws Exception {
+    Assume.assumeTrue(Boolean.getBoolean("repo.benchmark"));
+    int count = Integer.getInteger("repo.benchmark.resources", 2000);
+    RepoBaseConfiguration configuration = new RepoBaseConfiguration();
+    configuration.setBasepath(new URL("file:///tmp/repo-base"));
+    DateBasedStorageService storageService = new DateBasedStorageService();
+    storageService.configure(storageServiceProperties);
+    configuration.setStorageService(storageService);
+    configuration.setReadOnly(false);
+    configuration.setVersioningService(new NoneDataVersioningService());
+    configuration.setAuditService(new DataResourceAuditService(javers, configuration));
+    service.configure(configuration);
+
+    //warm up both implementations
+    createSingle(resources("warmup-single", 100));
+    service.createAll(resources("warmup-bulk", 100), AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL, null, null);
+
+    long start = System.nanoTime();
+    createSingle(resources("single", count));
+    long singleNanos = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    service.createAll(resources("bulk", count), AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL, null, null);
+    long bulkNanos = System.nanoTime() - start;
+
+    Assert.assertEquals(2 * count + 200, dao.count());
+    System.out.println(String.format("Creation of %d resources: single %.1f resources/s, bulk %.1f resources/s", count, throughput(count, singleNanos), throughput(count, bulkNanos)));
+    allIdentifiersDao.deleteAll();
+    dao.deleteAll();
+  }
+
+  private void createSingle(List<DataResource> resources) {
+    for (DataResource resource : resources) {
+      service.create(resource, AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL);
+    }
+  }
+
+  private static List<DataResource> resources(String prefix, int count) {
+    List<DataResource> resources = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      DataResource resource = DataResource.factoryNewDataResource(prefix + "-" + i);
+      resource.getTitles().add(Title.factoryTitle("Resource " + i, Title.TYPE.TRANSLATED_TITLE));
+      resource.setResourceType(ResourceType.createResourceType("BenchmarkResource"));
+      resources.add(resource);
+    }
+    return resources;
+  }
+
+  private static double throughput(int count, long nanos) {
+    return count / (nanos / 1_000_000_000.0);
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.perf;
+
+import edu.kit.datamanager.entities.VersionInfo;
+import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
+import edu.kit.datamanager.repo.service.IRepoVersioningService;
+import edu.kit.datamanager.repo.util.ContentProviderRegistry;
+import edu.kit.datamanager.repo.util.VersioningServiceRegistry;
+import edu.kit.datamanager.service.IContentCollectionProvider;
+import edu.kit.datamanager.service.IContentProvider;
+import edu.kit.datamanager.service.impl.FileArchiveContentCollectionProvider;
+import edu.kit.datamanager.service.impl.FileContentProvider;
+import edu.kit.datamanager.service.impl.HttpContentProvider;
+import edu.kit.datamanager.service.impl.TarArchiveContentCollectionProvider;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+/**
+ * Benchmark of the dispatch overhead for collections with many files,
+ * comparing the former linear scans over versioning services, content
+ * providers and collection providers with the lookup tables. The benchmark is
+ * skipped unless the system property 'repo.benchmark' is set to true. The
+ * number of elements can be set via 'repo.benchmark.elements'.
+ */
+public class ContentDispatchBenchmark {
+
+  private static final int ITERATIONS = 5;
+  private static final int SERVICES = 8;
+  private static final String ACCEPT = "application/json;q=0.9, application/gzip;q=0.8, */*;q=0.1";
+
+  @Test
+  public void benchmarkDispatch() {
+    Assume.assumeTrue(Boolean.getBoolean("repo.benchmark"));
+    int elements = Integer.getInteger("repo.benchmark.elements", 1000000);
+
+    IRepoVersioningService[] versioningServices = new IRepoVersioningService[SERVICES];
+    String[] names = new String[SERVICES];
+    for (int i = 0; i < SERVICES; i++) {
+      names[i] = "versioning-service-" + i;
+      versioningServices[i] = new StubVersioningService(names[i]);
+    }
+    String[] schemes = {"file", "https", "file", "http"};
+    IContentProvider[] contentProviders = {new HttpContentProvider(), new FileContentProvider()};
+    IContentCollectionProvider[] collectionProviders = {new FileArchiveContentCollectionProvider(), new TarArchiveContentCollectionProvider()};
+
+    //warm up both implementations
+    legacyDispatch(elements, names, schemes, versioningServices, contentProviders, collectionProviders);
+    tableDispatch(elements, names, schemes, versioningServices, contentProviders, collectionProviders);
+
+    long legacyNanos = 0;
+    long tableNanos = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      long start = System.nanoTime();
+      int legacyHits = legacyDispatch(elements, names, schemes, versioningServices, contentProviders, collectionProviders);
+      legacyNanos += System.nanoTime() - start;
+
+      start = System.nanoTime();
+      int tableHits = tableDispatch(elements, names, schemes, versioningServices, contentProviders, collectionProviders);
+      tableNanos += System.nanoTime() - start;
+      Assert.assertEquals(legacyHits, tableHits);
+    }
+    System.out.println(String.format("Dispatch of %d elements: linear scan %.1f ns/element, lookup table %.1f ns/element", elements, legacyNanos / (double) ITERATIONS / elements, tableNanos / (double) ITERATIONS / elements));
+  }
+
+  /**
+   * Dispatch as done before, i.e. one request per element scanning all
+   * providers and services.
+   */
+  private static int legacyDispatch(int elements, String[] names, String[] schemes, IRepoVersioningService[] versioningServices, IContentProvider[] contentProviders, IContentCollectionProvider[] collectionProviders) {
+    int hits = 0;
+    MediaType accept = MediaType.parseMediaType("application/gzip");
+    for (IContentCollectionProvider provider : collectionProviders) {
+      if (provider.supportsMediaType(accept)) {
+        hits++;
+        break;
+      }
+    }
+    for (int i = 0; i < elements; i++) {
+      for (IContentProvider provider : contentProviders) {
+        if (provider.canProvide(schemes[i & 3])) {
+          hits++;
+          break;
+        }
+      }
+      String name = names[i % names.length];
+      for (IRepoVersioningService service : versioningServices) {
+        if (service.getServiceName().equals(name)) {
+          hits++;
+          break;
+        }
+      }
+    }
+    return hits;
+  }
+
+  private static int tableDispatch(int elements, String[] names, String[] schemes, IRepoVersioningService[] versioningServices, IContentProvider[] contentProviders, IContentCollectionProvider[] collectionProviders) {
+    int hits = 0;
+    ContentProviderRegistry providers = new ContentProviderRegistry(contentProviders, collectionProviders);
+    VersioningServiceRegistry services = new VersioningServiceRegistry(versioningServices);
+    if (providers.negotiate(ACCEPT) != null) {
+      hits++;
+    }
+    for (int i = 0; i < elements; i++) {
+      if (providers.getContentProvider(schemes[i & 3]) != null) {
+        hits++;
+      }
+      if (services.get(names[i % names.length]) != null) {
+        hits++;
+      }
+    }
+    return hits;
+  }
+
+  private static class StubVersioningService implements IRepoVersioningService {
+
+    private final String name;
+
+    StubVersioningService(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public void configure(RepoBaseConfiguration applicationProperties) {
+    }
+
+    @Override
+    public void write(String resourceId, String callerId, String path, InputStream data, Map<String, String> options) {
+    }
+
+    @Override
+    public void read(String resourceId, String callerId, String path, String versionId, OutputStream destination, Map<String, String> options) {
+    }
+
+    @Override
+    public VersionInfo info(String resourceId, String path, String versionId, Map<String, String> options) {
+      return null;
+    }
+
+    @Override
+    public String getServiceName() {
+      return name;
+    }
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.perf;
+
+import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
+import edu.kit.datamanager.repo.configuration.StorageServiceProperties;
+import edu.kit.datamanager.repo.dao.IAllIdentifiersDao;
+import edu.kit.datamanager.repo.dao.IContentInformationDao;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.ContentInformationSummary;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.ResourceType;
+import edu.kit.datamanager.repo.domain.Title;
+import edu.kit.datamanager.repo.service.IContentInformationService;
+import edu.kit.datamanager.repo.service.IDataResourceService;
+import edu.kit.datamanager.repo.service.impl.ContentInformationAuditService;
+import edu.kit.datamanager.repo.service.impl.DataResourceAuditService;
+import edu.kit.datamanager.repo.service.impl.DateBasedStorageService;
+import edu.kit.datamanager.repo.service.impl.NoneDataVersioningService;
+import edu.kit.datamanager.util.AuthenticationHelper;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import org.javers.core.Javers;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmark of listing the content of a data resource with many files,
+ * comparing pages of content information entities with pages of summaries
+ * obtained by a projection. The benchmark is skipped unless the system
+ * property 'repo.benchmark' is set to true. The number of files can be set via
+ * 'repo.benchmark.files'.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestExecutionListeners(listeners = {DependencyInjectionTestExecutionListener.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.datasource.url=jdbc:h2:mem:db_content_listing_benchmark;DB_CLOSE_DELAY=-1;MODE=LEGACY;NON_KEYWORDS=VALUE"})
+@TestPropertySource(properties = {"spring.jpa.properties.hibernate.jdbc.batch_size=50", "spring.jpa.properties.hibernate.order_inserts=true"})
+public class ContentListingBenchmark {
+
+  private static final int CHUNK_SIZE = 1000;
+  private static final int PAGE_SIZE = 1000;
+
+  @Autowired
+  private IDataResourceService service;
+  @Autowired
+  private IContentInformationService contentInformationService;
+  @Autowired
+  private IDataResourceDao dao;
+  @Autowired
+  private IContentInformationDao contentInformationDao;
+  @Autowired
+  private IAllIdentifiersDao allIdentifiersDao;
+  @Autowired
+  private StorageServiceProperties storageServiceProperties;
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+  @Autowired
+  private Javers javers;
+
+  @Test
+  public void benchmarkListing() throws Exception {
+    Assume.assumeTrue(Boolean.getBoolean("repo.benchmark"));
+    int files = Integer.getInteger("repo.benchmark.files", 100000);
+    RepoBaseConfiguration configuration = new RepoBaseConfiguration();
+    configuration.setBasepath(new URL("file:///tmp/repo-base"));
+    DateBasedStorageService storageService = new DateBasedStorageService();
+    storageService.configure(storageServiceProperties);
+    configuration.setStorageService(storageService);
+    configuration.setReadOnly(false);
+    configuration.setVersioningService(new NoneDataVersioningService());
+    configuration.setAuditService(new DataResourceAuditService(javers, configuration));
+    configuration.setContentInformationAuditService(new ContentInformationAuditService(javers, configuration));
+    service.configure(configuration);
+    contentInformationService.configure(configuration);
+
+    DataResource resource = DataResource.factoryNewDataResource("content-listing-benchmark");
+    resource.getTitles().add(Title.factoryTitle("Content listing benchmark", Title.TYPE.TRANSLATED_TITLE));
+    resource.setResourceType(ResourceType.createResourceType("BenchmarkResource"));
+    resource = service.create(resource, AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL);
+    for (int i = 0; i < files; i += CHUNK_SIZE) {
+      List<ContentInformation> chunk = new ArrayList<>(CHUNK_SIZE);
+      for (int j = i; j < Math.min(i + CHUNK_SIZE, files); j++) {
+        ContentInformation info = ContentInformation.createContentInformation(resource.getId(), "data/dir_" + (j / CHUNK_SIZE) + "/file_" + j + ".bin", "benchmark");
+        info.setContentUri("https://www.example.org/data/file_" + j + ".bin");
+        info.setHash("sha1:" + Integer.toHexString(j));
+        info.setMediaType("application/octet-stream");
+        info.setSize(j);
+        chunk.add(info);
+      }
+      contentInformationService.createAll(resource, chunk);
+    }
+    Assert.assertEquals(files, contentInformationDao.count());
+
+    String id = resource.getId();
+    //warm up both implementations
+    long entityCount = listEntities(id);
+    long summaryCount = listSummaries(id);
+    Assert.assertEquals(files, entityCount);
+    Assert.assertEquals(files, summaryCount);
+
+    long start = System.nanoTime();
+    listEntities(id);
+    long entityNanos = System.nanoTime() - start;
+    start = System.nanoTime();
+    listSummaries(id);
+    long summaryNanos = System.nanoTime() - start;
+
+    System.out.println(String.format("Listing %d files in pages of %d: entities %.1f ms, summaries %.1f ms", files, PAGE_SIZE, entityNanos / 1_000_000.0, summaryNanos / 1_000_000.0));
+    contentInformationDao.deleteAll();
+    allIdentifiersDao.deleteAll();
+    dao.deleteAll();
+  }
+
+  /**
+   * Listing of all pages of entities, including their tags as required for
+   * serializing them.
+   */
+  private long listEntities(String id) {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.setReadOnly(true);
+    long count = 0;
+    Page<ContentInformation> page;
+    int pageNumber = 0;
+    do {
+      final int current = pageNumber++;
+      page = template.execute((status) -> {
+        Page<ContentInformation> result = contentInformationService.findAll(ContentInformation.createContentInformation(id, "data/%"), PageRequest.of(current, PAGE_SIZE, Sort.by("id")));
+        result.forEach((element) -> element.getTags().size());
+        return result;
+      });
+      count += page.getNumberOfElements();
+    } while (page.hasNext());
+    return count;
+  }
+
+  private long listSummaries(String id) {
+    long count = 0;
+    Page<ContentInformationSummary> page;
+    int pageNumber = 0;
+    do {
+      page = contentInformationService.findSummaries(ContentInformation.createContentInformation(id, "data/%"), PageRequest.of(pageNumber++, PAGE_SIZE, Sort.by("id")));
+      count += page.getNumberOfElements();
+    } while (page.hasNext());
+    return count;
+  }
+}
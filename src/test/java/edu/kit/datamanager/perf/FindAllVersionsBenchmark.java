@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.perf;
+
+import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
+import edu.kit.datamanager.repo.configuration.StorageServiceProperties;
+import edu.kit.datamanager.repo.dao.IAllIdentifiersDao;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.ResourceType;
+import edu.kit.datamanager.repo.domain.Title;
+import edu.kit.datamanager.repo.service.IDataResourceService;
+import edu.kit.datamanager.repo.service.IRepoVersioningService;
+import edu.kit.datamanager.repo.service.impl.DataResourceAuditService;
+import edu.kit.datamanager.repo.service.impl.DateBasedStorageService;
+import edu.kit.datamanager.util.AuthenticationHelper;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.javers.core.Javers;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+/**
+ * Benchmark of listing versions of a data resource with many versions,
+ * comparing one shadow query per version with the paged retrieval of all
+ * versions of a page by a single query. The benchmark is skipped unless the
+ * system property 'repo.benchmark' is set to true. The number of versions can
+ * be set via 'repo.benchmark.versions'.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestExecutionListeners(listeners = {DependencyInjectionTestExecutionListener.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.datasource.url=jdbc:h2:mem:db_find_all_versions_benchmark;DB_CLOSE_DELAY=-1;MODE=LEGACY;NON_KEYWORDS=VALUE"})
+public class FindAllVersionsBenchmark {
+
+  private static final int ITERATIONS = 3;
+  private static final int PAGE_SIZE = 20;
+
+  @Autowired
+  private IDataResourceService service;
+  @Autowired
+  private IDataResourceDao dao;
+  @Autowired
+  private IAllIdentifiersDao allIdentifiersDao;
+  @Autowired
+  private StorageServiceProperties storageServiceProperties;
+  @Autowired
+  private Javers javers;
+
+  @Test
+  public void benchmarkFindAllVersions() throws Exception {
+    Assume.assumeTrue(Boolean.getBoolean("repo.benchmark"));
+    int versions = Integer.getInteger("repo.benchmark.versions", 300);
+    RepoBaseConfiguration configuration = new RepoBaseConfiguration();
+    configuration.setBasepath(new URL("file:///tmp/repo-base"));
+    DateBasedStorageService storageService = new DateBasedStorageService();
+    storageService.configure(storageServiceProperties);
+    configuration.setStorageService(storageService);
+    configuration.setReadOnly(false);
+    //any versioning service other than 'none' enables auditing
+    IRepoVersioningService versioningService = Mockito.mock(IRepoVersioningService.class);
+    Mockito.when(versioningService.getServiceName()).thenReturn("simple");
+    configuration.setVersioningService(versioningService);
+    DataResourceAuditService auditService = new DataResourceAuditService(javers, configuration);
+    configuration.setAuditService(auditService);
+    service.configure(configuration);
+
+    DataResource resource = DataResource.factoryNewDataResource("versions-benchmark");
+    resource.getTitles().add(Title.factoryTitle("Version 1", Title.TYPE.TRANSLATED_TITLE));
+    resource.setResourceType(ResourceType.createResourceType("BenchmarkResource"));
+    resource = service.create(resource, AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL);
+    for (int i = 2; i <= versions; i++) {
+      resource.getTitles().iterator().next().setValue("Version " + i);
+      resource = dao.save(resource);
+      auditService.captureAuditInformation(resource, AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL);
+    }
+    String id = resource.getId();
+    Assert.assertEquals(versions, auditService.getCurrentVersion(id));
+
+    //warm up both implementations
+    perVersion(auditService, id, versions);
+    paged(auditService, id, versions);
+
+    long perVersionNanos = 0;
+    long pagedNanos = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      long start = System.nanoTime();
+      int perVersionCount = perVersion(auditService, id, versions);
+      perVersionNanos += System.nanoTime() - start;
+
+      start = System.nanoTime();
+      int pagedCount = paged(auditService, id, versions);
+      pagedNanos += System.nanoTime() - start;
+      Assert.assertEquals(perVersionCount, pagedCount);
+    }
+
+    Page<DataResource> firstPage = service.findAllVersions(id, PageRequest.of(0, PAGE_SIZE));
+    Assert.assertEquals(Math.min(PAGE_SIZE, versions), firstPage.getNumberOfElements());
+    Assert.assertEquals(versions, firstPage.getTotalElements());
+    Assert.assertEquals("Version " + versions, firstPage.getContent().get(0).getTitles().iterator().next().getValue());
+
+    System.out.println(String.format("Listing %d versions in pages of %d: per version %.1f ms, paged %.1f ms", versions, PAGE_SIZE, perVersionNanos / ITERATIONS / 1_000_000.0, pagedNanos / ITERATIONS / 1_000_000.0));
+    allIdentifiersDao.deleteAll();
+    dao.deleteAll();
+  }
+
+  /**
+   * Former implementation obtaining each version by a separate query.
+   */
+  private static int perVersion(DataResourceAuditService auditService, String id, int versions) {
+    List<DataResource> result = new ArrayList<>(versions);
+    for (long version = versions; version > 0; version--) {
+      Optional<DataResource> resource = auditService.getResourceByVersion(id, version);
+      resource.ifPresent(result::add);
+    }
+    return result.size();
+  }
+
+  private static int paged(DataResourceAuditService auditService, String id, int versions) {
+    List<DataResource> result = new ArrayList<>(versions);
+    for (int skip = 0; skip < versions; skip += PAGE_SIZE) {
+      result.addAll(auditService.getResourceVersions(id, skip, PAGE_SIZE));
+    }
+    return result.size();
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.perf;
+
+import edu.kit.datamanager.repo.util.ContentIngestUtils;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Random;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.parser.AutoDetectParser;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Throughput benchmark comparing the former upload implementation (1 KiB
+ * buffer, media type detection by re-reading the file) with the single-pass
+ * ingest pipeline. The benchmark is skipped unless the system property
+ * 'repo.benchmark' is set to true. The payload size in MiB can be set via
+ * 'repo.benchmark.sizeMb'.
+ */
+public class UploadThroughputBenchmark {
+
+  private static final int ITERATIONS = 5;
+
+  @Test
+  public void benchmarkUpload() throws Exception {
+    Assume.assumeTrue(Boolean.getBoolean("repo.benchmark"));
+    int sizeMb = Integer.getInteger("repo.benchmark.sizeMb", 256);
+    byte[] payload = new byte[sizeMb * 1024 * 1024];
+    new Random(42).nextBytes(payload);
+
+    Path destination = Files.createTempFile("benchmark", ".bin");
+    try {
+      //warm up both implementations
+      legacyUpload(payload, destination);
+      ContentIngestUtils.ingest(new ByteArrayInputStream(payload), destination, "file.bin", true, ContentIngestUtils.DEFAULT_BUFFER_SIZE, ContentIngestUtils.DEFAULT_SAMPLE_SIZE);
+
+      long legacyNanos = 0;
+      long ingestNanos = 0;
+      for (int i = 0; i < ITERATIONS; i++) {
+        long start = System.nanoTime();
+        String legacyChecksum = legacyUpload(payload, destination);
+        legacyNanos += System.nanoTime() - start;
+
+        start = System.nanoTime();
+        ContentIngestUtils.IngestResult result = ContentIngestUtils.ingest(new ByteArrayInputStream(payload), destination, "file.bin", true, ContentIngestUtils.DEFAULT_BUFFER_SIZE, ContentIngestUtils.DEFAULT_SAMPLE_SIZE);
+        ingestNanos += System.nanoTime() - start;
+        Assert.assertEquals(legacyChecksum, result.getChecksum());
+      }
+      System.out.println(String.format("Upload of %d MiB: legacy %.1f MB/s, single-pass %.1f MB/s", sizeMb, throughput(payload.length, legacyNanos), throughput(payload.length, ingestNanos)));
+    } finally {
+      Files.deleteIfExists(destination);
+    }
+  }
+
+  private static String legacyUpload(byte[] payload, Path destination) throws Exception {
+    MessageDigest md = MessageDigest.getInstance("SHA1");
+    InputStream stream = new ByteArrayInputStream(payload);
+    byte[] buffer = new byte[1024];
+    int cnt;
+    try (OutputStream out = Files.newOutputStream(destination)) {
+      while ((cnt = stream.read(buffer)) > -1) {
+        out.write(buffer, 0, cnt);
+        md.update(buffer, 0, cnt);
+      }
+    }
+    try (InputStream is = Files.newInputStream(destination); BufferedInputStream bis = new BufferedInputStream(is)) {
+      Metadata metadata = new Metadata();
+      metadata.add(TikaCoreProperties.RESOURCE_NAME_KEY, "file.bin");
+      new AutoDetectParser().getDetector().detect(bis, metadata);
+    }
+    return "sha1:" + Hex.encodeHexString(md.digest());
+  }
+
+  private static double throughput(long bytes, long nanos) {
+    return (bytes * (double) ITERATIONS / (1024 * 1024)) / (nanos / 1_000_000_000d);
+  }
+}
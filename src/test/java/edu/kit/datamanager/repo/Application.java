@@ -83,6 +83,9 @@ public class Application {
   @Autowired
   private IDataResourceDao dataResourceDao;
 
+  @Autowired
+  private AsyncAuditCommitter auditCommitter;
+
   @Autowired
   private Optional<IMessagingService> messagingService;
 
@@ -184,8 +187,8 @@ public class Application {
         break;
       }
     }
-    auditServiceDataResource = new DataResourceAuditService(this.javers, rbc);
-    contentAuditService = new ContentInformationAuditService(this.javers, rbc);
+    auditServiceDataResource = new DataResourceAuditService(this.javers, rbc, auditCommitter);
+    contentAuditService = new ContentInformationAuditService(this.javers, rbc, auditCommitter);
     dataResourceService().configure(rbc);
     contentInformationService().configure(rbc);
     rbc.setAuditService(auditServiceDataResource);
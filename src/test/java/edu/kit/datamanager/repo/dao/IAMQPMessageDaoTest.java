@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.dao;
+
+import edu.kit.datamanager.repo.domain.AMQPMessage;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.security.test.context.support.WithSecurityContextTestExecutionListener;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.test.context.support.DirtiesContextTestExecutionListener;
+import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+import org.springframework.test.context.web.ServletTestExecutionListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Test for {@link IAMQPMessageDao}.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT) //RANDOM_PORT)
+@EntityScan("edu.kit.datamanager")
+@EnableJpaRepositories("edu.kit.datamanager")
+@ComponentScan({"edu.kit.datamanager"})
+@AutoConfigureMockMvc
+@TestExecutionListeners(listeners = {ServletTestExecutionListener.class,
+        DependencyInjectionTestExecutionListener.class,
+        DirtiesContextTestExecutionListener.class,
+        TransactionalTestExecutionListener.class,
+        WithSecurityContextTestExecutionListener.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"server.port=41422"})
+@TestPropertySource(properties = {"spring.datasource.url=jdbc:h2:mem:db_amqp_message_dao;DB_CLOSE_DELAY=-1;MODE=LEGACY;NON_KEYWORDS=VALUE"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class IAMQPMessageDaoTest {
+
+  @Autowired
+  private IAMQPMessageDao messageDao;
+
+  @Before
+  public void setUp() {
+    messageDao.deleteAll();
+  }
+
+  @Test
+  public void testFindDueMessages() {
+    Instant now = Instant.now();
+    AMQPMessage first = messageDao.save(new AMQPMessage("exchange", "dataresource.create", "first", "resource-1"));
+    AMQPMessage second = messageDao.save(new AMQPMessage("exchange", "dataresource.create", "second", "resource-2"));
+    AMQPMessage third = messageDao.save(new AMQPMessage("exchange", "dataresource.update", "third", "resource-1"));
+    AMQPMessage preserved = messageDao.save(new AMQPMessage("exchange", "dataresource.update", "preserved"));
+
+    List<AMQPMessage> due = messageDao.findDueMessages(now.plusSeconds(1), PageRequest.of(0, 10));
+    Assert.assertEquals(List.of(first.getId(), second.getId(), third.getId(), preserved.getId()), ids(due));
+    Assert.assertEquals(List.of(first.getId(), second.getId()), ids(messageDao.findDueMessages(now.plusSeconds(1), PageRequest.of(0, 2))));
+
+    //deferring the first message of resource-1 also holds back the later message of resource-1
+    Assert.assertEquals(1, messageDao.deferAllByIdIn(List.of(first.getId()), now.plus(1, ChronoUnit.HOURS)));
+    due = messageDao.findDueMessages(now.plusSeconds(1), PageRequest.of(0, 10));
+    Assert.assertEquals(List.of(second.getId(), preserved.getId()), ids(due));
+    Assert.assertEquals(Integer.valueOf(1), messageDao.findById(first.getId()).get().getAttempts());
+
+    Assert.assertEquals(2, messageDao.deleteAllByIdIn(List.of(second.getId(), preserved.getId())));
+    Assert.assertTrue(messageDao.findDueMessages(now.plusSeconds(1), PageRequest.of(0, 10)).isEmpty());
+    due = messageDao.findDueMessages(now.plus(2, ChronoUnit.HOURS), PageRequest.of(0, 10));
+    Assert.assertEquals(List.of(first.getId(), third.getId()), ids(due));
+  }
+
+  private static List<Long> ids(List<AMQPMessage> messages) {
+    return messages.stream().map(AMQPMessage::getId).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.configuration.AuditPipelineProperties;
+import edu.kit.datamanager.repo.configuration.MonitoringConfiguration;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.Title;
+import edu.kit.datamanager.repo.service.impl.AsyncAuditCommitter;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.javers.core.Commit;
+import org.javers.core.Javers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tests for AsyncAuditCommitter.
+ */
+public class AsyncAuditCommitterTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final List<String> committed = Collections.synchronizedList(new ArrayList<>());
+  private Javers javers;
+  private AuditPipelineProperties properties;
+  private AsyncAuditCommitter committer;
+  private SimpleMeterRegistry registry;
+
+  @Before
+  public void setUp() {
+    MonitoringConfiguration configuration = new MonitoringConfiguration();
+    configuration.setServiceName("audittest");
+    MonitoringUtil.setMonitoringConfiguration(configuration);
+    javers = Mockito.mock(Javers.class);
+    Mockito.when(javers.commit(ArgumentMatchers.anyString(), ArgumentMatchers.any())).thenAnswer((invocation) -> {
+      DataResource resource = invocation.getArgument(1);
+      committed.add(resource.getId() + ":" + resource.getTitles().iterator().next().getValue());
+      return Mockito.mock(Commit.class);
+    });
+    properties = new AuditPipelineProperties();
+    properties.setAsync(true);
+    properties.setBatchSize(10);
+    properties.setFlushTimeout(Duration.ofSeconds(5));
+  }
+
+  @After
+  public void tearDown() {
+    if (committer != null) {
+      committer.stop();
+    }
+  }
+
+  @Test
+  public void testSnapshotsAreCommittedInOrder() {
+    committer = createCommitter();
+    List<String> notified = Collections.synchronizedList(new ArrayList<>());
+    committer.register(DataResource.class, (id, commit) -> notified.add(id));
+    for (int i = 0; i < 50; i++) {
+      committer.submit(DataResource.class, "res-" + (i % 2), resource("res-" + (i % 2), "title-" + i), "tester");
+    }
+    committer.flush(DataResource.class, "res-0");
+    committer.flush();
+    Assert.assertEquals(0, committer.getPendingCount());
+    Assert.assertEquals(50, committed.size());
+    Assert.assertEquals(50, notified.size());
+    for (int i = 0; i < 50; i++) {
+      Assert.assertEquals("res-" + (i % 2) + ":title-" + i, committed.get(i));
+    }
+    Assert.assertEquals(50.0, registry.get("audittest_audit_committed").counter().count(), 0.0);
+    Assert.assertEquals(50, registry.get("audittest_audit_lag").timer().count());
+  }
+
+  @Test
+  public void testSnapshotIsImmutable() {
+    CountDownLatch blocked = new CountDownLatch(1);
+    Mockito.when(javers.commit(ArgumentMatchers.anyString(), ArgumentMatchers.any())).thenAnswer((invocation) -> {
+      blocked.await(5, TimeUnit.SECONDS);
+      DataResource resource = invocation.getArgument(1);
+      committed.add(resource.getId() + ":" + resource.getTitles().iterator().next().getValue());
+      return null;
+    });
+    committer = createCommitter();
+    DataResource resource = resource("res-0", "original");
+    committer.submit(DataResource.class, "res-0", resource, "tester");
+    resource.getTitles().iterator().next().setValue("modified");
+    blocked.countDown();
+    committer.flush(DataResource.class, "res-0");
+    Assert.assertEquals(List.of("res-0:original"), committed);
+  }
+
+  @Test
+  public void testFailedSnapshotIsDiscarded() {
+    Mockito.when(javers.commit(ArgumentMatchers.anyString(), ArgumentMatchers.any())).thenAnswer((invocation) -> {
+      DataResource resource = invocation.getArgument(1);
+      if ("res-1".equals(resource.getId())) {
+        throw new IllegalStateException("Broken snapshot");
+      }
+      committed.add(resource.getId());
+      return null;
+    });
+    committer = createCommitter();
+    for (int i = 0; i < 3; i++) {
+      committer.submit(DataResource.class, "res-" + i, resource("res-" + i, "title"), "tester");
+    }
+    committer.flush();
+    Assert.assertEquals(List.of("res-0", "res-2"), committed);
+    Assert.assertEquals(1.0, registry.get("audittest_audit_failed").counter().count(), 0.0);
+  }
+
+  @Test
+  public void testJournalReplay() throws Exception {
+    Path journal = folder.getRoot().toPath().resolve("audit").resolve("journal");
+    properties.setJournal(journal.toString());
+    CountDownLatch never = new CountDownLatch(1);
+    Javers blockedJavers = Mockito.mock(Javers.class);
+    Mockito.when(blockedJavers.commit(ArgumentMatchers.anyString(), ArgumentMatchers.any())).thenAnswer((invocation) -> {
+      never.await();
+      return null;
+    });
+    AsyncAuditCommitter crashed = new AsyncAuditCommitter(properties, blockedJavers);
+    crashed.replayJournal();
+    crashed.submit(DataResource.class, "res-0", resource("res-0", "first"), "tester");
+    crashed.submit(DataResource.class, "res-0", resource("res-0", "second"), "tester");
+    Assert.assertTrue(Files.size(journal) > 0);
+    //simulate a crash by replaying the journal without stopping the blocked instance
+    committer = createCommitter();
+    committer.flush();
+    Assert.assertEquals(List.of("res-0:first", "res-0:second"), committed);
+    Assert.assertEquals(0, Files.size(journal));
+    never.countDown();
+  }
+
+  @Test
+  public void testSnapshotIsJournaledBeforeCommit() throws Exception {
+    Path journal = folder.getRoot().toPath().resolve("journal");
+    properties.setJournal(journal.toString());
+    AsyncAuditCommitter crashed = new AsyncAuditCommitter(properties, javers);
+    crashed.replayJournal();
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      crashed.submit(DataResource.class, "res-0", resource("res-0", "committed"), "tester");
+      crashed.submit(DataResource.class, "res-1", resource("res-1", "rolled back"), "tester");
+      List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+      for (TransactionSynchronization synchronization : synchronizations) {
+        synchronization.beforeCommit(false);
+      }
+      //crash after the database commit, before any snapshot was queued
+      synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    Assert.assertEquals(0, crashed.getPendingCount());
+
+    committer = createCommitter();
+    committer.flush();
+    Assert.assertEquals(List.of("res-0:committed"), committed);
+  }
+
+  @Test
+  public void testJournalIsCompactedWhileSnapshotsArePending() throws Exception {
+    Path journal = folder.getRoot().toPath().resolve("journal");
+    properties.setJournal(journal.toString());
+    committer = createCommitter();
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      //journaled snapshot of a transaction with unknown outcome, never completed
+      committer.submit(DataResource.class, "res-open", resource("res-open", "open"), "tester");
+      for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+        synchronization.beforeCommit(false);
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_UNKNOWN);
+      }
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    for (int i = 0; i < 3000; i++) {
+      committer.submit(DataResource.class, "res-" + i, resource("res-" + i, "title-" + i), "tester");
+    }
+    committer.flush();
+    Assert.assertEquals(3000, committed.size());
+
+    List<String> lines = Files.readAllLines(journal);
+    Assert.assertTrue("Journal not compacted, " + lines.size() + " records found.", lines.size() < 1500);
+    Assert.assertTrue(lines.get(0).startsWith("S\t1\t"));
+    committer.stop();
+
+    committed.clear();
+    committer = createCommitter();
+    committer.flush();
+    Assert.assertEquals(List.of("res-open:open"), committed);
+  }
+
+  private AsyncAuditCommitter createCommitter() {
+    AsyncAuditCommitter result = new AsyncAuditCommitter(properties, javers);
+    registry = new SimpleMeterRegistry();
+    result.setMeterRegistry(registry);
+    result.replayJournal();
+    return result;
+  }
+
+  private DataResource resource(String id, String title) {
+    DataResource resource = DataResource.factoryNewDataResource(id);
+    resource.getTitles().add(Title.factoryTitle(title));
+    return resource;
+  }
+}
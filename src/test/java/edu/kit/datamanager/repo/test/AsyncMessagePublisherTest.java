@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.configuration.RabbitMQConfiguration;
+import edu.kit.datamanager.repo.configuration.MessagingPublisherProperties;
+import edu.kit.datamanager.repo.dao.IAMQPMessageDao;
+import edu.kit.datamanager.repo.domain.AMQPMessage;
+import edu.kit.datamanager.service.impl.AsyncMessagePublisher;
+import java.util.List;
+import java.util.Optional;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tests for AsyncMessagePublisher.
+ */
+public class AsyncMessagePublisherTest {
+
+  private MessagingPublisherProperties properties;
+  private RabbitTemplate template;
+  private IAMQPMessageDao dao;
+  private RabbitMQConfiguration configuration;
+  private AsyncMessagePublisher publisher;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    properties = new MessagingPublisherProperties();
+    properties.setBatchSize(10);
+    template = Mockito.mock(RabbitTemplate.class);
+    ConnectionFactory connectionFactory = Mockito.mock(ConnectionFactory.class);
+    Mockito.when(connectionFactory.isSimplePublisherConfirms()).thenReturn(true);
+    Mockito.when(template.getConnectionFactory()).thenReturn(connectionFactory);
+    Mockito.when(template.invoke(Mockito.any())).thenAnswer((invocation) -> {
+      return ((RabbitOperations.OperationsCallback<Object>) invocation.getArgument(0)).doInRabbit(template);
+    });
+    configuration = Mockito.mock(RabbitMQConfiguration.class);
+    Mockito.when(configuration.isMessagingEnabled()).thenReturn(true);
+    Mockito.when(configuration.rabbitMQTemplate()).thenReturn(template);
+    dao = Mockito.mock(IAMQPMessageDao.class);
+    publisher = new AsyncMessagePublisher(properties, Optional.of(configuration), Optional.of(dao));
+  }
+
+  @After
+  public void tearDown() {
+    publisher.stop();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  public void testMessagesArePublished() {
+    for (int i = 0; i < 25; i++) {
+      publisher.submit(new AMQPMessage("exchange", "dataresource.create", "message-" + i));
+    }
+    Mockito.verify(template, Mockito.timeout(5000)).convertAndSend("exchange", "dataresource.create", "message-24");
+    Mockito.verify(template, Mockito.times(25)).convertAndSend(Mockito.eq("exchange"), Mockito.eq("dataresource.create"), Mockito.any(Object.class));
+    //at least three batches are confirmed, each with max. 10 messages
+    Mockito.verify(template, Mockito.atLeast(3)).waitForConfirmsOrDie(5000);
+    Mockito.verify(dao, Mockito.never()).save(Mockito.any(AMQPMessage.class));
+  }
+
+  @Test
+  public void testMessagesAreQueuedAfterCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+    publisher.submit(new AMQPMessage("exchange", "dataresource.create", "message"));
+    Assert.assertEquals(0, publisher.getQueueDepth());
+    Mockito.verifyNoInteractions(template);
+    List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+    Assert.assertEquals(1, synchronizations.size());
+    TransactionSynchronizationManager.clearSynchronization();
+    synchronizations.get(0).afterCommit();
+    Mockito.verify(template, Mockito.timeout(5000)).convertAndSend("exchange", "dataresource.create", "message");
+  }
+
+  @Test
+  public void testFailedBatchIsPreserved() {
+    Mockito.doThrow(new AmqpConnectException(new RuntimeException("Broker not available"))).when(template).convertAndSend(Mockito.anyString(), Mockito.anyString(), Mockito.any(Object.class));
+    publisher.submit(new AMQPMessage("exchange", "dataresource.create", "message"));
+    Mockito.verify(dao, Mockito.timeout(5000)).save(Mockito.any(AMQPMessage.class));
+  }
+
+  @Test
+  public void testPreservePolicy() {
+    properties.setQueueCapacity(1);
+    properties.setBackpressurePolicy(MessagingPublisherProperties.BACKPRESSURE_POLICY.PRESERVE);
+    Mockito.when(template.invoke(Mockito.any())).thenAnswer((invocation) -> {
+      Thread.sleep(500);
+      return null;
+    });
+    AsyncMessagePublisher slowPublisher = new AsyncMessagePublisher(properties, Optional.of(configuration), Optional.of(dao));
+    try {
+      //the publisher thread is busy with the first message and only one more message can be queued
+      for (int i = 0; i < 100; i++) {
+        slowPublisher.submit(new AMQPMessage("exchange", "dataresource.create", "message-" + i));
+      }
+      Mockito.verify(dao, Mockito.atLeast(98)).save(Mockito.any(AMQPMessage.class));
+    } finally {
+      slowPublisher.stop();
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.entities.RepoUserRole;
+import edu.kit.datamanager.exceptions.ResourceNotFoundException;
+import edu.kit.datamanager.repo.configuration.AuditRetentionProperties;
+import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
+import edu.kit.datamanager.repo.dao.IContentInformationDao;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.domain.AuditCompactionReport;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.Title;
+import edu.kit.datamanager.repo.service.IDataResourceService;
+import edu.kit.datamanager.repo.service.impl.AuditCompactionService;
+import edu.kit.datamanager.repo.service.impl.DataResourceAuditService;
+import edu.kit.datamanager.repo.service.impl.SimpleDataVersioningService;
+import edu.kit.datamanager.util.AuthenticationHelper;
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.javers.core.Javers;
+import org.javers.core.metamodel.object.CdoSnapshot;
+import org.javers.repository.jql.QueryBuilder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Tests for AuditCompactionService.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestExecutionListeners(listeners = {DependencyInjectionTestExecutionListener.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.datasource.url=jdbc:h2:mem:db_audit_compaction;DB_CLOSE_DELAY=-1;MODE=LEGACY;NON_KEYWORDS=VALUE"})
+public class AuditCompactionServiceTest {
+
+  private static final int VERSIONS = 15;
+
+  @Autowired
+  private IDataResourceDao dataResourceDao;
+  @Autowired
+  private IContentInformationDao contentInformationDao;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+  @Autowired
+  private Javers javers;
+  @Autowired
+  private IDataResourceService dataResourceService;
+
+  @After
+  public void cleanUp() {
+    dataResourceDao.deleteAll();
+  }
+
+  @Test
+  public void testCompaction() {
+    DataResource volatileResource = createVersions("compaction-volatile", DataResource.State.VOLATILE);
+    DataResource fixedResource = createVersions("compaction-fixed", DataResource.State.FIXED);
+
+    AuditRetentionProperties properties = new AuditRetentionProperties();
+    properties.setKeepLastVersions(5);
+    properties.setRetainAllFor(Duration.ZERO);
+    properties.setThinningInterval(Duration.ZERO);
+    properties.setChunkSize(1);
+    AuditCompactionService service = new AuditCompactionService(properties, jdbcTemplate, transactionManager, dataResourceDao, contentInformationDao, javers);
+    AuditCompactionReport report = service.compact();
+
+    Assert.assertEquals(VERSIONS - 5, report.getDeletedSnapshots());
+    Assert.assertEquals(1, report.getSkippedFixedEntities());
+    Assert.assertTrue(report.getReclaimedRows() >= report.getDeletedSnapshots());
+    Assert.assertNotNull(report.getLatencyBefore());
+    Assert.assertNotNull(report.getLatencyAfter());
+
+    List<CdoSnapshot> remaining = snapshots(volatileResource.getId());
+    Assert.assertEquals(5, remaining.size());
+    //the most recent versions are kept without renumbering
+    Assert.assertEquals(VERSIONS, remaining.get(0).getVersion());
+    Assert.assertEquals(VERSIONS - 4, remaining.get(4).getVersion());
+    Assert.assertEquals(VERSIONS, snapshots(fixedResource.getId()).size());
+
+    //nothing left to compact
+    Assert.assertEquals(0, service.compact().getReclaimedRows());
+  }
+
+  @Test
+  public void testFindAllVersionsAfterCompaction() throws Exception {
+    DataResource resource = createVersions("compaction-versions", DataResource.State.VOLATILE);
+
+    AuditRetentionProperties properties = new AuditRetentionProperties();
+    properties.setKeepLastVersions(5);
+    properties.setRetainAllFor(Duration.ZERO);
+    properties.setThinningInterval(Duration.ZERO);
+    new AuditCompactionService(properties, jdbcTemplate, transactionManager, dataResourceDao, contentInformationDao, javers).compact();
+
+    RepoBaseConfiguration configuration = new RepoBaseConfiguration();
+    configuration.setBasepath(new URL("file:///tmp/repo-base"));
+    configuration.setVersioningService(new SimpleDataVersioningService());
+    configuration.setAuditService(new DataResourceAuditService(javers, configuration));
+    dataResourceService.configure(configuration);
+
+    try (MockedStatic<AuthenticationHelper> utilities = Mockito.mockStatic(AuthenticationHelper.class, Mockito.CALLS_REAL_METHODS)) {
+      utilities.when(() -> AuthenticationHelper.hasAuthority(RepoUserRole.ADMINISTRATOR.getValue())).thenReturn(true);
+
+      //versions 15 to 11 remain, version numbers are not contiguous anymore
+      Page<DataResource> first = dataResourceService.findAllVersions(resource.getId(), PageRequest.of(0, 2));
+      Assert.assertEquals(5, first.getTotalElements());
+      Assert.assertEquals(3, first.getTotalPages());
+      Assert.assertEquals(List.of("publisher-15", "publisher-14"), publishers(first));
+      Assert.assertEquals(List.of("publisher-13", "publisher-12"), publishers(dataResourceService.findAllVersions(resource.getId(), PageRequest.of(1, 2))));
+      Assert.assertEquals(List.of("publisher-11"), publishers(dataResourceService.findAllVersions(resource.getId(), PageRequest.of(2, 2))));
+      Assert.assertTrue(dataResourceService.findAllVersions(resource.getId(), PageRequest.of(3, 2)).getContent().isEmpty());
+      //removed versions are not available anymore
+      Assert.assertThrows(ResourceNotFoundException.class, () -> dataResourceService.findByAnyIdentifier(resource.getId(), 3l));
+      Assert.assertEquals("publisher-11", dataResourceService.findByAnyIdentifier(resource.getId(), 11l).getPublisher());
+    }
+  }
+
+  private List<String> publishers(Page<DataResource> page) {
+    return page.getContent().stream().map(DataResource::getPublisher).collect(Collectors.toList());
+  }
+
+  private DataResource createVersions(String id, DataResource.State state) {
+    DataResource resource = DataResource.factoryNewDataResource(id);
+    resource.getTitles().add(Title.factoryTitle("Compaction test"));
+    resource.setState(state);
+    for (int i = 1; i <= VERSIONS; i++) {
+      resource.setPublisher("publisher-" + i);
+      resource = dataResourceDao.save(resource);
+      javers.commit("tester", resource);
+    }
+    return resource;
+  }
+
+  private List<CdoSnapshot> snapshots(String id) {
+    return javers.findSnapshots(QueryBuilder.byInstanceId(id, DataResource.class).build());
+  }
+}
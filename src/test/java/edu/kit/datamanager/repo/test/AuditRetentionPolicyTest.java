@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.util.AuditRetentionPolicy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for AuditRetentionPolicy.
+ */
+public class AuditRetentionPolicyTest {
+
+  private static final Instant NOW = Instant.parse("2026-06-30T12:00:00Z");
+
+  @Test
+  public void testKeepLastVersions() {
+    AuditRetentionPolicy policy = new AuditRetentionPolicy(3, Duration.ZERO, Duration.ZERO);
+    //one version per day, version 10 is the most recent one
+    List<Long> removed = policy.select(dailyVersions(10), NOW);
+    Assert.assertEquals(List.of(7L, 6L, 5L, 4L, 3L, 2L, 1L), removed);
+    Assert.assertTrue(policy.select(dailyVersions(3), NOW).isEmpty());
+  }
+
+  @Test
+  public void testRetainAllFor() {
+    AuditRetentionPolicy policy = new AuditRetentionPolicy(1, Duration.ofDays(4), Duration.ZERO);
+    //versions 10 to 7 are younger than four days
+    Assert.assertEquals(List.of(6L, 5L, 4L, 3L, 2L, 1L), policy.select(dailyVersions(10), NOW));
+  }
+
+  @Test
+  public void testThinning() {
+    AuditRetentionPolicy policy = new AuditRetentionPolicy(1, Duration.ofDays(2), Duration.ofDays(7));
+    List<AuditRetentionPolicy.Version> versions = dailyVersions(30);
+    List<Long> removed = policy.select(versions, NOW);
+    //one version per week is kept beyond the retention period
+    List<Long> kept = new ArrayList<>();
+    for (AuditRetentionPolicy.Version version : versions) {
+      if (!removed.contains(version.getKey())) {
+        kept.add(version.getVersion());
+      }
+    }
+    Assert.assertTrue(kept.containsAll(List.of(30L, 29L, 28L)));
+    Assert.assertTrue(kept.size() >= 7 && kept.size() <= 8);
+    Assert.assertFalse(removed.isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMostRecentVersionIsAlwaysKept() {
+    new AuditRetentionPolicy(0, Duration.ZERO, Duration.ZERO);
+  }
+
+  /**
+   * Versions 1 to count, committed once per day with the most recent version
+   * committed now. The key of each version equals its version number.
+   */
+  private static List<AuditRetentionPolicy.Version> dailyVersions(int count) {
+    List<AuditRetentionPolicy.Version> versions = new ArrayList<>();
+    for (int i = 1; i <= count; i++) {
+      versions.add(new AuditRetentionPolicy.Version(i, i, NOW.minus(Duration.ofDays(count - i))));
+    }
+    return versions;
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.service.impl.AuditVersionCache;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.javers.core.Commit;
+import org.javers.core.Javers;
+import org.javers.core.JaversBuilder;
+import org.javers.core.metamodel.annotation.Id;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tests for AuditVersionCache.
+ */
+public class AuditVersionCacheTest {
+
+  @Test
+  public void testVersionFromCommit() {
+    Javers javers = JaversBuilder.javers().build();
+    AuditVersionCache cache = new AuditVersionCache(Item.class, Duration.ofMinutes(1));
+    AtomicInteger queries = new AtomicInteger();
+
+    Item item = new Item("audit-1", "first");
+    Commit commit = javers.commit("me", item);
+    cache.update("audit-1", commit);
+    Assert.assertEquals(1, cache.getVersion("audit-1", (id) -> queries.incrementAndGet()));
+
+    item.value = "second";
+    //commits of other entities do not affect the cached version
+    javers.commit("me", new Item("audit-2", "other"));
+    cache.update("audit-1", javers.commit("me", item));
+    Assert.assertEquals(2, cache.getVersion("audit-1", (id) -> queries.incrementAndGet()));
+
+    //commit without changes keeps the cached version
+    cache.update("audit-1", javers.commit("me", item));
+    Assert.assertEquals(2, cache.getVersion("audit-1", (id) -> queries.incrementAndGet()));
+    Assert.assertEquals(0, queries.get());
+  }
+
+  @Test
+  public void testLoadAndInvalidate() {
+    AuditVersionCache cache = new AuditVersionCache(Item.class, Duration.ofMinutes(1));
+    AtomicInteger queries = new AtomicInteger();
+    Assert.assertEquals(7, cache.getVersion("audit-2", (id) -> {
+      queries.incrementAndGet();
+      return 7;
+    }));
+    Assert.assertEquals(7, cache.getVersion("audit-2", (id) -> queries.incrementAndGet()));
+    Assert.assertEquals(1, queries.get());
+    cache.invalidate("audit-2");
+    Assert.assertEquals(2, cache.getVersion("audit-2", (id) -> queries.incrementAndGet()));
+  }
+
+  @Test
+  public void testVersionIsVisibleAfterCommit() {
+    Javers javers = JaversBuilder.javers().build();
+    AuditVersionCache cache = new AuditVersionCache(Item.class, Duration.ofMinutes(1));
+    Item item = new Item("audit-4", "first");
+    cache.update("audit-4", javers.commit("me", item));
+
+    item.value = "second";
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      cache.update("audit-4", javers.commit("me", item));
+      //not committed yet, readers obtain the committed version from the repository
+      Assert.assertEquals(1, cache.getVersion("audit-4", (id) -> 1));
+      for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+        synchronization.afterCommit();
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+      }
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    Assert.assertEquals(2, cache.getVersion("audit-4", (id) -> 0));
+
+    item.value = "third";
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      cache.update("audit-4", javers.commit("me", item));
+      for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+      }
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    //rolled back version is never cached
+    Assert.assertEquals(2, cache.getVersion("audit-4", (id) -> 2));
+  }
+
+  @Test
+  public void testDisabled() {
+    AuditVersionCache cache = new AuditVersionCache(Item.class, Duration.ZERO);
+    AtomicInteger queries = new AtomicInteger();
+    cache.getVersion("audit-3", (id) -> queries.incrementAndGet());
+    cache.getVersion("audit-3", (id) -> queries.incrementAndGet());
+    Assert.assertEquals(2, queries.get());
+  }
+
+  /**
+   * Minimal audited entity.
+   */
+  public static class Item {
+
+    @Id
+    private String id;
+    private String value;
+
+    Item(String id, String value) {
+      this.id = id;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
+import edu.kit.datamanager.repo.configuration.StorageServiceProperties;
+import edu.kit.datamanager.repo.dao.IAMQPMessageDao;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.domain.AMQPMessage;
+import edu.kit.datamanager.repo.domain.BulkDataResourceMessage;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.Title;
+import edu.kit.datamanager.repo.service.IDataResourceService;
+import edu.kit.datamanager.repo.service.impl.DataResourceAuditService;
+import edu.kit.datamanager.repo.service.impl.DateBasedStorageService;
+import edu.kit.datamanager.repo.service.impl.NoneDataVersioningService;
+import edu.kit.datamanager.util.AuthenticationHelper;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import org.javers.core.JaversBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+
+/**
+ * Test for bulk create messages written to the outbox table.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestExecutionListeners(listeners = {
+    DependencyInjectionTestExecutionListener.class,
+    TransactionalTestExecutionListener.class
+})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"repo.messaging.enabled=true", "repo.messaging.publisher.outbox=true", "repo.messaging.publisher.relayInterval=PT1H"})
+@TestPropertySource(properties = {"spring.datasource.url=jdbc:h2:mem:db_bulk_messaging;DB_CLOSE_DELAY=-1;MODE=LEGACY;NON_KEYWORDS=VALUE"})
+public class BulkCreateMessagingTest {
+
+  private static final int NO_OF_RESOURCES = 1200;
+
+  @Autowired
+  private IDataResourceService service;
+  @Autowired
+  private IDataResourceDao dao;
+  @Autowired
+  private IAMQPMessageDao messageDao;
+  @Autowired
+  private StorageServiceProperties storageServiceProperties;
+
+  @Before
+  public void setUp() throws Exception {
+    RepoBaseConfiguration rbc = new RepoBaseConfiguration();
+    rbc.setBasepath(new URL("file:///tmp/repo-base"));
+    DateBasedStorageService storageService = new DateBasedStorageService();
+    storageService.configure(storageServiceProperties);
+    rbc.setStorageService(storageService);
+    rbc.setReadOnly(false);
+    rbc.setVersioningService(new NoneDataVersioningService());
+    rbc.setAuditService(new DataResourceAuditService(JaversBuilder.javers().build(), rbc));
+    service.configure(rbc);
+    dao.deleteAll();
+    messageDao.deleteAll();
+  }
+
+  @Test
+  public void testCreateAllIsSplitIntoMultipleMessages() throws Exception {
+    List<DataResource> resources = new ArrayList<>();
+    for (int i = 0; i < NO_OF_RESOURCES; i++) {
+      DataResource resource = DataResource.factoryNewDataResource();
+      resource.getTitles().add(Title.factoryTitle("Bulk resource " + i, Title.TYPE.OTHER));
+      resources.add(resource);
+    }
+    service.createAll(resources, AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL, null, null);
+    Assert.assertEquals(NO_OF_RESOURCES, dao.count());
+
+    ObjectMapper mapper = new ObjectMapper();
+    int noOfIds = 0;
+    int noOfMessages = 0;
+    for (AMQPMessage message : messageDao.findAll()) {
+      if (!"dataresource.bulkcreate".equals(message.getRoutingKey())) {
+        continue;
+      }
+      Assert.assertTrue(message.getMessage().length() <= 10240);
+      JsonNode json = mapper.readTree(message.getMessage());
+      noOfIds += json.get("entityIds").size();
+      noOfMessages++;
+    }
+    Assert.assertTrue(noOfMessages > 1);
+    Assert.assertEquals(NO_OF_RESOURCES, noOfIds);
+  }
+
+  @Test
+  public void testDataMessagesAreSplit() throws Exception {
+    List<String> paths = new ArrayList<>();
+    for (int i = 0; i < NO_OF_RESOURCES; i++) {
+      paths.add("some/deeply/nested/folder/structure/file_" + i + ".txt");
+    }
+    List<BulkDataResourceMessage> messages = BulkDataResourceMessage.factoryCreateDataMessages("resource", paths, "tester", "localhost");
+    Assert.assertTrue(messages.size() > 1);
+    List<String> sentPaths = new ArrayList<>();
+    for (BulkDataResourceMessage message : messages) {
+      Assert.assertTrue(message.toJson().length() <= 10240);
+      Assert.assertEquals("dataresource.bulkcreate.data", message.getRoutingKey());
+      sentPaths.addAll(message.getRelativePaths());
+    }
+    Assert.assertEquals(paths, sentPaths);
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.service.impl.ChecksumEngine;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ChecksumEngine.
+ */
+public class ChecksumEngineTest {
+
+  private static final byte[] CONTENT = new byte[10_000];
+
+  static {
+    for (int i = 0; i < CONTENT.length; i++) {
+      CONTENT[i] = (byte) (i * 31);
+    }
+  }
+
+  @Test
+  public void testSequentialChecksums() throws Exception {
+    ChecksumEngine engine = new ChecksumEngine(List.of("SHA1", "SHA-256", "CRC32C"), false, 1);
+    assertChecksums(compute(engine, 128));
+  }
+
+  @Test
+  public void testParallelChecksums() throws Exception {
+    ChecksumEngine engine = new ChecksumEngine(List.of("SHA1", "SHA-256", "CRC32C"), true, 2);
+    //small buffers enforce many chunks and a full queue
+    assertChecksums(compute(engine, 7));
+    //second run reuses pooled digesters, which must have been reset
+    assertChecksums(compute(engine, 1024));
+  }
+
+  @Test
+  public void testCustomAlgorithm() throws Exception {
+    ChecksumEngine.registerAlgorithm("LENGTH", () -> new ChecksumEngine.Digester() {
+      private long length = 0;
+
+      @Override
+      public void update(byte[] buffer, int offset, int len) {
+        length += len;
+      }
+
+      @Override
+      public String finish() {
+        String result = Long.toString(length);
+        length = 0;
+        return result;
+      }
+    });
+    ChecksumEngine engine = new ChecksumEngine(List.of("SHA1", "LENGTH"), true, 1);
+    Assert.assertEquals("length:" + CONTENT.length, compute(engine, 100).get("length"));
+    Assert.assertEquals("length:" + CONTENT.length, compute(engine, 100).get("length"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedAlgorithm() {
+    new ChecksumEngine(List.of("SHA1", "NO-SUCH-ALGORITHM"), true, 1);
+  }
+
+  @Test
+  public void testLabel() {
+    Assert.assertEquals("sha256", ChecksumEngine.getLabel("SHA-256"));
+    Assert.assertEquals("sha1", ChecksumEngine.getLabel("SHA1"));
+  }
+
+  private static Map<String, String> compute(ChecksumEngine engine, int bufferSize) throws IOException {
+    try (ChecksumEngine.Session session = engine.openSession(bufferSize)) {
+      int offset = 0;
+      while (offset < CONTENT.length) {
+        byte[] buffer = session.nextBuffer();
+        int length = Math.min(buffer.length, CONTENT.length - offset);
+        System.arraycopy(CONTENT, offset, buffer, 0, length);
+        session.update(buffer, length);
+        offset += length;
+      }
+      return session.finish();
+    }
+  }
+
+  private static void assertChecksums(Map<String, String> checksums) throws Exception {
+    Assert.assertEquals(List.of("sha1", "sha256", "crc32c"), List.copyOf(checksums.keySet()));
+    Assert.assertEquals("sha1:" + Hex.encodeHexString(MessageDigest.getInstance("SHA1").digest(CONTENT)), checksums.get("sha1"));
+    Assert.assertEquals("sha256:" + Hex.encodeHexString(MessageDigest.getInstance("SHA-256").digest(CONTENT)), checksums.get("sha256"));
+    CRC32C crc = new CRC32C();
+    crc.update(CONTENT);
+    Assert.assertEquals("crc32c:" + String.format("%08x", crc.getValue()), checksums.get("crc32c"));
+  }
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.exceptions.AccessForbiddenException;
+import edu.kit.datamanager.exceptions.BadArgumentException;
+import edu.kit.datamanager.exceptions.ResourceNotFoundException;
+import edu.kit.datamanager.exceptions.UpdateForbiddenException;
+import edu.kit.datamanager.repo.configuration.ChunkedUploadProperties;
+import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
+import edu.kit.datamanager.repo.dao.IUploadSessionDao;
+import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.UploadPart;
+import edu.kit.datamanager.repo.domain.UploadSession;
+import edu.kit.datamanager.repo.service.IContentInformationService;
+import edu.kit.datamanager.repo.service.impl.ChunkedUploadService;
+import edu.kit.datamanager.util.AuthenticationHelper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentMatchers;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+/**
+ * Tests for ChunkedUploadService.
+ */
+public class ChunkedUploadServiceTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+  private IContentInformationService contentInformationService;
+  private ChunkedUploadService service;
+  private DataResource resource;
+  private Path stagingFolder;
+  private ByteArrayOutputStream assembled;
+
+  @Before
+  public void setUp() throws Exception {
+    IUploadSessionDao dao = Mockito.mock(IUploadSessionDao.class);
+    Mockito.when(dao.save(ArgumentMatchers.any(UploadSession.class))).thenAnswer((invocation) -> {
+      UploadSession session = invocation.getArgument(0);
+      sessions.put(session.getId(), session);
+      return session;
+    });
+    Mockito.when(dao.findById(ArgumentMatchers.anyString())).thenAnswer((invocation) -> Optional.ofNullable(sessions.get((String) invocation.getArgument(0))));
+    Mockito.when(dao.existsById(ArgumentMatchers.anyString())).thenAnswer((invocation) -> sessions.containsKey((String) invocation.getArgument(0)));
+    Mockito.doAnswer((invocation) -> sessions.remove((String) invocation.getArgument(0))).when(dao).deleteById(ArgumentMatchers.anyString());
+    Mockito.when(dao.claimCompletion(ArgumentMatchers.anyString(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(Instant.class))).thenAnswer((invocation) -> {
+      //conditional update of the status as performed by the database
+      UploadSession session = sessions.get((String) invocation.getArgument(0));
+      synchronized (sessions) {
+        if (session == null || session.getStatus() != invocation.getArgument(1)) {
+          return 0;
+        }
+        session.setStatus(invocation.getArgument(2));
+        session.setExpiresAt(invocation.getArgument(3));
+        return 1;
+      }
+    });
+    Mockito.when(dao.updateStatus(ArgumentMatchers.anyString(), ArgumentMatchers.any(), ArgumentMatchers.any())).thenAnswer((invocation) -> {
+      UploadSession session = sessions.get((String) invocation.getArgument(0));
+      synchronized (sessions) {
+        if (session == null || session.getStatus() != invocation.getArgument(1)) {
+          return 0;
+        }
+        session.setStatus(invocation.getArgument(2));
+        return 1;
+      }
+    });
+    Mockito.when(dao.deleteIfOpen(ArgumentMatchers.anyString(), ArgumentMatchers.any())).thenAnswer((invocation) -> {
+      synchronized (sessions) {
+        UploadSession session = sessions.get((String) invocation.getArgument(0));
+        return (session != null && session.getStatus() == invocation.getArgument(1) && sessions.remove(session.getId()) != null) ? 1 : 0;
+      }
+    });
+    Mockito.when(dao.findByExpiresAtBefore(ArgumentMatchers.any(Instant.class))).thenAnswer((invocation) -> sessions.values().stream().filter((s) -> s.getExpiresAt().isBefore(invocation.getArgument(0))).collect(Collectors.toList()));
+
+    assembled = new ByteArrayOutputStream();
+    contentInformationService = Mockito.mock(IContentInformationService.class);
+    Mockito.when(contentInformationService.create(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class), ArgumentMatchers.anyBoolean())).thenAnswer((invocation) -> {
+      ((InputStream) invocation.getArgument(3)).transferTo(assembled);
+      ContentInformation result = invocation.getArgument(0);
+      result.setSize(assembled.size());
+      return result;
+    });
+
+    RepoBaseConfiguration configuration = new RepoBaseConfiguration();
+    configuration.setBasepath(folder.getRoot().toURI().toURL());
+    configuration.setContentInformationService(contentInformationService);
+    ChunkedUploadProperties properties = new ChunkedUploadProperties();
+    properties.setMaxParts(100);
+    stagingFolder = folder.getRoot().toPath().resolve(properties.getStagingFolder());
+    service = new ChunkedUploadService(properties, dao, configuration);
+
+    resource = DataResource.factoryNewDataResource("chunked");
+  }
+
+  @After
+  public void tearDown() {
+    sessions.clear();
+  }
+
+  @Test
+  public void testParallelUpload() throws Exception {
+    ContentInformation template = new ContentInformation();
+    template.setMediaType("text/plain");
+    UploadSession session = service.initiate(resource, "data/large.txt", template, false);
+    Assert.assertTrue(Files.isDirectory(stagingFolder.resolve(session.getId())));
+
+    int partCount = 20;
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<UploadPart>> futures = new ArrayList<>();
+      //upload in reverse order to ensure assembly does not depend on upload order
+      for (int i = partCount; i > 0; i--) {
+        int partNumber = i;
+        futures.add(executor.submit(() -> service.uploadPart(session.getId(), partNumber, new ByteArrayInputStream(getPart(partNumber)), null)));
+      }
+      for (Future<UploadPart> future : futures) {
+        Assert.assertTrue(future.get().getChecksum().startsWith("sha1:"));
+      }
+    } finally {
+      executor.shutdown();
+    }
+    Assert.assertEquals(partCount, service.getParts(session.getId()).size());
+
+    ContentInformation result = service.complete(session.getId(), resource, null);
+    Assert.assertEquals("data/large.txt", result.getRelativePath());
+    Assert.assertEquals("text/plain", result.getMediaType());
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    for (int i = 1; i <= partCount; i++) {
+      expected.write(getPart(i));
+    }
+    Assert.assertArrayEquals(expected.toByteArray(), assembled.toByteArray());
+    //session and parts are removed after completion
+    Assert.assertTrue(sessions.isEmpty());
+    Assert.assertFalse(Files.exists(stagingFolder.resolve(session.getId())));
+  }
+
+  @Test
+  public void testResumeUpload() throws Exception {
+    UploadSession session = service.initiate(resource, "resume.txt", null, false);
+    service.uploadPart(session.getId(), 1, new ByteArrayInputStream(getPart(1)), null);
+    service.uploadPart(session.getId(), 3, new ByteArrayInputStream(getPart(3)), null);
+    try {
+      service.complete(session.getId(), resource, null);
+      Assert.fail("Completing with missing part should fail.");
+    } catch (BadArgumentException ex) {
+      //expected
+    }
+    List<UploadPart> parts = service.getParts(session.getId());
+    Assert.assertEquals(2, parts.size());
+    Assert.assertEquals(3, parts.get(1).getPartNumber());
+    Assert.assertEquals(getPart(3).length, parts.get(1).getSize());
+
+    //a failed part can be uploaded again
+    try {
+      service.uploadPart(session.getId(), 2, new ByteArrayInputStream(getPart(2)), "sha1:0000");
+      Assert.fail("Part with wrong checksum should be rejected.");
+    } catch (BadArgumentException ex) {
+      //expected
+    }
+    Assert.assertEquals(2, service.getParts(session.getId()).size());
+    String checksum = service.uploadPart(session.getId(), 2, new ByteArrayInputStream(getPart(2)), null).getChecksum();
+    service.uploadPart(session.getId(), 2, new ByteArrayInputStream(getPart(2)), checksum);
+
+    try {
+      service.complete(session.getId(), resource, "sha1:0000");
+      Assert.fail("Completing with wrong checksum should fail.");
+    } catch (BadArgumentException ex) {
+      //expected
+    }
+    Assert.assertEquals(0, assembled.size());
+    service.complete(session.getId(), resource, "sha1:" + sha1(getPart(1), getPart(2), getPart(3)));
+    Assert.assertEquals(getPart(1).length + getPart(2).length + getPart(3).length, assembled.size());
+  }
+
+  @Test
+  public void testInvalidRequests() throws Exception {
+    UploadSession session = service.initiate(resource, "invalid.txt", null, false);
+    try {
+      service.uploadPart(session.getId(), 101, new ByteArrayInputStream(getPart(1)), null);
+      Assert.fail("Part number above max. parts should be rejected.");
+    } catch (BadArgumentException ex) {
+      //expected
+    }
+    try {
+      service.complete(session.getId(), DataResource.factoryNewDataResource("other"), null);
+      Assert.fail("Completing for another resource should fail.");
+    } catch (BadArgumentException ex) {
+      //expected
+    }
+    try {
+      service.initiate(resource, "folder/", null, false);
+      Assert.fail("Uploads to folders should be rejected.");
+    } catch (BadArgumentException ex) {
+      //expected
+    }
+    service.abort(session.getId());
+    Assert.assertFalse(Files.exists(stagingFolder.resolve(session.getId())));
+    try {
+      service.uploadPart(session.getId(), 1, new ByteArrayInputStream(getPart(1)), null);
+      Assert.fail("Uploads to aborted sessions should fail.");
+    } catch (ResourceNotFoundException ex) {
+      //expected
+    }
+    Mockito.verifyNoInteractions(contentInformationService);
+  }
+
+  @Test
+  public void testCleanUpExpiredSessions() throws Exception {
+    UploadSession expired = service.initiate(resource, "expired.txt", null, false);
+    service.uploadPart(expired.getId(), 1, new ByteArrayInputStream(getPart(1)), null);
+    expired.setExpiresAt(Instant.now().minus(Duration.ofMinutes(1)));
+    UploadSession active = service.initiate(resource, "active.txt", null, false);
+    //staging folder without session, e.g. left after a crash
+    Path orphan = Files.createDirectories(stagingFolder.resolve("orphan"));
+    Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+    Assert.assertEquals(1, service.cleanUp());
+    Assert.assertFalse(sessions.containsKey(expired.getId()));
+    Assert.assertFalse(Files.exists(stagingFolder.resolve(expired.getId())));
+    Assert.assertFalse(Files.exists(orphan));
+    Assert.assertTrue(sessions.containsKey(active.getId()));
+    Assert.assertTrue(Files.exists(stagingFolder.resolve(active.getId())));
+  }
+
+  @Test
+  public void testSessionOfOtherUploaderIsForbidden() throws Exception {
+    UploadSession session;
+    try (MockedStatic<AuthenticationHelper> auth = Mockito.mockStatic(AuthenticationHelper.class)) {
+      auth.when(AuthenticationHelper::getPrincipal).thenReturn("alice");
+      session = service.initiate(resource, "owned.txt", null, false);
+      service.uploadPart(session.getId(), 1, new ByteArrayInputStream(getPart(1)), null);
+
+      auth.when(AuthenticationHelper::getPrincipal).thenReturn("bob");
+      try {
+        service.uploadPart(session.getId(), 2, new ByteArrayInputStream(getPart(2)), null);
+        Assert.fail("Uploading parts to the session of another user should be forbidden.");
+      } catch (AccessForbiddenException ex) {
+        //expected
+      }
+      try {
+        service.complete(session.getId(), resource, null);
+        Assert.fail("Completing the session of another user should be forbidden.");
+      } catch (AccessForbiddenException ex) {
+        //expected
+      }
+      try {
+        service.abort(session.getId());
+        Assert.fail("Aborting the session of another user should be forbidden.");
+      } catch (AccessForbiddenException ex) {
+        //expected
+      }
+      Assert.assertTrue(sessions.containsKey(session.getId()));
+      Assert.assertEquals(UploadSession.Status.OPEN, session.getStatus());
+      Mockito.verifyNoInteractions(contentInformationService);
+
+      //administrators may access all sessions
+      auth.when(() -> AuthenticationHelper.hasAuthority(ArgumentMatchers.anyString())).thenReturn(true);
+      service.complete(session.getId(), resource, null);
+    }
+    Assert.assertEquals(getPart(1).length, assembled.size());
+    Assert.assertFalse(sessions.containsKey(session.getId()));
+  }
+
+  @Test
+  public void testCompletionIsClaimedOnce() throws Exception {
+    UploadSession session = service.initiate(resource, "claimed.txt", null, false);
+    service.uploadPart(session.getId(), 1, new ByteArrayInputStream(getPart(1)), null);
+    //another instance claimed the completion
+    session.setStatus(UploadSession.Status.COMPLETING);
+    try {
+      service.complete(session.getId(), resource, null);
+      Assert.fail("Completing a session claimed by another request should fail.");
+    } catch (UpdateForbiddenException ex) {
+      //expected
+    }
+    try {
+      service.uploadPart(session.getId(), 2, new ByteArrayInputStream(getPart(2)), null);
+      Assert.fail("Uploading parts to a session being completed should fail.");
+    } catch (UpdateForbiddenException ex) {
+      //expected
+    }
+    try {
+      service.abort(session.getId());
+      Assert.fail("Aborting a session being completed should fail.");
+    } catch (UpdateForbiddenException ex) {
+      //expected
+    }
+    Assert.assertEquals(UploadSession.Status.COMPLETING, session.getStatus());
+    Mockito.verifyNoInteractions(contentInformationService);
+
+    //a failed completion releases the claim
+    session.setStatus(UploadSession.Status.OPEN);
+    try {
+      service.complete(session.getId(), resource, "sha1:0000");
+      Assert.fail("Completing with wrong checksum should fail.");
+    } catch (BadArgumentException ex) {
+      //expected
+    }
+    Assert.assertEquals(UploadSession.Status.OPEN, session.getStatus());
+    service.complete(session.getId(), resource, null);
+    Assert.assertFalse(sessions.containsKey(session.getId()));
+  }
+
+  private static byte[] getPart(int partNumber) {
+    return ("part " + partNumber + ";").repeat(1000 + partNumber).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String sha1(byte[]... parts) throws Exception {
+    MessageDigest digest = MessageDigest.getInstance("SHA-1");
+    for (byte[] part : parts) {
+      digest.update(part);
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
+import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.service.IRepoVersioningService;
+import edu.kit.datamanager.repo.service.impl.ContentInformationAuditService;
+import org.javers.core.Javers;
+import org.javers.core.JaversBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests for ContentInformationAuditService.
+ */
+public class ContentInformationAuditServiceTest {
+
+  private Javers javers;
+  private ContentInformationAuditService auditService;
+  private ContentInformation element;
+
+  @Before
+  public void setUp() {
+    RepoBaseConfiguration configuration = new RepoBaseConfiguration();
+    //any versioning service other than 'none' enables auditing
+    IRepoVersioningService versioningService = Mockito.mock(IRepoVersioningService.class);
+    Mockito.when(versioningService.getServiceName()).thenReturn("simple");
+    configuration.setVersioningService(versioningService);
+    javers = JaversBuilder.javers().build();
+    auditService = new ContentInformationAuditService(javers, configuration);
+    element = ContentInformation.createContentInformation("file.txt");
+    element.setId(1l);
+    element.setParentResource(DataResource.factoryNewDataResource("parent"));
+    element.setVersion(1);
+    auditService.captureAuditInformation(element, "tester");
+  }
+
+  @Test
+  public void testLoadCurrentVersionBypassesCache() {
+    Assert.assertEquals(1, auditService.getCurrentVersion("1"));
+    //commit of another instance sharing the Javers repository
+    element.setVersion(2);
+    javers.commit("other", element);
+
+    //cached version for reading, fresh version for assigning new versions
+    Assert.assertEquals(1, auditService.getCurrentVersion("1"));
+    Assert.assertEquals(2, auditService.loadCurrentVersion("1"));
+  }
+}
@@ -15,6 +15,9 @@
  */
 package edu.kit.datamanager.repo.test;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.kit.datamanager.exceptions.BadArgumentException;
 import edu.kit.datamanager.exceptions.CustomInternalServerError;
 import edu.kit.datamanager.exceptions.ResourceNotFoundException;
@@ -24,6 +27,7 @@ import edu.kit.datamanager.repo.dao.IAllIdentifiersDao;
 import edu.kit.datamanager.repo.dao.IContentInformationDao;
 import edu.kit.datamanager.repo.dao.IDataResourceDao;
 import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.ContentInformationSummary;
 import edu.kit.datamanager.repo.domain.DataResource;
 import edu.kit.datamanager.repo.domain.ResourceType;
 import edu.kit.datamanager.repo.domain.Title;
@@ -37,6 +41,9 @@ import edu.kit.datamanager.util.AuthenticationHelper;
 import java.io.ByteArrayInputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.Hibernate;
 import org.javers.core.Javers;
 import org.javers.core.JaversBuilder;
 import org.junit.After;
@@ -49,11 +56,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
 import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  *
@@ -84,6 +94,8 @@ public class ContentInformationServiceTest {
     private IAllIdentifiersDao allIdentifiersDao;
     @Autowired
     private StorageServiceProperties storageServiceProperties;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     private DataResource parentResource = null;
 
@@ -162,6 +174,120 @@ public class ContentInformationServiceTest {
         Assert.fail("Test should have already failed.");
     }
 
+    @Test
+    public void testCreateAll() {
+        List<ContentInformation> elements = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ContentInformation info = createContentInformation("test123", "remote/file" + i + ".txt", "tag1");
+            info.setContentUri("https://www.example.org/file" + i + ".txt");
+            info.setSize(i);
+            elements.add(info);
+        }
+        List<ContentInformation> created = service.createAll(parentResource, elements);
+        Assert.assertEquals(3, created.size());
+        for (int i = 0; i < 3; i++) {
+            Assert.assertNotNull(created.get(i).getId());
+            Assert.assertEquals("remote/file" + i + ".txt", created.get(i).getRelativePath());
+            Assert.assertEquals(parentResource.getId(), created.get(i).getParentResource().getId());
+            Assert.assertEquals(Integer.valueOf(1), created.get(i).getVersion());
+        }
+        Assert.assertEquals(3, dao.count());
+
+        //register one existing and one new element
+        elements.clear();
+        ContentInformation existing = createContentInformation("test123", "remote/file0.txt");
+        existing.setContentUri("https://www.example.org/moved/file0.txt");
+        elements.add(existing);
+        ContentInformation added = createContentInformation("test123", "remote/file3.txt");
+        added.setContentUri("https://www.example.org/file3.txt");
+        elements.add(added);
+        List<ContentInformation> updated = service.createAll(parentResource, elements);
+        Assert.assertEquals(created.get(0).getId(), updated.get(0).getId());
+        Assert.assertEquals("https://www.example.org/moved/file0.txt", updated.get(0).getContentUri());
+        Assert.assertNotNull(updated.get(1).getId());
+        Assert.assertEquals(4, dao.count());
+    }
+
+    @Test
+    public void testCreateAllWithInvalidElements() {
+        List<ContentInformation> elements = new ArrayList<>();
+        ContentInformation info = createContentInformation("test123", "remote/file.txt");
+        info.setContentUri("https://www.example.org/file.txt");
+        elements.add(info);
+        ContentInformation duplicate = createContentInformation("test123", "remote/file.txt");
+        duplicate.setContentUri("https://www.example.org/other.txt");
+        elements.add(duplicate);
+        try {
+            service.createAll(parentResource, elements);
+            Assert.fail("Test should have already failed.");
+        } catch (BadArgumentException ex) {
+            //expected
+        }
+        elements.remove(duplicate);
+        ContentInformation localFile = createContentInformation("test123", "remote/local.txt");
+        localFile.setContentUri("file:///Users/data/dummy.txt");
+        elements.add(localFile);
+        try {
+            service.createAll(parentResource, elements);
+            Assert.fail("Test should have already failed.");
+        } catch (BadArgumentException ex) {
+            //expected
+        }
+        Assert.assertEquals(0, dao.count());
+    }
+
+    @Test
+    public void testFindSummaries() {
+        List<ContentInformation> elements = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ContentInformation info = createContentInformation("test123", "remote/file" + i + ".txt", (i % 2 == 0) ? "even" : "odd");
+            info.setContentUri("https://www.example.org/file" + i + ".txt");
+            info.setHash("sha1:" + i);
+            info.setMediaType("text/plain");
+            info.setSize(i);
+            elements.add(info);
+        }
+        service.createAll(parentResource, elements);
+
+        Page<ContentInformationSummary> summaries = service.findSummaries(createContentInformation("test123", "remote/%"), PageRequest.of(0, 2, Sort.by("relativePath")));
+        Assert.assertEquals(5, summaries.getTotalElements());
+        Assert.assertEquals(2, summaries.getNumberOfElements());
+        ContentInformationSummary first = summaries.getContent().get(0);
+        Assert.assertEquals("remote/file0.txt", first.getRelativePath());
+        Assert.assertEquals("sha1:0", first.getHash());
+        Assert.assertEquals("text/plain", first.getMediaType());
+        Assert.assertEquals(0, first.getSize());
+        Assert.assertEquals(Integer.valueOf(1), first.getVersion());
+        Assert.assertEquals("remote/file1.txt", summaries.getContent().get(1).getRelativePath());
+
+        summaries = service.findSummaries(createContentInformation("test123", "remote/%", "even"), PageRequest.of(0, 10, Sort.by(Sort.Order.asc("depth"), Sort.Order.asc("relativePath"))));
+        Assert.assertEquals(3, summaries.getTotalElements());
+        Assert.assertEquals("remote/file4.txt", summaries.getContent().get(2).getRelativePath());
+    }
+
+    @Test
+    public void testListingLoadsParentLazily() throws Exception {
+        ContentInformation info = createContentInformation("test123", "remote/file.txt", "tag1");
+        info.setContentUri("https://www.example.org/file.txt");
+        service.createAll(parentResource, List.of(info));
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        String json = template.execute((status) -> {
+            ContentInformation element = service.findAll(createContentInformation("test123", "remote/%"), PageRequest.of(0, 10)).getContent().get(0);
+            Assert.assertFalse(Hibernate.isInitialized(element.getParentResource()));
+            Assert.assertEquals(parentResource.getId(), element.getParentResource().getId());
+            try {
+                return new ObjectMapper().findAndRegisterModules().writeValueAsString(element);
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        //only the id of the parent is serialized without loading it
+        JsonNode parent = new ObjectMapper().readTree(json).get("parentResource");
+        Assert.assertEquals(parentResource.getId(), parent.get("id").asText());
+        Assert.assertTrue(parent.path("titles").isEmpty());
+    }
+
     private ContentInformation createContentInformation(String id, String path, String... tags) {
         return ContentInformation.createContentInformation(id, path, tags);
     }
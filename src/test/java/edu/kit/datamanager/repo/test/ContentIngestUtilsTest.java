@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.util.ContentIngestUtils;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for ContentIngestUtils.
+ */
+public class ContentIngestUtilsTest {
+
+  private Path destination;
+
+  @Before
+  public void setUp() throws Exception {
+    destination = Files.createTempFile("ingest", ".out");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    Files.deleteIfExists(destination);
+  }
+
+  @Test
+  public void testIngestWithMediaTypeDetection() throws Exception {
+    byte[] content = "This is plain text content.".getBytes(StandardCharsets.UTF_8);
+    //sample size smaller than content and tiny buffer to enforce pushback and multiple writes
+    ContentIngestUtils.IngestResult result = ContentIngestUtils.ingest(new ByteArrayInputStream(content), destination, "file.txt", true, 8, 4);
+    Assert.assertEquals(content.length, result.getSize());
+    Assert.assertEquals("sha1:" + Hex.encodeHexString(MessageDigest.getInstance("SHA1").digest(content)), result.getChecksum());
+    Assert.assertEquals("text/plain", result.getMediaType());
+    Assert.assertArrayEquals(content, Files.readAllBytes(destination));
+  }
+
+  @Test
+  public void testIngestWithoutMediaTypeDetection() throws Exception {
+    byte[] content = new byte[100_000];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+    ContentIngestUtils.IngestResult result = ContentIngestUtils.ingest(new ByteArrayInputStream(content), destination, "file.bin", false, 8192, 65536);
+    Assert.assertEquals(content.length, result.getSize());
+    Assert.assertNull(result.getMediaType());
+    Assert.assertArrayEquals(content, Files.readAllBytes(destination));
+  }
+
+  @Test
+  public void testIngestEmptyStream() throws Exception {
+    ContentIngestUtils.IngestResult result = ContentIngestUtils.ingest(new ByteArrayInputStream(new byte[0]), destination, "empty.txt", true, 8192, 1024);
+    Assert.assertEquals(0, result.getSize());
+    Assert.assertEquals("sha1:da39a3ee5e6b4b0d3255bfef95601890afd80709", result.getChecksum());
+    Assert.assertNotNull(result.getMediaType());
+    Assert.assertEquals(0, Files.size(destination));
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.util.ContentRangeUtils;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ContentRangeUtils.
+ */
+public class ContentRangeUtilsTest {
+
+  @Test
+  public void testParseSingleRange() {
+    List<ContentRangeUtils.ByteRange> ranges = ContentRangeUtils.parseRanges("bytes=0-99", 1000);
+    Assert.assertEquals(1, ranges.size());
+    Assert.assertEquals(0, ranges.get(0).getStart());
+    Assert.assertEquals(99, ranges.get(0).getEnd());
+    Assert.assertEquals(100, ranges.get(0).getLength());
+    Assert.assertEquals("bytes 0-99/1000", ranges.get(0).toContentRange(1000));
+  }
+
+  @Test
+  public void testParseOpenAndSuffixRanges() {
+    List<ContentRangeUtils.ByteRange> ranges = ContentRangeUtils.parseRanges("bytes=900-", 1000);
+    Assert.assertEquals(900, ranges.get(0).getStart());
+    Assert.assertEquals(999, ranges.get(0).getEnd());
+
+    ranges = ContentRangeUtils.parseRanges("bytes=-100", 1000);
+    Assert.assertEquals(900, ranges.get(0).getStart());
+    Assert.assertEquals(999, ranges.get(0).getEnd());
+
+    //suffix longer than content
+    ranges = ContentRangeUtils.parseRanges("bytes=-5000", 1000);
+    Assert.assertEquals(0, ranges.get(0).getStart());
+    Assert.assertEquals(999, ranges.get(0).getEnd());
+
+    //end beyond content length
+    ranges = ContentRangeUtils.parseRanges("bytes=500-5000", 1000);
+    Assert.assertEquals(999, ranges.get(0).getEnd());
+  }
+
+  @Test
+  public void testParseMultipleRanges() {
+    List<ContentRangeUtils.ByteRange> ranges = ContentRangeUtils.parseRanges("bytes=500-599, 0-9, 5-19, 20-29", 1000);
+    Assert.assertEquals(2, ranges.size());
+    Assert.assertEquals(0, ranges.get(0).getStart());
+    Assert.assertEquals(29, ranges.get(0).getEnd());
+    Assert.assertEquals(500, ranges.get(1).getStart());
+    Assert.assertEquals(599, ranges.get(1).getEnd());
+  }
+
+  @Test
+  public void testParseUnsatisfiableRange() {
+    Assert.assertTrue(ContentRangeUtils.parseRanges("bytes=1000-1999", 1000).isEmpty());
+    Assert.assertTrue(ContentRangeUtils.parseRanges("bytes=-0", 1000).isEmpty());
+  }
+
+  @Test
+  public void testParseInvalidRange() {
+    Assert.assertNull(ContentRangeUtils.parseRanges(null, 1000));
+    Assert.assertNull(ContentRangeUtils.parseRanges("items=0-9", 1000));
+    Assert.assertNull(ContentRangeUtils.parseRanges("bytes=9-0", 1000));
+    Assert.assertNull(ContentRangeUtils.parseRanges("bytes=a-b", 1000));
+    Assert.assertNull(ContentRangeUtils.parseRanges("bytes=-", 1000));
+    Assert.assertNull(ContentRangeUtils.parseRanges("bytes=10", 1000));
+    StringBuilder tooMany = new StringBuilder("bytes=0-0");
+    for (int i = 1; i <= ContentRangeUtils.MAX_RANGES; i++) {
+      tooMany.append(",").append(i * 2).append("-").append(i * 2);
+    }
+    Assert.assertNull(ContentRangeUtils.parseRanges(tooMany.toString(), 1000));
+  }
+
+  @Test
+  public void testConditionalHeaders() {
+    String etag = ContentRangeUtils.getContentEtag("sha1:1234");
+    Assert.assertEquals("\"sha1:1234\"", etag);
+    Assert.assertNull(ContentRangeUtils.getContentEtag(null));
+
+    Assert.assertTrue(ContentRangeUtils.matchesIfNoneMatch("*", etag));
+    Assert.assertTrue(ContentRangeUtils.matchesIfNoneMatch("\"other\", W/\"sha1:1234\"", etag));
+    Assert.assertFalse(ContentRangeUtils.matchesIfNoneMatch("\"other\"", etag));
+    Assert.assertFalse(ContentRangeUtils.matchesIfNoneMatch(null, etag));
+
+    Assert.assertTrue(ContentRangeUtils.isRangeApplicable(null, etag));
+    Assert.assertTrue(ContentRangeUtils.isRangeApplicable("\"sha1:1234\"", etag));
+    Assert.assertFalse(ContentRangeUtils.isRangeApplicable("W/\"sha1:1234\"", etag));
+    Assert.assertFalse(ContentRangeUtils.isRangeApplicable("\"other\"", etag));
+    Assert.assertFalse(ContentRangeUtils.isRangeApplicable("Wed, 21 Oct 2015 07:28:00 GMT", etag));
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.configuration.ContentTransferProperties;
+import edu.kit.datamanager.repo.util.ContentTransferUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for ContentTransferUtils.
+ */
+public class ContentTransferUtilsTest {
+
+  private static final String CONTENT = "This is the content of a test file transferred in small chunks.";
+
+  private Path source;
+
+  @Before
+  public void setUp() throws Exception {
+    source = Files.createTempFile("transfer", ".txt");
+    Files.write(source, CONTENT.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    Files.deleteIfExists(source);
+  }
+
+  @Test
+  public void testTransferToStream() throws Exception {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    //use tiny buffer to enforce multiple reads
+    long transferred = ContentTransferUtils.transfer(source, bout, 7);
+    Assert.assertEquals(CONTENT.length(), transferred);
+    Assert.assertEquals(CONTENT, bout.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testTransferPartialContent() throws Exception {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    long transferred = ContentTransferUtils.transfer(source, 5, 7, bout, 3);
+    Assert.assertEquals(7, transferred);
+    Assert.assertEquals(CONTENT.substring(5, 12), bout.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testTransferBeyondEndOfFile() throws Exception {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    long transferred = ContentTransferUtils.transfer(source, CONTENT.length() - 3, 100, bout, 1024);
+    Assert.assertEquals(3, transferred);
+    Assert.assertEquals(CONTENT.substring(CONTENT.length() - 3), bout.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testTransferToFile() throws Exception {
+    Path destination = Files.createTempFile("transfer", ".out");
+    try {
+      try (FileOutputStream fout = new FileOutputStream(destination.toFile())) {
+        Assert.assertEquals(CONTENT.length(), ContentTransferUtils.transfer(source, fout, 1024));
+      }
+      Assert.assertEquals(CONTENT, Files.readString(destination));
+    } finally {
+      Files.deleteIfExists(destination);
+    }
+  }
+
+  @Test
+  public void testGetBufferSize() {
+    Assert.assertEquals(ContentTransferUtils.DEFAULT_BUFFER_SIZE, ContentTransferUtils.getBufferSize(null));
+    ContentTransferProperties properties = new ContentTransferProperties();
+    properties.setBufferSize(8192);
+    Assert.assertEquals(8192, ContentTransferUtils.getBufferSize(properties));
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.service.IRepoVersioningService;
+import edu.kit.datamanager.repo.service.impl.DataResourceAuditService;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.javers.core.JaversBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests for DataResourceAuditService.
+ */
+public class DataResourceAuditServiceTest {
+
+  private DataResourceAuditService auditService;
+
+  @Before
+  public void setUp() {
+    RepoBaseConfiguration configuration = new RepoBaseConfiguration();
+    //any versioning service other than 'none' enables auditing
+    IRepoVersioningService versioningService = Mockito.mock(IRepoVersioningService.class);
+    Mockito.when(versioningService.getServiceName()).thenReturn("simple");
+    configuration.setVersioningService(versioningService);
+    auditService = new DataResourceAuditService(JaversBuilder.javers().build(), configuration);
+    DataResource resource = new DataResource();
+    resource.setId("versioned");
+    for (int i = 1; i <= 5; i++) {
+      resource.setPublisher("publisher-" + i);
+      auditService.captureAuditInformation(resource, "tester");
+    }
+  }
+
+  @Test
+  public void testGetResourceVersions() {
+    Assert.assertEquals(5, auditService.getCurrentVersion("versioned"));
+    Assert.assertEquals(List.of("publisher-5", "publisher-4", "publisher-3", "publisher-2", "publisher-1"), publishers(auditService.getResourceVersions("versioned", 0, 10)));
+    Assert.assertEquals(List.of("publisher-4", "publisher-3"), publishers(auditService.getResourceVersions("versioned", 1, 2)));
+    Assert.assertEquals("publisher-3", auditService.getResourceByVersion("versioned", 3).get().getPublisher());
+  }
+
+  @Test
+  public void testGetResourceVersionsOutOfRange() {
+    Assert.assertTrue(auditService.getResourceVersions("versioned", 5, 10).isEmpty());
+    Assert.assertTrue(auditService.getResourceVersions("versioned", 0, 0).isEmpty());
+    Assert.assertTrue(auditService.getResourceVersions("unknown", 0, 10).isEmpty());
+    Assert.assertTrue(auditService.getResourceVersions(null, 0, 10).isEmpty());
+  }
+
+  private static List<String> publishers(List<DataResource> versions) {
+    return versions.stream().map(DataResource::getPublisher).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.configuration.CacheProperties;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.Title;
+import edu.kit.datamanager.repo.service.impl.DataResourceCache;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for DataResourceCache.
+ */
+public class DataResourceCacheTest {
+
+  private DataResourceCache cache;
+
+  @Before
+  public void setUp() {
+    CacheProperties properties = new CacheProperties();
+    properties.setEnabled(true);
+    properties.setMaximumSize(10);
+    properties.setExpireAfterWrite(Duration.ofMinutes(5));
+    cache = new DataResourceCache(properties);
+  }
+
+  @Test
+  public void testResourceSnapshotIsDetached() {
+    DataResource resource = createResource("cached-1");
+    cache.putResource(resource);
+    //modifications after caching are not visible
+    resource.getTitles().add(Title.factoryTitle("Modified"));
+
+    Optional<DataResource> first = cache.getResource("cached-1");
+    Assert.assertTrue(first.isPresent());
+    Assert.assertEquals(1, first.get().getTitles().size());
+    //modifications of returned copies are not visible
+    first.get().setPublisher("somebody else");
+    DataResource second = cache.getResource("cached-1").get();
+    Assert.assertNotSame(first.get(), second);
+    Assert.assertEquals("me", second.getPublisher());
+    Assert.assertEquals(createResource("cached-1").getEtag(), second.getEtag());
+  }
+
+  @Test
+  public void testIdentifierMapping() {
+    Assert.assertFalse(cache.getResourceId("doi:10.1234/abc").isPresent());
+    cache.putResourceId("doi:10.1234/abc", "cached-2");
+    Assert.assertEquals("cached-2", cache.getResourceId("doi:10.1234/abc").get());
+  }
+
+  @Test
+  public void testInvalidate() {
+    cache.putResource(createResource("cached-3"));
+    cache.putResourceId("alt-3", "cached-3");
+    cache.putResourceId("alt-4", "cached-4");
+    cache.invalidate("cached-3", List.of("alt-3"));
+    Assert.assertFalse(cache.getResource("cached-3").isPresent());
+    Assert.assertFalse(cache.getResourceId("alt-3").isPresent());
+    Assert.assertTrue(cache.getResourceId("alt-4").isPresent());
+    cache.invalidateAll();
+    Assert.assertFalse(cache.getResourceId("alt-4").isPresent());
+  }
+
+  @Test
+  public void testDisabled() {
+    DataResourceCache disabled = new DataResourceCache();
+    Assert.assertFalse(disabled.isEnabled());
+    disabled.putResource(createResource("cached-5"));
+    disabled.putResourceId("alt-5", "cached-5");
+    Assert.assertFalse(disabled.getResource("cached-5").isPresent());
+    Assert.assertFalse(disabled.getResourceId("alt-5").isPresent());
+  }
+
+  @Test
+  public void testMetrics() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    cache.setMeterRegistry(registry);
+    cache.putResource(createResource("cached-6"));
+    cache.getResource("cached-6");
+    cache.getResource("cached-7");
+    Assert.assertFalse(registry.find("cache.gets").tag("result", "hit").functionCounters().isEmpty());
+    double hits = registry.find("cache.gets").tag("result", "hit").tag("cache", cacheName("_resource_cache")).functionCounter().count();
+    double misses = registry.find("cache.gets").tag("result", "miss").tag("cache", cacheName("_resource_cache")).functionCounter().count();
+    Assert.assertEquals(1.0, hits, 0.0);
+    Assert.assertEquals(1.0, misses, 0.0);
+  }
+
+  private static String cacheName(String suffix) {
+    return MonitoringUtil.getServiceName() + suffix;
+  }
+
+  private static DataResource createResource(String id) {
+    DataResource resource = DataResource.factoryNewDataResource(id);
+    resource.getTitles().add(Title.factoryTitle("Cached resource"));
+    resource.setPublisher("me");
+    resource.setPublicationYear("2026");
+    return resource;
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.entities.PERMISSION;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.domain.Agent;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.DataResourceSummary;
+import edu.kit.datamanager.repo.domain.Description;
+import edu.kit.datamanager.repo.domain.ResourceType;
+import edu.kit.datamanager.repo.domain.Subject;
+import edu.kit.datamanager.repo.domain.Title;
+import edu.kit.datamanager.repo.domain.acl.AclEntry;
+import edu.kit.datamanager.repo.service.IDataResourceService;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Regression tests for the number of statements issued when loading pages of
+ * data resources.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestExecutionListeners(listeners = {DependencyInjectionTestExecutionListener.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.datasource.url=jdbc:h2:mem:db_query_count;DB_CLOSE_DELAY=-1;MODE=LEGACY;NON_KEYWORDS=VALUE",
+  "spring.jpa.properties.hibernate.generate_statistics=true"})
+public class DataResourceQueryCountTest {
+
+  private static final int RESOURCES = 40;
+
+  @Autowired
+  private IDataResourceService service;
+  @Autowired
+  private IDataResourceDao dao;
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private Statistics statistics;
+
+  @Before
+  public void setUp() {
+    dao.deleteAll();
+    for (int i = 0; i < RESOURCES; i++) {
+      DataResource resource = DataResource.factoryNewDataResource("query-count-" + i);
+      resource.getTitles().add(Title.factoryTitle("Title " + i, null));
+      resource.getTitles().add(Title.factoryTitle("Subtitle " + i, Title.TYPE.SUBTITLE));
+      resource.getTitles().add(Title.factoryTitle("Other title " + i, Title.TYPE.OTHER));
+      resource.getCreators().add(Agent.factoryAgent("Jane", "Doe" + i, new String[]{"KIT", "Other"}));
+      resource.getCreators().add(Agent.factoryAgent("John", "Doe" + i, new String[]{"KIT"}));
+      resource.getSubjects().add(Subject.factorySubject("subject-" + i, null, "en", null));
+      resource.getDescriptions().add(Description.factoryDescription("Description " + i, Description.TYPE.ABSTRACT));
+      resource.setResourceType(ResourceType.createResourceType("testingResource", ResourceType.TYPE_GENERAL.DATASET));
+      resource.getFormats().add("text/plain");
+      resource.getSizes().add(i + " bytes");
+      resource.getAcls().add(new AclEntry((i % 2 == 0) ? "tester" : "someone_else", PERMISSION.READ));
+      dao.save(resource);
+    }
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @After
+  public void cleanUp() {
+    dao.deleteAll();
+  }
+
+  @Test
+  public void testSearchPageLoadsCollectionsInBatches() {
+    long statements = countStatements(() -> {
+      Page<DataResource> page = service.findByExample(null, null, null, null, true, PageRequest.of(0, 50));
+      Assert.assertEquals(RESOURCES, page.getNumberOfElements());
+      for (DataResource resource : page) {
+        Assert.assertEquals(3, resource.getTitles().size());
+        Assert.assertEquals(2, resource.getCreators().size());
+        resource.getCreators().forEach((creator) -> Assert.assertFalse(creator.getAffiliations().isEmpty()));
+        Assert.assertEquals(1, resource.getSubjects().size());
+        Assert.assertEquals(1, resource.getDescriptions().size());
+        Assert.assertEquals(1, resource.getAcls().size());
+        Assert.assertEquals(1, resource.getAlternateIdentifiers().size());
+        Assert.assertNotNull(resource.getIdentifier().getValue());
+        Assert.assertNotNull(resource.getResourceType().getValue());
+        resource.getContributors().size();
+        resource.getDates().size();
+        resource.getRelatedIdentifiers().size();
+        resource.getGeoLocations().size();
+        resource.getRights().size();
+        resource.getFundingReferences().size();
+      }
+    });
+    //one query per page, one per collection and one for the affiliations instead of one per resource and collection
+    Assert.assertTrue("Expected at most 25 statements, but got " + statements, statements <= 25);
+  }
+
+  @Test
+  public void testSummaryPageUsesConstantNumberOfQueries() {
+    long statements = countStatements(() -> {
+      Page<DataResourceSummary> page = service.findSummariesByExample(null, null, null, null, true, PageRequest.of(0, 50, Sort.by(Sort.Order.desc("lastUpdate"))));
+      Assert.assertEquals(RESOURCES, page.getNumberOfElements());
+      Assert.assertEquals(RESOURCES, page.getTotalElements());
+      for (DataResourceSummary summary : page) {
+        Assert.assertEquals(3, summary.getTitles().size());
+        Assert.assertNotNull(summary.getIdentifier());
+        Assert.assertEquals(DataResource.State.VOLATILE, summary.getState());
+        Assert.assertEquals("testingResource", summary.getResourceType().getValue());
+      }
+    });
+    //page query and title query, the count query is skipped for the last page
+    Assert.assertTrue("Expected at most 3 statements, but got " + statements, statements <= 3);
+  }
+
+  @Test
+  public void testSummariesMatchResources() {
+    List<String> identities = Arrays.asList("tester");
+    PageRequest request = PageRequest.of(1, 7, Sort.by("id"));
+    Page<DataResource> resources = service.findByExample(null, null, null, identities, false, request);
+    Page<DataResourceSummary> summaries = service.findSummariesByExample(null, null, null, identities, false, request);
+    Assert.assertEquals(RESOURCES / 2, summaries.getTotalElements());
+    Assert.assertEquals(resources.getTotalElements(), summaries.getTotalElements());
+    Assert.assertEquals(resources.getNumberOfElements(), summaries.getNumberOfElements());
+    for (int i = 0; i < resources.getNumberOfElements(); i++) {
+      Assert.assertEquals(resources.getContent().get(i).getId(), summaries.getContent().get(i).getId());
+    }
+  }
+
+  private long countStatements(Runnable runnable) {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.setReadOnly(true);
+    return template.execute((status) -> {
+      statistics.clear();
+      runnable.run();
+      return statistics.getPrepareStatementCount();
+    });
+  }
+}
@@ -22,17 +22,20 @@ import edu.kit.datamanager.entities.RepoUserRole;
 import edu.kit.datamanager.exceptions.BadArgumentException;
 import edu.kit.datamanager.exceptions.ResourceAlreadyExistException;
 import edu.kit.datamanager.exceptions.ResourceNotFoundException;
+import edu.kit.datamanager.repo.configuration.CacheProperties;
 import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
 import edu.kit.datamanager.repo.configuration.StorageServiceProperties;
 import edu.kit.datamanager.repo.dao.IDataResourceDao;
 import edu.kit.datamanager.repo.domain.Agent;
 import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.Date;
 import edu.kit.datamanager.repo.domain.ResourceType;
 import edu.kit.datamanager.repo.domain.Title;
 import edu.kit.datamanager.repo.domain.UnknownInformationConstants;
 import edu.kit.datamanager.repo.domain.acl.AclEntry;
 import edu.kit.datamanager.repo.service.IDataResourceService;
 import edu.kit.datamanager.repo.service.impl.DataResourceAuditService;
+import edu.kit.datamanager.repo.service.impl.DataResourceCache;
 import edu.kit.datamanager.repo.service.impl.DateBasedStorageService;
 import edu.kit.datamanager.repo.service.impl.NoneDataVersioningService;
 import edu.kit.datamanager.repo.test.integration.DataResourceControllerTest;
@@ -40,7 +43,11 @@ import edu.kit.datamanager.security.filter.JwtAuthenticationToken;
 import edu.kit.datamanager.util.AuthenticationHelper;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
+import java.util.Optional;
 import org.javers.core.Javers;
 import org.javers.core.JaversBuilder;
 import org.junit.After;
@@ -218,6 +225,24 @@ public class DataResourceServiceTest {
         Assert.assertEquals("simpleDoi", found.getId());
     }
 
+    @Test
+    public void testCachedResourceHasSameEtag() {
+        DataResource resource = createResourceWithDoi("cachedDoi", "MyResource", "SimpleResource");
+        resource.getDates().add(Date.factoryDate(Instant.now(), Date.DATE_TYPE.AVAILABLE));
+        service.create(resource, AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL);
+
+        CacheProperties properties = new CacheProperties();
+        properties.setEnabled(true);
+        DataResourceCache cache = new DataResourceCache(properties);
+        cache.putResource(service.findById("cachedDoi"));
+        Optional<DataResource> cached = cache.getResource("cachedDoi");
+        Assert.assertTrue(cached.isPresent());
+        //last update and dates survive the snapshot, thus, conditional requests based on cached copies succeed
+        DataResource fresh = service.findById("cachedDoi");
+        Assert.assertEquals(fresh.getLastUpdate(), cached.get().getLastUpdate());
+        Assert.assertEquals(fresh.getEtag(), cached.get().getEtag());
+    }
+
     @Test(expected = ResourceNotFoundException.class)
     public void testFindByUnknownId() {
         DataResource found = service.findById("NotExist");
@@ -232,6 +257,58 @@ public class DataResourceServiceTest {
         Assert.fail("Test should have failed already, but resource " + resource + " has been created twice.");
     }
 
+    @Test
+    public void testCreateAll() {
+        List<DataResource> resources = new ArrayList<>();
+        resources.add(createResourceWithDoi("bulkDoi1", "MyResource", "SimpleResource"));
+        resources.add(createResourceWithoutDoi("bulkInternalId", "MyResource", "SimpleResource"));
+        DataResource withoutIdentifier = createResourceWithoutDoi("unused", "MyResource", "SimpleResource");
+        withoutIdentifier.getAlternateIdentifiers().clear();
+        resources.add(withoutIdentifier);
+
+        List<DataResource> created = service.createAll(resources, AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL, null, null);
+        Assert.assertEquals(3, created.size());
+        Assert.assertEquals("bulkDoi1", created.get(0).getId());
+        Assert.assertEquals("bulkInternalId", created.get(1).getId());
+        Assert.assertNotNull(created.get(2).getId());
+        for (DataResource resource : created) {
+            Assert.assertEquals(AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL, resource.getPublisher());
+            Assert.assertEquals(1, resource.getAcls().size());
+            Assert.assertEquals(DataResource.State.VOLATILE, resource.getState());
+        }
+        Assert.assertEquals(3, dao.count());
+        //alternate identifiers are resolvable
+        Assert.assertEquals("bulkInternalId", service.findByAnyIdentifier("bulkInternalId").getId());
+        Assert.assertEquals(created.get(2).getId(), service.findByAnyIdentifier(created.get(2).getId()).getId());
+    }
+
+    @Test
+    public void testCreateAllWithConflicts() {
+        service.create(createResourceWithDoi("bulkDoi2", "MyResource", "SimpleResource"), AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL);
+        //conflict with existing resource
+        List<DataResource> resources = new ArrayList<>();
+        resources.add(createResourceWithDoi("bulkDoi3", "MyResource", "SimpleResource"));
+        resources.add(createResourceWithDoi("bulkDoi2", "MyResource", "SimpleResource"));
+        try {
+            service.createAll(resources, AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL, null, null);
+            Assert.fail("Test should have failed already, but existing resource has been created twice.");
+        } catch (ResourceAlreadyExistException ex) {
+            //expected
+        }
+        //conflict within batch
+        resources.clear();
+        resources.add(createResourceWithDoi("bulkDoi4", "MyResource", "SimpleResource"));
+        resources.add(createResourceWithDoi("bulkDoi4", "MyResource", "SimpleResource"));
+        try {
+            service.createAll(resources, AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL, null, null);
+            Assert.fail("Test should have failed already, but resource has been created twice within one batch.");
+        } catch (ResourceAlreadyExistException ex) {
+            //expected
+        }
+        //no resource of any failed batch was created
+        Assert.assertEquals(1, dao.count());
+    }
+
     @Test(expected = BadArgumentException.class)
     public void testCreateWithoutTitle() {
         DataResource resource = createResourceWithDoi("testDoi4", null, null);
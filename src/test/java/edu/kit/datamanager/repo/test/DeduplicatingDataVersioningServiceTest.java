@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.exceptions.ResourceAlreadyExistException;
+import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
+import edu.kit.datamanager.repo.dao.IContentBlobDao;
+import edu.kit.datamanager.repo.domain.ContentBlob;
+import edu.kit.datamanager.repo.service.impl.DeduplicatingDataVersioningService;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tests for DeduplicatingDataVersioningService.
+ */
+public class DeduplicatingDataVersioningServiceTest {
+
+  private static final String CONTENT = "Identical content uploaded twice.";
+
+  private Path basePath;
+  private Map<String, ContentBlob> blobs;
+  private IContentBlobDao dao;
+  private DeduplicatingDataVersioningService service;
+
+  @Before
+  public void setUp() throws Exception {
+    basePath = Files.createTempDirectory("dedup");
+    RepoBaseConfiguration configuration = new RepoBaseConfiguration();
+    configuration.setBasepath(basePath.toUri().toURL());
+
+    blobs = new HashMap<>();
+    dao = Mockito.mock(IContentBlobDao.class);
+    Mockito.when(dao.incrementReferenceCount(ArgumentMatchers.anyString())).thenAnswer((i) -> updateCount(i.getArgument(0), 1));
+    Mockito.when(dao.decrementReferenceCount(ArgumentMatchers.anyString())).thenAnswer((i) -> updateCount(i.getArgument(0), -1));
+    Mockito.when(dao.findById(ArgumentMatchers.anyString())).thenAnswer((i) -> Optional.ofNullable(blobs.get((String) i.getArgument(0))));
+    Mockito.when(dao.findByHashForUpdate(ArgumentMatchers.anyString())).thenAnswer((i) -> Optional.ofNullable(blobs.get((String) i.getArgument(0))));
+    Mockito.when(dao.save(ArgumentMatchers.any(ContentBlob.class))).thenAnswer((i) -> {
+      ContentBlob blob = i.getArgument(0);
+      blobs.put(blob.getHash(), blob);
+      return blob;
+    });
+    Mockito.doAnswer((i) -> blobs.remove(((ContentBlob) i.getArgument(0)).getHash())).when(dao).delete(ArgumentMatchers.any(ContentBlob.class));
+
+    service = new DeduplicatingDataVersioningService();
+    ReflectionTestUtils.setField(service, "blobDao", dao);
+    service.configure(configuration);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    FileUtils.deleteDirectory(basePath.toFile());
+  }
+
+  @Test
+  public void testDeduplicatedWriteAndDelete() throws Exception {
+    Map<String, String> first = write("resource1", "data/file.txt");
+    Map<String, String> second = write("resource2", "other/copy.txt");
+
+    //same blob, single physical copy
+    Assert.assertEquals(first.get("contentUri"), second.get("contentUri"));
+    Assert.assertEquals(first.get("checksum"), second.get("checksum"));
+    Assert.assertTrue(second.containsKey("checksum.sha256"));
+    Assert.assertEquals(Integer.toString(CONTENT.length()), second.get("size"));
+    Assert.assertEquals(1, blobs.size());
+    Assert.assertEquals(2, blobs.values().iterator().next().getReferenceCount());
+
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    service.read("resource2", "tester", "other/copy.txt", null, bout, second);
+    Assert.assertEquals(CONTENT, bout.toString(StandardCharsets.UTF_8));
+
+    Path blob = Paths.get(URI.create(first.get("contentUri")));
+    service.delete("resource1", "data/file.txt", first);
+    Assert.assertTrue(Files.exists(blob));
+    Assert.assertEquals(1, blobs.values().iterator().next().getReferenceCount());
+
+    service.delete("resource2", "other/copy.txt", second);
+    Assert.assertFalse(Files.exists(blob));
+    Assert.assertTrue(blobs.isEmpty());
+  }
+
+  @Test
+  public void testDifferentContent() throws Exception {
+    Map<String, String> first = write("resource1", "file.txt");
+    Map<String, String> options = new HashMap<>();
+    service.write("resource1", "tester", "other.txt", new ByteArrayInputStream("Other content".getBytes(StandardCharsets.UTF_8)), options);
+    Assert.assertNotEquals(first.get("contentUri"), options.get("contentUri"));
+    Assert.assertEquals(2, blobs.size());
+  }
+
+  @Test
+  public void testDeleteIsAppliedAfterCommit() throws Exception {
+    Map<String, String> first = write("resource1", "data/file.txt");
+    Path blob = Paths.get(URI.create(first.get("contentUri")));
+
+    TransactionSynchronizationManager.initSynchronization();
+    service.delete("resource1", "data/file.txt", first);
+    //transaction still running, nothing released yet
+    Assert.assertTrue(Files.exists(blob));
+    Assert.assertEquals(1, blobs.values().iterator().next().getReferenceCount());
+
+    for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.afterCommit();
+    }
+    Assert.assertFalse(Files.exists(blob));
+    Assert.assertTrue(blobs.isEmpty());
+  }
+
+  @Test
+  public void testRolledBackUploadIsReleased() throws Exception {
+    Map<String, String> first = write("resource1", "data/file.txt");
+    Path blob = Paths.get(URI.create(first.get("contentUri")));
+
+    TransactionSynchronizationManager.initSynchronization();
+    write("resource2", "other/copy.txt");
+    Assert.assertEquals(2, blobs.values().iterator().next().getReferenceCount());
+
+    for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+    Assert.assertTrue(Files.exists(blob));
+    Assert.assertEquals(1, blobs.values().iterator().next().getReferenceCount());
+  }
+
+  @Test
+  public void testMissingBlobIsRestoredWithoutResettingReferences() throws Exception {
+    Map<String, String> first = write("resource1", "data/file.txt");
+    Path blob = Paths.get(URI.create(first.get("contentUri")));
+    Files.delete(blob);
+
+    write("resource2", "other/copy.txt");
+    Assert.assertTrue(Files.exists(blob));
+    Assert.assertEquals(2, blobs.values().iterator().next().getReferenceCount());
+  }
+
+  @Test
+  public void testOverwriteReleasesPreviousBlob() throws Exception {
+    Map<String, String> first = write("resource1", "file.txt");
+    Path previousBlob = Paths.get(URI.create(first.get("contentUri")));
+
+    Map<String, String> options = new HashMap<>();
+    options.put("contentUri", first.get("contentUri"));
+    options.put("force", "true");
+    service.write("resource1", "tester", "file.txt", new ByteArrayInputStream("Other content".getBytes(StandardCharsets.UTF_8)), options);
+
+    Assert.assertNotEquals(first.get("contentUri"), options.get("contentUri"));
+    Assert.assertFalse(Files.exists(previousBlob));
+    Assert.assertEquals(1, blobs.size());
+  }
+
+  @Test(expected = ResourceAlreadyExistException.class)
+  public void testOverwriteWithoutForce() throws Exception {
+    Map<String, String> first = write("resource1", "file.txt");
+    Map<String, String> options = new HashMap<>();
+    options.put("contentUri", first.get("contentUri"));
+    service.write("resource1", "tester", "file.txt", new ByteArrayInputStream("Other content".getBytes(StandardCharsets.UTF_8)), options);
+  }
+
+  @Test
+  public void testConcurrentRegistrationIsRetried() throws Exception {
+    //another instance registers the same blob between increment and insert
+    Mockito.when(dao.save(ArgumentMatchers.any(ContentBlob.class))).thenAnswer((i) -> {
+      ContentBlob blob = i.getArgument(0);
+      blobs.put(blob.getHash(), blob);
+      throw new DataIntegrityViolationException("Duplicate key " + blob.getHash());
+    });
+    Map<String, String> options = write("resource1", "data/file.txt");
+
+    Assert.assertEquals(1, blobs.size());
+    Assert.assertEquals(2, blobs.values().iterator().next().getReferenceCount());
+    Assert.assertTrue(Files.exists(Paths.get(URI.create(options.get("contentUri")))));
+  }
+
+  private Map<String, String> write(String resourceId, String path) {
+    Map<String, String> options = new HashMap<>();
+    service.write(resourceId, "tester", path, new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)), options);
+    return options;
+  }
+
+  private int updateCount(String hash, int delta) {
+    ContentBlob blob = blobs.get(hash);
+    if (blob == null || blob.getReferenceCount() + delta < 0) {
+      return 0;
+    }
+    blob.setReferenceCount(blob.getReferenceCount() + delta);
+    return 1;
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.util.HyperLogLog;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for HyperLogLog.
+ */
+public class HyperLogLogTest {
+
+  @Test
+  public void testEmptySketch() {
+    Assert.assertEquals(0, new HyperLogLog(14).estimate());
+  }
+
+  @Test
+  public void testDuplicatesAreCountedOnce() {
+    HyperLogLog sketch = new HyperLogLog(14);
+    for (int i = 0; i < 1000; i++) {
+      sketch.add(MonitoringUtil.hashIp("192.168.0." + (i % 10)));
+    }
+    Assert.assertEquals(10, sketch.estimate());
+  }
+
+  @Test
+  public void testEstimate() {
+    HyperLogLog sketch = new HyperLogLog(14);
+    int count = 200000;
+    for (int i = 0; i < count; i++) {
+      sketch.add(MonitoringUtil.hashIp("10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff)));
+    }
+    //standard error for p=14 is about 0.8%
+    Assert.assertEquals(count, sketch.estimate(), count * 0.03);
+  }
+
+  @Test
+  public void testMerge() {
+    HyperLogLog first = new HyperLogLog(12);
+    HyperLogLog second = new HyperLogLog(12);
+    for (int i = 0; i < 30000; i++) {
+      first.add("visitor-" + i);
+      second.add("visitor-" + (i + 15000));
+    }
+    first.merge(second);
+    Assert.assertEquals(45000, first.estimate(), 45000 * 0.06);
+    try {
+      first.merge(new HyperLogLog(14));
+      Assert.fail("Merging sketches of different precision should fail.");
+    } catch (IllegalArgumentException ex) {
+      //expected
+    }
+  }
+
+  @Test
+  public void testSerialization() {
+    HyperLogLog sketch = new HyperLogLog(14);
+    byte[] empty = sketch.toByteArray();
+    //registers of sparse sketches compress well
+    Assert.assertTrue(empty.length < 128);
+    for (int i = 0; i < 5000; i++) {
+      sketch.add(MonitoringUtil.hashIp("visitor-" + i));
+    }
+    HyperLogLog copy = HyperLogLog.fromByteArray(sketch.toByteArray());
+    Assert.assertEquals(14, copy.getPrecision());
+    Assert.assertEquals(sketch.estimate(), copy.estimate());
+    try {
+      HyperLogLog.fromByteArray(new byte[]{14, 1, 2, 3});
+      Assert.fail("Corrupted sketches should be rejected.");
+    } catch (IllegalArgumentException ex) {
+      //expected
+    }
+  }
+}
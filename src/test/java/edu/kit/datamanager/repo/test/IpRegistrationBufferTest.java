@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.configuration.MonitoringConfiguration;
+import edu.kit.datamanager.repo.dao.IIpMonitoringDao;
+import edu.kit.datamanager.repo.domain.IpMonitoring;
+import edu.kit.datamanager.repo.service.impl.IpRegistrationBuffer;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * Tests for IpRegistrationBuffer.
+ */
+public class IpRegistrationBufferTest {
+
+  private IIpMonitoringDao dao;
+  private IpRegistrationBuffer buffer;
+  private SimpleMeterRegistry registry;
+
+  @Before
+  public void setUp() {
+    MonitoringConfiguration configuration = new MonitoringConfiguration();
+    configuration.setEnabled(true);
+    configuration.setServiceName("buffertest");
+    configuration.setIpMaxPending(3);
+    MonitoringUtil.setMonitoringConfiguration(configuration);
+    dao = Mockito.mock(IIpMonitoringDao.class);
+    buffer = new IpRegistrationBuffer(configuration, dao);
+    registry = new SimpleMeterRegistry();
+    buffer.setMeterRegistry(registry);
+  }
+
+  @Test
+  public void testRepeatedVisitsAreWrittenOnce() {
+    String hash = MonitoringUtil.hashIp("127.0.0.1");
+    for (int i = 0; i < 100; i++) {
+      buffer.register(hash);
+    }
+    Assert.assertEquals(1, buffer.getPendingCount());
+    Assert.assertEquals(1.0, registry.get("buffertest_ip_registration_queue_depth").gauge().value(), 0.0);
+    Mockito.verifyNoInteractions(dao);
+
+    buffer.flush();
+    List<IpMonitoring> written = captureSaved(1).get(0);
+    Assert.assertEquals(1, written.size());
+    Assert.assertEquals(hash, written.get(0).getIpHash());
+    Assert.assertEquals(Instant.now().truncatedTo(ChronoUnit.DAYS), written.get(0).getLastVisit());
+    Assert.assertEquals(0, buffer.getPendingCount());
+    Assert.assertEquals(1, registry.get("buffertest_ip_registration_flush").timer().count());
+
+    //already written today, thus, nothing to do
+    buffer.register(hash);
+    Assert.assertEquals(0, buffer.getPendingCount());
+    buffer.flush();
+    captureSaved(1);
+  }
+
+  @Test
+  public void testMaxPending() {
+    for (int i = 0; i < 5; i++) {
+      buffer.register(MonitoringUtil.hashIp("10.0.0." + i));
+    }
+    Assert.assertEquals(3, buffer.getPendingCount());
+    Assert.assertEquals(2.0, registry.get("buffertest_ip_registration_dropped").counter().count(), 0.0);
+    buffer.flush();
+    Assert.assertEquals(3, captureSaved(1).get(0).size());
+  }
+
+  @Test
+  public void testFailedFlushIsRetried() {
+    Mockito.when(dao.saveAll(Mockito.anyList())).thenThrow(new RuntimeException("Database not available")).thenReturn(new ArrayList<>());
+    buffer.register(MonitoringUtil.hashIp("10.0.0.1"));
+    buffer.register(MonitoringUtil.hashIp("10.0.0.2"));
+    buffer.flush();
+    Assert.assertEquals(2, buffer.getPendingCount());
+    buffer.flush();
+    Assert.assertEquals(0, buffer.getPendingCount());
+    List<List<IpMonitoring>> batches = captureSaved(2);
+    Assert.assertEquals(2, batches.get(1).size());
+  }
+
+  @Test
+  public void testHashIp() {
+    Assert.assertNull(MonitoringUtil.hashIp(null));
+    Assert.assertNull(MonitoringUtil.hashIp("  "));
+    Assert.assertEquals("12ca17b49af2289436f303e0166030a21e525d266e209267433801a8fd4071a0", MonitoringUtil.hashIp("127.0.0.1"));
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<List<IpMonitoring>> captureSaved(int times) {
+    ArgumentCaptor<List<IpMonitoring>> captor = ArgumentCaptor.forClass(List.class);
+    Mockito.verify(dao, Mockito.times(times)).saveAll(captor.capture());
+    return captor.getAllValues();
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.entities.ContentElement;
+import edu.kit.datamanager.repo.dao.IContentInformationDao;
+import edu.kit.datamanager.repo.domain.ContentInformationSummary;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.service.impl.KeysetContentElementList;
+import edu.kit.datamanager.repo.util.MediaTypedCollection;
+import edu.kit.datamanager.repo.util.MediaTypedCollection.TypedElement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Tests for KeysetContentElementList.
+ */
+public class KeysetContentElementListTest {
+
+  private List<ContentInformationSummary> rows;
+  private IContentInformationDao dao;
+  private DataResource resource;
+
+  @Before
+  public void setUp() {
+    rows = new ArrayList<>();
+    for (long i = 1; i <= 25; i++) {
+      String scheme = (i % 5 == 0) ? "http://remote/" : "file:///tmp/";
+      rows.add(new ContentInformationSummary(i * 2, "file_" + i + ".txt", scheme + "file_" + i + ".txt", "1", "simple", "sha1:" + i, i, (i % 2 == 0) ? "text/plain" : null, 1));
+    }
+    resource = DataResource.factoryNewDataResource("test");
+    dao = Mockito.mock(IContentInformationDao.class);
+    Mockito.when(dao.findSummariesByParentResourceAfter(ArgumentMatchers.any(DataResource.class), ArgumentMatchers.anyLong(), ArgumentMatchers.any(Pageable.class))).thenAnswer((i) -> {
+      long lastId = i.getArgument(1);
+      Pageable page = i.getArgument(2);
+      return rows.stream().filter((r) -> r.getId() > lastId).limit(page.getPageSize()).collect(Collectors.toList());
+    });
+  }
+
+  @Test
+  public void testIterateAllPages() {
+    KeysetContentElementList list = new KeysetContentElementList(dao, resource, null, "http://localhost/", 10);
+    List<String> paths = new ArrayList<>();
+    for (ContentElement element : list) {
+      paths.add(element.getRelativePath());
+      Assert.assertEquals("test", element.getResourceId());
+    }
+    Assert.assertEquals(25, paths.size());
+    Assert.assertEquals("file_1.txt", paths.get(0));
+    Assert.assertEquals("file_25.txt", paths.get(24));
+    //pages of 10, 10 and 5 elements, the last one being incomplete ends the iteration
+    Mockito.verify(dao, Mockito.times(3)).findSummariesByParentResourceAfter(ArgumentMatchers.any(DataResource.class), ArgumentMatchers.anyLong(), ArgumentMatchers.any(Pageable.class));
+  }
+
+  @Test
+  public void testExactPageBoundary() {
+    KeysetContentElementList list = new KeysetContentElementList(dao, resource, null, "http://localhost/", 5);
+    Assert.assertEquals(25, list.size());
+    //five full pages plus one empty page
+    Mockito.verify(dao, Mockito.times(6)).findSummariesByParentResourceAfter(ArgumentMatchers.any(DataResource.class), ArgumentMatchers.anyLong(), ArgumentMatchers.any(Pageable.class));
+  }
+
+  @Test
+  public void testSchemeFilter() {
+    KeysetContentElementList list = new KeysetContentElementList(dao, resource, "file"::equals, "http://localhost/", 7);
+    Assert.assertEquals(20, list.size());
+    Assert.assertEquals("file_6.txt", list.get(4).getRelativePath());
+    for (ContentElement element : list) {
+      Assert.assertTrue(element.getContentUri().startsWith("file:"));
+    }
+  }
+
+  @Test
+  public void testTypedIterator() {
+    KeysetContentElementList list = new KeysetContentElementList(dao, resource, null, "http://localhost/", 10);
+    Iterator<TypedElement> it = list.typedIterator();
+    int count = 0;
+    while (it.hasNext()) {
+      TypedElement element = it.next();
+      int index = Integer.parseInt(element.getElement().getRelativePath().replaceAll("[^0-9]", ""));
+      Assert.assertEquals((index % 2 == 0) ? "text/plain" : null, element.getMediaType());
+      count++;
+    }
+    Assert.assertEquals(list.size(), count);
+    //collections without media types are wrapped
+    Iterator<TypedElement> plain = MediaTypedCollection.typedIterator(new ArrayList<>(list));
+    Assert.assertNull(plain.next().getMediaType());
+  }
+
+  @Test
+  public void testEmpty() {
+    rows.clear();
+    KeysetContentElementList list = new KeysetContentElementList(dao, resource, null, "http://localhost/", 10);
+    Assert.assertTrue(list.isEmpty());
+    Assert.assertEquals(0, list.size());
+    Assert.assertFalse(list.iterator().hasNext());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidPageSize() {
+    new KeysetContentElementList(dao, resource, null, "http://localhost/", 0);
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.configuration.MonitoringConfiguration;
+import edu.kit.datamanager.repo.dao.IAclEntryDao;
+import edu.kit.datamanager.repo.dao.IContentBlobDao;
+import edu.kit.datamanager.repo.dao.IContentInformationDao;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.service.impl.MetricsSnapshotService;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests for MetricsSnapshotService.
+ */
+public class MetricsSnapshotServiceTest {
+
+  private MonitoringConfiguration configuration;
+  private IAclEntryDao aclEntryDao;
+  private IDataResourceDao dataResourceDao;
+  private IContentInformationDao contentInformationDao;
+  private MetricsSnapshotService service;
+
+  @Before
+  public void setUp() {
+    configuration = new MonitoringConfiguration();
+    configuration.setEnabled(true);
+    configuration.setServiceName("snapshottest");
+    aclEntryDao = Mockito.mock(IAclEntryDao.class);
+    dataResourceDao = Mockito.mock(IDataResourceDao.class);
+    contentInformationDao = Mockito.mock(IContentInformationDao.class);
+    MonitoringUtil.setMonitoringConfiguration(configuration);
+    MonitoringUtil.setAclEntryDao(aclEntryDao);
+    MonitoringUtil.setIpMonitoringDao(null);
+    service = new MetricsSnapshotService(configuration, dataResourceDao, contentInformationDao);
+  }
+
+  @After
+  public void tearDown() {
+    MonitoringUtil.setMonitoringConfiguration(null);
+    MonitoringUtil.setAclEntryDao(null);
+  }
+
+  @Test
+  public void testValuesAreCachedUntilRefresh() {
+    Mockito.when(aclEntryDao.countRegisteredSids()).thenReturn(3L, 5L);
+    Mockito.when(dataResourceDao.count()).thenReturn(10L, 11L);
+    Mockito.when(contentInformationDao.count()).thenReturn(100L, 101L);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    service.setMeterRegistry(registry);
+
+    //first access loads the snapshot
+    Assert.assertEquals(3, service.getRegisteredUsers());
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals(10, service.getDataResources());
+      Assert.assertEquals(100.0, registry.get("snapshottest_content_information").gauge().value(), 0.0);
+    }
+    Mockito.verify(dataResourceDao, Mockito.times(1)).count();
+    Mockito.verify(aclEntryDao, Mockito.times(1)).countRegisteredSids();
+    Assert.assertFalse(service.isStale());
+
+    service.refresh();
+    Assert.assertEquals(5, service.getRegisteredUsers());
+    Assert.assertEquals(11, service.getDataResources());
+    Assert.assertEquals(101, service.getContentInformation());
+  }
+
+  @Test
+  public void testFailedRefreshKeepsValues() throws InterruptedException {
+    configuration.setSnapshotInterval(Duration.ofMillis(1));
+    Mockito.when(dataResourceDao.count()).thenReturn(7L).thenThrow(new RuntimeException("Database not available"));
+    service.refresh();
+    Assert.assertEquals(7, service.getDataResources());
+    Assert.assertNull(service.getLastError());
+    Thread.sleep(10);
+    service.refresh();
+    Assert.assertEquals(7, service.getDataResources());
+    Assert.assertEquals("Database not available", service.getLastError().getMessage());
+    Assert.assertTrue(service.isStale());
+    Assert.assertTrue(service.getAge().toMillis() >= 10);
+  }
+
+  @Test
+  public void testDeduplicationRatioIsCachedUntilRefresh() {
+    IContentBlobDao contentBlobDao = Mockito.mock(IContentBlobDao.class);
+    Mockito.when(contentBlobDao.getStoredSize()).thenReturn(100L, 100L);
+    Mockito.when(contentBlobDao.getReferencedSize()).thenReturn(250L, 100L);
+    service.setContentBlobDao(contentBlobDao);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    service.setMeterRegistry(registry);
+
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals(2.5, registry.get("snapshottest_dedup_ratio").gauge().value(), 0.001);
+    }
+    Mockito.verify(contentBlobDao, Mockito.times(1)).getReferencedSize();
+
+    service.refresh();
+    Assert.assertEquals(1.0, service.getDeduplicationRatio(), 0.001);
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.configuration.MessagingPublisherProperties;
+import edu.kit.datamanager.repo.dao.IAMQPMessageDao;
+import edu.kit.datamanager.repo.domain.AMQPMessage;
+import edu.kit.datamanager.service.impl.AsyncMessagePublisher;
+import edu.kit.datamanager.service.impl.OutboxRelay;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Tests for OutboxRelay.
+ */
+public class OutboxRelayTest {
+
+  private MessagingPublisherProperties properties;
+  private IAMQPMessageDao dao;
+  private AsyncMessagePublisher publisher;
+  private OutboxRelay relay;
+
+  @Before
+  public void setUp() {
+    properties = new MessagingPublisherProperties();
+    properties.setRelayBatchSize(2);
+    dao = Mockito.mock(IAMQPMessageDao.class);
+    publisher = Mockito.mock(AsyncMessagePublisher.class);
+    Mockito.when(publisher.isMessagingEnabled()).thenReturn(true);
+    relay = new OutboxRelay(properties, dao, publisher);
+  }
+
+  @Test
+  public void testBatchesAreRelayedAndDeleted() {
+    Mockito.when(dao.findDueMessages(Mockito.any(Instant.class), Mockito.any(Pageable.class)))
+            .thenReturn(List.of(message(1), message(2)))
+            .thenReturn(List.of(message(3)))
+            .thenReturn(List.of());
+    Assert.assertEquals(3, relay.relay());
+    Mockito.verify(publisher, Mockito.times(2)).sendBatch(Mockito.anyList());
+    Mockito.verify(dao).deleteAllByIdIn(List.of(1L, 2L));
+    Mockito.verify(dao).deleteAllByIdIn(List.of(3L));
+    //last batch was not full, thus, no further query
+    Mockito.verify(dao, Mockito.times(2)).findDueMessages(Mockito.any(Instant.class), Mockito.any(Pageable.class));
+  }
+
+  @Test
+  public void testFailedBatchIsDeferred() {
+    Mockito.when(dao.findDueMessages(Mockito.any(Instant.class), Mockito.any(Pageable.class))).thenReturn(List.of(message(1)));
+    Mockito.doThrow(new AmqpConnectException(new RuntimeException("Broker not available"))).when(publisher).sendBatch(Mockito.anyList());
+    Instant before = Instant.now();
+    Assert.assertEquals(0, relay.relay());
+    ArgumentCaptor<Instant> nextAttempt = ArgumentCaptor.forClass(Instant.class);
+    Mockito.verify(dao).deferAllByIdIn(Mockito.eq(List.of(1L)), nextAttempt.capture());
+    Assert.assertFalse(nextAttempt.getValue().isBefore(before.plus(properties.getInitialBackoff())));
+    Mockito.verify(dao, Mockito.never()).deleteAllByIdIn(Mockito.anyCollection());
+    //relay is paused during backoff
+    Assert.assertEquals(0, relay.relay());
+    Mockito.verify(publisher, Mockito.times(1)).sendBatch(Mockito.anyList());
+  }
+
+  @Test
+  public void testNothingIsRelayedIfMessagingIsDisabled() {
+    Mockito.when(publisher.isMessagingEnabled()).thenReturn(false);
+    Assert.assertEquals(0, relay.relay());
+    Mockito.verifyNoInteractions(dao);
+  }
+
+  @Test
+  public void testExponentialBackoff() {
+    properties.setInitialBackoff(Duration.ofSeconds(1));
+    properties.setMaxBackoff(Duration.ofSeconds(30));
+    List<Duration> backoffs = new ArrayList<>();
+    TestRelay testRelay = new TestRelay(properties, dao, publisher);
+    for (int i = 1; i <= 7; i++) {
+      backoffs.add(testRelay.backoff(i));
+    }
+    Assert.assertEquals(List.of(Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(4), Duration.ofSeconds(8),
+            Duration.ofSeconds(16), Duration.ofSeconds(30), Duration.ofSeconds(30)), backoffs);
+    Assert.assertEquals(Duration.ofSeconds(30), testRelay.backoff(1000));
+  }
+
+  private static AMQPMessage message(long id) {
+    AMQPMessage message = new AMQPMessage("exchange", "dataresource.create", "message-" + id, "resource-" + id);
+    message.setId(id);
+    return message;
+  }
+
+  /**
+   * Relay exposing the backoff computation.
+   */
+  private static class TestRelay extends OutboxRelay {
+
+    TestRelay(MessagingPublisherProperties properties, IAMQPMessageDao dao, AsyncMessagePublisher publisher) {
+      super(properties, dao, publisher);
+    }
+
+    Duration backoff(int failures) {
+      return getBackoff(failures);
+    }
+  }
+}
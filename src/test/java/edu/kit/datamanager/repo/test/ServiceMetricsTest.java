@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.exceptions.ResourceNotFoundException;
+import edu.kit.datamanager.repo.configuration.MonitoringConfiguration;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import edu.kit.datamanager.repo.util.ServiceMetrics;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for ServiceMetrics.
+ */
+public class ServiceMetricsTest {
+
+  private SimpleMeterRegistry registry;
+
+  @Before
+  public void setUp() {
+    MonitoringConfiguration configuration = new MonitoringConfiguration();
+    configuration.setServiceName("metricstest");
+    MonitoringUtil.setMonitoringConfiguration(configuration);
+    registry = new SimpleMeterRegistry();
+    Metrics.addRegistry(registry);
+  }
+
+  @After
+  public void tearDown() {
+    Metrics.removeRegistry(registry);
+    MonitoringUtil.setMonitoringConfiguration(null);
+  }
+
+  @Test
+  public void testRecordOutcome() {
+    Assert.assertEquals("result", ServiceMetrics.record("TestService", "find", () -> "result"));
+    ServiceMetrics.run("TestService", "find", () -> {
+    });
+    try {
+      ServiceMetrics.run("TestService", "find", () -> {
+        throw new ResourceNotFoundException("Not found.");
+      });
+      Assert.fail("Exception should be propagated.");
+    } catch (ResourceNotFoundException ex) {
+      //expected
+    }
+
+    Timer success = registry.get("metricstest_service_operation").tag("service", "TestService").tag("operation", "find").tag("outcome", ServiceMetrics.SUCCESS).timer();
+    Assert.assertEquals(2, success.count());
+    Timer error = registry.get("metricstest_service_operation").tag("service", "TestService").tag("operation", "find").tag("outcome", ServiceMetrics.ERROR).timer();
+    Assert.assertEquals(1, error.count());
+    Assert.assertEquals("ResourceNotFoundException", error.getId().getTag("exception"));
+  }
+
+  @Test
+  public void testCountBytes() {
+    ServiceMetrics.countBytes("test-upload", 1024);
+    ServiceMetrics.countBytes("test-upload", 0);
+    ServiceMetrics.countBytes("test-upload", 512);
+    Assert.assertEquals(1536.0, registry.get("metricstest_transferred_bytes").tag("direction", "test-upload").counter().count(), 0.0);
+  }
+}
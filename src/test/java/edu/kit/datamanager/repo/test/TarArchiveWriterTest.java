@@ -0,0 +1,203 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.entities.ContentElement;
+import edu.kit.datamanager.repo.service.IRepoVersioningService;
+import edu.kit.datamanager.repo.service.impl.SimpleDataVersioningService;
+import edu.kit.datamanager.repo.util.ParallelGzipOutputStream;
+import edu.kit.datamanager.repo.util.TarArchiveWriter;
+import edu.kit.datamanager.repo.util.VersioningServiceRegistry;
+import edu.kit.datamanager.service.impl.TarCollectionEngine;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for TarArchiveWriter and ParallelGzipOutputStream.
+ */
+public class TarArchiveWriterTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testEntries() throws Exception {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    TarArchiveWriter tar = new TarArchiveWriter(bout);
+    byte[] first = "Hello tar!".getBytes(StandardCharsets.UTF_8);
+    tar.putEntry("folder/first.txt", first.length);
+    tar.write(first, 0, first.length);
+    tar.closeEntry();
+    tar.putEntry("empty.txt", 0);
+    tar.closeEntry();
+    tar.finish();
+
+    byte[] archive = bout.toByteArray();
+    Assert.assertEquals(archive.length, tar.getBytesWritten());
+    //two headers, one data block and the end marker
+    Assert.assertEquals(5 * TarArchiveWriter.BLOCK_SIZE, archive.length);
+    assertHeader(archive, 0, "folder/first.txt", first.length);
+    Assert.assertEquals("Hello tar!", new String(archive, 512, first.length, StandardCharsets.UTF_8));
+    assertHeader(archive, 1024, "empty.txt", 0);
+    Assert.assertTrue(isZero(archive, 1536, 1024));
+  }
+
+  @Test
+  public void testLongNames() throws Exception {
+    String prefixed = "a".repeat(120) + "/" + "b".repeat(90);
+    String veryLong = "c".repeat(250);
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    TarArchiveWriter tar = new TarArchiveWriter(bout);
+    tar.putEntry(prefixed, 1);
+    tar.write(new byte[]{1}, 0, 1);
+    tar.closeEntry();
+    tar.putEntry(veryLong, 1);
+    tar.write(new byte[]{2}, 0, 1);
+    tar.closeEntry();
+    tar.finish();
+
+    byte[] archive = bout.toByteArray();
+    //name split into ustar prefix and name
+    Assert.assertEquals("b".repeat(90), field(archive, 0, 100));
+    Assert.assertEquals("a".repeat(120), field(archive, 345, 155));
+    //pax header carrying the full path precedes the entry
+    Assert.assertEquals('x', archive[1024 + 156]);
+    String pax = new String(archive, 1536, 512, StandardCharsets.UTF_8);
+    Assert.assertTrue(pax.contains(" path=" + veryLong + "\n"));
+    String record = pax.substring(0, pax.indexOf('\n') + 1);
+    Assert.assertEquals(record.length(), Integer.parseInt(record.substring(0, record.indexOf(' '))));
+    Assert.assertEquals('0', archive[2048 + 156]);
+  }
+
+  @Test
+  public void testSizeMismatch() throws Exception {
+    TarArchiveWriter tar = new TarArchiveWriter(new ByteArrayOutputStream());
+    tar.putEntry("file.txt", 2);
+    tar.write(new byte[1], 0, 1);
+    try {
+      tar.closeEntry();
+      Assert.fail("Entry shorter than announced must not be closed.");
+    } catch (IOException ex) {
+      //expected
+    }
+    try {
+      tar.write(new byte[2], 0, 2);
+      Assert.fail("Entry longer than announced must not be written.");
+    } catch (IOException ex) {
+      //expected
+    }
+  }
+
+  @Test
+  public void testEngineSkipsElementsWithoutContent() throws Exception {
+    Path file = folder.newFile("local.txt").toPath();
+    Files.write(file, "Hello tar!".getBytes(StandardCharsets.UTF_8));
+    VersioningServiceRegistry registry = new VersioningServiceRegistry(new IRepoVersioningService[]{new SimpleDataVersioningService()});
+    List<ContentElement> collection = new ArrayList<>();
+    //no versioning service available, but length known
+    collection.add(ContentElement.createContentElement("res", "unknown.txt", "http://localhost/unknown.txt", "1", "unknown", null, null, 5l));
+    //local file is missing
+    collection.add(ContentElement.createContentElement("res", "missing.txt", file.resolveSibling("missing.txt").toUri().toString(), "1", "simple", null, null, 3l));
+    collection.add(ContentElement.createContentElement("res", "local.txt", file.toUri().toString(), "1", "simple", null, null, 10l));
+
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    new TarCollectionEngine(registry, 8192).write(collection, bout);
+
+    byte[] archive = bout.toByteArray();
+    //one header, one data block and the end marker
+    Assert.assertEquals(4 * TarArchiveWriter.BLOCK_SIZE, archive.length);
+    assertHeader(archive, 0, "local.txt", 10);
+    Assert.assertEquals("Hello tar!", new String(archive, 512, 10, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testParallelGzip() throws Exception {
+    byte[] data = new byte[1_000_000];
+    Random random = new Random(2);
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) ('a' + random.nextInt(6));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      for (int blockSize : new int[]{64 * 1024, 100_000, 2_000_000}) {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(bout, executor, 3, blockSize, Deflater.DEFAULT_COMPRESSION)) {
+          //write in odd chunks crossing block boundaries
+          for (int off = 0; off < data.length; off += 77_777) {
+            gzip.write(data, off, Math.min(77_777, data.length - off));
+          }
+        }
+        Assert.assertTrue(bout.size() < data.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+          Assert.assertArrayEquals(data, in.readAllBytes());
+        }
+      }
+      //empty stream
+      ByteArrayOutputStream bout = new ByteArrayOutputStream();
+      new ParallelGzipOutputStream(bout, executor, 3, 64 * 1024, Deflater.DEFAULT_COMPRESSION).close();
+      try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+        Assert.assertEquals(0, in.readAllBytes().length);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void assertHeader(byte[] archive, int offset, String name, long size) {
+    Assert.assertEquals(name, field(archive, offset, 100));
+    Assert.assertEquals(size, Long.parseLong(field(archive, offset + 124, 12), 8));
+    Assert.assertEquals("ustar", field(archive, offset + 257, 6));
+    long checksum = 0;
+    for (int i = 0; i < TarArchiveWriter.BLOCK_SIZE; i++) {
+      checksum += (i >= 148 && i < 156) ? ' ' : archive[offset + i] & 0xFF;
+    }
+    Assert.assertEquals(checksum, Long.parseLong(field(archive, offset + 148, 7), 8));
+  }
+
+  private static String field(byte[] archive, int offset, int length) {
+    byte[] value = Arrays.copyOfRange(archive, offset, offset + length);
+    int end = 0;
+    while (end < value.length && value[end] != 0) {
+      end++;
+    }
+    return new String(value, 0, end, StandardCharsets.UTF_8).trim();
+  }
+
+  private static boolean isZero(byte[] data, int offset, int length) {
+    for (int i = offset; i < offset + length; i++) {
+      if (data[i] != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.configuration.MonitoringConfiguration;
+import edu.kit.datamanager.repo.dao.IUniqueUsersSketchDao;
+import edu.kit.datamanager.repo.domain.UniqueUsersSketch;
+import edu.kit.datamanager.repo.service.impl.UniqueUsersSketchService;
+import edu.kit.datamanager.repo.util.HyperLogLog;
+import edu.kit.datamanager.repo.util.MonitoringUtil;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests for UniqueUsersSketchService using an in-memory repository.
+ */
+public class UniqueUsersSketchServiceTest {
+
+  private final Map<Instant, UniqueUsersSketch> rows = new HashMap<>();
+  private IUniqueUsersSketchDao dao;
+  private MonitoringConfiguration configuration;
+  private UniqueUsersSketchService service;
+
+  @Before
+  public void setUp() {
+    rows.clear();
+    dao = Mockito.mock(IUniqueUsersSketchDao.class);
+    Mockito.when(dao.findByVisitDay(Mockito.any())).thenAnswer((invocation) -> Optional.ofNullable(rows.get(invocation.<Instant>getArgument(0))));
+    Mockito.when(dao.save(Mockito.any())).thenAnswer((invocation) -> {
+      UniqueUsersSketch sketch = invocation.getArgument(0);
+      rows.put(sketch.getVisitDay(), sketch);
+      return sketch;
+    });
+    Mockito.when(dao.findByVisitDayGreaterThanEqual(Mockito.any())).thenAnswer((invocation) -> {
+      Instant start = invocation.getArgument(0);
+      return new ArrayList<>(rows.values().stream().filter((s) -> !s.getVisitDay().isBefore(start)).toList());
+    });
+    configuration = new MonitoringConfiguration();
+    configuration.setEnabled(true);
+    configuration.setUniqueUsersMode(MonitoringConfiguration.UNIQUE_USERS_MODE.SKETCH);
+    configuration.setNoOfDaysToKeep(28);
+    service = new UniqueUsersSketchService(configuration, dao);
+  }
+
+  @Test
+  public void testUniqueUsersOverWindow() {
+    Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
+    Map<String, Instant> visits = new HashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      visits.put(MonitoringUtil.hashIp("10.0." + (i >> 8) + "." + (i & 0xff)), today);
+    }
+    service.addAll(visits);
+    Assert.assertEquals(1000, service.getEstimate(), 20);
+    Assert.assertEquals(1, rows.size());
+
+    //visits of the same users on another day do not count twice
+    Map<String, Instant> yesterday = new HashMap<>();
+    visits.keySet().forEach((hash) -> yesterday.put(hash, today.minus(1, ChronoUnit.DAYS)));
+    service.addAll(yesterday);
+    Assert.assertEquals(2, rows.size());
+    Assert.assertEquals(1000, service.getEstimate(), 20);
+
+    //days outside of the window are ignored
+    service.addAll(Map.of(MonitoringUtil.hashIp("172.16.0.1"), today.minus(28, ChronoUnit.DAYS)));
+    Assert.assertEquals(1000, service.getEstimate(), 20);
+  }
+
+  @Test
+  public void testMergeWithPersistedSketch() {
+    Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
+    //sketch written by another instance
+    HyperLogLog other = new HyperLogLog(configuration.getSketchPrecision());
+    for (int i = 0; i < 500; i++) {
+      other.add(MonitoringUtil.hashIp("other-" + i));
+    }
+    UniqueUsersSketch row = new UniqueUsersSketch();
+    row.setVisitDay(today);
+    row.setSketch(other.toByteArray());
+    rows.put(today, row);
+
+    Map<String, Instant> visits = new HashMap<>();
+    for (int i = 0; i < 500; i++) {
+      visits.put(MonitoringUtil.hashIp("local-" + i), today);
+    }
+    service.addAll(visits);
+    Assert.assertEquals(1000, service.getEstimate(), 20);
+    Assert.assertEquals(1000, HyperLogLog.fromByteArray(rows.get(today).getSketch()).estimate(), 20);
+  }
+
+  @Test
+  public void testCleanUp() {
+    service.cleanUp();
+    Mockito.verify(dao).deleteAllEntriesOlderThan(Instant.now().truncatedTo(ChronoUnit.DAYS).minus(27, ChronoUnit.DAYS));
+    Assert.assertEquals(0, service.getEstimate());
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test;
+
+import edu.kit.datamanager.repo.util.DeflateUtils;
+import edu.kit.datamanager.repo.util.ZipArchiveWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ZipArchiveWriter and DeflateUtils.
+ */
+public class ZipArchiveWriterTest {
+
+  @Test
+  public void testCombineCrc32() {
+    byte[] data = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8);
+    for (int split : new int[]{0, 1, 10, data.length - 1, data.length}) {
+      long crc1 = crc(data, 0, split);
+      long crc2 = crc(data, split, data.length - split);
+      Assert.assertEquals(crc(data, 0, data.length), ZipArchiveWriter.combineCrc32(crc1, crc2, data.length - split));
+    }
+  }
+
+  @Test
+  public void testStoredAndBlockDeflatedEntries() throws Exception {
+    byte[] text = new byte[300_000];
+    Random random = new Random(1);
+    for (int i = 0; i < text.length; i++) {
+      //compressible content with back references across block boundaries
+      text[i] = (byte) ('a' + random.nextInt(4));
+    }
+    byte[] binary = new byte[5000];
+    random.nextBytes(binary);
+
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    ZipArchiveWriter zip = new ZipArchiveWriter(bout);
+
+    //deflated entry compressed in independent blocks
+    int blockSize = 64 * 1024;
+    zip.putDeflatedEntry("folder/text.txt", text.length);
+    long crc = 0;
+    for (int offset = 0; offset < text.length; offset += blockSize) {
+      int length = Math.min(blockSize, text.length - offset);
+      byte[] block = Arrays.copyOfRange(text, offset, offset + length);
+      byte[] dictionary = (offset > 0) ? Arrays.copyOfRange(text, Math.max(0, offset - DeflateUtils.DICTIONARY_SIZE), offset) : null;
+      byte[] compressed = DeflateUtils.deflateBlock(block, length, dictionary, Deflater.DEFAULT_COMPRESSION, offset + length >= text.length);
+      zip.write(compressed, 0, compressed.length);
+      crc = ZipArchiveWriter.combineCrc32(crc, crc(block, 0, length), length);
+    }
+    zip.closeEntry(crc, text.length);
+
+    //stored entry
+    zip.putStoredEntry("image.png", binary.length, crc(binary, 0, binary.length));
+    zip.write(binary, 0, binary.length);
+    zip.closeEntry(crc(binary, 0, binary.length), binary.length);
+
+    //empty deflated entry
+    zip.putDeflatedEntry("empty.txt", 0);
+    byte[] empty = DeflateUtils.deflateBlock(new byte[0], 0, null, Deflater.DEFAULT_COMPRESSION, true);
+    zip.write(empty, 0, empty.length);
+    zip.closeEntry(0, 0);
+    zip.finish();
+
+    Assert.assertTrue(bout.size() < text.length);
+
+    //read with streaming reader
+    try (ZipInputStream zin = new ZipInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+      ZipEntry entry = zin.getNextEntry();
+      Assert.assertEquals("folder/text.txt", entry.getName());
+      Assert.assertArrayEquals(text, zin.readAllBytes());
+      entry = zin.getNextEntry();
+      Assert.assertEquals("image.png", entry.getName());
+      Assert.assertEquals(ZipEntry.STORED, entry.getMethod());
+      Assert.assertArrayEquals(binary, zin.readAllBytes());
+      entry = zin.getNextEntry();
+      Assert.assertEquals("empty.txt", entry.getName());
+      Assert.assertEquals(0, zin.readAllBytes().length);
+      Assert.assertNull(zin.getNextEntry());
+    }
+
+    //read using central directory
+    Path file = Files.createTempFile("archive", ".zip");
+    try {
+      Files.write(file, bout.toByteArray());
+      try (ZipFile zipFile = new ZipFile(file.toFile())) {
+        Assert.assertEquals(3, zipFile.size());
+        ZipEntry entry = zipFile.getEntry("folder/text.txt");
+        Assert.assertEquals(text.length, entry.getSize());
+        Assert.assertEquals(crc, entry.getCrc());
+        Assert.assertArrayEquals(text, zipFile.getInputStream(entry).readAllBytes());
+        Assert.assertArrayEquals(binary, zipFile.getInputStream(zipFile.getEntry("image.png")).readAllBytes());
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  public void testZip64EntryCount() throws Exception {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    ZipArchiveWriter zip = new ZipArchiveWriter(bout);
+    int entries = 70_000;
+    for (int i = 0; i < entries; i++) {
+      zip.putStoredEntry("e" + i, 0, 0);
+      zip.closeEntry(0, 0);
+    }
+    zip.finish();
+    Path file = Files.createTempFile("archive64", ".zip");
+    try {
+      Files.write(file, bout.toByteArray());
+      try (ZipFile zipFile = new ZipFile(file.toFile())) {
+        Assert.assertEquals(entries, zipFile.size());
+        Assert.assertNotNull(zipFile.getEntry("e69999"));
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test(expected = java.io.IOException.class)
+  public void testStoredEntrySizeMismatch() throws Exception {
+    ZipArchiveWriter zip = new ZipArchiveWriter(new ByteArrayOutputStream());
+    zip.putStoredEntry("file", 10, 0);
+    zip.write(new byte[5], 0, 5);
+    zip.closeEntry(0, 5);
+  }
+
+  private static long crc(byte[] data, int offset, int length) {
+    CRC32 crc = new CRC32();
+    crc.update(data, offset, length);
+    return crc.getValue();
+  }
+}
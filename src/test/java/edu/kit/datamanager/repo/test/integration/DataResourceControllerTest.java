@@ -51,6 +51,7 @@ import edu.kit.datamanager.repo.service.impl.DataResourceService;
 import edu.kit.datamanager.service.IAuditService;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -1701,6 +1702,36 @@ public class DataResourceControllerTest {
                 "Bearer " + adminToken).header(HttpHeaders.ACCEPT, "application/vnd.datamanager.content-information+json")).andDo(print()).andExpect(status().isNotFound());
     }
 
+    @Test
+    public void testDeleteDeduplicatedContentKeepsSharedBlob() throws Exception {
+        DataResource copyResource = DataResource.factoryNewDataResource("dedupCopy");
+        copyResource.setState(DataResource.State.VOLATILE);
+        copyResource.getTitles().add(Title.factoryTitle("Copy", Title.TYPE.OTHER));
+        copyResource.getAcls().add(new AclEntry("admin", PERMISSION.ADMINISTRATE));
+        copyResource = dataResourceDao.save(copyResource);
+        ((DataResourceService) dataResourceService).saveIdentifiers(copyResource);
+
+        ContentInformation cinfo = new ContentInformation();
+        cinfo.setVersioningService("dedup");
+        ObjectMapper mapper = createObjectMapper();
+        for (String resourceId : new String[]{sampleResource.getId(), copyResource.getId()}) {
+            MockMultipartFile fstmp = new MockMultipartFile("file", "shared.txt", "text/plain", "Content shared by two resources.".getBytes(StandardCharsets.UTF_8));
+            MockMultipartFile secmp = new MockMultipartFile("metadata", "metadata.json", "application/json", mapper.writeValueAsBytes(cinfo));
+            this.mockMvc.perform(multipart("/api/v1/dataresources/" + resourceId + "/data/shared.txt").file(fstmp).file(secmp).header(HttpHeaders.AUTHORIZATION,
+                    "Bearer " + adminToken)).andDo(print()).andExpect(status().isCreated());
+        }
+
+        String etag = this.mockMvc.perform(get("/api/v1/dataresources/" + sampleResource.getId() + "/data/shared.txt").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + adminToken).header(HttpHeaders.ACCEPT, "application/vnd.datamanager.content-information+json")).andDo(print()).andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+
+        this.mockMvc.perform(delete("/api/v1/dataresources/" + sampleResource.getId() + "/data/shared.txt").header("If-Match", etag).header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + adminToken)).andDo(print()).andExpect(status().isNoContent());
+
+        //the blob is still referenced by the copy and must not have been removed
+        this.mockMvc.perform(get("/api/v1/dataresources/" + copyResource.getId() + "/data/shared.txt").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + adminToken)).andDo(print()).andExpect(status().isOk()).andExpect(content().string("Content shared by two resources."));
+    }
+
     @Test
     public void testDeleteContentFromInvalidResource() throws Exception {
         this.mockMvc.perform(delete("/api/v1/dataresources/0/data/notExist").header(HttpHeaders.AUTHORIZATION,
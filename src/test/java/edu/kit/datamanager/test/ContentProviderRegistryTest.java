@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.test;
+
+import edu.kit.datamanager.repo.service.IRepoVersioningService;
+import edu.kit.datamanager.repo.service.impl.NoneDataVersioningService;
+import edu.kit.datamanager.repo.service.impl.SimpleDataVersioningService;
+import edu.kit.datamanager.repo.util.ContentProviderRegistry;
+import edu.kit.datamanager.repo.util.VersioningServiceRegistry;
+import edu.kit.datamanager.service.IContentCollectionProvider;
+import edu.kit.datamanager.service.IContentProvider;
+import edu.kit.datamanager.service.impl.FileArchiveContentCollectionProvider;
+import edu.kit.datamanager.service.impl.FileContentProvider;
+import edu.kit.datamanager.service.impl.HttpContentProvider;
+import edu.kit.datamanager.service.impl.TarArchiveContentCollectionProvider;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+/**
+ * Tests for ContentProviderRegistry and VersioningServiceRegistry.
+ */
+public class ContentProviderRegistryTest {
+
+  private FileContentProvider fileProvider;
+  private HttpContentProvider httpProvider;
+  private FileArchiveContentCollectionProvider zipProvider;
+  private TarArchiveContentCollectionProvider tarProvider;
+  private ContentProviderRegistry registry;
+
+  @Before
+  public void setUp() {
+    fileProvider = new FileContentProvider();
+    httpProvider = new HttpContentProvider();
+    zipProvider = new FileArchiveContentCollectionProvider();
+    tarProvider = new TarArchiveContentCollectionProvider();
+    registry = new ContentProviderRegistry(new IContentProvider[]{fileProvider, httpProvider}, new IContentCollectionProvider[]{zipProvider, tarProvider});
+  }
+
+  @Test
+  public void testContentProviderByScheme() {
+    Assert.assertSame(fileProvider, registry.getContentProvider("file"));
+    Assert.assertSame(httpProvider, registry.getContentProvider("http"));
+    Assert.assertSame(httpProvider, registry.getContentProvider("HTTPS"));
+    Assert.assertNull(registry.getContentProvider("ftp"));
+    Assert.assertNull(registry.getContentProvider("custom"));
+    Assert.assertNull(registry.getContentProvider(null));
+  }
+
+  @Test
+  public void testCollectionProviderByMediaType() {
+    Assert.assertEquals(4, registry.getSupportedMediaTypes().size());
+    Assert.assertSame(zipProvider, registry.getCollectionProvider(MediaType.parseMediaType("application/zip")));
+    Assert.assertSame(tarProvider, registry.getCollectionProvider(MediaType.parseMediaType("application/gzip;q=0.5")));
+    Assert.assertNull(registry.getCollectionProvider(MediaType.APPLICATION_JSON));
+  }
+
+  @Test
+  public void testNegotiation() {
+    assertMatch(null, zipProvider, "application/zip");
+    assertMatch("", zipProvider, "application/zip");
+    assertMatch("application/x-tar", tarProvider, "application/x-tar");
+    assertMatch("application/zip;q=0.5, application/gzip", tarProvider, "application/gzip");
+    assertMatch("*/*;q=0.1, application/zstd;q=0.5, application/zip;q=0", tarProvider, "application/zstd");
+    //more specific media ranges override wildcards
+    assertMatch("application/*, application/zip;q=0", tarProvider, "application/x-tar");
+    //typical browser header
+    assertMatch("text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8", zipProvider, "application/zip");
+    Assert.assertNull(registry.negotiate("text/html"));
+    Assert.assertNull(registry.negotiate("application/zip;q=0"));
+  }
+
+  @Test
+  public void testVersioningServiceByName() {
+    IRepoVersioningService simple = new SimpleDataVersioningService();
+    IRepoVersioningService none = new NoneDataVersioningService();
+    VersioningServiceRegistry versioningServices = new VersioningServiceRegistry(new IRepoVersioningService[]{simple, none});
+    Assert.assertSame(simple, versioningServices.get(simple.getServiceName()));
+    Assert.assertSame(none, versioningServices.get(none.getServiceName()));
+    Assert.assertNull(versioningServices.get("unknown"));
+    Assert.assertNull(versioningServices.get(null));
+    Assert.assertTrue(new VersioningServiceRegistry(null).isEmpty());
+  }
+
+  private void assertMatch(String acceptHeader, IContentCollectionProvider provider, String mediaType) {
+    ContentProviderRegistry.Match match = registry.negotiate(acceptHeader);
+    Assert.assertNotNull(match);
+    Assert.assertSame(provider, match.getProvider());
+    Assert.assertEquals(mediaType, match.getMediaType().toString());
+  }
+}
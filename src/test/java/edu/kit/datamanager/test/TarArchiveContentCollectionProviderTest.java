@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.test;
+
+import edu.kit.datamanager.exceptions.CustomInternalServerError;
+import edu.kit.datamanager.service.impl.TarArchiveContentCollectionProvider;
+import java.util.ArrayList;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.UnsupportedMediaTypeStatusException;
+
+/**
+ * Tests for TarArchiveContentCollectionProvider.
+ */
+public class TarArchiveContentCollectionProviderTest{
+
+  @Test
+  public void testCanProvide(){
+    TarArchiveContentCollectionProvider provider = new TarArchiveContentCollectionProvider();
+    Assert.assertTrue(provider.canProvide("file"));
+    Assert.assertFalse(provider.canProvide("http"));
+    Assert.assertFalse(provider.canProvide(null));
+  }
+
+  @Test
+  public void testSupportsMediaType(){
+    TarArchiveContentCollectionProvider provider = new TarArchiveContentCollectionProvider();
+    Assert.assertEquals(3, provider.getSupportedMediaTypes().length);
+    Assert.assertTrue(provider.supportsMediaType(MediaType.parseMediaType("application/x-tar")));
+    Assert.assertTrue(provider.supportsMediaType(MediaType.parseMediaType("application/gzip")));
+    Assert.assertTrue(provider.supportsMediaType(MediaType.parseMediaType("application/zstd")));
+    Assert.assertFalse(provider.supportsMediaType(MediaType.parseMediaType("application/zip")));
+    Assert.assertFalse(provider.supportsMediaType(null));
+  }
+
+  @Test(expected = UnsupportedMediaTypeStatusException.class)
+  public void testProvideInvalidMediaType(){
+    TarArchiveContentCollectionProvider provider = new TarArchiveContentCollectionProvider();
+    provider.provide(null, MediaType.APPLICATION_JSON, null);
+  }
+
+  @Test(expected = CustomInternalServerError.class)
+  public void testProvideWithoutVersioningService(){
+    TarArchiveContentCollectionProvider provider = new TarArchiveContentCollectionProvider();
+    provider.provide(new ArrayList<>(), TarArchiveContentCollectionProvider.TAR_MEDIA_TYPE, null);
+  }
+}